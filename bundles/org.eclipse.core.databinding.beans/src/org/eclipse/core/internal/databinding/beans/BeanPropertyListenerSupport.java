@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2015 IBM Corporation and others.
+ * Copyright (c) 2005, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -11,9 +11,20 @@
  *******************************************************************************/
 package org.eclipse.core.internal.databinding.beans;
 
+import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.core.databinding.beans.BeansObservables;
 import org.eclipse.core.databinding.util.Policy;
@@ -24,10 +35,45 @@ import org.eclipse.core.runtime.Status;
 /**
  * This is a helper that will hook up and listen for
  * <code>PropertyChangeEvent</code> events for a set of target JavaBeans
+ * <p>
+ * Beans offering the unnamed
+ * <code>addPropertyChangeListener(PropertyChangeListener)</code> method get a
+ * single native listener, no matter how many properties of the bean are
+ * observed. It dispatches events by property name to the listeners hooked with
+ * {@link #hookListener(Object, String, PropertyChangeListener)}, and events
+ * without a property name to all of them. Beans which only offer the named
+ * <code>addPropertyChangeListener(String, PropertyChangeListener)</code>
+ * method get one native listener per observed property.
+ * </p>
+ * <p>
+ * Hooked listeners are only referenced weakly, so the caller must keep a
+ * strong reference to them while they are hooked. Listeners which are
+ * collected without having been unhooked are dropped, and the native listener
+ * is removed from the bean once none of its listeners are left.
+ * </p>
  *
  * @since 1.0
  */
 public class BeanPropertyListenerSupport {
+
+	// All beans having a native listener, by identity. The beans are weakly
+	// referenced; a multiplexer does not reference its bean. Each multiplexer
+	// is modified while holding its own monitor.
+	private static final ConcurrentMap<BeanKey, Multiplexer> multiplexers = new ConcurrentHashMap<>();
+
+	private static final ReferenceQueue<Object> collectedBeans = new ReferenceQueue<>();
+
+	private static final AtomicInteger nativeListenerCount = new AtomicInteger();
+
+	private static final AtomicInteger listenerCount = new AtomicInteger();
+
+	private static final ClassValue<NativeMethods> nativeMethods = new ClassValue<NativeMethods>() {
+		@Override
+		protected NativeMethods computeValue(Class<?> type) {
+			return new NativeMethods(type);
+		}
+	};
+
 	/**
 	 * Start listen to target (if it supports the JavaBean property change
 	 * listener pattern)
@@ -41,8 +87,33 @@ public class BeanPropertyListenerSupport {
 		Assert.isNotNull(bean, "Bean cannot be null"); //$NON-NLS-1$
 		Assert.isNotNull(listener, "Listener cannot be null"); //$NON-NLS-1$
 		Assert.isNotNull(propertyName, "Property name cannot be null"); //$NON-NLS-1$
-		processListener(bean, propertyName, listener,
-				"addPropertyChangeListener", "Could not attach listener to ");//$NON-NLS-1$ //$NON-NLS-2$
+
+		expungeCollectedBeans();
+
+		BeanKey key = new BeanKey(bean, null);
+		while (true) {
+			Multiplexer multiplexer = multiplexers.get(key);
+			if (multiplexer == null) {
+				Multiplexer newMultiplexer = new Multiplexer(nativeMethods.get(bean.getClass()));
+				multiplexer = multiplexers.putIfAbsent(new BeanKey(bean, collectedBeans), newMultiplexer);
+				if (multiplexer == null) {
+					multiplexer = newMultiplexer;
+				}
+			}
+			synchronized (multiplexer) {
+				if (multiplexer.disposed) {
+					// removed concurrently, register a new one
+					continue;
+				}
+				if (!multiplexer.hasListeners(propertyName)
+						&& !multiplexer.register(bean, propertyName, "Could not attach listener to ")) { //$NON-NLS-1$
+					multiplexer.disposeIfEmpty(key);
+					return;
+				}
+				multiplexer.add(propertyName, listener);
+				return;
+			}
+		}
 	}
 
 	/**
@@ -58,13 +129,73 @@ public class BeanPropertyListenerSupport {
 		Assert.isNotNull(listener, "Listener cannot be null"); //$NON-NLS-1$
 		Assert.isNotNull(propertyName, "Property name cannot be null"); //$NON-NLS-1$
 
-		processListener(
-				bean,
-				propertyName,
-				listener,
+		BeanKey key = new BeanKey(bean, null);
+		Multiplexer multiplexer = multiplexers.get(key);
+		if (multiplexer != null) {
+			synchronized (multiplexer) {
+				if (!multiplexer.disposed && multiplexer.remove(propertyName, listener)) {
+					multiplexer.unregisterUnused(bean, propertyName);
+					multiplexer.disposeIfEmpty(key);
+					return;
+				}
+			}
+		}
+		// Not hooked through this class, remove it from the bean directly as
+		// before.
+		processListener(bean, propertyName, listener,
 				"removePropertyChangeListener", "Cound not remove listener from "); //$NON-NLS-1$ //$NON-NLS-2$
 	}
 
+	/**
+	 * Returns the number of native listeners currently registered with beans.
+	 * This is one per bean supporting unnamed property change listeners, plus
+	 * the number of observed properties of beans which only support named
+	 * ones.
+	 *
+	 * @return the number of native listeners
+	 */
+	public static int getNativeListenerCount() {
+		expungeCollectedBeans();
+		return nativeListenerCount.get();
+	}
+
+	/**
+	 * Returns the number of listeners hooked through this class which have not
+	 * been unhooked or collected yet.
+	 *
+	 * @return the number of hooked listeners
+	 */
+	public static int getListenerCount() {
+		expungeCollectedBeans();
+		return listenerCount.get();
+	}
+
+	/**
+	 * Returns the number of beans having a native listener registered.
+	 *
+	 * @return the number of observed beans
+	 */
+	public static int getObservedBeanCount() {
+		expungeCollectedBeans();
+		return multiplexers.size();
+	}
+
+	/**
+	 * Forgets the beans which were garbage collected while being observed.
+	 * Their native listeners are gone together with the bean.
+	 */
+	private static void expungeCollectedBeans() {
+		Reference<?> reference;
+		while ((reference = collectedBeans.poll()) != null) {
+			Multiplexer multiplexer = multiplexers.remove(reference);
+			if (multiplexer != null) {
+				synchronized (multiplexer) {
+					multiplexer.forget();
+				}
+			}
+		}
+	}
+
 	/**
 	 * Invokes the method for the provided <code>methodName</code> attempting to
 	 * first use the method with the property name and then the unnamed version.
@@ -105,19 +236,24 @@ public class BeanPropertyListenerSupport {
 		}
 
 		if (method != null) {
-			if (!method.isAccessible()) {
-				method.setAccessible(true);
-			}
-			try {
-				method.invoke(bean, parameters);
-				return true;
-			} catch (IllegalArgumentException e) {
-				log(IStatus.WARNING, message + bean, e);
-			} catch (IllegalAccessException e) {
-				log(IStatus.WARNING, message + bean, e);
-			} catch (InvocationTargetException e) {
-				log(IStatus.WARNING, message + bean, e);
-			}
+			return invoke(method, bean, parameters, message);
+		}
+		return false;
+	}
+
+	private static boolean invoke(Method method, Object bean, Object[] parameters, String message) {
+		if (!method.isAccessible()) {
+			method.setAccessible(true);
+		}
+		try {
+			method.invoke(bean, parameters);
+			return true;
+		} catch (IllegalArgumentException e) {
+			log(IStatus.WARNING, message + bean, e);
+		} catch (IllegalAccessException e) {
+			log(IStatus.WARNING, message + bean, e);
+		} catch (InvocationTargetException e) {
+			log(IStatus.WARNING, message + bean, e);
 		}
 		return false;
 	}
@@ -132,4 +268,318 @@ public class BeanPropertyListenerSupport {
 							message, throwable));
 		}
 	}
+
+	/**
+	 * The listener registration methods of a bean class. The named methods
+	 * are only used if the class does not offer the unnamed ones, so that
+	 * observing many properties of a bean costs a single native listener.
+	 */
+	private static final class NativeMethods {
+		final Method add;
+
+		final Method remove;
+
+		final boolean named;
+
+		final NoSuchMethodException failure;
+
+		NativeMethods(Class<?> type) {
+			Method addMethod = null;
+			Method removeMethod = null;
+			boolean namedMethods = false;
+			NoSuchMethodException exception = null;
+			try {
+				try {
+					addMethod = type.getMethod("addPropertyChangeListener", PropertyChangeListener.class); //$NON-NLS-1$
+					removeMethod = type.getMethod("removePropertyChangeListener", PropertyChangeListener.class); //$NON-NLS-1$
+				} catch (NoSuchMethodException e) {
+					addMethod = type.getMethod("addPropertyChangeListener", String.class, //$NON-NLS-1$
+							PropertyChangeListener.class);
+					removeMethod = type.getMethod("removePropertyChangeListener", String.class, //$NON-NLS-1$
+							PropertyChangeListener.class);
+					namedMethods = true;
+				}
+				if (!addMethod.isAccessible()) {
+					addMethod.setAccessible(true);
+				}
+				if (!removeMethod.isAccessible()) {
+					removeMethod.setAccessible(true);
+				}
+			} catch (SecurityException e) {
+				addMethod = null;
+				removeMethod = null;
+			} catch (NoSuchMethodException e) {
+				addMethod = null;
+				removeMethod = null;
+				exception = e;
+			}
+			this.add = addMethod;
+			this.remove = removeMethod;
+			this.named = namedMethods;
+			this.failure = exception;
+		}
+	}
+
+	/**
+	 * Weak reference to a bean which compares by identity.
+	 */
+	private static final class BeanKey extends WeakReference<Object> {
+		private final int hashCode;
+
+		BeanKey(Object bean, ReferenceQueue<Object> queue) {
+			super(bean, queue);
+			this.hashCode = System.identityHashCode(bean);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof BeanKey)) {
+				return false;
+			}
+			Object bean = get();
+			return bean != null && bean == ((BeanKey) obj).get();
+		}
+	}
+
+	/**
+	 * The native listeners of one bean. Listeners are kept per property name
+	 * in copy-on-write arrays which are only modified while holding the
+	 * monitor of the multiplexer, so events can be dispatched without locking.
+	 * With named registration, used for beans without the unnamed methods,
+	 * every property has its own native listener, which passes all the events
+	 * it receives to the listeners of its property.
+	 */
+	private static final class Multiplexer implements PropertyChangeListener {
+		final NativeMethods methods;
+
+		private volatile Map<String, WeakReference<PropertyChangeListener>[]> listeners = Collections.emptyMap();
+
+		// The native listeners by property, only used with named
+		// registration.
+		private final Map<String, PropertyChangeListener> propertyListeners = new HashMap<>();
+
+		// Native listeners registered with the bean.
+		private int registrations;
+
+		// Whether this multiplexer has been removed from the multiplexers.
+		boolean disposed;
+
+		Multiplexer(NativeMethods methods) {
+			this.methods = methods;
+		}
+
+		/**
+		 * Registers the native listener for the given property, unless an
+		 * unnamed native listener is registered already.
+		 */
+		boolean register(Object bean, String propertyName, String message) {
+			if (methods.add == null) {
+				if (methods.failure != null) {
+					log(IStatus.WARNING, message + bean, methods.failure);
+				}
+				return false;
+			}
+			if (!methods.named) {
+				if (registrations > 0) {
+					return true;
+				}
+				if (!invoke(methods.add, bean, new Object[] { this }, message)) {
+					return false;
+				}
+			} else {
+				PropertyChangeListener propertyListener = new PropertyListener(propertyName);
+				if (!invoke(methods.add, bean, new Object[] { propertyName, propertyListener }, message)) {
+					return false;
+				}
+				propertyListeners.put(propertyName, propertyListener);
+			}
+			registrations++;
+			nativeListenerCount.incrementAndGet();
+			return true;
+		}
+
+		private void unregister(Object bean, String propertyName) {
+			Object[] parameters = propertyName == null ? new Object[] { this }
+					: new Object[] { propertyName, propertyListeners.remove(propertyName) };
+			invoke(methods.remove, bean, parameters, "Cound not remove listener from "); //$NON-NLS-1$
+			registrations--;
+			nativeListenerCount.decrementAndGet();
+		}
+
+		/**
+		 * Removes the native listener for the given property, or for the whole
+		 * bean, once nobody listens to it anymore.
+		 */
+		void unregisterUnused(Object bean, String propertyName) {
+			if (methods.named) {
+				if (!hasListeners(propertyName) && propertyListeners.containsKey(propertyName)) {
+					unregister(bean, propertyName);
+				}
+			} else if (isEmpty() && registrations > 0) {
+				unregister(bean, null);
+			}
+		}
+
+		/**
+		 * Removes this multiplexer from the registry once it has no
+		 * listeners left.
+		 */
+		void disposeIfEmpty(BeanKey key) {
+			if (isEmpty()) {
+				disposed = true;
+				multiplexers.remove(key, this);
+			}
+		}
+
+		/**
+		 * Called for beans which were collected together with the native
+		 * listeners.
+		 */
+		void forget() {
+			disposed = true;
+			nativeListenerCount.addAndGet(-registrations);
+			registrations = 0;
+			propertyListeners.clear();
+			for (WeakReference<PropertyChangeListener>[] references : listeners.values()) {
+				listenerCount.addAndGet(-references.length);
+			}
+			listeners = Collections.emptyMap();
+		}
+
+		boolean isEmpty() {
+			return listeners.isEmpty();
+		}
+
+		boolean hasListeners(String propertyName) {
+			return listeners.containsKey(propertyName);
+		}
+
+		@SuppressWarnings("unchecked")
+		void add(String propertyName, PropertyChangeListener listener) {
+			Map<String, WeakReference<PropertyChangeListener>[]> newListeners = new HashMap<>(listeners);
+			WeakReference<PropertyChangeListener>[] references = newListeners.get(propertyName);
+			WeakReference<PropertyChangeListener>[] newReferences;
+			if (references == null) {
+				newReferences = new WeakReference[1];
+			} else {
+				newReferences = Arrays.copyOf(references, references.length + 1);
+			}
+			newReferences[newReferences.length - 1] = new WeakReference<>(listener);
+			newListeners.put(propertyName, newReferences);
+			listeners = newListeners;
+			listenerCount.incrementAndGet();
+		}
+
+		boolean remove(String propertyName, PropertyChangeListener listener) {
+			WeakReference<PropertyChangeListener>[] references = listeners.get(propertyName);
+			if (references == null) {
+				return false;
+			}
+			for (int i = 0; i < references.length; i++) {
+				if (references[i].get() == listener) {
+					replace(propertyName, references, i);
+					return true;
+				}
+			}
+			return false;
+		}
+
+		/**
+		 * Removes the reference at the given index, and any other cleared
+		 * references of the property.
+		 */
+		@SuppressWarnings("unchecked")
+		private void replace(String propertyName, WeakReference<PropertyChangeListener>[] references, int index) {
+			WeakReference<PropertyChangeListener>[] newReferences = new WeakReference[references.length];
+			int count = 0;
+			for (int i = 0; i < references.length; i++) {
+				if (i != index && references[i].get() != null) {
+					newReferences[count++] = references[i];
+				}
+			}
+			listenerCount.addAndGet(count - references.length);
+			Map<String, WeakReference<PropertyChangeListener>[]> newListeners = new HashMap<>(listeners);
+			if (count == 0) {
+				newListeners.remove(propertyName);
+			} else {
+				newListeners.put(propertyName, Arrays.copyOf(newReferences, count));
+			}
+			listeners = newListeners;
+		}
+
+		@Override
+		public void propertyChange(PropertyChangeEvent evt) {
+			String propertyName = evt.getPropertyName();
+			Map<String, WeakReference<PropertyChangeListener>[]> snapshot = listeners;
+			if (propertyName != null) {
+				dispatch(evt, propertyName, snapshot.get(propertyName));
+			} else {
+				// all properties may have changed
+				for (Map.Entry<String, WeakReference<PropertyChangeListener>[]> entry : snapshot.entrySet()) {
+					dispatch(evt, entry.getKey(), entry.getValue());
+				}
+			}
+		}
+
+		private void dispatch(PropertyChangeEvent evt, String propertyName,
+				WeakReference<PropertyChangeListener>[] references) {
+			if (references == null) {
+				return;
+			}
+			boolean collected = false;
+			for (WeakReference<PropertyChangeListener> reference : references) {
+				PropertyChangeListener listener = reference.get();
+				if (listener != null) {
+					listener.propertyChange(evt);
+				} else {
+					collected = true;
+				}
+			}
+			if (collected) {
+				expunge(evt.getSource(), propertyName);
+			}
+		}
+
+		/**
+		 * Drops the listeners of the given property which were collected
+		 * without having been unhooked.
+		 */
+		private synchronized void expunge(Object bean, String propertyName) {
+			WeakReference<PropertyChangeListener>[] references = listeners.get(propertyName);
+			if (disposed || references == null) {
+				return;
+			}
+			replace(propertyName, references, -1);
+			// the event source is not necessarily the bean
+			BeanKey key = bean == null ? null : new BeanKey(bean, null);
+			if (key != null && multiplexers.get(key) == this) {
+				unregisterUnused(bean, propertyName);
+				disposeIfEmpty(key);
+			}
+		}
+
+		/**
+		 * The native listener of one property, with named registration.
+		 */
+		private final class PropertyListener implements PropertyChangeListener {
+			private final String propertyName;
+
+			PropertyListener(String propertyName) {
+				this.propertyName = propertyName;
+			}
+
+			@Override
+			public void propertyChange(PropertyChangeEvent evt) {
+				dispatch(evt, propertyName, listeners.get(propertyName));
+			}
+		}
+	}
 }
@@ -71,6 +71,17 @@ public abstract class AbstractObservable extends ChangeManager implements IObser
 		fireEvent(new ChangeEvent(this));
 	}
 
+	/**
+	 * Returns whether any {@link IChangeListener} is registered with this
+	 * observable.
+	 *
+	 * @return <code>true</code> if there are change listeners
+	 * @since 1.7
+	 */
+	protected boolean hasChangeListeners() {
+		return hasListeners(ChangeEvent.TYPE);
+	}
+
 	protected void fireStale() {
 		checkRealm();
 		fireEvent(new StaleEvent(this));
@@ -98,6 +98,22 @@ import org.eclipse.core.runtime.ListenerList;
 		return false;
 	}
 
+	/**
+	 * Returns whether there are listeners of the given type. Allows subclasses
+	 * to skip creating events nobody listens to.
+	 *
+	 * @param listenerType
+	 * @return <code>true</code> if at least one listener of the given type is
+	 *         registered
+	 */
+	protected boolean hasListeners(Object listenerType) {
+		ListenerList<IObservablesListener>[] lists = listenerLists;
+		int listenerTypeIndex = findListenerTypeIndex(listenerType);
+		return listenerTypeIndex != -1 && lists != null
+				&& listenerTypeIndex < lists.length
+				&& lists[listenerTypeIndex].size() > 0;
+	}
+
 	private int findListenerTypeIndex(Object listenerType) {
 		if (listenerTypes != null) {
 			for (int i = 0; i < listenerTypes.length; i++) {
@@ -54,6 +54,16 @@ public abstract class ChangeSupport extends ChangeManager {
 	@Override
 	protected abstract void lastListenerRemoved();
 
+	/**
+	 * Returns whether any {@link IChangeListener} is registered.
+	 *
+	 * @return <code>true</code> if there are change listeners
+	 * @since 1.7
+	 */
+	public boolean hasChangeListeners() {
+		return hasListeners(ChangeEvent.TYPE);
+	}
+
 	/**
 	 * @param listener
 	 */
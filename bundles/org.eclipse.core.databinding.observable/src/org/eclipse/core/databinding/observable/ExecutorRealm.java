@@ -0,0 +1,261 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.core.databinding.observable;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.eclipse.core.runtime.Assert;
+
+/**
+ * A {@link Realm} that is backed by a single-threaded executor. All runnables
+ * passed to {@link #asyncExec(Runnable)}, {@link #timerExec(int, Runnable)}
+ * and {@link #syncExec(Runnable)} are executed one after another on the
+ * realm's own thread, which makes it possible to use observables, bindings and
+ * validation pipelines in headless code (servers, services, tests) without an
+ * SWT display.
+ * <p>
+ * The realm thread is created lazily by the {@link ThreadFactory} given at
+ * construction time. Clients running on a Java version that supports virtual
+ * threads may pass a factory creating virtual threads; the realm only relies
+ * on the executor running one task at a time, so the kind of thread does not
+ * matter.
+ * </p>
+ * <p>
+ * The realm must be {@link #dispose() disposed} once it is no longer needed to
+ * release its thread. Runnables scheduled after disposal are silently
+ * discarded.
+ * </p>
+ *
+ * @since 1.7
+ */
+public class ExecutorRealm extends Realm {
+
+	private final ScheduledExecutorService executor;
+
+	private volatile Thread realmThread;
+
+	private volatile boolean disposed;
+
+	/**
+	 * Creates a realm running on a daemon platform thread with the given name.
+	 *
+	 * @param name
+	 *            the name of the realm thread, must not be <code>null</code>
+	 */
+	public ExecutorRealm(final String name) {
+		this(new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread thread = new Thread(r, name);
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		Assert.isNotNull(name, "Thread name cannot be null"); //$NON-NLS-1$
+	}
+
+	/**
+	 * Creates a realm whose single thread is created by the given factory.
+	 *
+	 * @param threadFactory
+	 *            the factory creating the realm thread, must not be
+	 *            <code>null</code>
+	 */
+	public ExecutorRealm(ThreadFactory threadFactory) {
+		Assert.isNotNull(threadFactory, "Thread factory cannot be null"); //$NON-NLS-1$
+		ScheduledThreadPoolExecutor pool = new ScheduledThreadPoolExecutor(1, new RealmThreadFactory(threadFactory));
+		pool.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+		pool.setRemoveOnCancelPolicy(true);
+		this.executor = pool;
+	}
+
+	@Override
+	public boolean isCurrent() {
+		return Thread.currentThread() == realmThread;
+	}
+
+	@Override
+	public void asyncExec(final Runnable runnable) {
+		if (disposed) {
+			return;
+		}
+		try {
+			executor.execute(new Runnable() {
+				@Override
+				public void run() {
+					safeRun(runnable);
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			// disposed concurrently, discard the runnable
+		}
+	}
+
+	@Override
+	public void timerExec(int milliseconds, final Runnable runnable) {
+		if (milliseconds < 0 || disposed) {
+			return;
+		} else if (milliseconds == 0) {
+			asyncExec(runnable);
+			return;
+		}
+		try {
+			executor.schedule(new Runnable() {
+				@Override
+				public void run() {
+					safeRun(runnable);
+				}
+			}, milliseconds, TimeUnit.MILLISECONDS);
+		} catch (RejectedExecutionException e) {
+			// disposed concurrently, discard the runnable
+		}
+	}
+
+	/**
+	 * Runs the given runnable within this realm and blocks until it has
+	 * completed. If the caller is already executing in this realm, the runnable
+	 * is run directly to avoid a deadlock.
+	 * <p>
+	 * Unlike {@link Realm#syncExec(Runnable)}, this method is public so that
+	 * headless clients can create and read observables owned by this realm.
+	 * </p>
+	 *
+	 * @param runnable
+	 *            the runnable to execute
+	 */
+	@Override
+	public void syncExec(Runnable runnable) {
+		if (isCurrent()) {
+			safeRun(runnable);
+			return;
+		}
+		Future<?> future = submit(runnable);
+		if (future == null) {
+			return;
+		}
+		boolean interrupted = false;
+		try {
+			while (true) {
+				try {
+					future.get();
+					return;
+				} catch (InterruptedException e) {
+					interrupted = true;
+				} catch (ExecutionException | CancellationException e) {
+					// failures are handled by safeRun, cancellation by dispose
+					return;
+				}
+			}
+		} finally {
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	/**
+	 * Blocks until all runnables which were scheduled for immediate execution
+	 * before this call have completed, or the given timeout expires.
+	 *
+	 * @param timeout
+	 *            the maximum time to wait
+	 * @param unit
+	 *            the unit of the timeout argument
+	 * @return <code>true</code> if the realm became idle within the timeout,
+	 *         <code>false</code> otherwise
+	 * @throws InterruptedException
+	 *             if the calling thread was interrupted while waiting
+	 */
+	public boolean awaitIdle(long timeout, TimeUnit unit) throws InterruptedException {
+		Assert.isTrue(!isCurrent(), "Cannot wait for the realm from within the realm"); //$NON-NLS-1$
+		Future<?> future = submit(new Runnable() {
+			@Override
+			public void run() {
+				// marker task
+			}
+		});
+		if (future == null) {
+			return false;
+		}
+		try {
+			future.get(timeout, unit);
+			return true;
+		} catch (ExecutionException | CancellationException | TimeoutException e) {
+			return false;
+		}
+	}
+
+	private Future<?> submit(final Runnable runnable) {
+		if (disposed) {
+			return null;
+		}
+		try {
+			return executor.submit(new Runnable() {
+				@Override
+				public void run() {
+					safeRun(runnable);
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Disposes this realm. Pending runnables are discarded, callers blocked in
+	 * {@link #syncExec(Runnable)} are released and the realm thread terminates
+	 * once the runnable it is currently executing has completed.
+	 */
+	public void dispose() {
+		disposed = true;
+		for (Runnable pending : executor.shutdownNow()) {
+			if (pending instanceof Future) {
+				((Future<?>) pending).cancel(false);
+			}
+		}
+	}
+
+	/**
+	 * @return <code>true</code> if this realm has been disposed
+	 */
+	public boolean isDisposed() {
+		return disposed;
+	}
+
+	private final class RealmThreadFactory implements ThreadFactory {
+		private final ThreadFactory delegate;
+
+		RealmThreadFactory(ThreadFactory delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		public Thread newThread(final Runnable r) {
+			Thread thread = delegate.newThread(new Runnable() {
+				@Override
+				public void run() {
+					realmThread = Thread.currentThread();
+					r.run();
+				}
+			});
+			return thread;
+		}
+	}
+}
@@ -25,7 +25,9 @@ import org.eclipse.core.databinding.observable.ChangeSupport;
 import org.eclipse.core.databinding.observable.DisposeEvent;
 import org.eclipse.core.databinding.observable.IChangeListener;
 import org.eclipse.core.databinding.observable.IDisposeListener;
+import org.eclipse.core.databinding.observable.IObservablesListener;
 import org.eclipse.core.databinding.observable.IStaleListener;
+import org.eclipse.core.databinding.observable.ObservableEvent;
 import org.eclipse.core.databinding.observable.ObservableTracker;
 import org.eclipse.core.databinding.observable.Realm;
 import org.eclipse.core.databinding.observable.StaleEvent;
@@ -68,6 +70,11 @@ public abstract class AbstractObservableList<E> extends AbstractList<E>
 		protected boolean hasListeners() {
 			return super.hasListeners();
 		}
+
+		@Override
+		protected boolean hasListeners(Object listenerType) {
+			return super.hasListeners(listenerType);
+		}
 	}
 
 	private final Realm realm;
@@ -102,6 +109,35 @@ public abstract class AbstractObservableList<E> extends AbstractList<E>
 		return !disposed && changeSupport.hasListeners();
 	}
 
+	/*
+	 * The following methods let the primitive lists in this package register
+	 * and fire their own event types through the shared change support.
+	 */
+
+	synchronized void addListener(Object listenerType, IObservablesListener listener) {
+		if (!disposed) {
+			changeSupport.addListener(listenerType, listener);
+		}
+	}
+
+	synchronized void removeListener(Object listenerType, IObservablesListener listener) {
+		if (!disposed) {
+			changeSupport.removeListener(listenerType, listener);
+		}
+	}
+
+	synchronized boolean hasListeners(Object listenerType) {
+		return !disposed && changeSupport.hasListeners(listenerType);
+	}
+
+	synchronized boolean hasChangeListeners() {
+		return !disposed && changeSupport.hasChangeListeners();
+	}
+
+	void fireEvent(ObservableEvent event) {
+		changeSupport.fireEvent(event);
+	}
+
 	@Override
 	public boolean isStale() {
 		getterCalled();
@@ -0,0 +1,67 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.core.databinding.observable.list;
+
+import org.eclipse.core.databinding.observable.IObservablesListener;
+import org.eclipse.core.databinding.observable.ObservableEvent;
+
+/**
+ * List change event describing an incremental change of a
+ * {@link WritableDoubleList}.
+ *
+ * @since 1.7
+ */
+public class DoubleListChangeEvent extends ObservableEvent {
+
+	private static final long serialVersionUID = -3967801363061626916L;
+
+	static final Object TYPE = new Object();
+
+	/**
+	 * Description of the change to the source observable list. Listeners must
+	 * not change this field.
+	 */
+	public DoubleListDiff diff;
+
+	/**
+	 * Creates a new double list change event.
+	 *
+	 * @param source
+	 *            the source observable list
+	 * @param diff
+	 *            the list change
+	 */
+	public DoubleListChangeEvent(WritableDoubleList source, DoubleListDiff diff) {
+		super(source);
+		this.diff = diff;
+	}
+
+	/**
+	 * Returns the observable list from which this event originated.
+	 *
+	 * @return the observable list from which this event originated
+	 */
+	public WritableDoubleList getObservableList() {
+		return (WritableDoubleList) getSource();
+	}
+
+	@Override
+	protected void dispatch(IObservablesListener listener) {
+		((IDoubleListChangeListener) listener).handleDoubleListChange(this);
+	}
+
+	@Override
+	protected Object getListenerType() {
+		return TYPE;
+	}
+
+}
@@ -0,0 +1,35 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.core.databinding.observable.list;
+
+import org.eclipse.core.databinding.observable.IObservablesListener;
+
+/**
+ * Listener for changes to a {@link WritableLongList}.
+ *
+ * @since 1.7
+ */
+@FunctionalInterface
+public interface ILongListChangeListener extends IObservablesListener {
+
+	/**
+	 * Handles a change to a list of <code>long</code> values. The given event
+	 * object must only be used locally in this method because it may be
+	 * reused for other change notifications. The diff object referenced by
+	 * the event is immutable and may be used non-locally.
+	 *
+	 * @param event
+	 *            the event
+	 */
+	void handleLongListChange(LongListChangeEvent event);
+
+}
@@ -0,0 +1,161 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.core.databinding.observable.list;
+
+import java.util.Arrays;
+
+import org.eclipse.core.databinding.observable.Diffs;
+
+/**
+ * Immutable description of a change to a {@link WritableIntList}. Like
+ * {@link ListDiff}, the diff consists of an ordered sequence of additions and
+ * removals, but positions and elements are stored in primitive arrays instead
+ * of {@link ListDiffEntry} objects.
+ *
+ * @since 1.7
+ */
+public final class IntListDiff {
+
+	private final int[] positions;
+
+	private final boolean[] additions;
+
+	private final int[] elements;
+
+	private final int count;
+
+	/**
+	 * Creates a new diff. The arrays are not copied and must not be modified
+	 * after they have been passed to this constructor; only the first
+	 * <code>count</code> entries are used.
+	 *
+	 * @param positions
+	 *            the position of each difference
+	 * @param additions
+	 *            whether each difference is an addition or a removal
+	 * @param elements
+	 *            the element added or removed by each difference
+	 * @param count
+	 *            the number of differences
+	 */
+	IntListDiff(int[] positions, boolean[] additions, int[] elements, int count) {
+		this.positions = positions;
+		this.additions = additions;
+		this.elements = elements;
+		this.count = count;
+	}
+
+	/**
+	 * Creates a diff consisting of one addition or removal.
+	 */
+	static IntListDiff single(int position, boolean addition, int element) {
+		return new IntListDiff(new int[] { position }, new boolean[] { addition }, new int[] { element }, 1);
+	}
+
+	/**
+	 * Creates a diff for a contiguous range of additions or removals starting
+	 * at the given position. The elements array is not copied.
+	 */
+	static IntListDiff range(int position, boolean addition, int[] elements, int count) {
+		int[] positions = new int[count];
+		boolean[] additions = new boolean[count];
+		Arrays.fill(additions, addition);
+		// removals of a range are all reported at the start of the range
+		for (int i = 0; i < count; i++) {
+			positions[i] = addition ? position + i : position;
+		}
+		return new IntListDiff(positions, additions, elements, count);
+	}
+
+	/**
+	 * Returns the number of additions and removals in this diff.
+	 *
+	 * @return the number of differences
+	 */
+	public int getDifferenceCount() {
+		return count;
+	}
+
+	/**
+	 * @param index
+	 *            the index of the difference
+	 * @return the position in the list at which the difference applies, at the
+	 *         time the difference is applied
+	 */
+	public int getPosition(int index) {
+		checkIndex(index);
+		return positions[index];
+	}
+
+	/**
+	 * @param index
+	 *            the index of the difference
+	 * @return <code>true</code> if the difference is an addition,
+	 *         <code>false</code> if it is a removal
+	 */
+	public boolean isAddition(int index) {
+		checkIndex(index);
+		return additions[index];
+	}
+
+	/**
+	 * @param index
+	 *            the index of the difference
+	 * @return the element that was added or removed
+	 */
+	public int getElement(int index) {
+		checkIndex(index);
+		return elements[index];
+	}
+
+	/**
+	 * Returns whether this diff is empty.
+	 *
+	 * @return <code>true</code> if this diff contains no differences
+	 */
+	public boolean isEmpty() {
+		return count == 0;
+	}
+
+	/**
+	 * Creates the equivalent boxed {@link ListDiff}.
+	 *
+	 * @return a list diff with one entry per difference of this diff
+	 */
+	public ListDiff<Integer> toListDiff() {
+		@SuppressWarnings("unchecked")
+		ListDiffEntry<Integer>[] entries = new ListDiffEntry[count];
+		for (int i = 0; i < count; i++) {
+			entries[i] = Diffs.createListDiffEntry(positions[i], additions[i], Integer.valueOf(elements[i]));
+		}
+		return Diffs.createListDiff(entries);
+	}
+
+	private void checkIndex(int index) {
+		if (index < 0 || index >= count) {
+			throw new IndexOutOfBoundsException("index: " + index + ", count: " + count); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder buffer = new StringBuilder();
+		buffer.append(getClass().getName()).append("{"); //$NON-NLS-1$
+		for (int i = 0; i < count; i++) {
+			if (i > 0) {
+				buffer.append(", "); //$NON-NLS-1$
+			}
+			buffer.append(additions[i] ? "+" : "-").append(positions[i]).append(':').append(elements[i]); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		return buffer.append('}').toString();
+	}
+}
@@ -0,0 +1,429 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.core.databinding.observable.list;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import org.eclipse.core.databinding.observable.ChangeEvent;
+import org.eclipse.core.databinding.observable.ObservableTracker;
+import org.eclipse.core.databinding.observable.Realm;
+import org.eclipse.core.runtime.Assert;
+
+/**
+ * Mutable observable list of <code>double</code> values backed by a primitive
+ * array. Elements can be read and written with {@link #getDouble(int)},
+ * {@link #setDouble(int, double)}, {@link #addDouble(double)} and friends, and changes
+ * are reported to {@link IDoubleListChangeListener}s as {@link DoubleListDiff}s,
+ * without boxing.
+ * <p>
+ * The list is also available as an <code>IObservableList&lt;Double&gt;</code>
+ * so it can be used with bindings and viewers. Boxed {@link ListChangeEvent}s
+ * and {@link ChangeEvent}s are only created while such listeners are
+ * registered, and no diff is created at all while the list has no listeners.
+ * <code>null</code> elements are not permitted.
+ * </p>
+ * <p>
+ * This class is thread safe. All state accessing methods must be invoked from
+ * the {@link Realm#isCurrent() current realm}. Methods for adding and removing
+ * listeners may be invoked from any thread.
+ * </p>
+ *
+ * @since 1.7
+ */
+public class WritableDoubleList extends AbstractObservableList<Double> {
+
+	private static final double[] EMPTY = new double[0];
+
+	private double[] elements;
+
+	private int size;
+
+	/**
+	 * Creates an empty list in the default realm.
+	 */
+	public WritableDoubleList() {
+		this(Realm.getDefault());
+	}
+
+	/**
+	 * Creates an empty list in the given realm.
+	 *
+	 * @param realm
+	 *            the realm of the list
+	 */
+	public WritableDoubleList(Realm realm) {
+		this(realm, EMPTY);
+	}
+
+	/**
+	 * Creates a list in the given realm containing a copy of the given values.
+	 *
+	 * @param realm
+	 *            the realm of the list
+	 * @param initialValues
+	 *            the initial elements
+	 */
+	public WritableDoubleList(Realm realm, double[] initialValues) {
+		super(realm);
+		this.elements = initialValues.length == 0 ? EMPTY : initialValues.clone();
+		this.size = initialValues.length;
+	}
+
+	/**
+	 * @param listener
+	 *            the listener to add
+	 */
+	public void addDoubleListChangeListener(IDoubleListChangeListener listener) {
+		addListener(DoubleListChangeEvent.TYPE, listener);
+	}
+
+	/**
+	 * @param listener
+	 *            the listener to remove
+	 */
+	public void removeDoubleListChangeListener(IDoubleListChangeListener listener) {
+		removeListener(DoubleListChangeEvent.TYPE, listener);
+	}
+
+	@Override
+	protected int doGetSize() {
+		return size;
+	}
+
+	/**
+	 * Returns the element at the given position without boxing.
+	 *
+	 * @param index
+	 *            the position of the element
+	 * @return the element
+	 */
+	public double getDouble(int index) {
+		ObservableTracker.getterCalled(this);
+		rangeCheck(index, size);
+		return elements[index];
+	}
+
+	@Override
+	public Double get(int index) {
+		return Double.valueOf(getDouble(index));
+	}
+
+	/**
+	 * Returns the position of the first occurrence of the given value.
+	 *
+	 * @param value
+	 *            the value to search
+	 * @return the position of the value, or <code>-1</code> if this list does
+	 *         not contain it
+	 */
+	public int indexOfDouble(double value) {
+		ObservableTracker.getterCalled(this);
+		for (int i = 0; i < size; i++) {
+			if (Double.compare(elements[i], value) == 0) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public int indexOf(Object o) {
+		return o instanceof Double ? indexOfDouble(((Double) o).doubleValue()) : -1;
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		return indexOf(o) != -1;
+	}
+
+	/**
+	 * Returns a copy of the elements of this list.
+	 *
+	 * @return a new array containing all elements
+	 */
+	public double[] toDoubleArray() {
+		ObservableTracker.getterCalled(this);
+		return Arrays.copyOf(elements, size);
+	}
+
+	/**
+	 * Replaces the element at the given position.
+	 *
+	 * @param index
+	 *            the position of the element
+	 * @param value
+	 *            the new element
+	 * @return the element previously at the given position
+	 */
+	public double setDouble(int index, double value) {
+		checkRealm();
+		rangeCheck(index, size);
+		double oldValue = elements[index];
+		elements[index] = value;
+		if (Double.compare(oldValue, value) != 0 && hasListeners()) {
+			fireDoubleListChange(new DoubleListDiff(new int[] { index, index }, new boolean[] { false, true },
+					new double[] { oldValue, value }, 2));
+		}
+		return oldValue;
+	}
+
+	@Override
+	public Double set(int index, Double element) {
+		return Double.valueOf(setDouble(index, unbox(element)));
+	}
+
+	/**
+	 * Appends the given value to the end of this list.
+	 *
+	 * @param value
+	 *            the value to add
+	 */
+	public void addDouble(double value) {
+		addDouble(size, value);
+	}
+
+	/**
+	 * Inserts the given value at the given position.
+	 *
+	 * @param index
+	 *            the position at which to insert
+	 * @param value
+	 *            the value to add
+	 */
+	public void addDouble(int index, double value) {
+		checkRealm();
+		rangeCheck(index, size + 1);
+		ensureCapacity(size + 1);
+		System.arraycopy(elements, index, elements, index + 1, size - index);
+		elements[index] = value;
+		size++;
+		if (hasListeners()) {
+			fireDoubleListChange(DoubleListDiff.single(index, true, value));
+		}
+	}
+
+	@Override
+	public boolean add(Double element) {
+		addDouble(size, unbox(element));
+		return true;
+	}
+
+	@Override
+	public void add(int index, Double element) {
+		addDouble(index, unbox(element));
+	}
+
+	/**
+	 * Inserts all given values at the given position, reporting them in a
+	 * single change event.
+	 *
+	 * @param index
+	 *            the position at which to insert
+	 * @param values
+	 *            the values to add
+	 */
+	public void addAllDoubles(int index, double[] values) {
+		checkRealm();
+		rangeCheck(index, size + 1);
+		int count = values.length;
+		if (count == 0) {
+			return;
+		}
+		ensureCapacity(size + count);
+		System.arraycopy(elements, index, elements, index + count, size - index);
+		System.arraycopy(values, 0, elements, index, count);
+		size += count;
+		if (hasListeners()) {
+			fireDoubleListChange(DoubleListDiff.range(index, true, values.clone(), count));
+		}
+	}
+
+	/**
+	 * Appends all given values, reporting them in a single change event.
+	 *
+	 * @param values
+	 *            the values to add
+	 */
+	public void addAllDoubles(double[] values) {
+		addAllDoubles(size, values);
+	}
+
+	@Override
+	public boolean addAll(Collection<? extends Double> c) {
+		return addAll(size, c);
+	}
+
+	@Override
+	public boolean addAll(int index, Collection<? extends Double> c) {
+		double[] values = new double[c.size()];
+		int i = 0;
+		for (Double element : c) {
+			values[i++] = unbox(element);
+		}
+		addAllDoubles(index, values);
+		return values.length > 0;
+	}
+
+	/**
+	 * Removes the element at the given position.
+	 *
+	 * @param index
+	 *            the position of the element
+	 * @return the removed element
+	 */
+	public double removeDoubleAt(int index) {
+		checkRealm();
+		rangeCheck(index, size);
+		double oldValue = elements[index];
+		System.arraycopy(elements, index + 1, elements, index, size - index - 1);
+		size--;
+		if (hasListeners()) {
+			fireDoubleListChange(DoubleListDiff.single(index, false, oldValue));
+		}
+		return oldValue;
+	}
+
+	@Override
+	public Double remove(int index) {
+		return Double.valueOf(removeDoubleAt(index));
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		int index = indexOf(o);
+		if (index == -1) {
+			return false;
+		}
+		removeDoubleAt(index);
+		return true;
+	}
+
+	@Override
+	public boolean removeAll(Collection<?> c) {
+		return retain(c, false);
+	}
+
+	@Override
+	public boolean retainAll(Collection<?> c) {
+		return retain(c, true);
+	}
+
+	private boolean retain(Collection<?> c, boolean retain) {
+		checkRealm();
+		boolean fire = hasListeners();
+		double[] removed = fire ? new double[size] : null;
+		int[] removedPositions = fire ? new int[size] : null;
+		int removedCount = 0;
+		int newSize = 0;
+		for (int i = 0; i < size; i++) {
+			double element = elements[i];
+			if (c.contains(Double.valueOf(element)) == retain) {
+				elements[newSize++] = element;
+			} else if (fire) {
+				// position at the time the removal is applied
+				removedPositions[removedCount] = newSize;
+				removed[removedCount++] = element;
+			}
+		}
+		if (newSize == size) {
+			return false;
+		}
+		size = newSize;
+		if (fire) {
+			fireDoubleListChange(
+					new DoubleListDiff(removedPositions, new boolean[removedCount], removed, removedCount));
+		}
+		return true;
+	}
+
+	@Override
+	public Double move(int oldIndex, int newIndex) {
+		checkRealm();
+		rangeCheck(oldIndex, size);
+		rangeCheck(newIndex, size);
+		double element = elements[oldIndex];
+		if (oldIndex == newIndex) {
+			return Double.valueOf(element);
+		}
+		if (oldIndex < newIndex) {
+			System.arraycopy(elements, oldIndex + 1, elements, oldIndex, newIndex - oldIndex);
+		} else {
+			System.arraycopy(elements, newIndex, elements, newIndex + 1, oldIndex - newIndex);
+		}
+		elements[newIndex] = element;
+		if (hasListeners()) {
+			fireDoubleListChange(new DoubleListDiff(new int[] { oldIndex, newIndex }, new boolean[] { false, true },
+					new double[] { element, element }, 2));
+		}
+		return Double.valueOf(element);
+	}
+
+	@Override
+	public void clear() {
+		checkRealm();
+		if (size == 0) {
+			return;
+		}
+		double[] oldElements = elements;
+		int oldSize = size;
+		elements = EMPTY;
+		size = 0;
+		if (hasListeners()) {
+			fireDoubleListChange(DoubleListDiff.range(0, false, oldElements, oldSize));
+		}
+	}
+
+	@Override
+	public Object getElementType() {
+		return Double.TYPE;
+	}
+
+	/**
+	 * Notifies the listeners of this list about the given change. Boxed
+	 * events are only created for listeners of the generic list API.
+	 *
+	 * @param diff
+	 *            the change
+	 */
+	protected void fireDoubleListChange(DoubleListDiff diff) {
+		checkRealm();
+		// fire general change event first
+		if (hasChangeListeners()) {
+			fireEvent(new ChangeEvent(this));
+		}
+		if (hasListeners(DoubleListChangeEvent.TYPE)) {
+			fireEvent(new DoubleListChangeEvent(this, diff));
+		}
+		if (hasListeners(ListChangeEvent.TYPE)) {
+			fireEvent(new ListChangeEvent<>(this, diff.toListDiff()));
+		}
+	}
+
+	private void ensureCapacity(int minCapacity) {
+		if (minCapacity > elements.length) {
+			int newCapacity = Math.max(minCapacity, Math.max(10, elements.length + (elements.length >> 1)));
+			elements = Arrays.copyOf(elements, newCapacity);
+		}
+	}
+
+	private static double unbox(Double element) {
+		Assert.isLegal(element != null, "Element cannot be null"); //$NON-NLS-1$
+		return element.doubleValue();
+	}
+
+	private void rangeCheck(int index, int limit) {
+		if (index < 0 || index >= limit) {
+			throw new IndexOutOfBoundsException("index: " + index + ", size: " + size); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+	}
+}
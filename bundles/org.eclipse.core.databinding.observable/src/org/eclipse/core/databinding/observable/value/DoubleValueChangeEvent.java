@@ -0,0 +1,85 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.core.databinding.observable.value;
+
+import org.eclipse.core.databinding.observable.Diffs;
+import org.eclipse.core.databinding.observable.IObservablesListener;
+import org.eclipse.core.databinding.observable.ObservableEvent;
+
+/**
+ * Value change event describing a change of a {@link WritableDoubleValue}. The
+ * old and new values are kept as primitives; {@link #toValueDiff()} creates
+ * the equivalent boxed diff when needed.
+ *
+ * @since 1.7
+ */
+public class DoubleValueChangeEvent extends ObservableEvent {
+
+	private static final long serialVersionUID = -6203947215283961730L;
+
+	static final Object TYPE = new Object();
+
+	/**
+	 * The value before the change. Listeners must not change this field.
+	 */
+	public double oldValue;
+
+	/**
+	 * The value after the change. Listeners must not change this field.
+	 */
+	public double newValue;
+
+	/**
+	 * Creates a new double value change event.
+	 *
+	 * @param source
+	 *            the source observable value
+	 * @param oldValue
+	 *            the value before the change
+	 * @param newValue
+	 *            the value after the change
+	 */
+	public DoubleValueChangeEvent(WritableDoubleValue source, double oldValue, double newValue) {
+		super(source);
+		this.oldValue = oldValue;
+		this.newValue = newValue;
+	}
+
+	/**
+	 * Returns the observable value from which this event originated.
+	 *
+	 * @return the observable value from which this event originated
+	 */
+	public WritableDoubleValue getObservableValue() {
+		return (WritableDoubleValue) getSource();
+	}
+
+	/**
+	 * Returns a boxed diff describing this change.
+	 *
+	 * @return a value diff from the old to the new value
+	 */
+	public ValueDiff<Double> toValueDiff() {
+		return Diffs.createValueDiff(Double.valueOf(oldValue), Double.valueOf(newValue));
+	}
+
+	@Override
+	protected void dispatch(IObservablesListener listener) {
+		((IDoubleValueChangeListener) listener).handleDoubleValueChange(this);
+	}
+
+	@Override
+	protected Object getListenerType() {
+		return TYPE;
+	}
+
+}
@@ -0,0 +1,35 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.core.databinding.observable.value;
+
+import org.eclipse.core.databinding.observable.IObservablesListener;
+
+/**
+ * Listener for changes to {@link WritableLongValue}s, receiving the old and
+ * new value without boxing.
+ *
+ * @since 1.7
+ */
+@FunctionalInterface
+public interface ILongValueChangeListener extends IObservablesListener {
+
+	/**
+	 * Handles a change to a long value. The given event object must only be
+	 * used locally in this method because it may be reused for other change
+	 * notifications.
+	 *
+	 * @param event
+	 *            the event
+	 */
+	public void handleLongValueChange(LongValueChangeEvent event);
+
+}
@@ -0,0 +1,85 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.core.databinding.observable.value;
+
+import org.eclipse.core.databinding.observable.Diffs;
+import org.eclipse.core.databinding.observable.IObservablesListener;
+import org.eclipse.core.databinding.observable.ObservableEvent;
+
+/**
+ * Value change event describing a change of a {@link WritableLongValue}. The
+ * old and new values are kept as primitives; {@link #toValueDiff()} creates
+ * the equivalent boxed diff when needed.
+ *
+ * @since 1.7
+ */
+public class LongValueChangeEvent extends ObservableEvent {
+
+	private static final long serialVersionUID = 4871264030953168292L;
+
+	static final Object TYPE = new Object();
+
+	/**
+	 * The value before the change. Listeners must not change this field.
+	 */
+	public long oldValue;
+
+	/**
+	 * The value after the change. Listeners must not change this field.
+	 */
+	public long newValue;
+
+	/**
+	 * Creates a new long value change event.
+	 *
+	 * @param source
+	 *            the source observable value
+	 * @param oldValue
+	 *            the value before the change
+	 * @param newValue
+	 *            the value after the change
+	 */
+	public LongValueChangeEvent(WritableLongValue source, long oldValue, long newValue) {
+		super(source);
+		this.oldValue = oldValue;
+		this.newValue = newValue;
+	}
+
+	/**
+	 * Returns the observable value from which this event originated.
+	 *
+	 * @return the observable value from which this event originated
+	 */
+	public WritableLongValue getObservableValue() {
+		return (WritableLongValue) getSource();
+	}
+
+	/**
+	 * Returns a boxed diff describing this change.
+	 *
+	 * @return a value diff from the old to the new value
+	 */
+	public ValueDiff<Long> toValueDiff() {
+		return Diffs.createValueDiff(Long.valueOf(oldValue), Long.valueOf(newValue));
+	}
+
+	@Override
+	protected void dispatch(IObservablesListener listener) {
+		((ILongValueChangeListener) listener).handleLongValueChange(this);
+	}
+
+	@Override
+	protected Object getListenerType() {
+		return TYPE;
+	}
+
+}
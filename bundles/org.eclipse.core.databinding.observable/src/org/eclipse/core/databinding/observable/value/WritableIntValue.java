@@ -0,0 +1,149 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.core.databinding.observable.value;
+
+import org.eclipse.core.databinding.observable.ChangeEvent;
+import org.eclipse.core.databinding.observable.Diffs;
+import org.eclipse.core.databinding.observable.ObservableTracker;
+import org.eclipse.core.databinding.observable.Realm;
+import org.eclipse.core.runtime.Assert;
+
+/**
+ * Mutable (writable) implementation of {@link IObservableValue} holding an
+ * <code>int</code>. The value can be read and written with
+ * {@link #getIntValue()} and {@link #setIntValue(int)}, and changes are
+ * reported to {@link IIntValueChangeListener}s, without boxing.
+ * <p>
+ * The value is also available as an <code>IObservableValue&lt;Integer&gt;</code>
+ * so it can be used with bindings, computed values and other existing
+ * observables. Boxed {@link ValueChangeEvent}s and {@link ChangeEvent}s are
+ * only created while such listeners are registered.
+ * </p>
+ * <p>
+ * This class is thread safe. All state accessing methods must be invoked from
+ * the {@link Realm#isCurrent() current realm}. Methods for adding and removing
+ * listeners may be invoked from any thread.
+ * </p>
+ *
+ * @since 1.7
+ */
+public class WritableIntValue extends AbstractObservableValue<Integer> {
+
+	private int value;
+
+	/**
+	 * Constructs a new instance with the default realm and a value of
+	 * <code>0</code>.
+	 */
+	public WritableIntValue() {
+		this(Realm.getDefault(), 0);
+	}
+
+	/**
+	 * Constructs a new instance with the default realm.
+	 *
+	 * @param initialValue
+	 *            the initial value
+	 */
+	public WritableIntValue(int initialValue) {
+		this(Realm.getDefault(), initialValue);
+	}
+
+	/**
+	 * Constructs a new instance.
+	 *
+	 * @param realm
+	 *            the realm of the observable
+	 * @param initialValue
+	 *            the initial value
+	 */
+	public WritableIntValue(Realm realm, int initialValue) {
+		super(realm);
+		this.value = initialValue;
+	}
+
+	/**
+	 * Returns the current value without boxing.
+	 *
+	 * @return the current value
+	 */
+	public int getIntValue() {
+		ObservableTracker.getterCalled(this);
+		return value;
+	}
+
+	/**
+	 * Sets the current value and notifies listeners if it changed.
+	 *
+	 * @param newValue
+	 *            the new value
+	 */
+	public void setIntValue(int newValue) {
+		checkRealm();
+		int oldValue = value;
+		if (oldValue != newValue) {
+			value = newValue;
+			fireIntValueChange(oldValue, newValue);
+		}
+	}
+
+	/**
+	 * @param listener
+	 *            the listener to add
+	 */
+	public synchronized void addIntValueChangeListener(IIntValueChangeListener listener) {
+		addListener(IntValueChangeEvent.TYPE, listener);
+	}
+
+	/**
+	 * @param listener
+	 *            the listener to remove
+	 */
+	public synchronized void removeIntValueChangeListener(IIntValueChangeListener listener) {
+		removeListener(IntValueChangeEvent.TYPE, listener);
+	}
+
+	@Override
+	protected Integer doGetValue() {
+		return Integer.valueOf(value);
+	}
+
+	/**
+	 * @throws IllegalArgumentException
+	 *             if the given value is <code>null</code>
+	 */
+	@Override
+	protected void doSetValue(Integer value) {
+		Assert.isLegal(value != null, "Value cannot be null"); //$NON-NLS-1$
+		setIntValue(value.intValue());
+	}
+
+	@Override
+	public Object getValueType() {
+		return Integer.TYPE;
+	}
+
+	private void fireIntValueChange(int oldValue, int newValue) {
+		// fire general change event first
+		if (hasChangeListeners()) {
+			fireEvent(new ChangeEvent(this));
+		}
+		if (hasListeners(IntValueChangeEvent.TYPE)) {
+			fireEvent(new IntValueChangeEvent(this, oldValue, newValue));
+		}
+		// boxed events only for listeners of the generic value API
+		if (hasListeners(ValueChangeEvent.TYPE)) {
+			fireEvent(new ValueChangeEvent<>(this,
+					Diffs.createValueDiff(Integer.valueOf(oldValue), Integer.valueOf(newValue))));
+		}
+	}
+}
@@ -0,0 +1,149 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.core.databinding.observable.value;
+
+import org.eclipse.core.databinding.observable.ChangeEvent;
+import org.eclipse.core.databinding.observable.Diffs;
+import org.eclipse.core.databinding.observable.ObservableTracker;
+import org.eclipse.core.databinding.observable.Realm;
+import org.eclipse.core.runtime.Assert;
+
+/**
+ * Mutable (writable) implementation of {@link IObservableValue} holding a
+ * <code>long</code>. The value can be read and written with
+ * {@link #getLongValue()} and {@link #setLongValue(long)}, and changes are
+ * reported to {@link ILongValueChangeListener}s, without boxing.
+ * <p>
+ * The value is also available as an <code>IObservableValue&lt;Long&gt;</code>
+ * so it can be used with bindings, computed values and other existing
+ * observables. Boxed {@link ValueChangeEvent}s and {@link ChangeEvent}s are
+ * only created while such listeners are registered.
+ * </p>
+ * <p>
+ * This class is thread safe. All state accessing methods must be invoked from
+ * the {@link Realm#isCurrent() current realm}. Methods for adding and removing
+ * listeners may be invoked from any thread.
+ * </p>
+ *
+ * @since 1.7
+ */
+public class WritableLongValue extends AbstractObservableValue<Long> {
+
+	private long value;
+
+	/**
+	 * Constructs a new instance with the default realm and a value of
+	 * <code>0</code>.
+	 */
+	public WritableLongValue() {
+		this(Realm.getDefault(), 0);
+	}
+
+	/**
+	 * Constructs a new instance with the default realm.
+	 *
+	 * @param initialValue
+	 *            the initial value
+	 */
+	public WritableLongValue(long initialValue) {
+		this(Realm.getDefault(), initialValue);
+	}
+
+	/**
+	 * Constructs a new instance.
+	 *
+	 * @param realm
+	 *            the realm of the observable
+	 * @param initialValue
+	 *            the initial value
+	 */
+	public WritableLongValue(Realm realm, long initialValue) {
+		super(realm);
+		this.value = initialValue;
+	}
+
+	/**
+	 * Returns the current value without boxing.
+	 *
+	 * @return the current value
+	 */
+	public long getLongValue() {
+		ObservableTracker.getterCalled(this);
+		return value;
+	}
+
+	/**
+	 * Sets the current value and notifies listeners if it changed.
+	 *
+	 * @param newValue
+	 *            the new value
+	 */
+	public void setLongValue(long newValue) {
+		checkRealm();
+		long oldValue = value;
+		if (oldValue != newValue) {
+			value = newValue;
+			fireLongValueChange(oldValue, newValue);
+		}
+	}
+
+	/**
+	 * @param listener
+	 *            the listener to add
+	 */
+	public synchronized void addLongValueChangeListener(ILongValueChangeListener listener) {
+		addListener(LongValueChangeEvent.TYPE, listener);
+	}
+
+	/**
+	 * @param listener
+	 *            the listener to remove
+	 */
+	public synchronized void removeLongValueChangeListener(ILongValueChangeListener listener) {
+		removeListener(LongValueChangeEvent.TYPE, listener);
+	}
+
+	@Override
+	protected Long doGetValue() {
+		return Long.valueOf(value);
+	}
+
+	/**
+	 * @throws IllegalArgumentException
+	 *             if the given value is <code>null</code>
+	 */
+	@Override
+	protected void doSetValue(Long value) {
+		Assert.isLegal(value != null, "Value cannot be null"); //$NON-NLS-1$
+		setLongValue(value.longValue());
+	}
+
+	@Override
+	public Object getValueType() {
+		return Long.TYPE;
+	}
+
+	private void fireLongValueChange(long oldValue, long newValue) {
+		// fire general change event first
+		if (hasChangeListeners()) {
+			fireEvent(new ChangeEvent(this));
+		}
+		if (hasListeners(LongValueChangeEvent.TYPE)) {
+			fireEvent(new LongValueChangeEvent(this, oldValue, newValue));
+		}
+		// boxed events only for listeners of the generic value API
+		if (hasListeners(ValueChangeEvent.TYPE)) {
+			fireEvent(new ValueChangeEvent<>(this,
+					Diffs.createValueDiff(Long.valueOf(oldValue), Long.valueOf(newValue))));
+		}
+	}
+}
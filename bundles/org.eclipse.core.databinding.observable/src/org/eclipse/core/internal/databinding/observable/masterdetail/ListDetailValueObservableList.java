@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2015 Ovidio Mallo and others.
+ * Copyright (c) 2010, 2018 Ovidio Mallo and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -13,9 +13,8 @@
 package org.eclipse.core.internal.databinding.observable.masterdetail;
 
 import java.util.ArrayList;
-import java.util.BitSet;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.List;
 import java.util.RandomAccess;
 
@@ -41,6 +40,18 @@ import org.eclipse.core.internal.databinding.identity.IdentityMap;
 import org.eclipse.core.internal.databinding.identity.IdentitySet;
 
 /**
+ * A list whose elements are the values of detail observables of the elements
+ * of a master list.
+ * <p>
+ * Detail observables are created lazily: as long as this list has no
+ * listeners, a detail observable is only created for a master element whose
+ * value is actually read or written. Once listeners are attached, the detail
+ * observables of all master elements are created so that their changes can be
+ * reported. All detail observables share one value change listener, which
+ * finds the affected positions through an index that is only rebuilt after
+ * the master list has changed.
+ * </p>
+ *
  * @param <M>
  *            type of the master observables in the master list
  * @param <E>
@@ -56,13 +67,20 @@ public class ListDetailValueObservableList<M, E> extends
 
 	private Object detailType;
 
-	// The list of detail observables.
-	private ArrayList<IObservableValue<E>> detailList;
+	// The detail entries, in the order of the master list. Duplicate master
+	// elements share the same entry.
+	private ArrayList<DetailEntry<M, E>> detailList;
 
 	// Maps every master to a DetailEntry containing the detail observable. This
 	// map is used to avoid that multiple detail observables are created for the
 	// same master.
-	private IdentityMap<M, DetailEntry<E>> masterDetailMap = new IdentityMap<>();
+	private IdentityMap<M, DetailEntry<M, E>> masterDetailMap = new IdentityMap<>();
+
+	// Maps every detail observable created so far back to its entry.
+	private IdentityMap<IObservable, DetailEntry<M, E>> detailEntryMap = new IdentityMap<>();
+
+	// Whether the positions recorded in the entries match the detail list.
+	private boolean positionsValid;
 
 	private IdentitySet<IObservable> staleDetailObservables = new IdentitySet<>();
 
@@ -114,7 +132,7 @@ public class ListDetailValueObservableList<M, E> extends
 		this.masterList = masterList;
 		this.detailFactory = detailFactory;
 		this.detailType = detailType;
-		this.detailList = new ArrayList<>();
+		this.detailList = new ArrayList<>(masterList.size());
 
 		// Add change/stale/dispose listeners on the master list.
 		masterList.addListChangeListener(masterListListener);
@@ -126,19 +144,27 @@ public class ListDetailValueObservableList<M, E> extends
 			}
 		});
 
-		List<M> emptyList = Collections.emptyList();
-		ListDiff<M> initMasterDiff = Diffs.computeListDiff(emptyList, masterList);
-		handleMasterListChange(initMasterDiff);
+		// Nobody can listen yet, so the initial entries are added directly
+		// instead of going through a diff.
+		ObservableTracker.setIgnore(true);
+		try {
+			int index = 0;
+			for (M masterElement : masterList) {
+				addDetailEntry(masterElement, index++);
+			}
+		} finally {
+			ObservableTracker.setIgnore(false);
+		}
 	}
 
 	@Override
 	protected synchronized void firstListenerAdded() {
-		for (int i = 0; i < detailList.size(); i++) {
-			IObservableValue<E> detail = detailList.get(i);
-			detail.addValueChangeListener(detailValueListener);
-			detail.addStaleListener(detailStaleListener);
-			if (detail.isStale()) {
-				staleDetailObservables.add(detail);
+		for (DetailEntry<M, E> entry : masterDetailMap.values()) {
+			if (entry.detailObservable == null) {
+				// hooked on creation
+				getDetailObservable(entry);
+			} else {
+				hookDetailObservable(entry.detailObservable);
 			}
 		}
 	}
@@ -149,39 +175,42 @@ public class ListDetailValueObservableList<M, E> extends
 			return;
 		}
 
-		for (int i = 0; i < detailList.size(); i++) {
-			IObservableValue<E> detail = detailList.get(i);
-			detail.removeValueChangeListener(detailValueListener);
-			detail.removeStaleListener(detailStaleListener);
+		for (DetailEntry<M, E> entry : masterDetailMap.values()) {
+			IObservableValue<E> detail = entry.detailObservable;
+			if (detail != null) {
+				detail.removeValueChangeListener(detailValueListener);
+				detail.removeStaleListener(detailStaleListener);
+			}
 		}
 		staleDetailObservables.clear();
 	}
 
 	private void handleMasterListChange(ListDiff<? extends M> masterListDiff) {
-		boolean wasStale = isStale();
-
 		boolean hasListeners = hasListeners();
+		boolean wasStale = hasListeners && isStale();
 		ListDiffEntry<? extends M>[] masterEntries = masterListDiff.getDifferences();
-		List<ListDiffEntry<E>> detailEntries = new ArrayList<>(masterEntries.length);
+		List<ListDiffEntry<E>> detailEntries = hasListeners ? new ArrayList<>(masterEntries.length) : null;
 		for (ListDiffEntry<? extends M> masterEntry : masterEntries) {
 			int index = masterEntry.getPosition();
 
 			M masterElement = masterEntry.getElement();
 			E detailValue;
 			if (masterEntry.isAddition()) {
-				detailValue = addDetailObservable(masterElement, index);
+				DetailEntry<M, E> entry = addDetailEntry(masterElement, index);
+				// Without listeners, the detail observable is only created
+				// once its value is requested.
+				detailValue = hasListeners ? getDetailObservable(entry).getValue() : null;
 			} else {
-				detailValue = removeDetailObservable(masterElement, index);
+				detailValue = removeDetailEntry(index, hasListeners);
 			}
 
 			if (hasListeners) {
 				// Create the corresponding diff for the detail list.
 				detailEntries.add(Diffs.createListDiffEntry(index,
 						masterEntry.isAddition(), detailValue));
-			} else {
-				detailEntries.add(null);
 			}
 		}
+		positionsValid = false;
 
 		if (hasListeners) {
 			if (!wasStale && isStale()) {
@@ -193,73 +222,100 @@ public class ListDetailValueObservableList<M, E> extends
 		}
 	}
 
-	private E addDetailObservable(M masterElement, int index) {
-		DetailEntry<E> detailEntry = masterDetailMap.get(masterElement);
+	private DetailEntry<M, E> addDetailEntry(M masterElement, int index) {
+		DetailEntry<M, E> detailEntry = masterDetailMap.get(masterElement);
 		if (detailEntry != null) {
-			// If we already have a detail observable for the given
-			// masterElement, we increment the reference count.
+			// If we already have an entry for the given masterElement, we
+			// increment the reference count.
 			detailEntry.masterReferenceCount++;
-			detailList.add(index, detailEntry.detailObservable);
-			return detailEntry.detailObservable.getValue();
-		}
-
-		IObservableValue<E> detail = createDetailObservable(masterElement);
-		masterDetailMap.put(masterElement, new DetailEntry<>(detail));
-
-		detailList.add(index, detail);
-
-		if (hasListeners()) {
-			detail.addValueChangeListener(detailValueListener);
-			detail.addStaleListener(detailStaleListener);
-			if (detail.isStale()) {
-				staleDetailObservables.add(detail);
-			}
+		} else {
+			detailEntry = new DetailEntry<>(masterElement);
+			masterDetailMap.put(masterElement, detailEntry);
 		}
-
-		return detail.getValue();
+		detailList.add(index, detailEntry);
+		return detailEntry;
 	}
 
-	private E removeDetailObservable(Object masterElement, int index) {
-		IObservableValue<E> detail = detailList.remove(index);
-		E detailValue = detail.getValue();
-
-		DetailEntry<E> detailEntry = masterDetailMap.get(masterElement);
+	private E removeDetailEntry(int index, boolean needValue) {
+		DetailEntry<M, E> detailEntry = detailList.remove(index);
+		IObservableValue<E> detail = needValue ? getDetailObservable(detailEntry) : detailEntry.detailObservable;
+		E detailValue = needValue ? detail.getValue() : null;
 
 		// We may only dispose the detail observable when there are no more
 		// masters referencing it.
 		detailEntry.masterReferenceCount--;
 		if (detailEntry.masterReferenceCount == 0) {
-			masterDetailMap.remove(masterElement);
-			staleDetailObservables.remove(detail);
-			detail.dispose();
+			masterDetailMap.remove(detailEntry.masterElement);
+			if (detail != null) {
+				detailEntryMap.remove(detail);
+				staleDetailObservables.remove(detail);
+				detail.dispose();
+			}
 		}
 
 		return detailValue;
 	}
 
+	private IObservableValue<E> getDetailObservable(DetailEntry<M, E> entry) {
+		if (entry.detailObservable == null) {
+			IObservableValue<E> detail = createDetailObservable(entry.masterElement);
+			entry.detailObservable = detail;
+			detailEntryMap.put(detail, entry);
+			if (hasListeners()) {
+				hookDetailObservable(detail);
+			}
+		}
+		return entry.detailObservable;
+	}
+
+	private void hookDetailObservable(IObservableValue<E> detail) {
+		detail.addValueChangeListener(detailValueListener);
+		detail.addStaleListener(detailStaleListener);
+		if (detail.isStale()) {
+			staleDetailObservables.add(detail);
+		}
+	}
+
 	private void handleDetailValueChange(ValueChangeEvent<? extends E> event) {
-		IObservableValue<? extends E> detail = event.getObservableValue();
+		DetailEntry<M, E> entry = detailEntryMap.get(event.getObservableValue());
+		if (entry == null) {
+			return;
+		}
 
-		// When we get a change event on a detail observable, we must find its
-		// position while there may also be duplicate entries.
-		BitSet detailIndexes = new BitSet();
-		for (int i = 0; i < detailList.size(); i++) {
-			if (detailList.get(i) == detail) {
-				detailIndexes.set(i);
-			}
+		// A detail observable may be referenced from several positions when
+		// the master list contains duplicates.
+		if (!positionsValid) {
+			updatePositions();
 		}
 
-		// Create the diff for every found position.
+		// Create the diff for every position of the entry.
 		E oldValue = event.diff.getOldValue();
 		E newValue = event.diff.getNewValue();
-		List<ListDiffEntry<E>> diffEntries = new ArrayList<>(2 * detailIndexes.cardinality());
-		for (int b = detailIndexes.nextSetBit(0); b != -1; b = detailIndexes.nextSetBit(b + 1)) {
-			diffEntries.add(Diffs.createListDiffEntry(b, false, oldValue));
-			diffEntries.add(Diffs.createListDiffEntry(b, true, newValue));
+		List<ListDiffEntry<E>> diffEntries = new ArrayList<>(2 * entry.positionCount);
+		for (int i = 0; i < entry.positionCount; i++) {
+			int position = entry.positions[i];
+			diffEntries.add(Diffs.createListDiffEntry(position, false, oldValue));
+			diffEntries.add(Diffs.createListDiffEntry(position, true, newValue));
 		}
 		fireListChange(Diffs.createListDiff(diffEntries));
 	}
 
+	/**
+	 * Records the positions of every entry. This is linear in the size of the
+	 * master list, but only done for the first detail change after the master
+	 * list has changed, so that a burst of detail changes does not re-scan the
+	 * list for each change.
+	 */
+	private void updatePositions() {
+		for (DetailEntry<M, E> entry : masterDetailMap.values()) {
+			entry.positionCount = 0;
+		}
+		for (int i = 0; i < detailList.size(); i++) {
+			detailList.get(i).addPosition(i);
+		}
+		positionsValid = true;
+	}
+
 	private IObservableValue<E> createDetailObservable(M masterElement) {
 		ObservableTracker.setIgnore(true);
 		try {
@@ -277,12 +333,12 @@ public class ListDetailValueObservableList<M, E> extends
 	@Override
 	public E get(int index) {
 		ObservableTracker.getterCalled(this);
-		return detailList.get(index).getValue();
+		return getDetailObservable(detailList.get(index)).getValue();
 	}
 
 	@Override
 	public E set(int index, E element) {
-		IObservableValue<E> detail = detailList.get(index);
+		IObservableValue<E> detail = getDetailObservable(detailList.get(index));
 		E oldElement = detail.getValue();
 		detail.setValue(element);
 		return oldElement;
@@ -323,7 +379,22 @@ public class ListDetailValueObservableList<M, E> extends
 		return super.isStale()
 				|| (masterList != null && masterList.isStale())
 				|| (staleDetailObservables != null && !staleDetailObservables
-						.isEmpty());
+						.isEmpty())
+				|| (masterList != null && !hasListeners() && hasStaleDetailObservable());
+	}
+
+	/*
+	 * Stale detail observables are only tracked while this list is observed,
+	 * so without listeners the existing ones have to be asked directly. Detail
+	 * observables which have not been created yet are not created here.
+	 */
+	private boolean hasStaleDetailObservable() {
+		for (IObservable detail : detailEntryMap.keySet()) {
+			if (detail.isStale()) {
+				return true;
+			}
+		}
+		return false;
 	}
 
 	@Override
@@ -338,10 +409,13 @@ public class ListDetailValueObservableList<M, E> extends
 			masterList.removeStaleListener(masterStaleListener);
 		}
 
-		if (detailList != null) {
-			for (IObservableValue<E> detailValue : detailList) {
+		if (detailEntryMap != null) {
+			for (IObservable detailValue : detailEntryMap.keySet()) {
 				detailValue.dispose();
 			}
+			detailEntryMap.clear();
+		}
+		if (detailList != null) {
 			detailList.clear();
 		}
 
@@ -351,19 +425,36 @@ public class ListDetailValueObservableList<M, E> extends
 		masterListListener = null;
 		detailValueListener = null;
 		masterDetailMap = null;
+		detailEntryMap = null;
 		staleDetailObservables = null;
 
 		super.dispose();
 	}
 
-	private static final class DetailEntry<E> {
+	private static final class DetailEntry<M, E> {
+
+		private final M masterElement;
 
-		private final IObservableValue<E> detailObservable;
+		// Created lazily, see getDetailObservable(DetailEntry).
+		private IObservableValue<E> detailObservable;
 
 		private int masterReferenceCount = 1;
 
-		public DetailEntry(IObservableValue<E> detailObservable) {
-			this.detailObservable = detailObservable;
+		// The positions of this entry in the detail list, valid while
+		// positionsValid is set.
+		private int[] positions = new int[1];
+
+		private int positionCount;
+
+		public DetailEntry(M masterElement) {
+			this.masterElement = masterElement;
+		}
+
+		void addPosition(int position) {
+			if (positionCount == positions.length) {
+				positions = Arrays.copyOf(positions, positionCount * 2);
+			}
+			positions[positionCount++] = position;
 		}
 	}
 }
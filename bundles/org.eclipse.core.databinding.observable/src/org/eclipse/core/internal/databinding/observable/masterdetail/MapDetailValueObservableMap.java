@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2015 Ovidio Mallo and others.
+ * Copyright (c) 2010, 2018 Ovidio Mallo and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -13,7 +13,6 @@
 package org.eclipse.core.internal.databinding.observable.masterdetail;
 
 import java.util.AbstractSet;
-import java.util.Collections;
 import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.Map;
@@ -63,8 +62,14 @@ public class MapDetailValueObservableMap<K, M, E> extends
 
 	private Set<Map.Entry<K, E>> entrySet;
 
+	// Maps every key to its detail observable. Detail observables are created
+	// lazily, see getDetailObservableValue(Object).
 	private IdentityHashMap<K, IObservableValue<E>> keyDetailMap = new IdentityHashMap<>();
 
+	// Maps every detail observable back to its key, so that a single listener
+	// can serve all detail observables.
+	private IdentityHashMap<IObservableValue<?>, K> detailKeyMap = new IdentityHashMap<>();
+
 	private IdentitySet<IObservableValue<E>> staleDetailObservables = new IdentitySet<>();
 
 	private IMapChangeListener<K, M> masterMapListener = new IMapChangeListener<K, M>() {
@@ -81,6 +86,20 @@ public class MapDetailValueObservableMap<K, M, E> extends
 		}
 	};
 
+	private IValueChangeListener<E> detailValueListener = new IValueChangeListener<E>() {
+		@Override
+		public void handleValueChange(ValueChangeEvent<? extends E> event) {
+			IObservableValue<? extends E> detailValue = event.getObservableValue();
+			if (!detailValue.isStale()) {
+				staleDetailObservables.remove(detailValue);
+			}
+			if (detailKeyMap.containsKey(detailValue)) {
+				fireMapChange(Diffs.createMapDiffSingleChange(detailKeyMap.get(detailValue),
+						event.diff.getOldValue(), event.diff.getNewValue()));
+			}
+		}
+	};
+
 	private IStaleListener detailStaleListener = new IStaleListener() {
 		@SuppressWarnings("unchecked")
 		@Override
@@ -103,7 +122,8 @@ public class MapDetailValueObservableMap<K, M, E> extends
 		this.observableValueFactory = observableValueFactory;
 		this.detailValueType = detailValueType;
 
-		// Add change/stale/dispose listeners on the master map.
+		// Add change/stale/dispose listeners on the master map. The detail
+		// observables for the current keys are created on demand.
 		masterMap.addMapChangeListener(masterMapListener);
 		masterMap.addStaleListener(masterStaleListener);
 		masterMap.addDisposeListener(new IDisposeListener() {
@@ -112,53 +132,91 @@ public class MapDetailValueObservableMap<K, M, E> extends
 				MapDetailValueObservableMap.this.dispose();
 			}
 		});
+	}
+
+	@Override
+	protected synchronized void firstListenerAdded() {
+		// Every detail observable is needed to report its changes.
+		ObservableTracker.setIgnore(true);
+		try {
+			for (K key : masterMap.keySet()) {
+				IObservableValue<E> detailValue = keyDetailMap.get(key);
+				if (detailValue == null) {
+					// hooked on creation
+					getDetailObservableValue(key);
+				} else {
+					hookDetailObservable(detailValue);
+				}
+			}
+		} finally {
+			ObservableTracker.setIgnore(false);
+		}
+	}
 
-		// Initialize the map with the current state of the master map.
-		Map<K, M> emptyMap = Collections.emptyMap();
-		MapDiff<K, M> initMasterDiff = Diffs.computeMapDiff(emptyMap, masterMap);
-		handleMasterMapChange(initMasterDiff);
+	@Override
+	protected synchronized void lastListenerRemoved() {
+		if (isDisposed()) {
+			return;
+		}
+
+		for (IObservableValue<E> detailValue : keyDetailMap.values()) {
+			detailValue.removeValueChangeListener(detailValueListener);
+			detailValue.removeStaleListener(detailStaleListener);
+		}
+		staleDetailObservables.clear();
 	}
 
 	private void handleMasterMapChange(MapDiff<? extends K, ? extends M> diff) {
+		Set<? extends K> addedKeys = diff.getAddedKeys();
+		Set<? extends K> removedKeys = diff.getRemovedKeys();
+		Set<? extends K> changedKeys = diff.getChangedKeys();
+
+		if (!hasListeners()) {
+			// Nobody needs a diff, so only the detail observables of removed
+			// and changed master values have to be discarded. Detail
+			// observables for the new master values are created on demand.
+			for (K removedKey : removedKeys) {
+				removeDetailObservable(removedKey);
+			}
+			for (K changedKey : changedKeys) {
+				removeDetailObservable(changedKey);
+			}
+			return;
+		}
+
 		// Collect the detail values for the master values in the input diff.
 		IdentityMap<K, E> oldValues = new IdentityMap<>();
 		IdentityMap<K, E> newValues = new IdentityMap<>();
 
 		// Handle added master values.
-		Set<? extends K> addedKeys = diff.getAddedKeys();
 		for (K addedKey : addedKeys) {
-			// For added master values, we set up a new detail observable.
-			addDetailObservable(addedKey);
-
-			// Get the value of the created detail observable for the new diff.
-			IObservableValue<E> detailValue = getDetailObservableValue(addedKey);
-			newValues.put(addedKey, detailValue.getValue());
+			// For added master values, we set up a new detail observable and
+			// get its value for the new diff.
+			newValues.put(addedKey, getDetailObservableValue(addedKey).getValue());
 		}
 
 		// Handle removed master values.
-		Set<? extends K> removedKeys = diff.getRemovedKeys();
 		for (K removedKey : removedKeys) {
 			// First of all, get the current detail value and add it to the set
-			// of old values of the new diff.
-			IObservableValue<E> detailValue = getDetailObservableValue(removedKey);
-			oldValues.put(removedKey, detailValue.getValue());
+			// of old values of the new diff. The master value is gone, so the
+			// detail observable must not be created now.
+			IObservableValue<E> detailValue = keyDetailMap.get(removedKey);
+			oldValues.put(removedKey, detailValue != null ? detailValue.getValue() : null);
 
 			// For removed master values, we dispose the detail observable.
 			removeDetailObservable(removedKey);
 		}
 
 		// Handle changed master values.
-		Set<? extends K> changedKeys = diff.getChangedKeys();
 		for (K changedKey : changedKeys) {
 			// Get the detail value prior to the change and add it to the set of
 			// old values of the new diff.
-			IObservableValue<E> oldDetailValue = getDetailObservableValue(changedKey);
-			oldValues.put(changedKey, oldDetailValue.getValue());
+			IObservableValue<E> oldDetailValue = keyDetailMap.get(changedKey);
+			oldValues.put(changedKey, oldDetailValue != null ? oldDetailValue.getValue() : null);
 
-			// Remove the old detail value for the old master value and add it
-			// again for the new master value.
+			// Remove the old detail value for the old master value, the new
+			// one is created for the new master value.
 			removeDetailObservable(changedKey);
-			addDetailObservable(changedKey);
 
 			// Get the new detail value and add it to the set of new values.
 			IObservableValue<E> newDetailValue = getDetailObservableValue(changedKey);
@@ -170,36 +228,6 @@ public class MapDetailValueObservableMap<K, M, E> extends
 				oldValues, newValues));
 	}
 
-	private void addDetailObservable(final K addedKey) {
-		M masterElement = masterMap.get(addedKey);
-
-		IObservableValue<E> detailValue = keyDetailMap.get(addedKey);
-
-		if (detailValue == null) {
-			detailValue = createDetailObservable(masterElement);
-
-			keyDetailMap.put(addedKey, detailValue);
-
-			detailValue.addValueChangeListener(new IValueChangeListener<E>() {
-				@Override
-				public void handleValueChange(ValueChangeEvent<? extends E> event) {
-					if (!event.getObservableValue().isStale()) {
-						staleDetailObservables.remove(event.getSource());
-					}
-
-					fireMapChange(Diffs.createMapDiffSingleChange(addedKey,
-							event.diff.getOldValue(), event.diff.getNewValue()));
-				}
-			});
-
-			if (detailValue.isStale()) {
-				addStaleDetailObservable(detailValue);
-			}
-		}
-
-		detailValue.addStaleListener(detailStaleListener);
-	}
-
 	private IObservableValue<E> createDetailObservable(M masterElement) {
 		ObservableTracker.setIgnore(true);
 		try {
@@ -215,12 +243,34 @@ public class MapDetailValueObservableMap<K, M, E> extends
 		}
 
 		IObservableValue<E> detailValue = keyDetailMap.remove(removedKey);
-		staleDetailObservables.remove(detailValue);
-		detailValue.dispose();
+		if (detailValue != null) {
+			detailKeyMap.remove(detailValue);
+			staleDetailObservables.remove(detailValue);
+			detailValue.dispose();
+		}
 	}
 
+	@SuppressWarnings("unchecked")
 	private IObservableValue<E> getDetailObservableValue(Object masterKey) {
-		return keyDetailMap.get(masterKey);
+		IObservableValue<E> detailValue = keyDetailMap.get(masterKey);
+		if (detailValue == null) {
+			K key = (K) masterKey;
+			detailValue = createDetailObservable(masterMap.get(key));
+			keyDetailMap.put(key, detailValue);
+			detailKeyMap.put(detailValue, key);
+			if (hasListeners()) {
+				hookDetailObservable(detailValue);
+			}
+		}
+		return detailValue;
+	}
+
+	private void hookDetailObservable(IObservableValue<E> detailValue) {
+		detailValue.addValueChangeListener(detailValueListener);
+		detailValue.addStaleListener(detailStaleListener);
+		if (detailValue.isStale()) {
+			addStaleDetailObservable(detailValue);
+		}
 	}
 
 	private void addStaleDetailObservable(IObservableValue<E> detailObservable) {
@@ -297,7 +347,27 @@ public class MapDetailValueObservableMap<K, M, E> extends
 		return super.isStale()
 				|| (masterMap != null && masterMap.isStale())
 				|| (staleDetailObservables != null && !staleDetailObservables
-						.isEmpty());
+						.isEmpty())
+				|| (masterMap != null && !hasListeners() && hasStaleDetailObservable());
+	}
+
+	/*
+	 * Stale detail observables are only tracked while this map is observed,
+	 * so without listeners the existing ones have to be asked directly. Detail
+	 * observables which have not been created yet are not created here.
+	 */
+	private boolean hasStaleDetailObservable() {
+		ObservableTracker.setIgnore(true);
+		try {
+			for (IObservableValue<E> detailValue : keyDetailMap.values()) {
+				if (detailValue.isStale()) {
+					return true;
+				}
+			}
+			return false;
+		} finally {
+			ObservableTracker.setIgnore(false);
+		}
 	}
 
 	@Override
@@ -333,7 +403,9 @@ public class MapDetailValueObservableMap<K, M, E> extends
 		observableValueFactory = null;
 		detailValueType = null;
 		keyDetailMap = null;
+		detailKeyMap = null;
 		masterStaleListener = null;
+		detailValueListener = null;
 		detailStaleListener = null;
 		staleDetailObservables = null;
 
@@ -25,6 +25,7 @@ import org.eclipse.core.databinding.observable.set.IObservableSet;
 import org.eclipse.core.databinding.observable.value.IObservableValue;
 import org.eclipse.core.databinding.observable.value.IValueChangeListener;
 import org.eclipse.core.databinding.observable.value.ValueChangeEvent;
+import org.eclipse.core.internal.databinding.identity.IdentityMap;
 import org.eclipse.core.internal.databinding.identity.IdentitySet;
 
 /**
@@ -41,8 +42,26 @@ public class SetDetailValueObservableMap<M, E> extends
 
 	private Map<M, IObservableValue<E>> detailObservableValueMap = new HashMap<>();
 
+	// Maps every detail observable back to its master key, so that a single
+	// listener can serve all detail observables.
+	private IdentityMap<IObservableValue<?>, M> detailKeyMap = new IdentityMap<>();
+
 	private IdentitySet<IObservableValue<?>> staleDetailObservables = new IdentitySet<>();
 
+	private IValueChangeListener<E> detailValueListener = new IValueChangeListener<E>() {
+		@Override
+		public void handleValueChange(ValueChangeEvent<? extends E> event) {
+			IObservableValue<? extends E> detailValue = event.getObservableValue();
+			if (!detailValue.isStale()) {
+				staleDetailObservables.remove(detailValue);
+			}
+			if (detailKeyMap.containsKey(detailValue)) {
+				fireSingleChange(detailKeyMap.get(detailValue), event.diff.getOldValue(),
+						event.diff.getNewValue());
+			}
+		}
+	};
+
 	private IStaleListener detailStaleListener = new IStaleListener() {
 		@Override
 		public void handleStale(StaleEvent staleEvent) {
@@ -65,21 +84,10 @@ public class SetDetailValueObservableMap<M, E> extends
 	}
 
 	@Override
-	protected void hookListener(final M addedKey) {
-		final IObservableValue<E> detailValue = getDetailObservableValue(addedKey);
-
-		detailValue.addValueChangeListener(new IValueChangeListener<E>() {
-			@Override
-			public void handleValueChange(ValueChangeEvent<? extends E> event) {
-				if (!event.getObservableValue().isStale()) {
-					staleDetailObservables.remove(detailValue);
-				}
-
-				fireSingleChange(addedKey, event.diff.getOldValue(),
-						event.diff.getNewValue());
-			}
-		});
+	protected void hookListener(M addedKey) {
+		IObservableValue<E> detailValue = getDetailObservableValue(addedKey);
 
+		detailValue.addValueChangeListener(detailValueListener);
 		detailValue.addStaleListener(detailStaleListener);
 	}
 
@@ -90,8 +98,11 @@ public class SetDetailValueObservableMap<M, E> extends
 		}
 
 		IObservableValue<E> detailValue = detailObservableValueMap.remove(removedKey);
-		staleDetailObservables.remove(detailValue);
-		detailValue.dispose();
+		if (detailValue != null) {
+			detailKeyMap.remove(detailValue);
+			staleDetailObservables.remove(detailValue);
+			detailValue.dispose();
+		}
 	}
 
 	private IObservableValue<E> getDetailObservableValue(M masterKey) {
@@ -106,6 +117,7 @@ public class SetDetailValueObservableMap<M, E> extends
 			}
 
 			detailObservableValueMap.put(masterKey, detailValue);
+			detailKeyMap.put(detailValue, masterKey);
 
 			if (detailValue.isStale()) {
 				addStaleDetailObservable(detailValue);
@@ -183,8 +195,18 @@ public class SetDetailValueObservableMap<M, E> extends
 	public synchronized void dispose() {
 		super.dispose();
 
+		// Dispose the detail observables which were only created for reading
+		// and never hooked.
+		if (detailObservableValueMap != null) {
+			for (IObservableValue<E> detailValue : detailObservableValueMap.values()) {
+				detailValue.dispose();
+			}
+		}
+
 		observableValueFactory = null;
 		detailObservableValueMap = null;
+		detailKeyMap = null;
+		detailValueListener = null;
 		detailStaleListener = null;
 		staleDetailObservables = null;
 	}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2015 IBM Corporation and others.
+ * Copyright (c) 2005, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -72,6 +72,8 @@ public class DataBindingContext {
 
 	private Realm validationRealm;
 
+	private volatile boolean validateInValidationRealm;
+
 	/**
 	 * Creates a data binding context, using the current default realm for the
 	 * validation observables.
@@ -498,4 +500,40 @@ public class DataBindingContext {
 	public final Realm getValidationRealm() {
 		return validationRealm;
 	}
+
+	/**
+	 * Sets whether value bindings of this context run their validators and
+	 * converters in the {@link #getValidationRealm() validation realm} rather
+	 * than in the realm of the observable the value is read from. The value is
+	 * still read in the source realm and set in the destination realm, so a
+	 * validation realm such as an
+	 * {@link org.eclipse.core.databinding.observable.ExecutorRealm} can take
+	 * expensive validation and conversion off the UI thread while the results
+	 * are marshalled back to the realms of the bound observables.
+	 * <p>
+	 * The default is <code>false</code>. List and set bindings are not affected
+	 * by this setting.
+	 * </p>
+	 *
+	 * @param validateInValidationRealm
+	 *            <code>true</code> to validate and convert in the validation
+	 *            realm
+	 * @since 1.7
+	 */
+	public void setValidateInValidationRealm(boolean validateInValidationRealm) {
+		this.validateInValidationRealm = validateInValidationRealm;
+	}
+
+	/**
+	 * Returns whether value bindings of this context run their validators and
+	 * converters in the validation realm.
+	 *
+	 * @return <code>true</code> if validation and conversion happen in the
+	 *         validation realm
+	 * @see #setValidateInValidationRealm(boolean)
+	 * @since 1.7
+	 */
+	public boolean isValidateInValidationRealm() {
+		return validateInValidationRealm;
+	}
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2015 IBM Corporation and others.
+ * Copyright (c) 2007, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -15,7 +15,10 @@ package org.eclipse.core.databinding;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
 import java.util.Map;
 
 import org.eclipse.core.databinding.conversion.IConverter;
@@ -69,7 +72,35 @@ import com.ibm.icu.text.NumberFormat;
 
 	private static final String CHARACTER_CLASS = "char.class"; //$NON-NLS-1$
 
-	private static Map converterMap;
+	private static final int MAX_CACHED_LOCALES = 8;
+
+	private static final int MAX_RESOLVED_CONVERTERS = 256;
+
+	/**
+	 * Default converters by locale, keyed by pairs of class names. Only the
+	 * most recently used locales are kept. Guarded by the class.
+	 */
+	private static Map<Locale, Map> converterMaps = createLruMap(MAX_CACHED_LOCALES);
+
+	/**
+	 * Converters returned by {@link #createConverter(Object, Object)}, keyed by
+	 * (fromType, toType, locale). The keys and converters refer to the types,
+	 * which may come from bundles that are uninstalled later, so only the
+	 * most recently used converters are kept.
+	 */
+	private static Map<ConverterKey, IConverter> resolvedConverters = Collections
+			.synchronizedMap(createLruMap(MAX_RESOLVED_CONVERTERS));
+
+	static <K, V> Map<K, V> createLruMap(final int maxSize) {
+		return new LinkedHashMap<K, V>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+				return size() > maxSize;
+			}
+		};
+	}
 
 	private static Class autoboxed(Class clazz) {
 		if (clazz == Float.TYPE)
@@ -109,6 +140,11 @@ import com.ibm.icu.text.NumberFormat;
 	 * fromType. Returns <code>null</code> if no converter could be created.
 	 * Either toType or modelDescription can be <code>null</code>, but not
 	 * both.
+	 * <p>
+	 * Default converters are shared and cached per (fromType, toType, locale),
+	 * so creating many bindings between the same types only walks the type
+	 * hierarchy once.
+	 * </p>
 	 *
 	 * @param fromType
 	 * @param toType
@@ -118,25 +154,39 @@ import com.ibm.icu.text.NumberFormat;
 		if (!(fromType instanceof Class) || !(toType instanceof Class)) {
 			return new DefaultConverter(fromType, toType);
 		}
-		Class toClass = (Class) toType;
+		Locale locale = Locale.getDefault(Locale.Category.FORMAT);
+		ConverterKey key = new ConverterKey((Class) fromType, (Class) toType, locale);
+		IConverter converter = resolvedConverters.get(key);
+		if (converter == null) {
+			converter = resolveConverter((Class) fromType, (Class) toType, locale);
+			IConverter existing = resolvedConverters.putIfAbsent(key, converter);
+			if (existing != null) {
+				converter = existing;
+			}
+		}
+		return converter;
+	}
+
+	private static IConverter resolveConverter(Class fromType, Class toType, Locale locale) {
+		Class toClass = toType;
 		Class originalToClass = toClass;
 		if (toClass.isPrimitive()) {
 			toClass = autoboxed(toClass);
 		}
-		Class fromClass = (Class) fromType;
+		Class fromClass = fromType;
 		Class originalFromClass = fromClass;
 		if (fromClass.isPrimitive()) {
 			fromClass = autoboxed(fromClass);
 		}
-		if (!((Class) toType).isPrimitive()
+		if (!toType.isPrimitive()
 				&& toClass.isAssignableFrom(fromClass)) {
 			return new IdentityConverter(originalFromClass, originalToClass);
 		}
-		if (((Class) fromType).isPrimitive() && ((Class) toType).isPrimitive()
+		if (fromType.isPrimitive() && toType.isPrimitive()
 				&& fromType.equals(toType)) {
 			return new IdentityConverter(originalFromClass, originalToClass);
 		}
-		Map converterMap = getConverterMap();
+		Map converterMap = getConverterMap(locale);
 		Class[] supertypeHierarchyFlattened = ClassLookupSupport
 				.getTypeHierarchyFlattened(fromClass);
 		for (Class currentFromClass : supertypeHierarchyFlattened) {
@@ -145,27 +195,31 @@ import com.ibm.icu.text.NumberFormat;
 				return new IdentityConverter(fromClass, toClass);
 			}
 			Pair key = new Pair(getKeyForClass(fromType, currentFromClass), getKeyForClass(toType, toClass));
-			Object converterOrClassname = converterMap.get(key);
-			if (converterOrClassname instanceof IConverter) {
-				return (IConverter) converterOrClassname;
-			} else if (converterOrClassname instanceof String) {
-				String classname = (String) converterOrClassname;
-				Class converterClass;
-				try {
-					converterClass = Class.forName(classname);
-					IConverter result = (IConverter) converterClass
-							.newInstance();
-					converterMap.put(key, result);
-					return result;
-				} catch (Exception e) {
-					Policy
-							.getLog()
-							.log(
-									new Status(
-											IStatus.ERROR,
-											Policy.JFACE_DATABINDING,
-											0,
-											"Error while instantiating default converter", e)); //$NON-NLS-1$
+			// the map is shared by all threads using this locale, and lazily
+			// replaces class names by converter instances
+			synchronized (converterMap) {
+				Object converterOrClassname = converterMap.get(key);
+				if (converterOrClassname instanceof IConverter) {
+					return (IConverter) converterOrClassname;
+				} else if (converterOrClassname instanceof String) {
+					String classname = (String) converterOrClassname;
+					Class converterClass;
+					try {
+						converterClass = Class.forName(classname);
+						IConverter result = (IConverter) converterClass
+								.newInstance();
+						converterMap.put(key, result);
+						return result;
+					} catch (Exception e) {
+						Policy
+								.getLog()
+								.log(
+										new Status(
+												IStatus.ERROR,
+												Policy.JFACE_DATABINDING,
+												0,
+												"Error while instantiating default converter", e)); //$NON-NLS-1$
+					}
 				}
 			}
 		}
@@ -178,17 +232,20 @@ import com.ibm.icu.text.NumberFormat;
 		return new DefaultConverter(fromType, toType);
 	}
 
-	private synchronized static Map getConverterMap() {
+	private synchronized static Map getConverterMap(Locale locale) {
+		Map converterMap = converterMaps.get(locale);
 		// using string-based lookup avoids loading of too many classes
 		if (converterMap == null) {
 			// NumberFormat to be shared across converters for the formatting of
-			// integer values
-			NumberFormat integerFormat = NumberFormat.getIntegerInstance();
+			// integer values. The formats are never modified once created, and
+			// converters synchronize on them while parsing and formatting.
+			NumberFormat integerFormat = NumberFormat.getIntegerInstance(locale);
 			// NumberFormat to be shared across converters for formatting non
 			// integer values
-			NumberFormat numberFormat = NumberFormat.getNumberInstance();
+			NumberFormat numberFormat = NumberFormat.getNumberInstance(locale);
 
 			converterMap = new HashMap();
+			converterMaps.put(locale, converterMap);
 			// Standard and Boxed Types
 			converterMap
 					.put(
@@ -710,6 +767,40 @@ import com.ibm.icu.text.NumberFormat;
 		return value;
 	}
 
+	/*
+	 * Key of a resolved default converter.
+	 */
+	private static final class ConverterKey {
+		private final Class fromType;
+		private final Class toType;
+		private final Locale locale;
+		private final int hashCode;
+
+		ConverterKey(Class fromType, Class toType, Locale locale) {
+			this.fromType = fromType;
+			this.toType = toType;
+			this.locale = locale;
+			this.hashCode = (31 * fromType.hashCode() + toType.hashCode()) * 31
+					+ locale.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (!(obj instanceof ConverterKey))
+				return false;
+			ConverterKey other = (ConverterKey) obj;
+			return fromType == other.fromType && toType == other.toType
+					&& locale.equals(other.locale);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+	}
+
 	/*
 	 * Default converter implementation, does not perform any conversion.
 	 */
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2015 IBM Corporation and others.
+ * Copyright (c) 2007, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -14,8 +14,10 @@
 
 package org.eclipse.core.databinding;
 
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.Map;
 
 import org.eclipse.core.databinding.conversion.IConverter;
 import org.eclipse.core.databinding.observable.value.IObservableValue;
@@ -151,7 +153,16 @@ public class UpdateValueStrategy extends UpdateStrategy {
 	private int updatePolicy;
 
 	private static ValidatorRegistry validatorRegistry = new ValidatorRegistry();
-	private static HashMap validatorsByConverter = new HashMap();
+	private static final int MAX_CACHED_VALIDATORS = 256;
+
+	/**
+	 * Default validators by their (shared) default converter. Bindings can be
+	 * created in different realms, so the map must be thread-safe. The
+	 * validators refer to their converters, which may be created per binding,
+	 * so only the most recently used validators are kept.
+	 */
+	private static Map validatorsByConverter = Collections
+			.synchronizedMap(createLruMap(MAX_CACHED_VALIDATORS));
 
 	protected boolean provideDefaults;
 
@@ -341,6 +352,10 @@ public class UpdateValueStrategy extends UpdateStrategy {
 						result = new NumberToUnboundedNumberValidator(
 								(NumberToNumberConverter) converter);
 					}
+
+					if (result != null) {
+						validatorsByConverter.put(converter, result);
+					}
 				}
 			}
 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2015 IBM Corporation and others.
+ * Copyright (c) 2007, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -13,6 +13,7 @@
 package org.eclipse.core.databinding;
 
 import org.eclipse.core.databinding.observable.ObservableTracker;
+import org.eclipse.core.databinding.observable.Realm;
 import org.eclipse.core.databinding.observable.value.IObservableValue;
 import org.eclipse.core.databinding.observable.value.IValueChangeListener;
 import org.eclipse.core.databinding.observable.value.ValueChangeEvent;
@@ -162,81 +163,109 @@ class ValueBinding extends Binding {
 		source.getRealm().exec(new Runnable() {
 			@Override
 			public void run() {
-				boolean destinationRealmReached = false;
-				final MultiStatus multiStatus = BindingStatus.ok();
+				final Object value;
 				try {
 					// Get value
-					Object value = source.getValue();
+					value = source.getValue();
+				} catch (Exception ex) {
+					MultiStatus multiStatus = BindingStatus.ok();
+					mergeStatus(multiStatus, createErrorStatus(ex));
+					setValidationStatus(multiStatus);
+					return;
+				}
 
-					// Validate after get
-					IStatus status = updateValueStrategy
-							.validateAfterGet(value);
-					if (!mergeStatus(multiStatus, status))
-						return;
+				final Realm validationRealm = context.getValidationRealm();
+				if (context.isValidateInValidationRealm()
+						&& !validationRealm.isCurrent()) {
+					// Validate and convert off the source realm, the result is
+					// marshalled to the destination realm by processValue
+					validationRealm.exec(new Runnable() {
+						@Override
+						public void run() {
+							processValue(value, destination,
+									updateValueStrategy, explicit,
+									validateOnly);
+						}
+					});
+				} else {
+					processValue(value, destination, updateValueStrategy,
+							explicit, validateOnly);
+				}
+			}
+		});
+	}
 
-					// Convert value
-					final Object convertedValue = updateValueStrategy
-							.convert(value);
+	private void processValue(final Object value,
+			final IObservableValue destination,
+			final UpdateValueStrategy updateValueStrategy,
+			final boolean explicit, final boolean validateOnly) {
+		final int policy = updateValueStrategy.getUpdatePolicy();
+		boolean destinationRealmReached = false;
+		final MultiStatus multiStatus = BindingStatus.ok();
+		try {
+			// Validate after get
+			IStatus status = updateValueStrategy.validateAfterGet(value);
+			if (!mergeStatus(multiStatus, status))
+				return;
 
-					// Validate after convert
-					status = updateValueStrategy
-							.validateAfterConvert(convertedValue);
-					if (!mergeStatus(multiStatus, status))
-						return;
-					if (policy == UpdateValueStrategy.POLICY_CONVERT
-							&& !explicit)
-						return;
+			// Convert value
+			final Object convertedValue = updateValueStrategy.convert(value);
 
-					// Validate before set
-					status = updateValueStrategy
-							.validateBeforeSet(convertedValue);
-					if (!mergeStatus(multiStatus, status))
-						return;
-					if (validateOnly)
-						return;
+			// Validate after convert
+			status = updateValueStrategy.validateAfterConvert(convertedValue);
+			if (!mergeStatus(multiStatus, status))
+				return;
+			if (policy == UpdateValueStrategy.POLICY_CONVERT && !explicit)
+				return;
 
-					// Set value
-					destinationRealmReached = true;
-					destination.getRealm().exec(new Runnable() {
-						@Override
-						public void run() {
-							if (destination == target) {
-								updatingTarget = true;
-							} else {
-								updatingModel = true;
-							}
-							try {
-								IStatus setterStatus = updateValueStrategy
-										.doSet(destination, convertedValue);
+			// Validate before set
+			status = updateValueStrategy.validateBeforeSet(convertedValue);
+			if (!mergeStatus(multiStatus, status))
+				return;
+			if (validateOnly)
+				return;
 
-								mergeStatus(multiStatus, setterStatus);
-							} finally {
-								if (destination == target) {
-									updatingTarget = false;
-								} else {
-									updatingModel = false;
-								}
-								setValidationStatus(multiStatus);
-							}
-						}
-					});
-				} catch (Exception ex) {
-					// This check is necessary as in 3.2.2 Status
-					// doesn't accept a null message (bug 177264).
-					String message = (ex.getMessage() != null) ? ex
-							.getMessage() : ""; //$NON-NLS-1$
+			// Set value
+			destinationRealmReached = true;
+			destination.getRealm().exec(new Runnable() {
+				@Override
+				public void run() {
+					if (destination == target) {
+						updatingTarget = true;
+					} else {
+						updatingModel = true;
+					}
+					try {
+						IStatus setterStatus = updateValueStrategy.doSet(
+								destination, convertedValue);
 
-					mergeStatus(multiStatus, new Status(IStatus.ERROR,
-							Policy.JFACE_DATABINDING, IStatus.ERROR, message,
-							ex));
-				} finally {
-					if (!destinationRealmReached) {
+						mergeStatus(multiStatus, setterStatus);
+					} finally {
+						if (destination == target) {
+							updatingTarget = false;
+						} else {
+							updatingModel = false;
+						}
 						setValidationStatus(multiStatus);
 					}
-
 				}
+			});
+		} catch (Exception ex) {
+			mergeStatus(multiStatus, createErrorStatus(ex));
+		} finally {
+			if (!destinationRealmReached) {
+				setValidationStatus(multiStatus);
 			}
-		});
+		}
+	}
+
+	private static IStatus createErrorStatus(Exception ex) {
+		// This check is necessary as in 3.2.2 Status
+		// doesn't accept a null message (bug 177264).
+		String message = (ex.getMessage() != null) ? ex.getMessage() : ""; //$NON-NLS-1$
+
+		return new Status(IStatus.ERROR, Policy.JFACE_DATABINDING,
+				IStatus.ERROR, message, ex);
 	}
 
 	@Override
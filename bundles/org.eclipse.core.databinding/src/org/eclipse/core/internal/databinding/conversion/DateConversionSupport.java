@@ -15,6 +15,9 @@ package org.eclipse.core.internal.databinding.conversion;
 
 import java.text.ParsePosition;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
 
 import org.eclipse.core.internal.databinding.BindingMessages;
 
@@ -36,21 +39,49 @@ public abstract class DateConversionSupport {
 
 	private final static int NUM_VIRTUAL_FORMATTERS=1;
 
+	private final static int NUM_FORMATTERS=7;
+
 	/**
-	 * Alternative formatters for date, time and date/time.
+	 * Alternative formatters for date, time and date/time, per thread and
+	 * locale. DateFormat instances are expensive to create and not thread-safe,
+	 * so they are shared between all instances used on the same thread instead
+	 * of being created for every converter and validator.
 	 * Raw milliseconds are covered as a special case.
 	 */
-	// TODO: These could be shared, but would have to be synchronized.
-	private DateFormat[] formatters = {
-			new SimpleDateFormat(BindingMessages.getString(BindingMessages.DATE_FORMAT_DATE_TIME)),
-			new SimpleDateFormat(BindingMessages.getString(BindingMessages.DATEFORMAT_TIME)),
-			DateFormat.getDateTimeInstance(DATE_FORMAT, DateFormat.SHORT),
-			DateFormat.getDateInstance(DATE_FORMAT),
-			DateFormat.getTimeInstance(DateFormat.SHORT),
-            DateFormat.getDateTimeInstance(DATE_FORMAT,DateFormat.MEDIUM),
-            DateFormat.getTimeInstance(DateFormat.MEDIUM)
+	private static final ThreadLocal<Map<Locale, DateFormat[]>> threadFormatters = new ThreadLocal<Map<Locale, DateFormat[]>>() {
+		@Override
+		protected Map<Locale, DateFormat[]> initialValue() {
+			return new HashMap<>(4);
+		}
 	};
 
+	/**
+	 * The locale at the time this instance was created, which is the locale
+	 * of the formatters used by this instance.
+	 */
+	private final Locale locale = Locale.getDefault(Locale.Category.FORMAT);
+
+	private static DateFormat[] createFormatters(Locale locale) {
+		return new DateFormat[] {
+				new SimpleDateFormat(BindingMessages.getString(BindingMessages.DATE_FORMAT_DATE_TIME), locale),
+				new SimpleDateFormat(BindingMessages.getString(BindingMessages.DATEFORMAT_TIME), locale),
+				DateFormat.getDateTimeInstance(DATE_FORMAT, DateFormat.SHORT, locale),
+				DateFormat.getDateInstance(DATE_FORMAT, locale),
+				DateFormat.getTimeInstance(DateFormat.SHORT, locale),
+				DateFormat.getDateTimeInstance(DATE_FORMAT, DateFormat.MEDIUM, locale),
+				DateFormat.getTimeInstance(DateFormat.MEDIUM, locale) };
+	}
+
+	private DateFormat[] getFormatters() {
+		Map<Locale, DateFormat[]> formattersByLocale = threadFormatters.get();
+		DateFormat[] formatters = formattersByLocale.get(locale);
+		if (formatters == null) {
+			formatters = createFormatters(locale);
+			formattersByLocale.put(locale, formatters);
+		}
+		return formatters;
+	}
+
 	/**
 	 * Tries all available formatters to parse the given string according to the
 	 * default locale or as a raw millisecond value and returns the result of the
@@ -60,7 +91,7 @@ public abstract class DateConversionSupport {
 	 * @return The parsed date, or null, if no available formatter could interpret the input string
 	 */
 	protected Date parse(String str) {
-		for (int formatterIdx = 0; formatterIdx < formatters.length; formatterIdx++) {
+		for (int formatterIdx = 0; formatterIdx < NUM_FORMATTERS; formatterIdx++) {
 			Date parsed=parse(str,formatterIdx);
 			if(parsed!=null) {
 				return parsed;
@@ -75,7 +106,7 @@ public abstract class DateConversionSupport {
 				if (str == null) {
 					return null;
 				}
-				Date date=formatters[formatterIdx].parse(str,pos);
+				Date date=getFormatters()[formatterIdx].parse(str,pos);
 				if(pos.getErrorIndex()!=-1||pos.getIndex()!=str.length()) {
 					return null;
 				}
@@ -103,17 +134,19 @@ public abstract class DateConversionSupport {
 		if (date == null)
 			return null;
 		if(formatterIdx>=0) {
-			return formatters[formatterIdx].format(date);
+			return getFormatters()[formatterIdx].format(date);
 		}
 		return String.valueOf(date.getTime());
 	}
 
 	protected int numFormatters() {
-		return formatters.length+NUM_VIRTUAL_FORMATTERS;
+		return NUM_FORMATTERS+NUM_VIRTUAL_FORMATTERS;
 	}
 
 	/**
-	 * Returns the date format for the provided <code>index</code>.
+	 * Returns a copy of the date format for the provided <code>index</code>.
+	 * The formats used by this instance are shared with the other instances on
+	 * the same thread, so they are not handed out.
 	 * <p>
 	 * This is for testing purposes only and should not be a part of the API if
 	 * this class was to be exposed.
@@ -123,10 +156,10 @@ public abstract class DateConversionSupport {
 	 * @return date format
 	 */
 	protected DateFormat getDateFormat(int index) {
-		if (index < 0 || index >= formatters.length) {
+		if (index < 0 || index >= NUM_FORMATTERS) {
 			throw new IllegalArgumentException("'index' [" + index + "] is out of bounds.");  //$NON-NLS-1$//$NON-NLS-2$
 		}
 
-		return formatters[index];
+		return (DateFormat) getFormatters()[index].clone();
 	}
 }
\ No newline at end of file
@@ -55,7 +55,10 @@ public class IntegerToStringConverter extends Converter {
 					"'fromObject' is not of type [" + boxedType + "]."); //$NON-NLS-1$//$NON-NLS-2$
 		}
 
-		return numberFormat.format(((Number) fromObject).longValue());
+		// the format may be shared by several converters and threads
+		synchronized (numberFormat) {
+			return numberFormat.format(((Number) fromObject).longValue());
+		}
 	}
 
 	/**
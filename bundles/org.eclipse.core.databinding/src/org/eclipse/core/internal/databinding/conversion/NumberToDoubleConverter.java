@@ -36,7 +36,7 @@ public class NumberToDoubleConverter extends NumberToNumberConverter {
 	@Override
 	protected Number doConvert(Number number) {
 		if (StringToNumberParser.inDoubleRange(number)) {
-			return new Double(number.doubleValue());
+			return Double.valueOf(number.doubleValue());
 		}
 
 		return null;
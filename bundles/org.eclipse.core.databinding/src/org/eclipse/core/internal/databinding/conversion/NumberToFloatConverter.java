@@ -34,7 +34,7 @@ public class NumberToFloatConverter extends NumberToNumberConverter {
 	@Override
 	protected Number doConvert(Number number) {
 		if (StringToNumberParser.inFloatRange(number)) {
-			return new Float(number.floatValue());
+			return Float.valueOf(number.floatValue());
 		}
 
 		return null;
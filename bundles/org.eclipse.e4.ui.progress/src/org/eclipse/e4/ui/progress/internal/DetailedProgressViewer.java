@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2015 IBM Corporation and others.
+ * Copyright (c) 2005, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -11,8 +11,11 @@
 package org.eclipse.e4.ui.progress.internal;
 
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.eclipse.e4.ui.progress.IProgressService;
@@ -55,6 +58,22 @@ public class DetailedProgressViewer extends AbstractProgressViewer {
 
 	private FinishedJobs finishedJobs;
 
+	/**
+	 * All elements shown by the receiver. Only the first
+	 * {@link #MAX_DISPLAYED} of them, in sort order, have an item.
+	 */
+	private final Set<JobTreeElement> elements = new LinkedHashSet<>();
+
+	private boolean updateItemsPending;
+
+	/**
+	 * The elements in the order of the last {@link #updateItems()}, and their
+	 * positions in it.
+	 */
+	private JobTreeElement[] sortedElements = new JobTreeElement[0];
+
+	private final Map<JobTreeElement, Integer> sortedPositions = new HashMap<>();
+
 	/**
 	 * Create a new instance of the receiver with a control that is a child of
 	 * parent with style style.
@@ -139,45 +158,121 @@ public class DetailedProgressViewer extends AbstractProgressViewer {
 
 	@Override
 	public void add(Object[] elements) {
-		ViewerComparator sorter = getComparator();
-
-		// Use a Set in case we are getting something added that exists
-		Set<Object> newItems = new HashSet<>(elements.length);
-
-		Control[] existingChildren = control.getChildren();
-		for (Control element : existingChildren) {
-			if (element.getData() != null)
-				newItems.add(element.getData());
-		}
-
 		for (Object element : elements) {
 			if (element != null)
-				newItems.add(element);
+				this.elements.add((JobTreeElement) element);
 		}
+		updateItems();
+	}
 
-		JobTreeElement[] infos = new JobTreeElement[newItems.size()];
-		newItems.toArray(infos);
-
+	/**
+	 * Brings the items in line with the first {@link #MAX_DISPLAYED} elements
+	 * in sort order. Items showing an element that stays displayed are kept
+	 * as they are, items whose element is no longer displayed are reused for
+	 * the newly displayed elements, so widgets are only created or disposed
+	 * when the number of displayed elements changes.
+	 */
+	private void updateItems() {
+		updateItemsPending = false;
+		JobTreeElement[] infos = elements.toArray(new JobTreeElement[elements.size()]);
+		ViewerComparator sorter = getComparator();
 		if (sorter != null) {
 			sorter.sort(this, infos);
 		}
-
-		// Update with the new elements to prevent flash
-		for (Control element : existingChildren) {
-			((ProgressInfoItem) element).dispose();
+		sortedElements = infos;
+		sortedPositions.clear();
+		for (int i = 0; i < infos.length; i++) {
+			sortedPositions.put(infos[i], Integer.valueOf(i));
 		}
+		int totalSize = Math.min(infos.length, MAX_DISPLAYED);
 
-		int totalSize = Math.min(newItems.size(), MAX_DISPLAYED);
+		Map<Object, ProgressInfoItem> itemsByElement = new HashMap<>();
+		for (Control child : control.getChildren()) {
+			itemsByElement.put(child.getData(), (ProgressInfoItem) child);
+		}
+		ProgressInfoItem[] items = new ProgressInfoItem[totalSize];
+		for (int i = 0; i < totalSize; i++) {
+			items[i] = itemsByElement.remove(infos[i]);
+		}
 
+		// What is left are the items that can be reused
+		Iterator<ProgressInfoItem> freeItems = itemsByElement.values().iterator();
+		boolean changed = false;
 		for (int i = 0; i < totalSize; i++) {
-			ProgressInfoItem item = createNewItem(infos[i]);
-			item.setColor(i);
+			if (items[i] != null) {
+				continue;
+			}
+			if (freeItems.hasNext()) {
+				items[i] = freeItems.next();
+				freeItems.remove();
+				items[i].setInfo(infos[i]);
+			} else {
+				items[i] = createNewItem(infos[i]);
+			}
+			changed = true;
+		}
+		for (ProgressInfoItem unused : itemsByElement.values()) {
+			unused.dispose();
+			changed = true;
 		}
 
-		control.layout(true);
+		// Only reorder if the order of the children changed
+		Control[] children = control.getChildren();
+		for (int i = 0; i < totalSize && !changed; i++) {
+			changed = children[i] != items[i];
+		}
+		if (changed) {
+			for (int i = 0; i < totalSize; i++) {
+				if (i == 0) {
+					items[i].moveAbove(null);
+				} else {
+					items[i].moveBelow(items[i - 1]);
+				}
+				items[i].setColor(i);
+			}
+			control.layout(true);
+		}
 		updateForShowingProgress();
 	}
 
+	/**
+	 * Returns whether the element is still in sort order with its neighbours
+	 * of the last {@link #updateItems()}, so that an update of the element
+	 * does not need to sort all the elements again.
+	 *
+	 * @param element
+	 * @return <code>true</code> if the element does not have to be moved
+	 */
+	private boolean isInSortOrder(Object element) {
+		Integer position = sortedPositions.get(element);
+		if (position == null) {
+			return false;
+		}
+		ViewerComparator sorter = getComparator();
+		if (sorter == null) {
+			return true;
+		}
+		int index = position.intValue();
+		return (index == 0 || sorter.compare(this, sortedElements[index - 1], element) <= 0)
+				&& (index == sortedElements.length - 1
+						|| sorter.compare(this, element, sortedElements[index + 1]) <= 0);
+	}
+
+	/**
+	 * Updates the items once the current batch of updates has been applied.
+	 */
+	private void scheduleUpdateItems() {
+		if (updateItemsPending) {
+			return;
+		}
+		updateItemsPending = true;
+		control.getDisplay().asyncExec(() -> {
+			if (updateItemsPending && !control.isDisposed()) {
+				updateItems();
+			}
+		});
+	}
+
 	/**
 	 * Update for the progress being displayed.
 	 */
@@ -303,11 +398,14 @@ public class DetailedProgressViewer extends AbstractProgressViewer {
 
 	@Override
 	protected void doUpdateItem(Widget item, Object element, boolean fullMap) {
-		if (usingElementMap()) {
-			unmapElement(item);
+		// A pending update sorts anyway
+		if (!updateItemsPending && !isInSortOrder(element)) {
+			updateItems();
+		}
+		Widget current = doFindItem(element);
+		if (current != null) {
+			((ProgressInfoItem) current).refresh();
 		}
-		item.dispose();
-		add(new Object[] { element });
 	}
 
 	@Override
@@ -339,7 +437,9 @@ public class DetailedProgressViewer extends AbstractProgressViewer {
 		}
 		Widget widget = findItem(element);
 		if (widget == null) {
-			add(new Object[] { element });
+			// Not displayed, it may have to be once the updates are applied
+			elements.add((JobTreeElement) element);
+			scheduleUpdateItems();
 			return;
 		}
 		((ProgressInfoItem) widget).refresh();
@@ -364,28 +464,16 @@ public class DetailedProgressViewer extends AbstractProgressViewer {
 					((ProgressInfoItem) item).refresh();
 				}
 
-			} else {
-				Widget item = doFindItem(treeElement);
-				if (item == null) {
-					// Is the parent showing?
-					Object parent = treeElement.getParent();
-					if (parent != null)
-						item = doFindItem(parent);
-				}
-				if (item != null) {
-					unmapElement(element);
-					item.dispose();
+			} else if (!this.elements.remove(treeElement)) {
+				// Is the parent showing?
+				Object parent = treeElement.getParent();
+				if (parent != null && doFindItem(parent) != null) {
+					this.elements.remove(parent);
 				}
 			}
 		}
 
-		Control[] existingChildren = control.getChildren();
-		for (int i = 0; i < existingChildren.length; i++) {
-			ProgressInfoItem item = (ProgressInfoItem) existingChildren[i];
-			item.setColor(i);
-		}
-		control.layout(true);
-		updateForShowingProgress();
+		updateItems();
 	}
 
 	@Override
@@ -423,25 +511,15 @@ public class DetailedProgressViewer extends AbstractProgressViewer {
 	 * Refresh everything as the root is being refreshed.
 	 */
 	private void refreshAll() {
-
-		Object[] infos = getSortedChildren(getRoot());
-		Control[] existingChildren = control.getChildren();
-
-		for (Control element : existingChildren) {
-			element.dispose();
-
+		elements.clear();
+		for (Object info : getFilteredChildren(getRoot())) {
+			elements.add((JobTreeElement) info);
 		}
 
-		int maxLength = Math.min(infos.length,MAX_DISPLAYED);
-		// Create new ones if required
-		for (int i = 0; i < maxLength; i++) {
-			ProgressInfoItem item = createNewItem((JobTreeElement) infos[i]);
-			item.setColor(i);
+		updateItems();
+		for (Control child : control.getChildren()) {
+			((ProgressInfoItem) child).refresh();
 		}
-
-		control.layout(true);
-		updateForShowingProgress();
-
 	}
 
 	/**
@@ -271,6 +271,34 @@ public class ProgressInfoItem extends Composite {
 		refresh();
 	}
 
+	/**
+	 * Shows another element in the receiver, reusing its widgets.
+	 *
+	 * @param progressInfo
+	 *            the element to show
+	 */
+	void setInfo(JobTreeElement progressInfo) {
+		if (info == progressInfo) {
+			return;
+		}
+		info = progressInfo;
+		setData(info);
+		selected = false;
+		if (progressBar != null) {
+			progressBar.dispose();
+			progressBar = null;
+		}
+		for (Link taskEntry : taskEntries) {
+			taskEntry.dispose();
+		}
+		taskEntries.clear();
+		link = null;
+		setToolTipText(info.isJobInfo() ? decorateText(getMainTitle(), ((JobInfo) info).getJob()) : null);
+		setLayoutsForNoProgress();
+		refresh();
+		layout(true);
+	}
+
 	/**
 	 * Set the main text of the receiver. Truncate to fit the available space.
 	 */
@@ -1014,6 +1014,17 @@ public class FilteredResourcesSelectionDialog extends
 			return matches(name);
 		}
 
+		/**
+		 * Names are matched without the extension only if the pattern
+		 * contains a dot, the other items are matched by their names.
+		 *
+		 * @since 3.14
+		 */
+		@Override
+		public boolean isElementNameMatchRequired() {
+			return namePattern == null;
+		}
+
 		@Override
 		public boolean isSubFilter(ItemsFilter filter) {
 			if (!super.isSubFilter(filter))
@@ -44,12 +44,18 @@ public class Policy {
      */
     public static boolean DEBUG_CORE_EXCEPTIONS = DEFAULT;
 
+    /**
+     * Option for reporting the time spent in the stages of marker updates.
+     */
+    public static boolean DEBUG_MARKERS_UPDATE = DEFAULT;
+
     static {
         if (getDebugOption("/debug")) { //$NON-NLS-1$
             DEBUG_OPEN_ERROR_DIALOG = getDebugOption("/debug/internalerror/openDialog"); //$NON-NLS-1$
             DEBUG_GC = getDebugOption("/debug/gc"); //$NON-NLS-1$
             DEBUG_UNDOMONITOR = getDebugOption("/debug/undomonitor"); //$NON-NLS-1$
             DEBUG_CORE_EXCEPTIONS = getDebugOption("/debug/coreExceptions"); //$NON-NLS-1$
+            DEBUG_MARKERS_UPDATE = getDebugOption("/debug/markers/update"); //$NON-NLS-1$
         }
     }
 
@@ -11,8 +11,12 @@
 package org.eclipse.ui.internal.views.markers;
 
 import java.lang.reflect.InvocationTargetException;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
+import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.jobs.Job;
@@ -67,6 +71,9 @@ public class CachedMarkerBuilder {
 
 	private boolean building;
 
+	// markers changed since the last update started
+	private final Set<IMarker> changedMarkers = ConcurrentHashMap.newKeySet();
+
 	private IMemento memento;
 
 
@@ -596,6 +603,31 @@ public class CachedMarkerBuilder {
 		return markersClone;
 	}
 
+	/**
+	 * Record that the attributes of marker have changed, so that cached
+	 * attributes of its entry are not reused by the next update.
+	 *
+	 * @param marker
+	 */
+	void markerChanged(IMarker marker) {
+		changedMarkers.add(marker);
+	}
+
+	/**
+	 * Return the markers changed since the last call and forget them.
+	 *
+	 * @return Set of {@link IMarker}
+	 */
+	Set<IMarker> takeChangedMarkers() {
+		Set<IMarker> changed = new HashSet<>();
+		Iterator<IMarker> iterator = changedMarkers.iterator();
+		while (iterator.hasNext()) {
+			changed.add(iterator.next());
+			iterator.remove();
+		}
+		return changed;
+	}
+
 ///////	<Incremental update code>///////
 		private IncrementUpdateJob incrementJob;
 	/**
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008 IBM Corporation and others.
+ * Copyright (c) 2008, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -35,4 +35,13 @@ abstract class CompatibilityFieldFilter extends MarkerFieldFilter {
 	 * @param problemFilter
 	 */
 	abstract void initialize(ProblemFilter problemFilter);
+
+	/**
+	 * Return whether the receiver may select markers from several threads at
+	 * once. Filters opt in if they only read their settings while selecting.
+	 * @return boolean
+	 */
+	boolean canSelectConcurrently() {
+		return false;
+	}
 }
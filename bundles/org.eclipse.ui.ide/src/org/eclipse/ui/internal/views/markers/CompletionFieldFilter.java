@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2015 IBM Corporation and others.
+ * Copyright (c) 2007, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -117,4 +117,8 @@ public class CompletionFieldFilter extends CompatibilityFieldFilter {
 		((CompletionFieldFilter)copy).setCompletion(getCompletion());
 	}
 
+	@Override
+	boolean canSelectConcurrently() {
+		return true;
+	}
 }
@@ -118,6 +118,16 @@ class MarkerCategory extends MarkerSupportItem {
 		return severity;
 	}
 
+	/**
+	 * Set the highest severity in the receiver, when it is known from
+	 * grouping the markers.
+	 *
+	 * @param highestSeverity
+	 */
+	void setHighestSeverity(int highestSeverity) {
+		severity = Math.max(highestSeverity, 0);
+	}
+
 	/**
 	 * Return the name of the receiver.
 	 *
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2015 IBM Corporation and others.
+ * Copyright (c) 2007, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -11,9 +11,11 @@
 
 package org.eclipse.ui.internal.views.markers;
 
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 
 import org.eclipse.ui.IMemento;
 import org.eclipse.ui.views.markers.MarkerField;
@@ -215,6 +217,22 @@ class MarkerComparator implements Comparator<MarkerItem> {
 		return fields[0];
 	}
 
+	/**
+	 * Return a key identifying the order the receiver sorts in. Keys are
+	 * equal if the category, the fields and their directions are the same.
+	 *
+	 * @return List
+	 */
+	List<Object> getSortKey() {
+		List<Object> key = new ArrayList<>(fields.length * 2 + 1);
+		key.add(category);
+		for (MarkerField field : fields) {
+			key.add(field);
+			key.add(Boolean.valueOf(descendingFields.contains(field)));
+		}
+		return key;
+	}
+
 	/**
 	 * Set the category field without changing other sort orders.
 	 * @param category or <code>null</code>
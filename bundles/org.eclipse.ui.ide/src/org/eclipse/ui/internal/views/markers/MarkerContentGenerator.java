@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2015 IBM Corporation and others.
+ * Copyright (c) 2007, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -23,10 +23,14 @@ import java.util.Hashtable;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
 
 import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IWorkspaceRoot;
 import org.eclipse.core.resources.mapping.ResourceMapping;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IConfigurationElement;
@@ -42,6 +46,7 @@ import org.eclipse.ui.internal.ide.IDEWorkbenchPlugin;
 import org.eclipse.ui.statushandlers.StatusManager;
 import org.eclipse.ui.views.markers.FilterConfigurationArea;
 import org.eclipse.ui.views.markers.MarkerField;
+import org.eclipse.ui.views.markers.MarkerItem;
 import org.eclipse.ui.views.markers.internal.ContentGeneratorDescriptor;
 import org.eclipse.ui.views.markers.internal.MarkerGroup;
 import org.eclipse.ui.views.markers.internal.MarkerSupportRegistry;
@@ -70,6 +75,19 @@ public class MarkerContentGenerator {
 	private static final String TAG_MARKER_LIMIT = "markerLimit"; //$NON-NLS-1$
 	private static final String TAG_MARKER_LIMIT_ENABLED = "markerLimitEnabled"; //$NON-NLS-1$
 
+	// The number of markers filtered by one fork join task
+	private static final int FILTER_BATCH_SIZE = 2000;
+
+	// The pool gathering the markers of all views. It is not the common pool
+	// because collecting the markers blocks on the workspace, and it is
+	// bounded so that a large workspace does not take over all processors.
+	private static final ForkJoinPool GATHER_POOL = new ForkJoinPool(
+			Math.min(Runtime.getRuntime().availableProcessors(), 4), pool -> {
+				ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+				thread.setName("Markers Gatherer-" + thread.getPoolIndex()); //$NON-NLS-1$
+				return thread;
+			}, null, false);
+
 	/*Use this to indicate filter change rather than a null*/
 	private final Collection<MarkerFieldFilterGroup> FILTERS_CHANGED = Collections.emptySet();
 
@@ -1015,9 +1033,20 @@ public class MarkerContentGenerator {
 	 * @param monitor
 	 */
 	boolean generateMarkerEntries(Collection<MarkerEntry> result,IProgressMonitor monitor) {
+		return generateMarkerEntries(result, new MarkerStageTimes(), monitor);
+	}
+
+	/**
+	 * Refresh gathered markers entries
+	 * @param result
+	 * @param times
+	 *            the times of the collect and filter stages are added to
+	 * @param monitor
+	 */
+	boolean generateMarkerEntries(Collection<MarkerEntry> result, MarkerStageTimes times, IProgressMonitor monitor) {
 		String[] typeIds = getTypes();
 		boolean includeSubTypes = builder.includeMarkerSubTypes();
-		return gatherMarkers(typeIds, includeSubTypes, result, monitor);
+		return gatherMarkers(typeIds, includeSubTypes, result, times, monitor);
 	}
 
 	/**
@@ -1029,27 +1058,77 @@ public class MarkerContentGenerator {
 	 */
 	boolean gatherMarkers(String[] typeIds, boolean includeSubTypes,
 			Collection<MarkerEntry> result, IProgressMonitor monitor) {
+		return gatherMarkers(typeIds, includeSubTypes, result, new MarkerStageTimes(), monitor);
+	}
+
+	/**
+	 * Gather markers into result. Markers of different resources are collected
+	 * and filtered in parallel if all enabled filters allow it, the result is
+	 * merged in the order of the resources.
+	 *
+	 * @param typeIds
+	 * @param includeSubTypes
+	 * @param result
+	 * @param times
+	 * @param monitor
+	 */
+	private boolean gatherMarkers(String[] typeIds, boolean includeSubTypes,
+			Collection<MarkerEntry> result, MarkerStageTimes times, IProgressMonitor monitor) {
+		boolean parallel = canSelectConcurrently(getEnabledFilters());
+		return gatherMarkers(typeIds, includeSubTypes, parallel, result, times, monitor);
+	}
+
+	/**
+	 * Gather the markers of the types of the receiver into result, in
+	 * parallel or sequentially whether or not the enabled filters allow
+	 * selecting concurrently.
+	 *
+	 * @param parallel
+	 * @param result
+	 * @param monitor
+	 * @return <code>false</code> if gathering was cancelled or failed
+	 */
+	/* Visible for testing */ public boolean gatherMarkers(boolean parallel, Collection<MarkerItem> result,
+			IProgressMonitor monitor) {
+		List<MarkerEntry> entries = new ArrayList<>();
+		boolean success = gatherMarkers(getTypes(), builder.includeMarkerSubTypes(), parallel, entries,
+				new MarkerStageTimes(), monitor);
+		result.addAll(entries);
+		return success;
+	}
+
+	/**
+	 * Gather markers into result, collecting and filtering the markers of
+	 * different resources in parallel or one after the other.
+	 *
+	 * @param typeIds
+	 * @param includeSubTypes
+	 * @param parallel
+	 * @param result
+	 * @param times
+	 * @param monitor
+	 */
+	private boolean gatherMarkers(String[] typeIds, boolean includeSubTypes, boolean parallel,
+			Collection<MarkerEntry> result, MarkerStageTimes times, IProgressMonitor monitor) {
 		try {
 			Collection<IResource> resources = getResourcesForBuild();
+			String[] types = typeIds;
 			if (includeSubTypes) {
 				// Optimize and calculate super types
-				String[] superTypes = MarkerResourceUtil.getMutuallyExclusiveSupersIds(typeIds);
-				if (monitor.isCanceled()) {
+				types = MarkerResourceUtil.getMutuallyExclusiveSupersIds(typeIds);
+			}
+			if (monitor.isCanceled()) {
+				return false;
+			}
+			if (parallel) {
+				return parallelGatherMarkers(resources, types, includeSubTypes, getEnabledFilters(), result, times,
+						monitor);
+			}
+			for (String type : types) {
+				boolean success = internalGatherMarkers(resources, type, includeSubTypes, result, times, monitor);
+				if (!success || monitor.isCanceled()) {
 					return false;
 				}
-				for (String superType : superTypes) {
-					boolean success = internalGatherMarkers(resources, superType, includeSubTypes, result, monitor);
-					if (!success || monitor.isCanceled()) {
-						return false;
-					}
-				}
-			} else {
-				for (String typeId : typeIds) {
-					boolean success = internalGatherMarkers(resources, typeId, includeSubTypes, result, monitor);
-					if (!success || monitor.isCanceled()) {
-						return false;
-					}
-				}
 			}
 		} catch (Exception e) {
 			//do not propagate but do show the error
@@ -1060,6 +1139,22 @@ public class MarkerContentGenerator {
 		return true;
 	}
 
+	/**
+	 * Return whether the filters can be applied to markers from several
+	 * threads at once. This is the case for the filters defined in this
+	 * bundle, which do not change while they select markers.
+	 *
+	 * @param enabled
+	 */
+	private static boolean canSelectConcurrently(Collection<MarkerFieldFilterGroup> enabled) {
+		for (MarkerFieldFilterGroup group : enabled) {
+			if (!group.canSelectConcurrently()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	/**
 	 * A helper to the
 	 * {@link #gatherMarkers(String[], boolean, Collection, IProgressMonitor)}
@@ -1068,10 +1163,12 @@ public class MarkerContentGenerator {
 	 * @param typeId
 	 * @param includeSubTypes
 	 * @param result
+	 * @param times
 	 * @param monitor
 	 */
 	private boolean internalGatherMarkers(Collection<IResource> resources, String typeId,
-			boolean includeSubTypes, Collection<MarkerEntry> result, IProgressMonitor monitor) {
+			boolean includeSubTypes, Collection<MarkerEntry> result, MarkerStageTimes times,
+			IProgressMonitor monitor) {
 		if (monitor.isCanceled()) {
 			return false;
 		}
@@ -1080,6 +1177,7 @@ public class MarkerContentGenerator {
 		boolean filtersAreANDed = andFilters();
 		Iterator<IResource> iterator = resources.iterator();
 		while (iterator.hasNext()) {
+			long start = System.nanoTime();
 			IMarker[] markers = null;
 			try {
 				IResource resource = iterator.next();
@@ -1089,6 +1187,8 @@ public class MarkerContentGenerator {
 				markers = resource.findMarkers(typeId, includeSubTypes, IResource.DEPTH_INFINITE);
 			} catch (CoreException e) {
 				MarkerSupportInternalUtilities.logViewError(e);
+			} finally {
+				times.addSince(MarkerStageTimes.COLLECT, start);
 			}
 			if (markers == null) {
 				continue;
@@ -1096,24 +1196,208 @@ public class MarkerContentGenerator {
 			if (monitor.isCanceled()) {
 				return false;
 			}
-			MarkerEntry entry = null;
-			int lenght = markers.length;
-			for (int i = 0; i < lenght; i++) {
-				entry = new MarkerEntry(markers[i]);
-				if (select(entry, selected, enabled, filtersAreANDed)) {
-					result.add(entry);
+			start = System.nanoTime();
+			try {
+				if (!selectMarkers(markers, 0, markers.length, selected, enabled, filtersAreANDed, result,
+						monitor)) {
+					return false;
 				}
-				entry.clearCache();
-				if (i % 500 == 0) {
-					if (monitor.isCanceled()) {
-						return false;
-					}
+			} finally {
+				times.addSince(MarkerStageTimes.FILTER, start);
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Collect and filter the markers of each resource in a fork join task of
+	 * its own on the {@link #GATHER_POOL}, and merge the results in the order
+	 * of the resources. The workspace root is partitioned into its projects.
+	 *
+	 * @param resources
+	 * @param typeIds
+	 * @param includeSubTypes
+	 * @param enabled
+	 * @param result
+	 * @param times
+	 * @param monitor
+	 */
+	private boolean parallelGatherMarkers(Collection<IResource> resources, String[] typeIds,
+			boolean includeSubTypes, Collection<MarkerFieldFilterGroup> enabled, Collection<MarkerEntry> result,
+			MarkerStageTimes times, IProgressMonitor monitor) {
+		IResource[] selected = getSelectedResources();
+		boolean filtersAreANDed = andFilters();
+		List<ResourcePartition> partitions = new ArrayList<>(resources.size());
+		for (IResource resource : resources) {
+			if (resource.getType() == IResource.ROOT) {
+				partitions.add(new ResourcePartition(resource, IResource.DEPTH_ZERO, typeIds, includeSubTypes,
+						selected, enabled, filtersAreANDed, times, monitor));
+				for (IProject project : ((IWorkspaceRoot) resource).getProjects()) {
+					partitions.add(new ResourcePartition(project, IResource.DEPTH_INFINITE, typeIds,
+							includeSubTypes, selected, enabled, filtersAreANDed, times, monitor));
+				}
+			} else {
+				partitions.add(new ResourcePartition(resource, IResource.DEPTH_INFINITE, typeIds, includeSubTypes,
+						selected, enabled, filtersAreANDed, times, monitor));
+			}
+		}
+		for (ResourcePartition partition : partitions) {
+			GATHER_POOL.execute(partition);
+		}
+		boolean success = true;
+		for (ResourcePartition partition : partitions) {
+			if (!success || monitor.isCanceled()) {
+				// a newer update has been scheduled, let the partitions stop
+				success = false;
+				partition.cancel(false);
+				continue;
+			}
+			List<MarkerEntry> entries = partition.join();
+			if (entries == null) {
+				success = false;
+				continue;
+			}
+			result.addAll(entries);
+		}
+		return success && !monitor.isCanceled();
+	}
+
+	/**
+	 * Select the markers between from and to into result.
+	 *
+	 * @return <code>false</code> if the monitor was cancelled
+	 */
+	private static boolean selectMarkers(IMarker[] markers, int from, int to, IResource[] selected,
+			Collection<MarkerFieldFilterGroup> enabled, boolean filtersAreANDed, Collection<MarkerEntry> result,
+			IProgressMonitor monitor) {
+		MarkerEntry entry = null;
+		for (int i = from; i < to; i++) {
+			entry = new MarkerEntry(markers[i]);
+			if (select(entry, selected, enabled, filtersAreANDed)) {
+				result.add(entry);
+			}
+			entry.clearCache();
+			if (i % 500 == 0) {
+				if (monitor.isCanceled()) {
+					return false;
 				}
 			}
 		}
 		return true;
 	}
 
+	/**
+	 * A ResourcePartition collects the markers of one resource to the given
+	 * depth, and filters
+	 * them in forked subtasks of at most {@link #FILTER_BATCH_SIZE} markers.
+	 * The result is <code>null</code> if the monitor was cancelled.
+	 */
+	private static class ResourcePartition extends RecursiveTask<List<MarkerEntry>> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final IResource resource;
+		private final int depth;
+		private final String[] typeIds;
+		private final boolean includeSubTypes;
+		private final IResource[] selected;
+		private final Collection<MarkerFieldFilterGroup> enabled;
+		private final boolean filtersAreANDed;
+		private final MarkerStageTimes times;
+		private final IProgressMonitor monitor;
+
+		ResourcePartition(IResource resource, int depth, String[] typeIds, boolean includeSubTypes,
+				IResource[] selected, Collection<MarkerFieldFilterGroup> enabled, boolean filtersAreANDed,
+				MarkerStageTimes times, IProgressMonitor monitor) {
+			this.resource = resource;
+			this.depth = depth;
+			this.typeIds = typeIds;
+			this.includeSubTypes = includeSubTypes;
+			this.selected = selected;
+			this.enabled = enabled;
+			this.filtersAreANDed = filtersAreANDed;
+			this.times = times;
+			this.monitor = monitor;
+		}
+
+		@Override
+		protected List<MarkerEntry> compute() {
+			List<MarkerEntry> entries = new ArrayList<>();
+			if (!resource.isAccessible()) {
+				return entries;
+			}
+			for (String typeId : typeIds) {
+				if (monitor.isCanceled()) {
+					return null;
+				}
+				long start = System.nanoTime();
+				IMarker[] markers;
+				try {
+					markers = resource.findMarkers(typeId, includeSubTypes, depth);
+				} catch (CoreException e) {
+					MarkerSupportInternalUtilities.logViewError(e);
+					continue;
+				} finally {
+					times.addSince(MarkerStageTimes.COLLECT, start);
+				}
+				List<MarkerEntry> selection = new FilterBatch(this, markers, 0, markers.length).invoke();
+				if (selection == null) {
+					return null;
+				}
+				entries.addAll(selection);
+			}
+			return entries;
+		}
+	}
+
+	/**
+	 * A FilterBatch selects the markers between from and to, splitting itself
+	 * while there are more than {@link #FILTER_BATCH_SIZE} markers.
+	 */
+	private static class FilterBatch extends RecursiveTask<List<MarkerEntry>> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final ResourcePartition partition;
+		private final IMarker[] markers;
+		private final int from;
+		private final int to;
+
+		FilterBatch(ResourcePartition partition, IMarker[] markers, int from, int to) {
+			this.partition = partition;
+			this.markers = markers;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected List<MarkerEntry> compute() {
+			if (to - from > FILTER_BATCH_SIZE) {
+				int middle = (from + to) >>> 1;
+				FilterBatch second = new FilterBatch(partition, markers, middle, to);
+				second.fork();
+				List<MarkerEntry> first = new FilterBatch(partition, markers, from, middle).compute();
+				List<MarkerEntry> rest = second.join();
+				if (first == null || rest == null) {
+					return null;
+				}
+				first.addAll(rest);
+				return first;
+			}
+			long start = System.nanoTime();
+			List<MarkerEntry> entries = new ArrayList<>();
+			try {
+				if (!selectMarkers(markers, from, to, partition.selected, partition.enabled,
+						partition.filtersAreANDed, entries, partition.monitor)) {
+					return null;
+				}
+			} finally {
+				partition.times.addSince(MarkerStageTimes.FILTER, start);
+			}
+			return entries;
+		}
+	}
+
 	void dispose() {
 		if (filterPreferenceListener != null) {
 			IDEWorkbenchPlugin.getDefault().getPreferenceStore().removePropertyChangeListener(filterPreferenceListener);
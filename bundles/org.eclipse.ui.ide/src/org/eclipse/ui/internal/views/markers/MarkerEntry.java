@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2015 IBM Corporation and others.
+ * Copyright (c) 2007, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -12,8 +12,8 @@
 
 package org.eclipse.ui.internal.views.markers;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.runtime.CoreException;
@@ -62,6 +62,9 @@ class MarkerEntry extends MarkerSupportItem implements IAdaptable {
 	private MarkerCategory category;
 	private Map<String, Object> cache;
 
+	// The snapshot sharing collation keys, if any
+	private MarkerSnapshot snapshot;
+
 	/**
 	 * Set the MarkerEntry to be stale, if discovered at any point of time
 	 * of its use.This will greatly speed up a lot of parts of the view.
@@ -192,7 +195,8 @@ class MarkerEntry extends MarkerSupportItem implements IAdaptable {
 		if (attributeValue.length() == 0) {
 			return MarkerSupportInternalUtilities.EMPTY_COLLATION_KEY;
 		}
-		CollationKey key = Collator.getInstance().getCollationKey(attributeValue);
+		CollationKey key = snapshot == null ? Collator.getInstance().getCollationKey(attributeValue)
+				: snapshot.getCollationKey(attributeValue);
 		getCache().put(attribute, key);
 		return key;
 	}
@@ -340,14 +344,39 @@ class MarkerEntry extends MarkerSupportItem implements IAdaptable {
 		clearCache();
 	}
 
+	/**
+	 * Take over the cached attribute values of entry, which is an entry for
+	 * the same unchanged marker from an earlier update.
+	 *
+	 * @param entry
+	 */
+	void reuseCache(MarkerEntry entry) {
+		Map<String, Object> entryCache = entry.cache;
+		if (entryCache == null || entry.stale) {
+			return;
+		}
+		// the entry may still be read by the view, which is safe on the
+		// concurrent cache
+		cache = new ConcurrentHashMap<>(entryCache);
+	}
+
+	/**
+	 * Set the snapshot the receiver belongs to.
+	 *
+	 * @param snapshot
+	 */
+	void setSnapshot(MarkerSnapshot snapshot) {
+		this.snapshot = snapshot;
+	}
+
 	/**
 	 * Get the cache for the receiver. Create if neccessary.
 	 *
-	 * @return {@link HashMap}
+	 * @return {@link ConcurrentHashMap}
 	 */
 	Map<String, Object> getCache() {
 		if (cache == null) {
-			cache = new HashMap<>(2);
+			cache = new ConcurrentHashMap<>(2);
 		}
 		return cache;
 	}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2015 IBM Corporation and others.
+ * Copyright (c) 2007, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -680,6 +680,28 @@ class MarkerFieldFilterGroup {
 		}
 	}
 
+	/**
+	 * Return whether the receiver can select markers from several threads at
+	 * once. This is only the case if all its field filters opt in to it. The
+	 * lazily computed state of the receiver is computed here, so it is not
+	 * computed concurrently later.
+	 *
+	 * @return boolean
+	 * @see CompatibilityFieldFilter#canSelectConcurrently()
+	 */
+	boolean canSelectConcurrently() {
+		for (MarkerFieldFilter filter : getFieldFilters()) {
+			if (!(filter instanceof CompatibilityFieldFilter)
+					|| !((CompatibilityFieldFilter) filter).canSelectConcurrently()) {
+				return false;
+			}
+		}
+		if (scope == ON_WORKING_SET && wSetResources == null) {
+			computeWorkingSetResources();
+		}
+		return true;
+	}
+
 	public boolean selectByFilters(MarkerEntry entry) {
 		return select(entry);
 	}
@@ -0,0 +1,155 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.ui.internal.views.markers;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.core.resources.IMarker;
+
+import com.ibm.icu.text.CollationKey;
+import com.ibm.icu.text.Collator;
+
+/**
+ * A MarkerSnapshot is a columnar view of one generation of marker entries.
+ * The severity of every entry is read once when the snapshot is taken, so
+ * that counts and the severity of categories do not go back to the marker
+ * attributes. Collation keys of the entries are shared through the snapshot,
+ * so equal strings (e.g. the same problem message reported in many files)
+ * are collated only once.
+ * <p>
+ * The snapshot also remembers the orderings produced for a given sort key,
+ * so that switching back and forth between sort columns does not re-sort the
+ * entries while they are unchanged.
+ * </p>
+ */
+class MarkerSnapshot {
+
+	static final int ERRORS = 0;
+	static final int WARNINGS = 1;
+	static final int INFOS = 2;
+	static final int OTHERS = 3;
+
+	// Orderings are large arrays, only keep the most recent ones
+	private static final int MAX_ORDERINGS = 4;
+
+	private final int[] severities;
+
+	private final int[] counts = new int[4];
+
+	private final Map<String, CollationKey> collationKeys = new ConcurrentHashMap<>();
+
+	private final Map<Object, MarkerEntry[]> orderings = new ConcurrentHashMap<>();
+
+	private final Collator collator = Collator.getInstance();
+
+	/**
+	 * Create a snapshot of the entries in their current order.
+	 *
+	 * @param entries
+	 */
+	MarkerSnapshot(MarkerEntry[] entries) {
+		severities = new int[entries.length];
+		for (int i = 0; i < entries.length; i++) {
+			MarkerEntry entry = entries[i];
+			entry.setSnapshot(this);
+			int severity = entry.getAttributeValue(IMarker.SEVERITY, -1);
+			severities[i] = severity;
+			counts[countIndex(severity)]++;
+		}
+	}
+
+	/**
+	 * Return the index into the counts arrays for severity.
+	 *
+	 * @param severity
+	 * @return one of {@link #ERRORS}, {@link #WARNINGS}, {@link #INFOS} or
+	 *         {@link #OTHERS}
+	 */
+	static int countIndex(int severity) {
+		switch (severity) {
+		case IMarker.SEVERITY_ERROR:
+			return ERRORS;
+		case IMarker.SEVERITY_WARNING:
+			return WARNINGS;
+		case IMarker.SEVERITY_INFO:
+			return INFOS;
+		default:
+			return OTHERS;
+		}
+	}
+
+	/**
+	 * Return the severity of the entry at index at the time the snapshot was
+	 * taken.
+	 *
+	 * @param index
+	 *            the index of the entry in the array passed to the constructor
+	 * @return int the severity or <code>-1</code> if none was set
+	 */
+	int getSeverity(int index) {
+		return severities[index];
+	}
+
+	/**
+	 * Return the marker counts of the snapshot.
+	 *
+	 * @return an array of {@link Integer} where index indicates
+	 *         [errors,warnings,infos,others]
+	 */
+	Integer[] getMarkerCounts() {
+		return new Integer[] { counts[ERRORS], counts[WARNINGS], counts[INFOS], counts[OTHERS] };
+	}
+
+	/**
+	 * Return the shared collation key for value.
+	 *
+	 * @param value
+	 * @return CollationKey
+	 */
+	CollationKey getCollationKey(String value) {
+		CollationKey key = collationKeys.get(value);
+		if (key == null) {
+			synchronized (collator) {
+				key = collator.getCollationKey(value);
+			}
+			CollationKey existing = collationKeys.putIfAbsent(value, key);
+			if (existing != null) {
+				key = existing;
+			}
+		}
+		return key;
+	}
+
+	/**
+	 * Return the ordering remembered for sortKey, or <code>null</code>.
+	 *
+	 * @param sortKey
+	 * @return MarkerEntry[] or <code>null</code>
+	 */
+	MarkerEntry[] getOrdering(Object sortKey) {
+		return orderings.get(sortKey);
+	}
+
+	/**
+	 * Remember the ordering of entries for sortKey.
+	 *
+	 * @param sortKey
+	 * @param entries
+	 */
+	void putOrdering(Object sortKey, MarkerEntry[] entries) {
+		if (orderings.size() >= MAX_ORDERINGS) {
+			orderings.clear();
+		}
+		orderings.put(sortKey, entries.clone());
+	}
+}
@@ -0,0 +1,73 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.ui.internal.views.markers;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * MarkerStageTimes records the time spent in the stages of one marker update.
+ * Stages that run in parallel partitions record the sum of the time spent by
+ * all partitions.
+ */
+class MarkerStageTimes {
+
+	static final int COLLECT = 0;
+	static final int FILTER = 1;
+	static final int GROUP = 2;
+	static final int SORT = 3;
+
+	private static final String[] STAGE_NAMES = { "collect", "filter", "group", "sort" }; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+
+	private final LongAdder[] nanos = new LongAdder[STAGE_NAMES.length];
+
+	MarkerStageTimes() {
+		for (int i = 0; i < nanos.length; i++) {
+			nanos[i] = new LongAdder();
+		}
+	}
+
+	/**
+	 * Add the time elapsed since start to stage.
+	 *
+	 * @param stage
+	 *            one of {@link #COLLECT}, {@link #FILTER}, {@link #GROUP} or
+	 *            {@link #SORT}
+	 * @param start
+	 *            the {@link System#nanoTime()} the stage started at
+	 */
+	void addSince(int stage, long start) {
+		nanos[stage].add(System.nanoTime() - start);
+	}
+
+	/**
+	 * Return the time spent in stage.
+	 *
+	 * @param stage
+	 * @return long the time in milliseconds
+	 */
+	long getMillis(int stage) {
+		return TimeUnit.NANOSECONDS.toMillis(nanos[stage].sum());
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < STAGE_NAMES.length; i++) {
+			if (i > 0) {
+				builder.append(", "); //$NON-NLS-1$
+			}
+			builder.append(STAGE_NAMES[i]).append(' ').append(getMillis(i)).append("ms"); //$NON-NLS-1$
+		}
+		return builder.toString();
+	}
+}
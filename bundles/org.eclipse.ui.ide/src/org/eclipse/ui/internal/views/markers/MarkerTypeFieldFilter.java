@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2015 IBM Corporation and others.
+ * Copyright (c) 2007, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -174,4 +174,9 @@ public class MarkerTypeFieldFilter extends CompatibilityFieldFilter {
 		((MarkerTypeFieldFilter) copy).selectedTypes = new HashSet<>(selectedTypes);
 		((MarkerTypeFieldFilter) copy).contentGenerator = contentGenerator;
 	}
+
+	@Override
+	boolean canSelectConcurrently() {
+		return true;
+	}
 }
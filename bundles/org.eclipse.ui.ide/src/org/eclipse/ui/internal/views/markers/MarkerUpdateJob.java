@@ -13,13 +13,16 @@ package org.eclipse.ui.internal.views.markers;
 
 import java.util.Collection;
 import java.util.LinkedList;
+import java.util.Set;
 
+import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.ui.PlatformUI;
 import org.eclipse.ui.internal.ide.IDEWorkbenchPlugin;
+import org.eclipse.ui.internal.ide.Policy;
 import org.eclipse.ui.views.markers.internal.MarkerMessages;
 import org.osgi.framework.Bundle;
 
@@ -67,17 +70,35 @@ class MarkerUpdateJob extends Job {
 		// MarkerMessages.MarkerView_searching_for_markers, false);
 
 		Collection<MarkerEntry> markerEntries = new LinkedList<>();
-		//this is not incremental clean every time
-		clean = !clean(markerEntries, monitor);
-		if (monitor.isCanceled()) {
-			return;
-		}
-		// builder.getUpdateScheduler().indicateStatus(
-		// MarkerMessages.MarkerView_processUpdates, false);
-
-		monitor.setTaskName(MarkerMessages.MarkerView_processUpdates);
-		if (!processMarkerEntries(markerEntries, monitor)) {
-			return;
+		// taken before collecting, later changes are left for the next update
+		Set<IMarker> changed = builder.takeChangedMarkers();
+		MarkerStageTimes times = new MarkerStageTimes();
+		boolean updated = false;
+		try {
+			//this is not incremental clean every time
+			clean = !clean(markerEntries, times, monitor);
+			if (monitor.isCanceled()) {
+				return;
+			}
+			// builder.getUpdateScheduler().indicateStatus(
+			// MarkerMessages.MarkerView_processUpdates, false);
+
+			monitor.setTaskName(MarkerMessages.MarkerView_processUpdates);
+			builder.getMarkers().reuseCachedAttributes(markerEntries, changed);
+			if (!processMarkerEntries(markerEntries, times, monitor)) {
+				return;
+			}
+			updated = true;
+			if (Policy.DEBUG_MARKERS_UPDATE) {
+				System.out.println(getName() + ": " + markerEntries.size() + " markers, " + times); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+		} finally {
+			if (!updated) {
+				// the entries of these markers may still be shown
+				for (IMarker marker : changed) {
+					builder.markerChanged(marker);
+				}
+			}
 		}
 		if (monitor.isCanceled()) {
 			return;
@@ -102,12 +123,21 @@ class MarkerUpdateJob extends Job {
 	 * @param markerEntries
 	 */
 	boolean clean(Collection<MarkerEntry> markerEntries, IProgressMonitor monitor) {
+		return clean(markerEntries, new MarkerStageTimes(), monitor);
+	}
+
+	/**
+	 * Collect the markers starting clean, all over again.
+	 * @param markerEntries
+	 * @param times
+	 */
+	boolean clean(Collection<MarkerEntry> markerEntries, MarkerStageTimes times, IProgressMonitor monitor) {
 		MarkerContentGenerator generator = builder.getGenerator();
 		if (monitor.isCanceled() || generator == null) {
 			return false;
 		}
 		builder.registerTypesToListener();
-		return generator.generateMarkerEntries(markerEntries, monitor);
+		return generator.generateMarkerEntries(markerEntries, times, monitor);
 	}
 
 	/**
@@ -118,11 +148,25 @@ class MarkerUpdateJob extends Job {
 	 *            the collection of new MarkerEntry(s)
 	 */
 	boolean processMarkerEntries(Collection<MarkerEntry> markerEntries, IProgressMonitor monitor) {
+		return processMarkerEntries(markerEntries, new MarkerStageTimes(), monitor);
+	}
+
+	/**
+	 * Process,sort and group the new marker entries in markerEntryList and
+	 * update the Markers object
+	 *
+	 * @param markerEntries
+	 *            the collection of new MarkerEntry(s)
+	 * @param times
+	 *            the times of the group and sort stages are added to
+	 */
+	boolean processMarkerEntries(Collection<MarkerEntry> markerEntries, MarkerStageTimes times,
+			IProgressMonitor monitor) {
 		Markers markers = builder.getMarkers();
 		if (monitor.isCanceled()) {
 			return false;
 		}
-		return markers.updateWithNewMarkers(markerEntries, true, monitor);
+		return markers.updateWithNewMarkers(markerEntries, true, times, monitor);
 	}
 
 	@Override
@@ -20,6 +20,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 import java.util.TreeMap;
 
 import org.eclipse.core.resources.IMarker;
@@ -55,6 +56,8 @@ class Markers {
 	// corresponding entry
 	private Map<IMarker, MarkerEntry> markerToEntryMap;
 	private Integer[] markerCounts;
+	// the columnar view of the current entries
+	private MarkerSnapshot snapshot;
 
 	Markers(CachedMarkerBuilder builder) {
 		this.builder = builder;
@@ -72,6 +75,22 @@ class Markers {
 	 */
 	synchronized boolean updateWithNewMarkers(Collection<MarkerEntry> markerEntries,
 			boolean sortAndGroup, IProgressMonitor monitor) {
+		return updateWithNewMarkers(markerEntries, sortAndGroup, new MarkerStageTimes(), monitor);
+	}
+
+	/**
+	 * Update with newly collected markers
+	 *
+	 * @param markerEntries
+	 *            the new marker entries
+	 * @param sortAndGroup
+	 *            true sort and group them
+	 * @param times
+	 *            the times of the group and sort stages are added to
+	 * @param monitor
+	 */
+	synchronized boolean updateWithNewMarkers(Collection<MarkerEntry> markerEntries,
+			boolean sortAndGroup, MarkerStageTimes times, IProgressMonitor monitor) {
 		boolean initialVal = inChange;
 		try {
 			inChange = true;
@@ -80,6 +99,7 @@ class Markers {
 				markerToEntryMap = null;
 			}
 			markerCounts = null;
+			snapshot = null;
 			if (markerEntries.size() == 0) {
 				categories = EMPTY_CATEGORY_ARRAY;
 				markerEntryArray = EMPTY_ENTRY_ARRAY;
@@ -90,11 +110,12 @@ class Markers {
 			}
 			markerEntryArray = new MarkerEntry[markerEntries.size()];
 			markerEntries.toArray(markerEntryArray);
+			snapshot = new MarkerSnapshot(markerEntryArray);
 			if (sortAndGroup) {
 				if (monitor.isCanceled()) {
 					return false;
 				}
-				sortAndMakeCategories(monitor);
+				sortAndMakeCategories(times, monitor);
 
 				if (monitor.isCanceled()) {
 					return false;
@@ -108,15 +129,56 @@ class Markers {
 		}
 	}
 
+	/**
+	 * Let the newly collected entries take over the cached attributes of the
+	 * current entries for the same markers, unless the markers have changed
+	 * since the current entries were collected.
+	 *
+	 * @param markerEntries
+	 *            the new marker entries
+	 * @param changedMarkers
+	 *            the markers changed since the last update
+	 */
+	synchronized void reuseCachedAttributes(Collection<MarkerEntry> markerEntries, Set<IMarker> changedMarkers) {
+		if (markerEntryArray.length == 0) {
+			return;
+		}
+		Map<IMarker, MarkerEntry> currentEntries = new HashMap<>(markerEntryArray.length * 4 / 3 + 1);
+		for (MarkerEntry markerEntry : markerEntryArray) {
+			IMarker marker = markerEntry.getMarker();
+			if (marker != null && !changedMarkers.contains(marker)) {
+				currentEntries.put(marker, markerEntry);
+			}
+		}
+		for (MarkerEntry markerEntry : markerEntries) {
+			MarkerEntry currentEntry = currentEntries.get(markerEntry.getMarker());
+			if (currentEntry != null) {
+				markerEntry.reuseCache(currentEntry);
+			}
+		}
+	}
+
 	/**
 	 * Sort the contained marker entries and build categories if required.
 	 *
 	 * @param monitor
 	 */
 	synchronized boolean sortAndMakeCategories(IProgressMonitor monitor) {
+		return sortAndMakeCategories(new MarkerStageTimes(), monitor);
+	}
+
+	/**
+	 * Sort the contained marker entries and build categories if required.
+	 *
+	 * @param times
+	 *            the times of the group and sort stages are added to
+	 * @param monitor
+	 */
+	synchronized boolean sortAndMakeCategories(MarkerStageTimes times, IProgressMonitor monitor) {
 		boolean initialVal = inChange;
 		try {
 			inChange = true;
+			long start = System.nanoTime();
 			// Sort by Category first
 			if (builder.isShowingHierarchy()) {
 				MarkerCategory[] markerCategories = groupIntoCategories(monitor, markerEntryArray);
@@ -124,13 +186,19 @@ class Markers {
 			} else {
 				categories = EMPTY_CATEGORY_ARRAY;
 			}
+			times.addSince(MarkerStageTimes.GROUP, start);
 
 			if (monitor.isCanceled()) {
 				return false;
 			}
 			monitor.subTask(MarkerMessages.MarkerView_processUpdates);
 
-			return sortMarkerEntries(monitor);
+			start = System.nanoTime();
+			try {
+				return sortMarkerEntries(monitor);
+			} finally {
+				times.addSince(MarkerStageTimes.SORT, start);
+			}
 		} finally {
 			inChange = initialVal;
 		}
@@ -146,6 +214,16 @@ class Markers {
 		boolean initialVal = inChange;
 		try {
 			inChange = true;
+			List<Object> sortKey = getSortKey();
+			MarkerEntry[] ordering = snapshot == null ? null : snapshot.getOrdering(sortKey);
+			if (ordering != null && ordering.length == markerEntryArray.length) {
+				System.arraycopy(ordering, 0, markerEntryArray, 0, ordering.length);
+				for (MarkerCategory category : categories) {
+					category.children = null; // reset cached children
+				}
+				monitor.worked(50);
+				return true;
+			}
 			if (builder.isShowingHierarchy()) {
 				Comparator<MarkerItem> comparator = builder.getComparator().getFieldsComparator();
 				for (MarkerCategory category : categories) {
@@ -172,6 +250,9 @@ class Markers {
 			if (monitor.isCanceled()) {
 				return false;
 			}
+			if (snapshot != null) {
+				snapshot.putOrdering(sortKey, markerEntryArray);
+			}
 			monitor.worked(50);
 			return true;
 		} finally {
@@ -179,6 +260,17 @@ class Markers {
 		}
 	}
 
+	/**
+	 * Return the key of the order the entries are sorted in, including the
+	 * limit on the number of sorted entries.
+	 */
+	private List<Object> getSortKey() {
+		List<Object> key = builder.getComparator().getSortKey();
+		key.add(Boolean.valueOf(builder.isShowingHierarchy()));
+		key.add(Integer.valueOf(getShowingLimit(markerEntryArray.length)));
+		return key;
+	}
+
 	/**
 	 * get marker limit to show, if any.
 	 *
@@ -206,17 +298,24 @@ class Markers {
 	 * @return MarkerCategory
 	 */
 	MarkerCategory[] groupIntoCategories(IProgressMonitor monitor, MarkerEntry[] newMarkers) {
+		Map<MarkerGroupingEntry, Integer> severityMap = new TreeMap<>(
+				builder.getCategoryGroup().getEntriesComparator());
 		Map<MarkerGroupingEntry, Integer> boundaryInfoMap = groupMarkerEntries(newMarkers,
-				builder.getCategoryGroup(), newMarkers.length - 1, monitor);
+				builder.getCategoryGroup(), newMarkers.length - 1, severityMap, monitor);
 		int start = 0;
 		MarkerCategory[] markerCategories = new MarkerCategory[boundaryInfoMap.size()];
 		int i = 0;
 		int end = 0;
 		for (Entry<MarkerGroupingEntry, Integer> entry : boundaryInfoMap.entrySet()) {
 			end = entry.getValue();
-			markerCategories[i++] = new MarkerCategory(this, start, end,
+			MarkerCategory category = new MarkerCategory(this, start, end,
 					builder.getCategoryGroup().getMarkerField()
 							.getValue(newMarkers[start]));
+			Integer severity = severityMap.get(entry.getKey());
+			if (severity != null) {
+				category.setHighestSeverity(severity.intValue());
+			}
+			markerCategories[i++] = category;
 			start = end + 1;
 		}
 		return markerCategories;
@@ -228,14 +327,19 @@ class Markers {
 	 * structures. But the speed benefit is tremendous at a very small price of
 	 * few extra references.
 	 *
+	 * The highest severity of each group is collected into severities, when
+	 * the entries are in the order of the current snapshot.
+	 *
 	 * @param entries
 	 * @param group
 	 * @param k
+	 * @param severities
 	 * @return {@link Map}
 	 *
 	 */
 	private Map<MarkerGroupingEntry, Integer> groupMarkerEntries(MarkerEntry[] entries, MarkerGroup group,
-			int k, IProgressMonitor monitor) {
+			int k, Map<MarkerGroupingEntry, Integer> severities, IProgressMonitor monitor) {
+		MarkerSnapshot columns = entries == markerEntryArray ? snapshot : null;
 		TreeMap<MarkerGroupingEntry, List<MarkerEntry>> map = new TreeMap<>(
 				group.getEntriesComparator());
 		for (int i = 0; i <= k; i++) {
@@ -254,6 +358,12 @@ class Markers {
 					map.put(groupingEntry, list);
 				}
 				list.add(entries[i]);
+				if (columns != null) {
+					Integer severity = severities.get(groupingEntry);
+					if (severity == null || severity.intValue() < columns.getSeverity(i)) {
+						severities.put(groupingEntry, Integer.valueOf(columns.getSeverity(i)));
+					}
+				}
 			} catch (CoreException e) {
 				entries[i].checkIfMarkerStale();
 			}
@@ -283,7 +393,7 @@ class Markers {
 	 */
 	Integer[] getMarkerCounts() {
 		if (markerCounts == null) {
-			markerCounts = getMarkerCounts(markerEntryArray);
+			markerCounts = snapshot == null ? getMarkerCounts(markerEntryArray) : snapshot.getMarkerCounts();
 		}
 		return markerCounts;
 	}
@@ -162,6 +162,12 @@ class MarkersChangeListener implements IResourceChangeListener {
 	 * @param event
 	 */
 	private void handleMarkerChange(IResourceChangeEvent event) {
+		String[] types = listeningTypes;
+		for (IMarkerDelta markerDelta : event.findMarkerDeltas(null, true)) {
+			if (markerDelta.getKind() == IResourceDelta.CHANGED && isApplicableType(types, markerDelta.getType())) {
+				builder.markerChanged(markerDelta.getMarker());
+			}
+		}
 		builder.getUpdateScheduler().scheduleUpdate();
 	}
 
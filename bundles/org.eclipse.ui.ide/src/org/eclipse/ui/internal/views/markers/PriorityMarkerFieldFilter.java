@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2015 IBM Corporation and others.
+ * Copyright (c) 2007, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -111,4 +111,9 @@ public class PriorityMarkerFieldFilter extends CompatibilityFieldFilter {
 		super.populateWorkingCopy(copy);
 		((PriorityMarkerFieldFilter)copy).selectedPriorities = selectedPriorities;
 	}
+
+	@Override
+	boolean canSelectConcurrently() {
+		return true;
+	}
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2015 IBM Corporation and others.
+ * Copyright (c) 2007, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -89,4 +89,9 @@ public abstract class SeverityAndDescriptionFieldFilter extends DescriptionField
 
 	}
 
+	@Override
+	boolean canSelectConcurrently() {
+		// subclasses select by their own settings and opt in themselves
+		return false;
+	}
 }
@@ -21,6 +21,9 @@ import org.eclipse.core.runtime.MultiStatus;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.osgi.util.NLS;
 import org.eclipse.ui.monitoring.IUiFreezeEventLogger;
+import org.eclipse.ui.monitoring.LockAnalysis;
+import org.eclipse.ui.monitoring.LockAnalysis.BlockingLock;
+import org.eclipse.ui.monitoring.LockAnalysis.Dependency;
 import org.eclipse.ui.monitoring.PreferenceConstants;
 import org.eclipse.ui.monitoring.StackSample;
 import org.eclipse.ui.monitoring.UiFreezeEvent;
@@ -89,6 +92,11 @@ public class DefaultUiFreezeEventLogger implements IUiFreezeEventLogger {
 		MultiStatus loggedEvent =
 				new SeverityMultiStatus(severity, PreferenceConstants.PLUGIN_ID, header, null);
 
+		LockAnalysis lockAnalysis = event.getLockAnalysis();
+		if (lockAnalysis != null) {
+			loggedEvent.add(createLockAnalysisStatus(lockAnalysis));
+		}
+
 		for (StackSample sample : stackTraceSamples) {
 			double deltaInSeconds = (sample.getTimestamp() - lastTimestamp) / 1000.0;
 			ThreadInfo[] threads = sample.getStackTraces();
@@ -115,6 +123,36 @@ public class DefaultUiFreezeEventLogger implements IUiFreezeEventLogger {
 		MonitoringPlugin.getDefault().getLog().log(loggedEvent);
 	}
 
+	private static IStatus createLockAnalysisStatus(LockAnalysis lockAnalysis) {
+		MultiStatus status = new SeverityMultiStatus(IStatus.INFO, PreferenceConstants.PLUGIN_ID,
+				Messages.DefaultUiFreezeEventLogger_lock_analysis_header, null);
+		if (lockAnalysis.isDeadlock()) {
+			StringBuilder cycle = new StringBuilder();
+			for (Dependency dependency : lockAnalysis.getDeadlockCycle()) {
+				cycle.append('\'').append(dependency.getWaiterName()).append("' -> "); //$NON-NLS-1$
+			}
+			cycle.append('\'').append(lockAnalysis.getDeadlockCycle().get(0).getWaiterName())
+					.append('\'');
+			status.add(new Status(IStatus.ERROR, PreferenceConstants.PLUGIN_ID,
+					NLS.bind(Messages.DefaultUiFreezeEventLogger_deadlock_1, cycle)));
+		}
+		for (Dependency dependency : lockAnalysis.getWaitForGraph()) {
+			String template = dependency.isSchedulingRule()
+					? Messages.DefaultUiFreezeEventLogger_waiting_for_rule_3
+					: Messages.DefaultUiFreezeEventLogger_waiting_for_lock_3;
+			status.add(new Status(IStatus.INFO, PreferenceConstants.PLUGIN_ID,
+					NLS.bind(template, new Object[] { dependency.getWaiterName(),
+							dependency.getResource(), dependency.getOwnerName() })));
+		}
+		for (BlockingLock lock : lockAnalysis.getTopBlockingLocks()) {
+			status.add(new Status(IStatus.INFO, PreferenceConstants.PLUGIN_ID,
+					NLS.bind(Messages.DefaultUiFreezeEventLogger_top_blocking_lock_3,
+							new Object[] { lock.getLock(), lock.getFreezeCount(),
+									String.format("%.3f", lock.getTotalDuration() / 1000.0) }))); //$NON-NLS-1$
+		}
+		return status;
+	}
+
 	private static IStatus createThreadStatus(ThreadInfo thread) {
 		Throwable stackTrace = new StackTrace(thread.getStackTrace());
 		StringBuilder threadText = createThreadMessage(thread);
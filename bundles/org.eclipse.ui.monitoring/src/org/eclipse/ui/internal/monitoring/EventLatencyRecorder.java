@@ -0,0 +1,156 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.monitoring;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.ui.monitoring.EventLatencyHistogram;
+
+/**
+ * Keeps a {@link LatencyHistogram} of dispatch times for each SWT event type. The histograms
+ * survive restarts of the {@link EventLoopMonitorThread}.
+ */
+public class EventLatencyRecorder {
+	/** Event types at or above this value are recorded in a shared histogram. */
+	private static final int MAX_EVENT_TYPE = 64;
+	private static final EventLatencyRecorder instance = new EventLatencyRecorder();
+
+	private final AtomicReferenceArray<LatencyHistogram> histograms =
+			new AtomicReferenceArray<>(MAX_EVENT_TYPE + 1);
+
+	public static EventLatencyRecorder getDefault() {
+		return instance;
+	}
+
+	/**
+	 * Records the time spent dispatching an event.
+	 *
+	 * @param eventType the SWT event type, or {@link SWT#None} for runnables
+	 * @param nanos the dispatch time in nanoseconds
+	 */
+	public void record(int eventType, long nanos) {
+		int index = eventType >= 0 && eventType < MAX_EVENT_TYPE ? eventType : MAX_EVENT_TYPE;
+		LatencyHistogram histogram = histograms.get(index);
+		if (histogram == null) {
+			histograms.compareAndSet(index, null, new LatencyHistogram());
+			histogram = histograms.get(index);
+		}
+		histogram.record(nanos / 1000);
+	}
+
+	/**
+	 * Returns snapshots of the histograms of the event types that were recorded.
+	 */
+	public EventLatencyHistogram[] getHistograms() {
+		List<EventLatencyHistogram> result = new ArrayList<>();
+		for (int i = 0; i < histograms.length(); i++) {
+			LatencyHistogram histogram = histograms.get(i);
+			if (histogram != null) {
+				EventLatencyHistogram snapshot = histogram.snapshot(getEventTypeName(i));
+				if (snapshot.getCount() != 0) {
+					result.add(snapshot);
+				}
+			}
+		}
+		return result.toArray(new EventLatencyHistogram[result.size()]);
+	}
+
+	/**
+	 * Clears all histograms.
+	 */
+	public void reset() {
+		for (int i = 0; i < histograms.length(); i++) {
+			LatencyHistogram histogram = histograms.get(i);
+			if (histogram != null) {
+				histogram.reset();
+			}
+		}
+	}
+
+	/**
+	 * Returns the name used for the histogram of the given event type.
+	 */
+	static String getEventTypeName(int eventType) {
+		switch (eventType) {
+		case SWT.None:
+			return "Runnable"; //$NON-NLS-1$
+		case SWT.KeyDown:
+			return "KeyDown"; //$NON-NLS-1$
+		case SWT.KeyUp:
+			return "KeyUp"; //$NON-NLS-1$
+		case SWT.MouseDown:
+			return "MouseDown"; //$NON-NLS-1$
+		case SWT.MouseUp:
+			return "MouseUp"; //$NON-NLS-1$
+		case SWT.MouseMove:
+			return "MouseMove"; //$NON-NLS-1$
+		case SWT.MouseEnter:
+			return "MouseEnter"; //$NON-NLS-1$
+		case SWT.MouseExit:
+			return "MouseExit"; //$NON-NLS-1$
+		case SWT.MouseDoubleClick:
+			return "MouseDoubleClick"; //$NON-NLS-1$
+		case SWT.Paint:
+			return "Paint"; //$NON-NLS-1$
+		case SWT.Move:
+			return "Move"; //$NON-NLS-1$
+		case SWT.Resize:
+			return "Resize"; //$NON-NLS-1$
+		case SWT.Selection:
+			return "Selection"; //$NON-NLS-1$
+		case SWT.DefaultSelection:
+			return "DefaultSelection"; //$NON-NLS-1$
+		case SWT.FocusIn:
+			return "FocusIn"; //$NON-NLS-1$
+		case SWT.FocusOut:
+			return "FocusOut"; //$NON-NLS-1$
+		case SWT.Expand:
+			return "Expand"; //$NON-NLS-1$
+		case SWT.Collapse:
+			return "Collapse"; //$NON-NLS-1$
+		case SWT.Close:
+			return "Close"; //$NON-NLS-1$
+		case SWT.Show:
+			return "Show"; //$NON-NLS-1$
+		case SWT.Hide:
+			return "Hide"; //$NON-NLS-1$
+		case SWT.Modify:
+			return "Modify"; //$NON-NLS-1$
+		case SWT.Verify:
+			return "Verify"; //$NON-NLS-1$
+		case SWT.Activate:
+			return "Activate"; //$NON-NLS-1$
+		case SWT.Deactivate:
+			return "Deactivate"; //$NON-NLS-1$
+		case SWT.Traverse:
+			return "Traverse"; //$NON-NLS-1$
+		case SWT.MouseHover:
+			return "MouseHover"; //$NON-NLS-1$
+		case SWT.MenuDetect:
+			return "MenuDetect"; //$NON-NLS-1$
+		case SWT.SetData:
+			return "SetData"; //$NON-NLS-1$
+		case SWT.MouseWheel:
+			return "MouseWheel"; //$NON-NLS-1$
+		case SWT.EraseItem:
+			return "EraseItem"; //$NON-NLS-1$
+		case SWT.PaintItem:
+			return "PaintItem"; //$NON-NLS-1$
+		case MAX_EVENT_TYPE:
+			return "Other"; //$NON-NLS-1$
+		default:
+			return "Event " + eventType; //$NON-NLS-1$
+		}
+	}
+}
@@ -12,6 +12,7 @@
  *******************************************************************************/
 package org.eclipse.ui.internal.monitoring;
 
+import java.io.File;
 import java.lang.management.ManagementFactory;
 import java.lang.management.ThreadInfo;
 import java.lang.management.ThreadMXBean;
@@ -35,6 +36,7 @@ import org.eclipse.swt.widgets.Event;
 import org.eclipse.swt.widgets.Listener;
 import org.eclipse.ui.IWorkbench;
 import org.eclipse.ui.monitoring.IUiFreezeEventLogger;
+import org.eclipse.ui.monitoring.LockAnalysis;
 import org.eclipse.ui.monitoring.PreferenceConstants;
 import org.eclipse.ui.monitoring.StackSample;
 import org.eclipse.ui.monitoring.UiFreezeEvent;
@@ -73,6 +75,17 @@ public class EventLoopMonitorThread extends Thread {
 		public int maxStackSamples;
 		/** If true, log freeze events to the Eclipse error log on the local machine. */
 		public boolean logToErrorLog;
+		/** If true, write freeze events to files in the plug-in state location. */
+		public boolean logToFile;
+		/**
+		 * If true, write the running Java Flight Recorder recordings to a file when a freeze
+		 * longer than {@link #longEventErrorThreshold} is logged.
+		 */
+		public boolean dumpFlightRecording;
+		/**
+		 * @see org.eclipse.ui.monitoring.PreferenceConstants#CONTINUOUS_SAMPLING_INTERVAL_MILLIS
+		 */
+		public int continuousSamplingInterval;
 		/** @see org.eclipse.ui.monitoring.PreferenceConstants#UI_THREAD_FILTER */
 		public String uiThreadFilter;
 		/** @see org.eclipse.ui.monitoring.PreferenceConstants#NONINTERESTING_THREAD_FILTER */
@@ -132,6 +145,17 @@ public class EventLoopMonitorThread extends Thread {
 		private int[] nestingLevelStack = new int[64];
 		private int nestingLevelStackSize;
 
+		/*
+		 * The types of the events being dispatched and the time spent in each of them excluding
+		 * the nested events, used for the event latency histograms. Unlike nestingLevel, these are
+		 * not reset by external event dispatch.
+		 */
+		private int[] dispatchTypes = new int[16];
+		private long[] dispatchNanos = new long[16];
+		private int dispatchDepth;
+		/** The time of the last transition if it started a timed interval, otherwise 0. */
+		private long lastTransitionNanos;
+
 		@Override
 		public void handleEvent(Event event) {
 			/*
@@ -167,6 +191,8 @@ public class EventLoopMonitorThread extends Thread {
 				if (eventHistory != null) {
 					eventHistory.recordEvent(event.type, event.detail, nestingLevel);
 				}
+				accountDispatchTime(true);
+				pushDispatch(event.detail);
 				// Log a long interval, start the timer.
 				handleEventTransition(true, true);
 				break;
@@ -182,6 +208,8 @@ public class EventLoopMonitorThread extends Thread {
 				if (eventHistory != null) {
 					eventHistory.recordEvent(event.type, event.detail, nestingLevel);
 				}
+				accountDispatchTime(nestingLevel > 0);
+				popDispatch();
 				 // Log a long interval, start the timer if inside another event.
 				handleEventTransition(true, nestingLevel > 0);
 				break;
@@ -190,6 +218,7 @@ public class EventLoopMonitorThread extends Thread {
 				if (eventHistory != null) {
 					eventHistory.recordEvent(event.type, event.detail, nestingLevel);
 				}
+				accountDispatchTime(false);
 				// Log a long interval, stop the timer.
 				handleEventTransition(true, false);
 				break;
@@ -198,6 +227,7 @@ public class EventLoopMonitorThread extends Thread {
 				if (eventHistory != null) {
 					eventHistory.recordEvent(event.type, event.detail, nestingLevel);
 				}
+				accountDispatchTime(nestingLevel > 0);
 				// Don't log a long interval, start the timer if inside another event.
 				handleEventTransition(false, nestingLevel > 0);
 				break;
@@ -234,6 +264,39 @@ public class EventLoopMonitorThread extends Thread {
 			}
 		}
 
+		/**
+		 * Adds the interval since the last transition to the innermost event being dispatched,
+		 * unless the UI thread was in an external event loop.
+		 *
+		 * @param startTimer whether the interval starting now is spent dispatching an event
+		 */
+		private void accountDispatchTime(boolean startTimer) {
+			long now = System.nanoTime();
+			if (lastTransitionNanos != 0 && dispatchDepth > 0) {
+				dispatchNanos[dispatchDepth - 1] += now - lastTransitionNanos;
+			}
+			lastTransitionNanos = startTimer ? now : 0;
+		}
+
+		private void pushDispatch(int eventType) {
+			if (dispatchDepth == dispatchTypes.length) {
+				dispatchTypes = Arrays.copyOf(dispatchTypes, dispatchDepth * 2);
+				dispatchNanos = Arrays.copyOf(dispatchNanos, dispatchDepth * 2);
+			}
+			dispatchTypes[dispatchDepth] = eventType;
+			dispatchNanos[dispatchDepth] = 0;
+			dispatchDepth++;
+		}
+
+		private void popDispatch() {
+			// The depth may be zero if some PreEvent events had occurred before we started
+			// listening to SWT events.
+			if (dispatchDepth > 0) {
+				dispatchDepth--;
+				latencyRecorder.record(dispatchTypes[dispatchDepth], dispatchNanos[dispatchDepth]);
+			}
+		}
+
 		private void restoreNestingLevel() {
 			if (nestingLevelStackSize > 0) {
 				nestingLevel = nestingLevelStack[--nestingLevelStackSize];
@@ -338,11 +401,16 @@ public class EventLoopMonitorThread extends Thread {
 	private final AtomicBoolean cancelled = new AtomicBoolean(false);
 	private final AtomicReference<LongEventInfo> eventToPublish =
 			new AtomicReference<LongEventInfo>(null);
+	private final EventLatencyRecorder latencyRecorder = EventLatencyRecorder.getDefault();
+	/** {@code null} if the VM does not support Java Flight Recorder. */
+	private final FlightRecorderSupport flightRecorder;
 
 	// Accessed only by the monitoring thread.
 	private final List<IUiFreezeEventLogger> externalLoggers =
 			new ArrayList<IUiFreezeEventLogger>();
 	private DefaultUiFreezeEventLogger defaultLogger;
+	private FileUiFreezeEventLogger fileLogger;
+	private final LockAnalyzer lockAnalyzer = new LockAnalyzer();
 	private final Display display;
 	private final FilterHandler uiThreadFilter;
 	private final FilterHandler noninterestingThreadFilter;
@@ -355,6 +423,11 @@ public class EventLoopMonitorThread extends Thread {
 	private final long uiThreadId;
 	private final Object sleepMonitor;
 	private final boolean logToErrorLog;
+	private final boolean logToFile;
+	/** {@code null} if flight recordings are not written for UI freezes. */
+	private final FlightRecordingDumper flightRecordingDumper;
+	/** {@code null} if continuous sampling is disabled. */
+	private final StackSamplingProfiler profiler;
 	private EventHistory eventHistory;
 	private ThreadMXBean threadMXBean;
 	private boolean dumpLockedMonitors;
@@ -390,8 +463,23 @@ public class EventLoopMonitorThread extends Thread {
 		allThreadsSampleInterval = longEventErrorThreshold * 2 / 3;
 		deadlockThreshold = args.deadlockThreshold;
 		logToErrorLog = args.logToErrorLog;
+		logToFile = args.logToFile;
+		flightRecorder = FlightRecorderSupport.getInstance();
+		if (flightRecorder != null && args.dumpFlightRecording) {
+			flightRecordingDumper = new FlightRecordingDumper(flightRecorder, longEventErrorThreshold,
+					EventLoopMonitorThread::getFlightRecordingFile);
+		} else {
+			flightRecordingDumper = null;
+		}
 		uiThreadFilter = new FilterHandler(args.uiThreadFilter);
 		noninterestingThreadFilter = new FilterHandler(args.noninterestingThreadFilter);
+		if (args.continuousSamplingInterval > 0) {
+			profiler = new StackSamplingProfiler(display.getThread(), args.continuousSamplingInterval,
+					StackSamplingProfiler.DEFAULT_CAPACITY, () -> eventStartOrResumeTime != 0,
+					args.uiThreadFilter, args.noninterestingThreadFilter);
+		} else {
+			profiler = null;
+		}
 		sleepMonitor = new Object();
 	}
 
@@ -433,6 +521,10 @@ public class EventLoopMonitorThread extends Thread {
 			long startTime = eventStartOrResumeTime;
 			if (startTime != 0) {
 				int duration = (int) (currTime - startTime);
+				// Intervals shorter than the timer resolution carry no information.
+				if (flightRecorder != null && duration > 0) {
+					flightRecorder.eventDispatched(startTime, duration, eventLoopState.nestingLevel);
+				}
 				if (duration >= longEventWarningThreshold) {
 					LongEventInfo info = new LongEventInfo(startTime, duration);
 					eventToPublish.set(info);
@@ -449,9 +541,15 @@ public class EventLoopMonitorThread extends Thread {
 			defaultLogger = new DefaultUiFreezeEventLogger(longEventErrorThreshold);
 		}
 
+		if (logToFile) {
+			fileLogger = new FileUiFreezeEventLogger(
+					MonitoringPlugin.getDefault().getStateLocation().toFile());
+			fileLogger.start();
+		}
+
 		loadLoggerExtensions();
 
-		if (!logToErrorLog && externalLoggers.isEmpty()) {
+		if (!logToErrorLog && !logToFile && externalLoggers.isEmpty()) {
 			MonitoringPlugin.logWarning(Messages.EventLoopMonitorThread_logging_disabled_error);
 		}
 
@@ -485,6 +583,12 @@ public class EventLoopMonitorThread extends Thread {
 
 		boolean dumpAllThreads = false;
 
+		boolean freezeStartRecorded = false;
+
+		if (profiler != null) {
+			profiler.start();
+		}
+
 		// Register for events
 		display.asyncExec(() -> registerDisplayListeners());
 
@@ -500,6 +604,7 @@ public class EventLoopMonitorThread extends Thread {
 				}
 				grabStackSampleAt = eventTime + sampleInterval;
 				numSamples = 0;
+				freezeStartRecorded = false;
 				starvedAwake = false;
 				starvedAsleep = false;
 				if (dumpAllThreads) {
@@ -568,6 +673,13 @@ public class EventLoopMonitorThread extends Thread {
 					}
 				}
 			} else if (lastEventStartOrResumeTime != 0) {
+				if (!freezeStartRecorded && currTime >= lastEventStartOrResumeTime + sampleInterval) {
+					freezeStartRecorded = true;
+					if (flightRecorder != null) {
+						flightRecorder.freezeStarted(lastEventStartOrResumeTime);
+					}
+				}
+
 				if (!dumpAllThreads && currTime >= lastEventStartOrResumeTime + allThreadsSampleInterval) {
 					// Start capturing stacks of all threads.
 					dumpAllThreads = true;
@@ -584,7 +696,7 @@ public class EventLoopMonitorThread extends Thread {
 							numSamples = maxLoggedStackSamples;
 						}
 						if (uiThreadFilter.shouldLogEvent(stackSamples, numSamples, uiThreadId)) {
-							logEvent(new UiFreezeEvent(deadlockTimerStart, totalDuration,
+							logEvent(createFreezeEvent(deadlockTimerStart, totalDuration,
 									Arrays.copyOf(stackSamples, numSamples),
 									true, starvedAwake, starvedAsleep));
 							deadlockTimerStart = 0; // Don't log potential deadlock more than once.
@@ -600,7 +712,11 @@ public class EventLoopMonitorThread extends Thread {
 					}
 
 					ThreadInfo[] threadStacks = captureThreadStacks(dumpAllThreads);
-					stackSamples[numSamples++] = new StackSample(getTimestamp(), threadStacks);
+					StackSample sample = new StackSample(getTimestamp(), threadStacks);
+					stackSamples[numSamples++] = sample;
+					if (flightRecorder != null) {
+						flightRecorder.stackSampled(lastEventStartOrResumeTime, sample);
+					}
 					if (numSamples == maxStackSamples) {
 						pollingDelay *= 2; // Reduce polling frequency.
 					}
@@ -630,7 +746,7 @@ public class EventLoopMonitorThread extends Thread {
 				}
 
 				if (uiThreadFilter.shouldLogEvent(stackSamples, numSamples, uiThreadId)) {
-					logEvent(new UiFreezeEvent(eventSnapshot.start, eventSnapshot.duration,
+					logEvent(createFreezeEvent(eventSnapshot.start, eventSnapshot.duration,
 							Arrays.copyOf(stackSamples, numSamples),
 							false, starvedAwake, starvedAsleep));
 				}
@@ -640,6 +756,31 @@ public class EventLoopMonitorThread extends Thread {
 
 			lastEventStartOrResumeTime = currEventStartOrResumeTime;
 		}
+
+		if (profiler != null) {
+			profiler.shutdown();
+		}
+		if (fileLogger != null) {
+			fileLogger.shutdown();
+		}
+	}
+
+	/**
+	 * Creates a UI freeze event including the analysis of the locks blocking the UI thread.
+	 */
+	private UiFreezeEvent createFreezeEvent(long start, long duration, StackSample[] samples,
+			boolean stillRunning, boolean starvedAwake, boolean starvedAsleep) {
+		StackSample[] analyzedSamples = samples;
+		if (stillRunning) {
+			// A potential deadlock is still in progress, analyze the current state of all threads.
+			analyzedSamples = Arrays.copyOf(samples, samples.length + 1);
+			analyzedSamples[samples.length] = new StackSample(getTimestamp(),
+					threadMXBean.dumpAllThreads(dumpLockedMonitors, dumpLockedSynchronizers));
+		}
+		LockAnalysis lockAnalysis = lockAnalyzer.analyze(analyzedSamples, uiThreadId, start,
+				duration, LockAnalyzer.collectSchedulingRuleOwners());
+		return new UiFreezeEvent(start, duration, samples, stillRunning, starvedAwake,
+				starvedAsleep, lockAnalysis);
 	}
 
 	private ThreadInfo[] captureThreadStacks(boolean dumpAllThreads) {
@@ -768,6 +909,22 @@ public class EventLoopMonitorThread extends Thread {
 		}
 	}
 
+	/**
+	 * Returns the file in the state location of the plug-in to write the flight recording of a UI
+	 * freeze to, or {@code null} if the plug-in is not active.
+	 */
+	private static File getFlightRecordingFile(UiFreezeEvent event) {
+		MonitoringPlugin plugin = MonitoringPlugin.getDefault();
+		if (plugin == null) {
+			return null;
+		}
+		String timestamp =
+				new SimpleDateFormat("yyyyMMdd-HHmmss-SSS").format(new Date(event.getStartTimestamp())); //$NON-NLS-1$
+		return plugin.getStateLocation()
+				.append(FlightRecordingDumper.FILE_NAME_PREFIX + timestamp + FlightRecordingDumper.FILE_NAME_SUFFIX)
+				.toFile();
+	}
+
 	/**
 	 * Writes a UI freeze event to the log.
 	 */
@@ -780,6 +937,17 @@ public class EventLoopMonitorThread extends Thread {
 			defaultLogger.log(event);
 		}
 
+		if (logToFile) {
+			fileLogger.log(event);
+		}
+
+		if (flightRecorder != null) {
+			flightRecorder.freezeLogged(event);
+		}
+		if (flightRecordingDumper != null) {
+			flightRecordingDumper.freezeLogged(event);
+		}
+
 		for (int i = 0; i < externalLoggers.size(); i++) {
 			IUiFreezeEventLogger currentLogger = externalLoggers.get(i);
 			try {
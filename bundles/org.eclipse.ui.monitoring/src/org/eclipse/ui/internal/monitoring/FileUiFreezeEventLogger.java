@@ -0,0 +1,346 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.monitoring;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ThreadInfo;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.osgi.util.NLS;
+import org.eclipse.ui.monitoring.IUiFreezeEventLogger;
+import org.eclipse.ui.monitoring.StackSample;
+import org.eclipse.ui.monitoring.UiFreezeEvent;
+
+/**
+ * Writes {@link UiFreezeEvent}s to compact binary files in a directory. The events are queued
+ * and written in batches by a background thread, so that logging does not add to the load of
+ * a system that is already struggling. When the queue is full, events are dropped and the number
+ * of dropped events is written to the file instead.
+ * <p>
+ * Strings, stack frames and stacks are written once per file and referred to by their index
+ * afterwards. The current file is rotated when it exceeds the maximum size, so every file can be
+ * read on its own. Use {@link org.eclipse.ui.monitoring.UiFreezeLog} to read the files.
+ */
+public class FileUiFreezeEventLogger implements IUiFreezeEventLogger {
+	/** Name of the file the events are written to. Rotated files have an index before the dot. */
+	public static final String FILE_NAME = "ui-freezes.log"; //$NON-NLS-1$
+	public static final String FILE_NAME_PREFIX = "ui-freezes"; //$NON-NLS-1$
+	public static final String FILE_NAME_SUFFIX = ".log"; //$NON-NLS-1$
+	public static final int MAGIC = 0x55494652; // "UIFR"
+	public static final int VERSION = 1;
+	// Record types. Strings, frames and stacks get consecutive indexes starting from zero.
+	/** A string: UTF. */
+	public static final byte STRING = 1;
+	/** A stack frame: class, method and file name string indexes, line number. */
+	public static final byte FRAME = 2;
+	/** A stack trace: number of frames, frame indexes. */
+	public static final byte STACK = 3;
+	/**
+	 * A UI freeze: start, duration, flags, number of samples, and for each sample its timestamp,
+	 * number of threads and for each thread ID, name string index, state ordinal, stack index,
+	 * lock string index or -1, lock owner ID.
+	 */
+	public static final byte FREEZE = 4;
+	/** Events dropped because the queue was full: their number. */
+	public static final byte DROPPED = 5;
+	public static final int FLAG_STILL_RUNNING = 1;
+	public static final int FLAG_STARVED_AWAKE = 2;
+	public static final int FLAG_STARVED_ASLEEP = 4;
+
+	static final int DEFAULT_QUEUE_CAPACITY = 64;
+	static final long DEFAULT_MAX_FILE_SIZE = 4 * 1024 * 1024;
+	static final int DEFAULT_MAX_FILES = 5;
+	private static final int MAX_BATCH_SIZE = 16;
+	private static final UiFreezeEvent SHUTDOWN =
+			new UiFreezeEvent(0, 0, new StackSample[0], false, false, false);
+
+	/** Wraps an array of frame indexes to be used as a map key. */
+	private static final class StackKey {
+		final int[] frames;
+		private final int hash;
+
+		StackKey(int[] frames) {
+			this.frames = frames;
+			this.hash = Arrays.hashCode(frames);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof StackKey && Arrays.equals(frames, ((StackKey) obj).frames);
+		}
+	}
+
+	private final File directory;
+	private final long maxFileSize;
+	private final int maxFiles;
+	private final BlockingQueue<UiFreezeEvent> queue;
+	private final AtomicInteger droppedEvents = new AtomicInteger();
+	private Thread writerThread;
+	private volatile boolean shuttingDown;
+
+	// Accessed only by the writer thread.
+	private final Map<String, Integer> stringIndexes = new HashMap<>();
+	private final Map<StackTraceElement, Integer> frameIndexes = new HashMap<>();
+	private final Map<StackKey, Integer> stackIndexes = new HashMap<>();
+	private FileOutputStream fileStream;
+	private DataOutputStream out;
+
+	/**
+	 * Creates a logger writing to the given directory with the default limits.
+	 */
+	public FileUiFreezeEventLogger(File directory) {
+		this(directory, DEFAULT_QUEUE_CAPACITY, DEFAULT_MAX_FILE_SIZE, DEFAULT_MAX_FILES);
+	}
+
+	/**
+	 * Creates a logger. Visible for testing.
+	 *
+	 * @param directory the directory of the files
+	 * @param queueCapacity the maximum number of events waiting to be written
+	 * @param maxFileSize the size in bytes after which the file is rotated
+	 * @param maxFiles the maximum number of files including the current one
+	 */
+	FileUiFreezeEventLogger(File directory, int queueCapacity, long maxFileSize, int maxFiles) {
+		this.directory = directory;
+		this.maxFileSize = maxFileSize;
+		this.maxFiles = maxFiles;
+		this.queue = new ArrayBlockingQueue<>(queueCapacity);
+	}
+
+	/**
+	 * Returns the file with the given index, zero being the current file.
+	 */
+	public static File getFile(File directory, int index) {
+		return new File(directory, index == 0 ? FILE_NAME
+				: FILE_NAME_PREFIX + '.' + index + FILE_NAME_SUFFIX);
+	}
+
+	/**
+	 * Starts writing the events on a daemon thread.
+	 */
+	public void start() {
+		writerThread = new Thread(this::run, "UI Freeze Log Writer"); //$NON-NLS-1$
+		writerThread.setDaemon(true);
+		writerThread.start();
+	}
+
+	/**
+	 * Writes the queued events and stops the writer thread.
+	 */
+	public void shutdown() {
+		shuttingDown = true;
+		queue.offer(SHUTDOWN);
+		if (writerThread != null) {
+			try {
+				writerThread.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	/**
+	 * Queues the event to be written. Never blocks.
+	 */
+	@Override
+	public void log(UiFreezeEvent event) {
+		if (shuttingDown || !queue.offer(event)) {
+			droppedEvents.incrementAndGet();
+		}
+	}
+
+	private void run() {
+		List<UiFreezeEvent> batch = new ArrayList<>(MAX_BATCH_SIZE);
+		try {
+			openFile();
+			while (!shuttingDown || !queue.isEmpty()) {
+				try {
+					batch.add(queue.take());
+				} catch (InterruptedException e) {
+					break;
+				}
+				queue.drainTo(batch, MAX_BATCH_SIZE - 1);
+				for (UiFreezeEvent event : batch) {
+					if (event != SHUTDOWN) {
+						writeEvent(event);
+					}
+				}
+				batch.clear();
+				int dropped = droppedEvents.getAndSet(0);
+				if (dropped != 0) {
+					out.writeByte(DROPPED);
+					out.writeInt(dropped);
+				}
+				out.flush();
+				if (fileStream.getChannel().position() >= maxFileSize) {
+					closeFile();
+					openFile();
+				}
+			}
+			int dropped = droppedEvents.getAndSet(0);
+			if (dropped != 0) {
+				out.writeByte(DROPPED);
+				out.writeInt(dropped);
+			}
+		} catch (IOException e) {
+			MonitoringPlugin.logError(NLS.bind(Messages.FileUiFreezeEventLogger_write_error_1,
+					getFile(directory, 0)), e);
+		} finally {
+			try {
+				closeFile();
+			} catch (IOException e) {
+				// Ignore.
+			}
+		}
+	}
+
+	/**
+	 * Rotates the existing files and opens a new current file.
+	 */
+	private void openFile() throws IOException {
+		directory.mkdirs();
+		File current = getFile(directory, 0);
+		if (current.exists()) {
+			getFile(directory, maxFiles - 1).delete();
+			for (int i = maxFiles - 1; --i >= 0;) {
+				File file = getFile(directory, i);
+				if (file.exists()) {
+					file.renameTo(getFile(directory, i + 1));
+				}
+			}
+			// Renaming fails if the files are not rotated, e.g. for maxFiles == 1.
+			current.delete();
+		}
+		stringIndexes.clear();
+		frameIndexes.clear();
+		stackIndexes.clear();
+		fileStream = new FileOutputStream(current);
+		out = new DataOutputStream(new BufferedOutputStream(fileStream));
+		out.writeInt(MAGIC);
+		out.writeShort(VERSION);
+	}
+
+	private void closeFile() throws IOException {
+		OutputStream stream = out;
+		out = null;
+		fileStream = null;
+		if (stream != null) {
+			stream.close();
+		}
+	}
+
+	private void writeEvent(UiFreezeEvent event) throws IOException {
+		StackSample[] samples = event.getStackTraceSamples();
+		// Write the referenced strings, frames and stacks first.
+		int[][] threadStacks = new int[samples.length][];
+		for (int i = 0; i < samples.length; i++) {
+			ThreadInfo[] threads = samples[i].getStackTraces();
+			threadStacks[i] = new int[threads.length];
+			for (int j = 0; j < threads.length; j++) {
+				internString(threads[j].getThreadName());
+				if (threads[j].getLockInfo() != null) {
+					internString(LockAnalyzer.describe(threads[j].getLockInfo()));
+				}
+				threadStacks[i][j] = internStack(threads[j].getStackTrace());
+			}
+		}
+
+		out.writeByte(FREEZE);
+		out.writeLong(event.getStartTimestamp());
+		out.writeLong(event.getTotalDuration());
+		out.writeByte((event.isStillRunning() ? FLAG_STILL_RUNNING : 0)
+				| (event.isStarvedAwake() ? FLAG_STARVED_AWAKE : 0)
+				| (event.isStarvedAsleep() ? FLAG_STARVED_ASLEEP : 0));
+		out.writeInt(samples.length);
+		for (int i = 0; i < samples.length; i++) {
+			ThreadInfo[] threads = samples[i].getStackTraces();
+			out.writeLong(samples[i].getTimestamp());
+			out.writeInt(threads.length);
+			for (int j = 0; j < threads.length; j++) {
+				ThreadInfo thread = threads[j];
+				out.writeLong(thread.getThreadId());
+				out.writeInt(internString(thread.getThreadName()));
+				out.writeByte(thread.getThreadState().ordinal());
+				out.writeInt(threadStacks[i][j]);
+				out.writeInt(thread.getLockInfo() == null ? -1
+						: internString(LockAnalyzer.describe(thread.getLockInfo())));
+				out.writeLong(thread.getLockOwnerId());
+			}
+		}
+	}
+
+	private int internString(String string) throws IOException {
+		if (string == null) {
+			string = ""; //$NON-NLS-1$
+		}
+		Integer index = stringIndexes.get(string);
+		if (index == null) {
+			index = stringIndexes.size();
+			stringIndexes.put(string, index);
+			out.writeByte(STRING);
+			out.writeUTF(string);
+		}
+		return index;
+	}
+
+	private int internFrame(StackTraceElement frame) throws IOException {
+		Integer index = frameIndexes.get(frame);
+		if (index == null) {
+			int className = internString(frame.getClassName());
+			int methodName = internString(frame.getMethodName());
+			int fileName = frame.getFileName() == null ? -1 : internString(frame.getFileName());
+			index = frameIndexes.size();
+			frameIndexes.put(frame, index);
+			out.writeByte(FRAME);
+			out.writeInt(className);
+			out.writeInt(methodName);
+			out.writeInt(fileName);
+			out.writeInt(frame.getLineNumber());
+		}
+		return index;
+	}
+
+	private int internStack(StackTraceElement[] stackTrace) throws IOException {
+		int[] frames = new int[stackTrace.length];
+		for (int i = 0; i < stackTrace.length; i++) {
+			frames[i] = internFrame(stackTrace[i]);
+		}
+		StackKey key = new StackKey(frames);
+		Integer index = stackIndexes.get(key);
+		if (index == null) {
+			index = stackIndexes.size();
+			stackIndexes.put(key, index);
+			out.writeByte(STACK);
+			out.writeInt(frames.length);
+			for (int frame : frames) {
+				out.writeInt(frame);
+			}
+		}
+		return index;
+	}
+}
@@ -0,0 +1,356 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.monitoring;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ThreadInfo;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.ui.monitoring.StackSample;
+import org.eclipse.ui.monitoring.UiFreezeEvent;
+
+/**
+ * Emits UI responsiveness events to Java Flight Recorder, so that UI freezes can be correlated
+ * with garbage collection, allocation and lock profiling in the same recording.
+ * <p>
+ * The bundle is compiled against Java 8, so the {@code jdk.jfr} API is accessed reflectively and
+ * the events are defined at runtime with {@code jdk.jfr.EventFactory}. If the running VM does not
+ * provide the API, {@link #getInstance()} returns {@code null}. While no recording is running,
+ * the event methods return after reading a single volatile field.
+ */
+public class FlightRecorderSupport implements FlightRecordingDumper.Recorder {
+	private static final String JFR_PACKAGE = "jdk.jfr."; //$NON-NLS-1$
+	private static final String EVENT_PREFIX = "org.eclipse.ui.monitoring."; //$NON-NLS-1$
+	private static final String[] CATEGORY = { "Eclipse", "UI Responsiveness" }; //$NON-NLS-1$ //$NON-NLS-2$
+	private static final String MILLISECONDS = "MILLISECONDS"; //$NON-NLS-1$
+	private static final String MILLISECONDS_SINCE_EPOCH = "MILLISECONDS_SINCE_EPOCH"; //$NON-NLS-1$
+	/** Stack traces longer than this are truncated in the stack sample events. */
+	private static final int MAX_STACK_DEPTH = 128;
+
+	private static class InstanceHolder {
+		static final FlightRecorderSupport INSTANCE = create();
+	}
+
+	/** A dynamically defined event type. */
+	private final class EventType {
+		private final Object factory;
+
+		EventType(Object factory) {
+			this.factory = factory;
+		}
+
+		void commit(Object... values) {
+			try {
+				Object event = newEvent.invoke(factory);
+				for (int i = 0; i < values.length; i++) {
+					setField.invoke(event, i, values[i]);
+				}
+				commit.invoke(event);
+			} catch (ReflectiveOperationException | RuntimeException e) {
+				// Don't let the recorder interfere with monitoring.
+				disable(e);
+			}
+		}
+	}
+
+	private final Constructor<?> annotationElementConstructor;
+	private final Constructor<?> valueDescriptorConstructor;
+	private final Method createFactory;
+	private final Method newEvent;
+	private final Method setField;
+	private final Method commit;
+	private final Method isInitialized;
+	private final Method getFlightRecorder;
+	private final Method getRecordings;
+	private final Method getState;
+	private final Method takeSnapshot;
+	private final Method getSize;
+	private final Method dump;
+	private final Method close;
+
+	private final EventType dispatchEvent;
+	private final EventType freezeStartEvent;
+	private final EventType freezeEvent;
+	private final EventType stackSampleEvent;
+
+	/** Whether at least one recording is running. Maintained by a FlightRecorderListener. */
+	private volatile boolean recording;
+	private volatile boolean disabled;
+
+	/**
+	 * Returns the shared instance, or {@code null} if the running VM does not support Java Flight
+	 * Recorder.
+	 */
+	public static FlightRecorderSupport getInstance() {
+		return InstanceHolder.INSTANCE;
+	}
+
+	private static FlightRecorderSupport create() {
+		try {
+			return new FlightRecorderSupport();
+		} catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+			// jdk.jfr is not available, e.g. on Java 8.
+			return null;
+		}
+	}
+
+	private FlightRecorderSupport() throws ReflectiveOperationException {
+		annotationElementConstructor =
+				jfrClass("AnnotationElement").getConstructor(Class.class, Object.class); //$NON-NLS-1$
+		Class<?> valueDescriptorClass = jfrClass("ValueDescriptor"); //$NON-NLS-1$
+		valueDescriptorConstructor =
+				valueDescriptorClass.getConstructor(Class.class, String.class, List.class);
+		Class<?> eventFactoryClass = jfrClass("EventFactory"); //$NON-NLS-1$
+		createFactory = eventFactoryClass.getMethod("create", List.class, List.class); //$NON-NLS-1$
+		newEvent = eventFactoryClass.getMethod("newEvent"); //$NON-NLS-1$
+		Class<?> eventClass = jfrClass("Event"); //$NON-NLS-1$
+		setField = eventClass.getMethod("set", int.class, Object.class); //$NON-NLS-1$
+		commit = eventClass.getMethod("commit"); //$NON-NLS-1$
+		Class<?> flightRecorderClass = jfrClass("FlightRecorder"); //$NON-NLS-1$
+		isInitialized = flightRecorderClass.getMethod("isInitialized"); //$NON-NLS-1$
+		getFlightRecorder = flightRecorderClass.getMethod("getFlightRecorder"); //$NON-NLS-1$
+		getRecordings = flightRecorderClass.getMethod("getRecordings"); //$NON-NLS-1$
+		takeSnapshot = flightRecorderClass.getMethod("takeSnapshot"); //$NON-NLS-1$
+		Class<?> recordingClass = jfrClass("Recording"); //$NON-NLS-1$
+		getState = recordingClass.getMethod("getState"); //$NON-NLS-1$
+		getSize = recordingClass.getMethod("getSize"); //$NON-NLS-1$
+		dump = recordingClass.getMethod("dump", Path.class); //$NON-NLS-1$
+		close = recordingClass.getMethod("close"); //$NON-NLS-1$
+
+		dispatchEvent = defineEvent("EventDispatch", "UI Event Dispatch", //$NON-NLS-1$ //$NON-NLS-2$
+				"Interval between two transitions of the SWT event loop on the UI thread", //$NON-NLS-1$
+				timestampField("eventStart", "Event Start"), //$NON-NLS-1$ //$NON-NLS-2$
+				timespanField("eventDuration", "Event Duration"), //$NON-NLS-1$ //$NON-NLS-2$
+				field(int.class, "nestingLevel", "Nesting Level")); //$NON-NLS-1$ //$NON-NLS-2$
+		freezeStartEvent = defineEvent("FreezeStart", "UI Freeze Start", //$NON-NLS-1$ //$NON-NLS-2$
+				"The UI thread has not returned to the event loop for longer than the sampling interval", //$NON-NLS-1$
+				timestampField("freezeStart", "Freeze Start")); //$NON-NLS-1$ //$NON-NLS-2$
+		freezeEvent = defineEvent("Freeze", "UI Freeze", //$NON-NLS-1$ //$NON-NLS-2$
+				"A UI freeze reported to the UI freeze loggers", //$NON-NLS-1$
+				timestampField("freezeStart", "Freeze Start"), //$NON-NLS-1$ //$NON-NLS-2$
+				timespanField("freezeDuration", "Freeze Duration"), //$NON-NLS-1$ //$NON-NLS-2$
+				field(boolean.class, "stillRunning", "Still Running"), //$NON-NLS-1$ //$NON-NLS-2$
+				field(int.class, "stackSamples", "Stack Samples"), //$NON-NLS-1$ //$NON-NLS-2$
+				field(boolean.class, "starvedAwake", "Monitor Starved While Awake"), //$NON-NLS-1$ //$NON-NLS-2$
+				field(boolean.class, "starvedAsleep", "Monitor Starved While Asleep")); //$NON-NLS-1$ //$NON-NLS-2$
+		stackSampleEvent = defineEvent("StackSample", "UI Thread Stack Sample", //$NON-NLS-1$ //$NON-NLS-2$
+				"Stack trace of the UI thread sampled during a UI freeze", //$NON-NLS-1$
+				timestampField("freezeStart", "Freeze Start"), //$NON-NLS-1$ //$NON-NLS-2$
+				timestampField("sampleTime", "Sample Time"), //$NON-NLS-1$ //$NON-NLS-2$
+				field(String.class, "uiThreadState", "UI Thread State"), //$NON-NLS-1$ //$NON-NLS-2$
+				field(String.class, "uiThreadStack", "UI Thread Stack")); //$NON-NLS-1$ //$NON-NLS-2$
+
+		Class<?> listenerClass = jfrClass("FlightRecorderListener"); //$NON-NLS-1$
+		InvocationHandler handler = (proxy, method, args) -> {
+			switch (method.getName()) {
+			case "recordingStateChanged": //$NON-NLS-1$
+				updateRecordingState();
+				return null;
+			case "equals": //$NON-NLS-1$
+				return proxy == args[0];
+			case "hashCode": //$NON-NLS-1$
+				return System.identityHashCode(proxy);
+			case "toString": //$NON-NLS-1$
+				return FlightRecorderSupport.class.getSimpleName();
+			default:
+				return null;
+			}
+		};
+		Object listener = Proxy.newProxyInstance(listenerClass.getClassLoader(),
+				new Class<?>[] { listenerClass }, handler);
+		flightRecorderClass.getMethod("addListener", listenerClass).invoke(null, listener); //$NON-NLS-1$
+		updateRecordingState();
+	}
+
+	/**
+	 * Returns {@code true} if a flight recording is running.
+	 */
+	@Override
+	public boolean isRecording() {
+		return recording;
+	}
+
+	/**
+	 * Emits an event for an interval between two event loop transitions on the UI thread. Called
+	 * on the UI thread.
+	 *
+	 * @param start the start of the interval
+	 * @param duration the duration of the interval
+	 * @param nestingLevel the event loop nesting level at the end of the interval
+	 */
+	public void eventDispatched(long start, long duration, int nestingLevel) {
+		if (recording) {
+			dispatchEvent.commit(start, duration, nestingLevel);
+		}
+	}
+
+	/**
+	 * Emits an event when the monitoring thread notices that the UI thread is stalled.
+	 *
+	 * @param start the time the stalled event started or resumed
+	 */
+	public void freezeStarted(long start) {
+		if (recording) {
+			freezeStartEvent.commit(start);
+		}
+	}
+
+	/**
+	 * Emits an event with the stack trace of the UI thread.
+	 *
+	 * @param start the time the stalled event started or resumed
+	 * @param sample a stack sample with the UI thread in the first slot
+	 */
+	public void stackSampled(long start, StackSample sample) {
+		if (recording) {
+			ThreadInfo[] traces = sample.getStackTraces();
+			if (traces.length != 0 && traces[0] != null) {
+				ThreadInfo uiThread = traces[0];
+				stackSampleEvent.commit(start, sample.getTimestamp(),
+						String.valueOf(uiThread.getThreadState()), formatStackTrace(uiThread));
+			}
+		}
+	}
+
+	/**
+	 * Emits an event for a UI freeze that is passed to the loggers.
+	 */
+	public void freezeLogged(UiFreezeEvent event) {
+		if (recording) {
+			freezeEvent.commit(event.getStartTimestamp(), event.getTotalDuration(),
+					event.isStillRunning(), event.getStackTraceSamples().length,
+					event.isStarvedAwake(), event.isStarvedAsleep());
+		}
+	}
+
+	/**
+	 * Writes the data of all running recordings to a file.
+	 *
+	 * @param file the file to write to
+	 * @return {@code true} if the file was written, {@code false} if there was no data to write
+	 * @throws IOException if the file could not be written
+	 */
+	@Override
+	public boolean dump(File file) throws IOException {
+		if (!recording) {
+			return false;
+		}
+		try {
+			Object snapshot = takeSnapshot.invoke(getFlightRecorder.invoke(null));
+			try {
+				if (((Long) getSize.invoke(snapshot)).longValue() == 0) {
+					return false;
+				}
+				dump.invoke(snapshot, file.toPath());
+				return true;
+			} finally {
+				close.invoke(snapshot);
+			}
+		} catch (InvocationTargetException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			}
+			throw new IOException(cause);
+		} catch (ReflectiveOperationException e) {
+			throw new IOException(e);
+		}
+	}
+
+	private void updateRecordingState() {
+		if (disabled) {
+			return;
+		}
+		boolean running = false;
+		try {
+			if (((Boolean) isInitialized.invoke(null)).booleanValue()) {
+				Object recorder = getFlightRecorder.invoke(null);
+				for (Object r : (List<?>) getRecordings.invoke(recorder)) {
+					if ("RUNNING".equals(String.valueOf(getState.invoke(r)))) { //$NON-NLS-1$
+						running = true;
+						break;
+					}
+				}
+			}
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			disable(e);
+			return;
+		}
+		recording = running;
+	}
+
+	private void disable(Throwable t) {
+		if (!disabled) {
+			disabled = true;
+			recording = false;
+			MonitoringPlugin.logError(Messages.FlightRecorderSupport_event_error, t);
+		}
+	}
+
+	private static String formatStackTrace(ThreadInfo thread) {
+		StringBuilder buf = new StringBuilder();
+		StackTraceElement[] stackTrace = thread.getStackTrace();
+		int depth = Math.min(stackTrace.length, MAX_STACK_DEPTH);
+		for (int i = 0; i < depth; i++) {
+			buf.append(stackTrace[i]).append('\n');
+		}
+		if (depth < stackTrace.length) {
+			buf.append("...\n"); //$NON-NLS-1$
+		}
+		return buf.toString();
+	}
+
+	private EventType defineEvent(String name, String label, String description, Object... fields)
+			throws ReflectiveOperationException {
+		List<Object> annotations = Arrays.asList(
+				annotation("Name", EVENT_PREFIX + name), //$NON-NLS-1$
+				annotation("Label", label), //$NON-NLS-1$
+				annotation("Description", description), //$NON-NLS-1$
+				annotation("Category", CATEGORY), //$NON-NLS-1$
+				// The stack of the committing thread is never the interesting one.
+				annotation("StackTrace", Boolean.FALSE)); //$NON-NLS-1$
+		return new EventType(createFactory.invoke(null, annotations, Arrays.asList(fields)));
+	}
+
+	private Object timestampField(String name, String label) throws ReflectiveOperationException {
+		return field(long.class, name, label, annotation("Timestamp", MILLISECONDS_SINCE_EPOCH)); //$NON-NLS-1$
+	}
+
+	private Object timespanField(String name, String label) throws ReflectiveOperationException {
+		return field(long.class, name, label, annotation("Timespan", MILLISECONDS)); //$NON-NLS-1$
+	}
+
+	private Object field(Class<?> type, String name, String label, Object... annotations)
+			throws ReflectiveOperationException {
+		List<Object> list = new ArrayList<>();
+		list.add(annotation("Label", label)); //$NON-NLS-1$
+		list.addAll(Arrays.asList(annotations));
+		return valueDescriptorConstructor.newInstance(type, name, list);
+	}
+
+	private Object annotation(String type, Object value) throws ReflectiveOperationException {
+		return annotationElementConstructor.newInstance(jfrClass(type), value);
+	}
+
+	private static Class<?> jfrClass(String name) throws ClassNotFoundException {
+		// jdk.jfr is not visible through the bundle class loader.
+		return Class.forName(JFR_PACKAGE + name, true, ClassLoader.getSystemClassLoader());
+	}
+}
@@ -0,0 +1,159 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.monitoring;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.osgi.util.NLS;
+import org.eclipse.ui.monitoring.UiFreezeEvent;
+
+/**
+ * Writes the running flight recordings to a file for each long UI freeze. Writing a recording
+ * can take seconds, so the files are written by an executor instead of the monitoring thread.
+ * Only the most recent recordings are kept, older ones are deleted after a new one is written.
+ */
+class FlightRecordingDumper {
+	/** The flight recorder, {@link FlightRecorderSupport} outside of tests. */
+	interface Recorder {
+		/**
+		 * Returns {@code true} if a flight recording is running.
+		 */
+		boolean isRecording();
+
+		/**
+		 * Writes the data of all running recordings to a file.
+		 *
+		 * @return {@code true} if the file was written, {@code false} if there was no data to write
+		 * @throws IOException if the file could not be written
+		 */
+		boolean dump(File file) throws IOException;
+	}
+
+	static final String FILE_NAME_PREFIX = "ui-freeze-"; //$NON-NLS-1$
+	static final String FILE_NAME_SUFFIX = ".jfr"; //$NON-NLS-1$
+	static final int DEFAULT_MAX_FILES = 5;
+
+	private final Recorder recorder;
+	private final long threshold;
+	private final Function<UiFreezeEvent, File> fileForEvent;
+	private final int maxFiles;
+	private final Executor executor;
+	// Accessed only by the monitoring thread.
+	private long lastDumpedFreezeStart;
+
+	/**
+	 * Creates a dumper that writes the files in system jobs.
+	 *
+	 * @param recorder the flight recorder
+	 * @param threshold the minimum duration of a freeze to write a recording for, in milliseconds
+	 * @param fileForEvent returns the file to write the recording of a freeze to, or {@code null}
+	 *     if it cannot be written
+	 */
+	FlightRecordingDumper(Recorder recorder, long threshold, Function<UiFreezeEvent, File> fileForEvent) {
+		this(recorder, threshold, fileForEvent, DEFAULT_MAX_FILES, FlightRecordingDumper::schedule);
+	}
+
+	/**
+	 * Creates a dumper that writes the files with the given executor.
+	 *
+	 * @param recorder the flight recorder
+	 * @param threshold the minimum duration of a freeze to write a recording for, in milliseconds
+	 * @param fileForEvent returns the file to write the recording of a freeze to, or {@code null}
+	 *     if it cannot be written. The names of the files have to start with
+	 *     {@link #FILE_NAME_PREFIX}, followed by a timestamp that sorts chronologically, and end with
+	 *     {@link #FILE_NAME_SUFFIX}.
+	 * @param maxFiles the maximum number of recordings kept in the directory of the files
+	 * @param executor runs the writing of the files
+	 */
+	FlightRecordingDumper(Recorder recorder, long threshold, Function<UiFreezeEvent, File> fileForEvent,
+			int maxFiles, Executor executor) {
+		this.recorder = recorder;
+		this.threshold = threshold;
+		this.fileForEvent = fileForEvent;
+		this.maxFiles = Math.max(maxFiles, 1);
+		this.executor = executor;
+	}
+
+	/**
+	 * Schedules writing the flight recording if the logged freeze is long enough, a recording is
+	 * running, and the recording of the freeze has not been written yet. Called on the monitoring
+	 * thread.
+	 *
+	 * @param event the logged freeze
+	 * @return {@code true} if writing the recording was scheduled
+	 */
+	boolean freezeLogged(UiFreezeEvent event) {
+		if (event.getTotalDuration() < threshold || !recorder.isRecording()) {
+			return false;
+		}
+		// A deadlock is logged again when it ends, dump it only once.
+		if (event.getStartTimestamp() == lastDumpedFreezeStart) {
+			return false;
+		}
+		File file = fileForEvent.apply(event);
+		if (file == null) {
+			return false;
+		}
+		lastDumpedFreezeStart = event.getStartTimestamp();
+		executor.execute(() -> write(file));
+		return true;
+	}
+
+	private void write(File file) {
+		try {
+			if (recorder.dump(file)) {
+				MonitoringPlugin.logInfo(NLS.bind(Messages.FlightRecordingDumper_written_1, file));
+				deleteOldFiles(file.getParentFile());
+			}
+		} catch (IOException e) {
+			MonitoringPlugin.logError(NLS.bind(Messages.FlightRecordingDumper_write_error_1, file), e);
+		}
+	}
+
+	/**
+	 * Deletes the oldest recordings in the directory, keeping at most {@link #maxFiles} of them.
+	 * Concurrent writes may both try to delete the same file, which is harmless.
+	 */
+	private void deleteOldFiles(File directory) {
+		if (directory == null) {
+			return;
+		}
+		String[] names = directory.list((dir, name) ->
+				name.startsWith(FILE_NAME_PREFIX) && name.endsWith(FILE_NAME_SUFFIX));
+		if (names == null || names.length <= maxFiles) {
+			return;
+		}
+		Arrays.sort(names);
+		for (int i = 0; i < names.length - maxFiles; i++) {
+			new File(directory, names[i]).delete();
+		}
+	}
+
+	private static void schedule(Runnable runnable) {
+		Job job = new Job(Messages.FlightRecordingDumper_job_name) {
+			@Override
+			protected IStatus run(IProgressMonitor monitor) {
+				runnable.run();
+				return Status.OK_STATUS;
+			}
+		};
+		job.setSystem(true);
+		job.schedule();
+	}
+}
@@ -0,0 +1,106 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.monitoring;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.eclipse.ui.monitoring.EventLatencyHistogram;
+
+/**
+ * Lock-free histogram of latencies in microseconds. Like HdrHistogram, every power of two is
+ * split into a fixed number of linear sub-buckets, so the bounds of the bucket a value falls into
+ * are within 12.5% of the value regardless of its magnitude, and recording a value is a constant
+ * number of atomic operations.
+ */
+public class LatencyHistogram {
+	private static final int SUB_BUCKET_BITS = 3;
+	private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+	/** Larger values are recorded as one hour. */
+	public static final long MAX_VALUE = 3600L * 1000 * 1000;
+	public static final int BUCKET_COUNT = bucketIndex(MAX_VALUE) + 1;
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+	private final AtomicLong total = new AtomicLong();
+	private final AtomicLong max = new AtomicLong();
+
+	/**
+	 * Records a value.
+	 *
+	 * @param value the latency in microseconds
+	 */
+	public void record(long value) {
+		if (value < 0) {
+			value = 0;
+		} else if (value > MAX_VALUE) {
+			value = MAX_VALUE;
+		}
+		counts.incrementAndGet(bucketIndex(value));
+		total.addAndGet(value);
+		long currentMax;
+		while (value > (currentMax = max.get()) && !max.compareAndSet(currentMax, value)) {
+			// Retry.
+		}
+	}
+
+	/**
+	 * Clears the recorded values.
+	 */
+	public void reset() {
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			counts.set(i, 0);
+		}
+		total.set(0);
+		max.set(0);
+	}
+
+	/**
+	 * Returns a snapshot of the recorded values. Values recorded concurrently with the snapshot
+	 * may be partially reflected in it.
+	 */
+	public EventLatencyHistogram snapshot(String name) {
+		long[] bucketCounts = new long[BUCKET_COUNT];
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			bucketCounts[i] = counts.get(i);
+		}
+		return new EventLatencyHistogram(name, bucketCounts, total.get(), max.get());
+	}
+
+	/**
+	 * Returns the index of the bucket containing the given value.
+	 */
+	public static int bucketIndex(long value) {
+		if (value < 2 * SUB_BUCKET_COUNT) {
+			return (int) value;
+		}
+		int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+		return (shift + 1) * SUB_BUCKET_COUNT + (int) (value >>> shift) - SUB_BUCKET_COUNT;
+	}
+
+	/**
+	 * Returns the smallest value in the bucket with the given index.
+	 */
+	public static long bucketLowerBound(int index) {
+		if (index < 2 * SUB_BUCKET_COUNT) {
+			return index;
+		}
+		int shift = index / SUB_BUCKET_COUNT - 1;
+		long mantissa = index % SUB_BUCKET_COUNT + SUB_BUCKET_COUNT;
+		return mantissa << shift;
+	}
+
+	/**
+	 * Returns the largest value in the bucket with the given index.
+	 */
+	public static long bucketUpperBound(int index) {
+		return bucketLowerBound(index + 1) - 1;
+	}
+}
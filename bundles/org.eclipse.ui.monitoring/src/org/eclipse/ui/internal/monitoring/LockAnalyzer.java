@@ -0,0 +1,260 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.monitoring;
+
+import java.lang.management.LockInfo;
+import java.lang.management.ThreadInfo;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.runtime.jobs.ISchedulingRule;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.ui.monitoring.LockAnalysis;
+import org.eclipse.ui.monitoring.LockAnalysis.BlockingLock;
+import org.eclipse.ui.monitoring.LockAnalysis.Dependency;
+import org.eclipse.ui.monitoring.StackSample;
+
+/**
+ * Computes the wait-for graph of the threads blocking the UI thread from the thread information
+ * of stack samples, detects deadlock cycles in it, and aggregates the locks blocking the UI thread
+ * across UI freezes. Used only by the monitoring thread.
+ */
+public class LockAnalyzer {
+	/** Number of locks reported in {@link LockAnalysis#getTopBlockingLocks()}. */
+	private static final int TOP_BLOCKING_LOCKS = 5;
+	/** Limits the memory used by the aggregated locks. */
+	private static final int MAX_TRACKED_LOCKS = 1000;
+	private static final String THREAD_JOB_CLASS = "org.eclipse.core.internal.jobs.ThreadJob"; //$NON-NLS-1$
+
+	/** Number of freezes and total freeze duration for each lock that blocked the UI thread. */
+	private final Map<String, long[]> blockingLocks = new HashMap<>();
+	/** The start of the last analyzed freeze. */
+	private long lastFreezeStart = Long.MIN_VALUE;
+	/** The durations recorded for the locks blocking the last analyzed freeze, by lock. */
+	private final Map<String, Long> lastFreezeDurations = new HashMap<>();
+
+	/**
+	 * Analyzes the locks the UI thread was waiting for during a UI freeze.
+	 *
+	 * @param samples the stack samples of the freeze
+	 * @param uiThreadId the ID of the UI thread
+	 * @param freezeStart the start time of the freeze, which identifies a freeze that is analyzed
+	 *     again
+	 * @param duration the duration of the freeze in milliseconds
+	 * @param schedulingRuleOwners descriptions of the scheduling rules owned by running jobs, by
+	 *     the ID of the thread running the job
+	 * @return the analysis, or {@code null} if the UI thread was not blocked in any of the samples
+	 */
+	public LockAnalysis analyze(StackSample[] samples, long uiThreadId, long freezeStart,
+			long duration, Map<Long, String> schedulingRuleOwners) {
+		// The latest sample where the UI thread was blocked has the most complete information.
+		for (int i = samples.length; --i >= 0;) {
+			Map<Long, ThreadInfo> threads = new HashMap<>();
+			for (ThreadInfo thread : samples[i].getStackTraces()) {
+				if (thread != null) {
+					threads.put(thread.getThreadId(), thread);
+				}
+			}
+			ThreadInfo uiThread = threads.get(uiThreadId);
+			if (uiThread == null) {
+				continue;
+			}
+			List<Dependency> uiThreadDependencies =
+					getDependencies(uiThread, threads, schedulingRuleOwners);
+			if (!uiThreadDependencies.isEmpty()) {
+				recordBlockingLocks(uiThreadDependencies, freezeStart, duration);
+				List<Dependency> graph =
+						computeWaitForGraph(uiThread, threads, schedulingRuleOwners);
+				return new LockAnalysis(graph, findCycle(graph, uiThreadId), getTopBlockingLocks());
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns descriptions of the scheduling rules of the running jobs by the ID of the thread
+	 * running the job.
+	 */
+	public static Map<Long, String> collectSchedulingRuleOwners() {
+		Map<Long, String> owners = new HashMap<>();
+		for (Job job : Job.getJobManager().find(null)) {
+			ISchedulingRule rule = job.getRule();
+			Thread thread = job.getThread();
+			if (rule != null && thread != null && job.getState() == Job.RUNNING) {
+				String description = rule + " (" + job.getName() + ')'; //$NON-NLS-1$
+				owners.merge(thread.getId(), description, (a, b) -> a + ", " + b); //$NON-NLS-1$
+			}
+		}
+		return owners;
+	}
+
+	/**
+	 * Returns the dependencies of all threads reachable from the UI thread in breadth-first order.
+	 */
+	private static List<Dependency> computeWaitForGraph(ThreadInfo uiThread,
+			Map<Long, ThreadInfo> threads, Map<Long, String> schedulingRuleOwners) {
+		List<Dependency> graph = new ArrayList<>();
+		Set<Long> visited = new HashSet<>();
+		ArrayDeque<ThreadInfo> queue = new ArrayDeque<>();
+		queue.add(uiThread);
+		visited.add(uiThread.getThreadId());
+		while (!queue.isEmpty()) {
+			ThreadInfo thread = queue.remove();
+			for (Dependency dependency : getDependencies(thread, threads, schedulingRuleOwners)) {
+				graph.add(dependency);
+				ThreadInfo owner = threads.get(dependency.getOwnerId());
+				// The owner's dependencies are unknown if only the UI thread was sampled.
+				if (owner != null && visited.add(owner.getThreadId())) {
+					queue.add(owner);
+				}
+			}
+		}
+		return graph;
+	}
+
+	private static List<Dependency> getDependencies(ThreadInfo thread,
+			Map<Long, ThreadInfo> threads, Map<Long, String> schedulingRuleOwners) {
+		long ownerId = thread.getLockOwnerId();
+		if (ownerId != -1) {
+			return Collections.singletonList(new Dependency(thread.getThreadId(),
+					thread.getThreadName(), ownerId, thread.getLockOwnerName(),
+					describe(thread.getLockInfo()), false));
+		}
+		if (!schedulingRuleOwners.isEmpty() && isWaitingForSchedulingRule(thread)) {
+			List<Dependency> dependencies = new ArrayList<>();
+			for (Map.Entry<Long, String> entry : schedulingRuleOwners.entrySet()) {
+				long id = entry.getKey();
+				if (id != thread.getThreadId()) {
+					ThreadInfo owner = threads.get(id);
+					String ownerName = owner != null ? owner.getThreadName() : Long.toString(id);
+					dependencies.add(new Dependency(thread.getThreadId(), thread.getThreadName(),
+							id, ownerName, entry.getValue(), true));
+				}
+			}
+			return dependencies;
+		}
+		return Collections.emptyList();
+	}
+
+	private static boolean isWaitingForSchedulingRule(ThreadInfo thread) {
+		for (StackTraceElement element : thread.getStackTrace()) {
+			if (THREAD_JOB_CLASS.equals(element.getClassName())) {
+				String method = element.getMethodName();
+				return method.equals("waitForRun") || method.equals("joinRun"); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the dependencies of a cycle reachable from the UI thread, or an empty list. The
+	 * dependencies on scheduling rules are not considered, since any job owning a rule is assumed
+	 * to block the waiting thread, which would report deadlocks that do not exist.
+	 */
+	static List<Dependency> findCycle(List<Dependency> graph, long uiThreadId) {
+		Map<Long, List<Dependency>> edges = new LinkedHashMap<>();
+		for (Dependency dependency : graph) {
+			if (dependency.isSchedulingRule()) {
+				continue;
+			}
+			edges.computeIfAbsent(dependency.getWaiterId(), k -> new ArrayList<>()).add(dependency);
+		}
+		List<Dependency> path = new ArrayList<>();
+		List<Dependency> cycle = findCycle(uiThreadId, edges, path, new HashSet<>(), new HashSet<>());
+		return cycle != null ? cycle : Collections.<Dependency>emptyList();
+	}
+
+	private static List<Dependency> findCycle(long threadId, Map<Long, List<Dependency>> edges,
+			List<Dependency> path, Set<Long> onPath, Set<Long> done) {
+		onPath.add(threadId);
+		for (Dependency dependency : edges.getOrDefault(threadId, Collections.emptyList())) {
+			long ownerId = dependency.getOwnerId();
+			path.add(dependency);
+			if (onPath.contains(ownerId)) {
+				// The cycle starts at the dependency of the owner on the path.
+				for (int i = 0; i < path.size(); i++) {
+					if (path.get(i).getWaiterId() == ownerId) {
+						return new ArrayList<>(path.subList(i, path.size()));
+					}
+				}
+			}
+			if (!done.contains(ownerId)) {
+				List<Dependency> cycle = findCycle(ownerId, edges, path, onPath, done);
+				if (cycle != null) {
+					return cycle;
+				}
+			}
+			path.remove(path.size() - 1);
+		}
+		onPath.remove(threadId);
+		done.add(threadId);
+		return null;
+	}
+
+	/**
+	 * Adds a freeze to the statistics of the locks blocking the UI thread. A freeze that is still
+	 * running is analyzed again when it ends, then its duration replaces the recorded one.
+	 */
+	private void recordBlockingLocks(List<Dependency> uiThreadDependencies, long freezeStart,
+			long duration) {
+		if (freezeStart != lastFreezeStart) {
+			lastFreezeStart = freezeStart;
+			lastFreezeDurations.clear();
+		}
+		for (Dependency dependency : uiThreadDependencies) {
+			String lock = dependency.getResource();
+			long[] stats = blockingLocks.get(lock);
+			if (stats == null) {
+				if (blockingLocks.size() >= MAX_TRACKED_LOCKS) {
+					continue;
+				}
+				stats = new long[2];
+				blockingLocks.put(lock, stats);
+			}
+			Long recorded = lastFreezeDurations.put(lock, duration);
+			if (recorded == null) {
+				stats[0]++;
+				stats[1] += duration;
+			} else {
+				stats[1] += duration - recorded;
+			}
+		}
+	}
+
+	/**
+	 * Returns the locks that blocked the UI thread in the longest freezes in total.
+	 */
+	List<BlockingLock> getTopBlockingLocks() {
+		List<Map.Entry<String, long[]>> entries = new ArrayList<>(blockingLocks.entrySet());
+		entries.sort((a, b) -> Long.compare(b.getValue()[1], a.getValue()[1]));
+		List<BlockingLock> result = new ArrayList<>();
+		for (int i = 0; i < entries.size() && i < TOP_BLOCKING_LOCKS; i++) {
+			Map.Entry<String, long[]> entry = entries.get(i);
+			result.add(new BlockingLock(entry.getKey(), (int) entry.getValue()[0],
+					entry.getValue()[1]));
+		}
+		return result;
+	}
+
+	static String describe(LockInfo lock) {
+		if (lock == null) {
+			return "?"; //$NON-NLS-1$
+		}
+		return String.format("%s@%08x", lock.getClassName(), lock.getIdentityHashCode()); //$NON-NLS-1$
+	}
+}
@@ -14,7 +14,9 @@ package org.eclipse.ui.internal.monitoring;
 import org.eclipse.osgi.util.NLS;
 
 final class Messages extends NLS {
+	public static String DefaultUiFreezeEventLogger_deadlock_1;
 	public static String DefaultUiFreezeEventLogger_holding_1;
+	public static String DefaultUiFreezeEventLogger_lock_analysis_header;
 	public static String DefaultUiFreezeEventLogger_sample_header_2;
 	public static String DefaultUiFreezeEventLogger_stack_trace_header;
 	public static String DefaultUiFreezeEventLogger_starved_awake_and_asleep;
@@ -22,9 +24,12 @@ final class Messages extends NLS {
 	public static String DefaultUiFreezeEventLogger_starved_asleep;
 	public static String DefaultUiFreezeEventLogger_thread_details;
 	public static String DefaultUiFreezeEventLogger_thread_header_2;
+	public static String DefaultUiFreezeEventLogger_top_blocking_lock_3;
 	public static String DefaultUiFreezeEventLogger_ui_freeze_finished_header_2;
 	public static String DefaultUiFreezeEventLogger_ui_freeze_ongoing_header_2;
 	public static String DefaultUiFreezeEventLogger_waiting_for_1;
+	public static String DefaultUiFreezeEventLogger_waiting_for_lock_3;
+	public static String DefaultUiFreezeEventLogger_waiting_for_rule_3;
 	public static String DefaultUiFreezeEventLogger_waiting_for_with_lock_owner_3;
 	public static String EventLoopMonitorThread_deadlock_error_1;
 	public static String EventLoopMonitorThread_deadlock_threshold_too_low_error_2;
@@ -37,7 +42,12 @@ final class Messages extends NLS {
 	public static String EventLoopMonitorThread_warning_threshold_error_1;
 	public static String EventLoopMonitorThread_max_event_loop_depth_exceeded_1;
 	public static String EventLoopMonitorThread_workbench_was_null;
+	public static String FileUiFreezeEventLogger_write_error_1;
 	public static String FilterHandler_missing_thread_error;
+	public static String FlightRecorderSupport_event_error;
+	public static String FlightRecordingDumper_job_name;
+	public static String FlightRecordingDumper_write_error_1;
+	public static String FlightRecordingDumper_written_1;
 	public static String MonitoringStartup_initialization_error;
 
 	private Messages() {
@@ -44,6 +44,10 @@ public class MonitoringPlugin extends AbstractUIPlugin {
 		log(new Status(IStatus.ERROR, PreferenceConstants.PLUGIN_ID, message, e));
 	}
 
+	public static void logInfo(String message) {
+		log(new Status(IStatus.INFO, PreferenceConstants.PLUGIN_ID, message));
+	}
+
 	public static void logWarning(String message) {
 		log(new Status(IStatus.WARNING, PreferenceConstants.PLUGIN_ID, message));
 	}
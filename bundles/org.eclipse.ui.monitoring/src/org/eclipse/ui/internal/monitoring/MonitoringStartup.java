@@ -79,6 +79,11 @@ public class MonitoringStartup implements IStartup {
 		args.noninterestingThreadFilter =
 				preferences.getString(PreferenceConstants.NONINTERESTING_THREAD_FILTER);
 		args.logToErrorLog = preferences.getBoolean(PreferenceConstants.LOG_TO_ERROR_LOG);
+		args.logToFile = preferences.getBoolean(PreferenceConstants.LOG_TO_FILE);
+		args.dumpFlightRecording =
+				preferences.getBoolean(PreferenceConstants.DUMP_FLIGHT_RECORDING);
+		args.continuousSamplingInterval =
+				preferences.getInt(PreferenceConstants.CONTINUOUS_SAMPLING_INTERVAL_MILLIS);
 
 		return args;
 	}
@@ -0,0 +1,370 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.monitoring;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Samples the stack of the UI thread at a fixed rate while it is dispatching events, independently
+ * of UI freezes, to find slowness that is spread over many short events.
+ * <p>
+ * Samples are kept compactly: frames are interned to integer IDs, stacks to arrays of frame IDs
+ * which are in turn interned to integer stack IDs, and the sampled stack IDs are stored in a ring
+ * buffer, so that the memory use does not grow with the duration of the profiling. When the
+ * number of distinct stacks reaches a limit, the stacks that no sample in the buffer refers to are
+ * dropped. While the buffer still refers to most of the stacks, samples of new stacks are dropped
+ * instead, and the stacks are not compacted again before enough samples have been overwritten
+ * for it to succeed. On demand, the samples in the buffer are aggregated to the folded stack format
+ * understood by flame graph tools.
+ * <p>
+ * Samples are discarded if a frame of the UI thread matches the UI thread filter, or if all frames
+ * match the non-interesting thread filter.
+ */
+public class StackSamplingProfiler {
+	/** Number of samples kept in the ring buffer. */
+	static final int DEFAULT_CAPACITY = 1 << 16;
+	/** Maximum number of distinct stacks that are interned. */
+	private static final int MAX_INTERNED_STACKS = 1 << 16;
+
+	private static volatile StackSamplingProfiler current;
+
+	/** Wraps an array of frame IDs to be used as a map key. */
+	private static final class StackKey {
+		final int[] frames;
+		private final int hash;
+
+		StackKey(int[] frames) {
+			this.frames = frames;
+			this.hash = Arrays.hashCode(frames);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof StackKey && Arrays.equals(frames, ((StackKey) obj).frames);
+		}
+	}
+
+	private final Thread uiThread;
+	private final long samplingInterval;
+	private final BooleanSupplier isUiThreadBusy;
+	// The filters are not thread safe, so the profiler has its own instances.
+	private final FilterHandler uiThreadFilter;
+	private final FilterHandler noninterestingThreadFilter;
+	private final int maxInternedStacks;
+	private Thread samplingThread;
+	private volatile boolean cancelled;
+
+	// Guarded by this.
+	private final Map<String, Integer> frameIds = new HashMap<>();
+	private final List<String> frames = new ArrayList<>();
+	private final Map<StackKey, Integer> stackIds = new HashMap<>();
+	private final List<int[]> stacks = new ArrayList<>();
+	private final int[] samples;
+	private int samplesStart;
+	private int samplesSize;
+	private long discardedSamples;
+	// Number of samples to overwrite before compacting the full table of stacks is worth trying
+	// again.
+	private int overwritesBeforeCompaction;
+
+	/**
+	 * Creates a profiler.
+	 *
+	 * @param uiThread the thread to sample
+	 * @param samplingInterval the interval between two samples in milliseconds
+	 * @param capacity the number of samples to keep
+	 * @param isUiThreadBusy tells whether the UI thread is dispatching an event
+	 * @param uiThreadFilter see {@link org.eclipse.ui.monitoring.PreferenceConstants#UI_THREAD_FILTER}
+	 * @param noninterestingThreadFilter see
+	 *     {@link org.eclipse.ui.monitoring.PreferenceConstants#NONINTERESTING_THREAD_FILTER}
+	 */
+	public StackSamplingProfiler(Thread uiThread, long samplingInterval, int capacity,
+			BooleanSupplier isUiThreadBusy, String uiThreadFilter,
+			String noninterestingThreadFilter) {
+		this(uiThread, samplingInterval, capacity, MAX_INTERNED_STACKS, isUiThreadBusy, uiThreadFilter,
+				noninterestingThreadFilter);
+	}
+
+	/**
+	 * Creates a profiler with a limit on the number of distinct stacks. Visible for testing.
+	 */
+	StackSamplingProfiler(Thread uiThread, long samplingInterval, int capacity,
+			int maxInternedStacks, BooleanSupplier isUiThreadBusy, String uiThreadFilter,
+			String noninterestingThreadFilter) {
+		this.uiThread = uiThread;
+		this.samplingInterval = samplingInterval;
+		this.isUiThreadBusy = isUiThreadBusy;
+		this.uiThreadFilter = new FilterHandler(uiThreadFilter);
+		this.noninterestingThreadFilter = new FilterHandler(noninterestingThreadFilter);
+		this.samples = new int[capacity];
+		this.maxInternedStacks = maxInternedStacks;
+	}
+
+	/**
+	 * Returns the running profiler, or {@code null} if continuous sampling is disabled.
+	 */
+	public static StackSamplingProfiler getCurrent() {
+		return current;
+	}
+
+	/**
+	 * Starts sampling on a daemon thread.
+	 */
+	public void start() {
+		samplingThread = new Thread(this::run, "UI Thread Sampling Profiler"); //$NON-NLS-1$
+		samplingThread.setDaemon(true);
+		samplingThread.setPriority(Thread.NORM_PRIORITY + 1);
+		current = this;
+		samplingThread.start();
+	}
+
+	/**
+	 * Stops sampling. The samples taken remain available.
+	 */
+	public void shutdown() {
+		cancelled = true;
+		if (samplingThread != null) {
+			samplingThread.interrupt();
+		}
+		if (current == this) {
+			current = null;
+		}
+	}
+
+	private void run() {
+		while (!cancelled) {
+			try {
+				Thread.sleep(samplingInterval);
+			} catch (InterruptedException e) {
+				continue;
+			}
+			if (isUiThreadBusy.getAsBoolean()) {
+				takeSample(uiThread.getStackTrace());
+			}
+		}
+	}
+
+	/**
+	 * Records a stack trace of the UI thread. Visible for testing.
+	 */
+	void takeSample(StackTraceElement[] stackTrace) {
+		if (stackTrace.length == 0 || !isInteresting(stackTrace)) {
+			return;
+		}
+		synchronized (this) {
+			int stackId = internStack(stackTrace);
+			if (stackId < 0) {
+				// There is no room for another distinct stack.
+				discardedSamples++;
+				return;
+			}
+			if (samplesSize < samples.length) {
+				samples[(samplesStart + samplesSize++) % samples.length] = stackId;
+			} else {
+				samples[samplesStart] = stackId;
+				samplesStart = (samplesStart + 1) % samples.length;
+				discardedSamples++;
+				if (overwritesBeforeCompaction > 0) {
+					overwritesBeforeCompaction--;
+				}
+			}
+		}
+	}
+
+	private boolean isInteresting(StackTraceElement[] stackTrace) {
+		boolean allNoninteresting = true;
+		for (StackTraceElement element : stackTrace) {
+			if (uiThreadFilter.matchesFilter(element)) {
+				return false;
+			}
+			if (allNoninteresting && !noninterestingThreadFilter.matchesFilter(element)) {
+				allNoninteresting = false;
+			}
+		}
+		return !allNoninteresting;
+	}
+
+	/**
+	 * Returns the ID of the stack, or -1 if the stack is new and the maximum number of stacks is
+	 * interned.
+	 */
+	private int internStack(StackTraceElement[] stackTrace) {
+		if (stacks.size() >= maxInternedStacks && overwritesBeforeCompaction == 0) {
+			compactInternedStacks();
+		}
+		boolean full = stacks.size() >= maxInternedStacks;
+		// Folded stacks are ordered from the root to the leaf.
+		int[] frameIdArray = new int[stackTrace.length];
+		for (int i = 0; i < stackTrace.length; i++) {
+			StackTraceElement element = stackTrace[stackTrace.length - 1 - i];
+			String frame = element.getClassName() + '.' + element.getMethodName();
+			Integer frameId = frameIds.get(frame);
+			if (frameId == null) {
+				if (full) {
+					// A stack with a new frame is a new stack.
+					return -1;
+				}
+				frameId = internFrame(frame);
+			}
+			frameIdArray[i] = frameId;
+		}
+		StackKey key = new StackKey(frameIdArray);
+		Integer stackId = stackIds.get(key);
+		if (stackId == null) {
+			if (full) {
+				return -1;
+			}
+			stackId = stacks.size();
+			stacks.add(frameIdArray);
+			stackIds.put(key, stackId);
+		}
+		return stackId;
+	}
+
+	private int internFrame(String frame) {
+		int frameId = frames.size();
+		frames.add(frame);
+		frameIds.put(frame, frameId);
+		return frameId;
+	}
+
+	/**
+	 * Drops the interned stacks and frames that no sample in the buffer refers to any more, and
+	 * renumbers the others. Does nothing if the samples still refer to most of the stacks. Since
+	 * only an overwritten sample can drop a reference, the next attempt is deferred until at least
+	 * as many samples have been overwritten as there are stacks above the threshold, so that a
+	 * full table is not scanned again for every sample.
+	 */
+	private void compactInternedStacks() {
+		int[] newStackIds = new int[stacks.size()];
+		Arrays.fill(newStackIds, -1);
+		int referenced = 0;
+		for (int i = 0; i < samplesSize; i++) {
+			int stackId = samples[(samplesStart + i) % samples.length];
+			if (newStackIds[stackId] < 0) {
+				newStackIds[stackId] = referenced++;
+			}
+		}
+		if (referenced > maxInternedStacks * 3 / 4) {
+			overwritesBeforeCompaction = referenced - maxInternedStacks * 3 / 4;
+			return;
+		}
+		int[][] kept = new int[referenced][];
+		for (int stackId = 0; stackId < newStackIds.length; stackId++) {
+			if (newStackIds[stackId] >= 0) {
+				kept[newStackIds[stackId]] = stacks.get(stackId);
+			}
+		}
+		String[] oldFrames = frames.toArray(new String[frames.size()]);
+		frameIds.clear();
+		frames.clear();
+		stackIds.clear();
+		stacks.clear();
+		for (int[] stack : kept) {
+			int[] frameIdArray = new int[stack.length];
+			for (int i = 0; i < stack.length; i++) {
+				String frame = oldFrames[stack[i]];
+				Integer frameId = frameIds.get(frame);
+				frameIdArray[i] = frameId != null ? frameId : internFrame(frame);
+			}
+			stackIds.put(new StackKey(frameIdArray), stacks.size());
+			stacks.add(frameIdArray);
+		}
+		for (int i = 0; i < samplesSize; i++) {
+			int index = (samplesStart + i) % samples.length;
+			samples[index] = newStackIds[samples[index]];
+		}
+	}
+
+	/**
+	 * Returns the number of samples in the buffer.
+	 */
+	public synchronized int getSampleCount() {
+		return samplesSize;
+	}
+
+	/**
+	 * Returns the number of samples that were overwritten because the buffer was full, or dropped
+	 * because there was no room for another distinct stack.
+	 */
+	public synchronized long getDiscardedSampleCount() {
+		return discardedSamples;
+	}
+
+	/**
+	 * Discards all samples.
+	 */
+	public synchronized void clear() {
+		frameIds.clear();
+		frames.clear();
+		stackIds.clear();
+		stacks.clear();
+		samplesStart = 0;
+		samplesSize = 0;
+		discardedSamples = 0;
+		overwritesBeforeCompaction = 0;
+	}
+
+	/**
+	 * Writes the samples in the folded stack format, one line per distinct stack consisting of
+	 * the frames from the root to the leaf separated by semicolons, followed by a space and the
+	 * number of samples of the stack.
+	 *
+	 * @param writer the writer to write to
+	 * @throws IOException if writing fails
+	 */
+	public void writeFoldedStacks(Writer writer) throws IOException {
+		String[] lines;
+		int[] counts;
+		synchronized (this) {
+			counts = new int[stacks.size()];
+			for (int i = 0; i < samplesSize; i++) {
+				counts[samples[(samplesStart + i) % samples.length]]++;
+			}
+			lines = new String[counts.length];
+			StringBuilder buf = new StringBuilder();
+			for (int stackId = 0; stackId < counts.length; stackId++) {
+				if (counts[stackId] != 0) {
+					buf.setLength(0);
+					int[] stack = stacks.get(stackId);
+					for (int i = 0; i < stack.length; i++) {
+						if (i > 0) {
+							buf.append(';');
+						}
+						buf.append(frames.get(stack[i]));
+					}
+					lines[stackId] = buf.toString();
+				}
+			}
+		}
+		for (int stackId = 0; stackId < counts.length; stackId++) {
+			if (counts[stackId] != 0) {
+				writer.write(lines[stackId]);
+				writer.write(' ');
+				writer.write(Integer.toString(counts[stackId]));
+				writer.write('\n');
+			}
+		}
+		writer.flush();
+	}
+}
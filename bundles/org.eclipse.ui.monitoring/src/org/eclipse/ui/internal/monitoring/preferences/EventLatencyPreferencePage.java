@@ -0,0 +1,205 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.monitoring.preferences;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Comparator;
+
+import org.eclipse.jface.dialogs.MessageDialog;
+import org.eclipse.jface.layout.GridDataFactory;
+import org.eclipse.jface.layout.GridLayoutFactory;
+import org.eclipse.jface.layout.LayoutConstants;
+import org.eclipse.jface.preference.PreferencePage;
+import org.eclipse.osgi.util.NLS;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.widgets.Button;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.FileDialog;
+import org.eclipse.swt.widgets.Label;
+import org.eclipse.swt.widgets.Table;
+import org.eclipse.swt.widgets.TableColumn;
+import org.eclipse.swt.widgets.TableItem;
+import org.eclipse.ui.IWorkbench;
+import org.eclipse.ui.IWorkbenchPreferencePage;
+import org.eclipse.ui.internal.monitoring.StackSamplingProfiler;
+import org.eclipse.ui.monitoring.EventLatencyHistogram;
+import org.eclipse.ui.monitoring.EventLatencyStatistics;
+
+/**
+ * Preference page showing the distribution of the time spent dispatching events on the UI thread.
+ * Also allows saving the samples of the continuous sampling profiler.
+ */
+public class EventLatencyPreferencePage extends PreferencePage implements IWorkbenchPreferencePage {
+	private static final String CSV_EXTENSION = ".csv"; //$NON-NLS-1$
+	private static final String JSON_EXTENSION = ".json"; //$NON-NLS-1$
+	private static final String FOLDED_EXTENSION = ".folded"; //$NON-NLS-1$
+	private Table table;
+
+	public EventLatencyPreferencePage() {
+		noDefaultAndApplyButton();
+	}
+
+	@Override
+	public void init(IWorkbench workbench) {
+	}
+
+	@Override
+	protected Control createContents(Composite parent) {
+		Composite container = new Composite(parent, SWT.NONE);
+
+		Label description = new Label(container, SWT.WRAP);
+		description.setText(Messages.EventLatencyPreferencePage_description);
+		GridDataFactory.fillDefaults().grab(true, false).span(2, 1).hint(300, SWT.DEFAULT)
+				.applyTo(description);
+
+		table = new Table(container, SWT.BORDER | SWT.FULL_SELECTION);
+		table.setHeaderVisible(true);
+		table.setLinesVisible(true);
+		createColumn(Messages.EventLatencyPreferencePage_event_column, SWT.LEFT, 120);
+		createColumn(Messages.EventLatencyPreferencePage_count_column, SWT.RIGHT, 70);
+		createColumn(Messages.EventLatencyPreferencePage_mean_column, SWT.RIGHT, 70);
+		createColumn(Messages.EventLatencyPreferencePage_p50_column, SWT.RIGHT, 70);
+		createColumn(Messages.EventLatencyPreferencePage_p90_column, SWT.RIGHT, 70);
+		createColumn(Messages.EventLatencyPreferencePage_p99_column, SWT.RIGHT, 70);
+		createColumn(Messages.EventLatencyPreferencePage_max_column, SWT.RIGHT, 70);
+		createColumn(Messages.EventLatencyPreferencePage_total_column, SWT.RIGHT, 80);
+		GridDataFactory.fillDefaults().grab(true, true).hint(SWT.DEFAULT, 200).applyTo(table);
+
+		Composite buttons = new Composite(container, SWT.NONE);
+		createButton(buttons, Messages.EventLatencyPreferencePage_refresh_button_label,
+				() -> refresh());
+		createButton(buttons, Messages.EventLatencyPreferencePage_reset_button_label, () -> {
+			EventLatencyStatistics.reset();
+			refresh();
+		});
+		createButton(buttons, Messages.EventLatencyPreferencePage_export_button_label,
+				() -> export());
+		Button profileButton = createButton(buttons,
+				Messages.EventLatencyPreferencePage_profile_button_label, () -> saveProfile());
+		profileButton.setEnabled(StackSamplingProfiler.getCurrent() != null);
+		GridLayoutFactory.fillDefaults().spacing(LayoutConstants.getSpacing()).applyTo(buttons);
+		GridDataFactory.fillDefaults().align(SWT.FILL, SWT.BEGINNING).applyTo(buttons);
+
+		GridLayoutFactory.fillDefaults()
+				.numColumns(2)
+				.spacing(LayoutConstants.getSpacing())
+				.applyTo(container);
+
+		refresh();
+		return container;
+	}
+
+	private void createColumn(String text, int style, int width) {
+		TableColumn column = new TableColumn(table, style);
+		column.setText(text);
+		column.setWidth(width);
+	}
+
+	private static Button createButton(Composite parent, String text, Runnable action) {
+		Button button = new Button(parent, SWT.PUSH);
+		button.setText(text);
+		button.addListener(SWT.Selection, event -> action.run());
+		GridDataFactory.fillDefaults().applyTo(button);
+		return button;
+	}
+
+	private void refresh() {
+		EventLatencyHistogram[] histograms = getSortedHistograms();
+		table.removeAll();
+		for (EventLatencyHistogram histogram : histograms) {
+			TableItem item = new TableItem(table, SWT.NONE);
+			item.setText(new String[] {
+					histogram.getName(),
+					Long.toString(histogram.getCount()),
+					formatMillis(histogram.getMean()),
+					formatMillis(histogram.getPercentile(50)),
+					formatMillis(histogram.getPercentile(90)),
+					formatMillis(histogram.getPercentile(99)),
+					formatMillis(histogram.getMax()),
+					formatMillis(histogram.getTotal()) });
+		}
+	}
+
+	/**
+	 * Returns the histograms, the event kinds that took the most time overall first.
+	 */
+	private static EventLatencyHistogram[] getSortedHistograms() {
+		EventLatencyHistogram[] histograms = EventLatencyStatistics.getHistograms();
+		Arrays.sort(histograms,
+				Comparator.comparingLong(EventLatencyHistogram::getTotal).reversed());
+		return histograms;
+	}
+
+	private static String formatMillis(long micros) {
+		return String.format("%.1f", micros / 1000.0); //$NON-NLS-1$
+	}
+
+	private void export() {
+		FileDialog dialog = new FileDialog(getShell(), SWT.SAVE);
+		dialog.setText(Messages.EventLatencyPreferencePage_export_dialog_title);
+		dialog.setFilterExtensions(new String[] { '*' + CSV_EXTENSION, '*' + JSON_EXTENSION });
+		dialog.setFileName("event-latency" + CSV_EXTENSION); //$NON-NLS-1$
+		dialog.setOverwrite(true);
+		String path = dialog.open();
+		if (path == null) {
+			return;
+		}
+		if (!path.endsWith(CSV_EXTENSION) && !path.endsWith(JSON_EXTENSION)) {
+			path += dialog.getFilterIndex() == 1 ? JSON_EXTENSION : CSV_EXTENSION;
+		}
+		EventLatencyHistogram[] histograms = getSortedHistograms();
+		try (Writer writer = new OutputStreamWriter(Files.newOutputStream(Paths.get(path)),
+				StandardCharsets.UTF_8)) {
+			if (path.endsWith(JSON_EXTENSION)) {
+				EventLatencyStatistics.writeJson(histograms, writer);
+			} else {
+				EventLatencyStatistics.writeCsv(histograms, writer);
+			}
+		} catch (IOException e) {
+			MessageDialog.openError(getShell(), Messages.EventLatencyPreferencePage_export_dialog_title,
+					NLS.bind(Messages.EventLatencyPreferencePage_export_error_1, e.getMessage()));
+		}
+	}
+
+	/**
+	 * Saves the samples of the continuous sampling profiler as folded stacks, the input format of
+	 * flame graph tools.
+	 */
+	private void saveProfile() {
+		StackSamplingProfiler profiler = StackSamplingProfiler.getCurrent();
+		if (profiler == null) {
+			return;
+		}
+		FileDialog dialog = new FileDialog(getShell(), SWT.SAVE);
+		dialog.setText(Messages.EventLatencyPreferencePage_profile_dialog_title);
+		dialog.setFilterExtensions(new String[] { '*' + FOLDED_EXTENSION });
+		dialog.setFileName("ui-thread" + FOLDED_EXTENSION); //$NON-NLS-1$
+		dialog.setOverwrite(true);
+		String path = dialog.open();
+		if (path == null) {
+			return;
+		}
+		try (Writer writer = new OutputStreamWriter(Files.newOutputStream(Paths.get(path)),
+				StandardCharsets.UTF_8)) {
+			profiler.writeFoldedStacks(writer);
+		} catch (IOException e) {
+			MessageDialog.openError(getShell(), Messages.EventLatencyPreferencePage_profile_dialog_title,
+					NLS.bind(Messages.EventLatencyPreferencePage_profile_error_1, e.getMessage()));
+		}
+	}
+}
@@ -14,6 +14,23 @@ package org.eclipse.ui.internal.monitoring.preferences;
 import org.eclipse.osgi.util.NLS;
 
 public final class Messages extends NLS {
+	public static String EventLatencyPreferencePage_count_column;
+	public static String EventLatencyPreferencePage_description;
+	public static String EventLatencyPreferencePage_event_column;
+	public static String EventLatencyPreferencePage_export_button_label;
+	public static String EventLatencyPreferencePage_export_dialog_title;
+	public static String EventLatencyPreferencePage_export_error_1;
+	public static String EventLatencyPreferencePage_max_column;
+	public static String EventLatencyPreferencePage_mean_column;
+	public static String EventLatencyPreferencePage_p50_column;
+	public static String EventLatencyPreferencePage_p90_column;
+	public static String EventLatencyPreferencePage_p99_column;
+	public static String EventLatencyPreferencePage_refresh_button_label;
+	public static String EventLatencyPreferencePage_profile_dialog_title;
+	public static String EventLatencyPreferencePage_profile_error_1;
+	public static String EventLatencyPreferencePage_profile_button_label;
+	public static String EventLatencyPreferencePage_reset_button_label;
+	public static String EventLatencyPreferencePage_total_column;
 	public static String FilterInputDialog_filter_input_label;
 	public static String FilterInputDialog_header;
 	public static String FilterInputDialog_invalid_method_name;
@@ -25,12 +42,15 @@ public final class Messages extends NLS {
 	public static String MonitoringPreferenceListener_preference_error;
 	public static String MonitoringPreferencePage_add_ui_thread_filter_button_label;
 	public static String MonitoringPreferencePage_add_noninteresting_thread_filter_button_label;
+	public static String MonitoringPreferencePage_continuous_sampling_interval_label;
 	public static String MonitoringPreferencePage_deadlock_threshold_label;
 	public static String MonitoringPreferencePage_deadlock_threshold_too_low_error;
+	public static String MonitoringPreferencePage_dump_flight_recording_label;
 	public static String MonitoringPreferencePage_enable_monitoring_label;
 	public static String MonitoringPreferencePage_error_threshold_label;
 	public static String MonitoringPreferencePage_error_threshold_too_low_error;
 	public static String MonitoringPreferencePage_log_freeze_events_label;
+	public static String MonitoringPreferencePage_log_to_file_label;
 	public static String MonitoringPreferencePage_max_stack_samples_label;
 	public static String MonitoringPreferencePage_noninteresting_thread_filter_label;
 	public static String MonitoringPreferencePage_remove_ui_thread_filter_button_label;
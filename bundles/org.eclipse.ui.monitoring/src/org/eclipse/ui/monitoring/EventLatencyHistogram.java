@@ -0,0 +1,139 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.monitoring;
+
+import org.eclipse.ui.internal.monitoring.LatencyHistogram;
+
+/**
+ * A snapshot of the distribution of the time spent on the UI thread dispatching events of one
+ * kind. All values are in microseconds. The recorded values are grouped into buckets whose bounds
+ * are within 12.5% of the values they contain.
+ *
+ * @see EventLatencyStatistics
+ * @noextend This class is not intended to be subclassed by clients.
+ * @since 1.2
+ */
+public class EventLatencyHistogram {
+	private final String name;
+	private final long[] bucketCounts;
+	private final long count;
+	private final long total;
+	private final long max;
+
+	/**
+	 * Creates an EventLatencyHistogram.
+	 *
+	 * @param name the name of the kind of events, e.g. "Selection" or "Runnable"
+	 * @param bucketCounts the number of values recorded in each bucket
+	 * @param total the sum of the recorded values in microseconds
+	 * @param max the largest recorded value in microseconds
+	 */
+	public EventLatencyHistogram(String name, long[] bucketCounts, long total, long max) {
+		this.name = name;
+		this.bucketCounts = bucketCounts;
+		long n = 0;
+		for (long c : bucketCounts) {
+			n += c;
+		}
+		this.count = n;
+		this.total = total;
+		this.max = max;
+	}
+
+	/**
+	 * Returns the name of the kind of events. Events dispatched by {@code asyncExec},
+	 * {@code syncExec} and {@code timerExec} runnables are named "Runnable", other events are
+	 * named after their SWT event type.
+	 */
+	public final String getName() {
+		return name;
+	}
+
+	/**
+	 * Returns the number of recorded events.
+	 */
+	public final long getCount() {
+		return count;
+	}
+
+	/**
+	 * Returns the total time spent dispatching the events in microseconds.
+	 */
+	public final long getTotal() {
+		return total;
+	}
+
+	/**
+	 * Returns the average time spent dispatching an event in microseconds.
+	 */
+	public final long getMean() {
+		return count == 0 ? 0 : total / count;
+	}
+
+	/**
+	 * Returns the longest time spent dispatching an event in microseconds.
+	 */
+	public final long getMax() {
+		return max;
+	}
+
+	/**
+	 * Returns the time in microseconds that the given percentage of the events did not exceed.
+	 *
+	 * @param percentile a value between 0 and 100
+	 */
+	public final long getPercentile(double percentile) {
+		long rank = (long) Math.ceil(Math.min(Math.max(percentile, 0), 100) / 100 * count);
+		long seen = 0;
+		for (int i = 0; i < bucketCounts.length; i++) {
+			seen += bucketCounts[i];
+			if (seen >= rank && seen > 0) {
+				return Math.min(LatencyHistogram.bucketUpperBound(i), max);
+			}
+		}
+		return max;
+	}
+
+	/**
+	 * Returns the number of buckets of the histogram.
+	 */
+	public final int getBucketCount() {
+		return bucketCounts.length;
+	}
+
+	/**
+	 * Returns the number of events recorded in the given bucket.
+	 */
+	public final long getCount(int bucket) {
+		return bucketCounts[bucket];
+	}
+
+	/**
+	 * Returns the smallest value in microseconds that falls into the given bucket.
+	 */
+	public final long getLowerBound(int bucket) {
+		return LatencyHistogram.bucketLowerBound(bucket);
+	}
+
+	/**
+	 * Returns the largest value in microseconds that falls into the given bucket.
+	 */
+	public final long getUpperBound(int bucket) {
+		return LatencyHistogram.bucketUpperBound(bucket);
+	}
+
+	/** For debugging only. */
+	@Override
+	public String toString() {
+		return name + ": count=" + count + " mean=" + getMean() + "us p99=" + getPercentile(99) //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				+ "us max=" + max + "us"; //$NON-NLS-1$ //$NON-NLS-2$
+	}
+}
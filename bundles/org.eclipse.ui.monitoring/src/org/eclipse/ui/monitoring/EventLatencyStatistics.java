@@ -0,0 +1,145 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.monitoring;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import org.eclipse.ui.internal.monitoring.EventLatencyRecorder;
+
+/**
+ * Access to the distribution of the time the UI thread spends dispatching events. While UI
+ * responsiveness monitoring is enabled, the time spent on every event, excluding the time spent
+ * in nested events, is recorded in a histogram for the type of the event. Unlike
+ * {@link IUiFreezeEventLogger}, this covers all events rather than only those exceeding the
+ * warning threshold.
+ *
+ * @noinstantiate This class is not intended to be instantiated by clients.
+ * @since 1.2
+ */
+public final class EventLatencyStatistics {
+	private static final String[] PERCENTILES = { "p50", "p90", "p99", "p999" }; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+	private static final double[] PERCENTILE_VALUES = { 50, 90, 99, 99.9 };
+
+	private EventLatencyStatistics() {}
+
+	/**
+	 * Returns snapshots of the histograms of the kinds of events that were dispatched since the
+	 * start of the workbench or the last {@link #reset()}.
+	 */
+	public static EventLatencyHistogram[] getHistograms() {
+		return EventLatencyRecorder.getDefault().getHistograms();
+	}
+
+	/**
+	 * Discards the recorded values.
+	 */
+	public static void reset() {
+		EventLatencyRecorder.getDefault().reset();
+	}
+
+	/**
+	 * Writes a summary of the histograms in CSV format, one line per histogram. All times are in
+	 * microseconds.
+	 *
+	 * @param histograms the histograms to write
+	 * @param writer the writer to write to
+	 * @throws IOException if writing fails
+	 */
+	public static void writeCsv(EventLatencyHistogram[] histograms, Writer writer)
+			throws IOException {
+		writer.write("event,count,total_us,mean_us"); //$NON-NLS-1$
+		for (String percentile : PERCENTILES) {
+			writer.write(',');
+			writer.write(percentile);
+			writer.write("_us"); //$NON-NLS-1$
+		}
+		writer.write(",max_us\n"); //$NON-NLS-1$
+		for (EventLatencyHistogram histogram : histograms) {
+			writer.write(histogram.getName());
+			writer.write(',');
+			writer.write(Long.toString(histogram.getCount()));
+			writer.write(',');
+			writer.write(Long.toString(histogram.getTotal()));
+			writer.write(',');
+			writer.write(Long.toString(histogram.getMean()));
+			for (double percentile : PERCENTILE_VALUES) {
+				writer.write(',');
+				writer.write(Long.toString(histogram.getPercentile(percentile)));
+			}
+			writer.write(',');
+			writer.write(Long.toString(histogram.getMax()));
+			writer.write('\n');
+		}
+		writer.flush();
+	}
+
+	/**
+	 * Writes the histograms in JSON format, including the bounds and counts of all non-empty
+	 * buckets. All times are in microseconds.
+	 *
+	 * @param histograms the histograms to write
+	 * @param writer the writer to write to
+	 * @throws IOException if writing fails
+	 */
+	public static void writeJson(EventLatencyHistogram[] histograms, Writer writer)
+			throws IOException {
+		writer.write("{\"unit\":\"us\",\"histograms\":["); //$NON-NLS-1$
+		for (int i = 0; i < histograms.length; i++) {
+			EventLatencyHistogram histogram = histograms[i];
+			if (i > 0) {
+				writer.write(',');
+			}
+			writer.write("\n{\"event\":"); //$NON-NLS-1$
+			writeJsonString(histogram.getName(), writer);
+			writer.write(",\"count\":" + histogram.getCount()); //$NON-NLS-1$
+			writer.write(",\"total\":" + histogram.getTotal()); //$NON-NLS-1$
+			writer.write(",\"mean\":" + histogram.getMean()); //$NON-NLS-1$
+			for (int j = 0; j < PERCENTILES.length; j++) {
+				writer.write(",\"" + PERCENTILES[j] + "\":" //$NON-NLS-1$ //$NON-NLS-2$
+						+ histogram.getPercentile(PERCENTILE_VALUES[j]));
+			}
+			writer.write(",\"max\":" + histogram.getMax()); //$NON-NLS-1$
+			writer.write(",\"buckets\":["); //$NON-NLS-1$
+			boolean first = true;
+			for (int j = 0; j < histogram.getBucketCount(); j++) {
+				long count = histogram.getCount(j);
+				if (count != 0) {
+					if (!first) {
+						writer.write(',');
+					}
+					first = false;
+					writer.write("[" + histogram.getLowerBound(j) + ',' + histogram.getUpperBound(j) //$NON-NLS-1$
+							+ ',' + count + ']');
+				}
+			}
+			writer.write("]}"); //$NON-NLS-1$
+		}
+		writer.write("\n]}\n"); //$NON-NLS-1$
+		writer.flush();
+	}
+
+	private static void writeJsonString(String value, Writer writer) throws IOException {
+		writer.write('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == '"' || c == '\\') {
+				writer.write('\\');
+				writer.write(c);
+			} else if (c < ' ') {
+				writer.write(String.format("\\u%04x", (int) c)); //$NON-NLS-1$
+			} else {
+				writer.write(c);
+			}
+		}
+		writer.write('"');
+	}
+}
@@ -0,0 +1,203 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.monitoring;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Describes what the UI thread was blocked on during a UI freeze: the part of the wait-for graph
+ * reachable from the UI thread, a deadlock cycle if there is one, and the locks that blocked the
+ * UI thread most often across all UI freezes since monitoring started.
+ *
+ * @see UiFreezeEvent#getLockAnalysis()
+ * @noextend This class is not intended to be subclassed by clients.
+ * @since 1.2
+ */
+public class LockAnalysis {
+	/**
+	 * An edge of the wait-for graph: a thread waiting for a lock or a scheduling rule owned by
+	 * another thread.
+	 */
+	public static final class Dependency {
+		private final long waiterId;
+		private final String waiterName;
+		private final long ownerId;
+		private final String ownerName;
+		private final String resource;
+		private final boolean isSchedulingRule;
+
+		/**
+		 * Creates a Dependency.
+		 *
+		 * @param waiterId the ID of the waiting thread
+		 * @param waiterName the name of the waiting thread
+		 * @param ownerId the ID of the thread owning the resource
+		 * @param ownerName the name of the thread owning the resource
+		 * @param resource a description of the lock or scheduling rule
+		 * @param isSchedulingRule {@code true} if the resource is a scheduling rule of the Jobs
+		 *     framework, {@code false} if it is a monitor or an ownable synchronizer
+		 */
+		public Dependency(long waiterId, String waiterName, long ownerId, String ownerName,
+				String resource, boolean isSchedulingRule) {
+			this.waiterId = waiterId;
+			this.waiterName = waiterName;
+			this.ownerId = ownerId;
+			this.ownerName = ownerName;
+			this.resource = resource;
+			this.isSchedulingRule = isSchedulingRule;
+		}
+
+		/** Returns the ID of the waiting thread. */
+		public long getWaiterId() {
+			return waiterId;
+		}
+
+		/** Returns the name of the waiting thread. */
+		public String getWaiterName() {
+			return waiterName;
+		}
+
+		/** Returns the ID of the thread owning the resource. */
+		public long getOwnerId() {
+			return ownerId;
+		}
+
+		/** Returns the name of the thread owning the resource. */
+		public String getOwnerName() {
+			return ownerName;
+		}
+
+		/**
+		 * Returns a description of the resource, e.g. {@code java.lang.Object@1b2c3d4e} for a lock.
+		 */
+		public String getResource() {
+			return resource;
+		}
+
+		/**
+		 * Returns {@code true} if the resource is a scheduling rule. Since the rule a thread waits
+		 * for is not exposed by the Jobs framework, the owner of such a dependency is a thread
+		 * running a job with a scheduling rule, which may or may not conflict with the awaited
+		 * rule.
+		 */
+		public boolean isSchedulingRule() {
+			return isSchedulingRule;
+		}
+
+		/** For debugging only. */
+		@Override
+		public String toString() {
+			return waiterName + " -> " + resource + " -> " + ownerName; //$NON-NLS-1$ //$NON-NLS-2$
+		}
+	}
+
+	/**
+	 * A lock that blocked the UI thread, aggregated across UI freezes.
+	 */
+	public static final class BlockingLock {
+		private final String lock;
+		private final int freezeCount;
+		private final long totalDuration;
+
+		/**
+		 * Creates a BlockingLock.
+		 *
+		 * @param lock a description of the lock
+		 * @param freezeCount the number of UI freezes during which the UI thread waited for
+		 *     the lock
+		 * @param totalDuration the total duration of those freezes in milliseconds
+		 */
+		public BlockingLock(String lock, int freezeCount, long totalDuration) {
+			this.lock = lock;
+			this.freezeCount = freezeCount;
+			this.totalDuration = totalDuration;
+		}
+
+		/** Returns a description of the lock. */
+		public String getLock() {
+			return lock;
+		}
+
+		/** Returns the number of UI freezes during which the UI thread waited for the lock. */
+		public int getFreezeCount() {
+			return freezeCount;
+		}
+
+		/** Returns the total duration of those UI freezes in milliseconds. */
+		public long getTotalDuration() {
+			return totalDuration;
+		}
+
+		/** For debugging only. */
+		@Override
+		public String toString() {
+			return lock + ": " + freezeCount + " freezes, " + totalDuration + "ms"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		}
+	}
+
+	private final List<Dependency> waitForGraph;
+	private final List<Dependency> deadlockCycle;
+	private final List<BlockingLock> topBlockingLocks;
+
+	/**
+	 * Creates a LockAnalysis.
+	 *
+	 * @param waitForGraph the dependencies reachable from the UI thread, starting with those
+	 *     of the UI thread
+	 * @param deadlockCycle the dependencies forming a deadlock that involves the UI thread, or
+	 *     an empty list
+	 * @param topBlockingLocks the locks that blocked the UI thread most often, the most
+	 *     significant first
+	 */
+	public LockAnalysis(List<Dependency> waitForGraph, List<Dependency> deadlockCycle,
+			List<BlockingLock> topBlockingLocks) {
+		this.waitForGraph = Collections.unmodifiableList(waitForGraph);
+		this.deadlockCycle = Collections.unmodifiableList(deadlockCycle);
+		this.topBlockingLocks = Collections.unmodifiableList(topBlockingLocks);
+	}
+
+	/**
+	 * Returns the dependencies reachable from the UI thread, starting with those of the UI thread.
+	 */
+	public final List<Dependency> getWaitForGraph() {
+		return waitForGraph;
+	}
+
+	/**
+	 * Returns the dependencies forming a cycle, or an empty list if no deadlock was found.
+	 */
+	public final List<Dependency> getDeadlockCycle() {
+		return deadlockCycle;
+	}
+
+	/**
+	 * Returns {@code true} if the UI thread is part of or waits for a deadlock.
+	 */
+	public final boolean isDeadlock() {
+		return !deadlockCycle.isEmpty();
+	}
+
+	/**
+	 * Returns the locks that blocked the UI thread most often since monitoring started, the ones
+	 * involved in the longest freezes first.
+	 */
+	public final List<BlockingLock> getTopBlockingLocks() {
+		return topBlockingLocks;
+	}
+
+	/** For debugging only. */
+	@Override
+	public String toString() {
+		return "Wait-for graph: " + waitForGraph + ", deadlock: " + deadlockCycle //$NON-NLS-1$ //$NON-NLS-2$
+				+ ", top blocking locks: " + topBlockingLocks; //$NON-NLS-1$
+	}
+}
@@ -43,6 +43,27 @@ public class PreferenceConstants {
 	 * If true, log freeze events to the Eclipse error log.
 	 */
 	public static final String LOG_TO_ERROR_LOG = "log_to_error_log"; //$NON-NLS-1$
+	/**
+	 * If true, write freeze events to compact files in the plug-in state location on a background
+	 * thread. The files can be read using {@link UiFreezeLog}.
+	 *
+	 * @since 1.2
+	 */
+	public static final String LOG_TO_FILE = "log_to_file"; //$NON-NLS-1$
+	/**
+	 * If true, the data of the running Java Flight Recorder recordings is written to a file in
+	 * the plug-in state location when a UI freeze longer than the error threshold is logged.
+	 *
+	 * @since 1.2
+	 */
+	public static final String DUMP_FLIGHT_RECORDING = "dump_flight_recording"; //$NON-NLS-1$
+	/**
+	 * Interval in milliseconds at which the stack of the UI thread is sampled while it is
+	 * dispatching events, regardless of UI freezes. Zero disables continuous sampling.
+	 *
+	 * @since 1.2
+	 */
+	public static final String CONTINUOUS_SAMPLING_INTERVAL_MILLIS = "continuous_sampling_interval"; //$NON-NLS-1$
 	/**
 	 * Comma separated fully qualified method names of stack frames. The names may contain
 	 * '*' and '?' wildcard characters. A UI freeze is not logged if any of the stack traces
@@ -24,6 +24,7 @@ public class UiFreezeEvent {
 	private final boolean isStillRunning;
 	private final boolean isStarvedAwake;
 	private final boolean isStarvedAsleep;
+	private final LockAnalysis lockAnalysis;
 
 	/**
 	 * Creates a UiFreezeEvent.
@@ -37,12 +38,32 @@ public class UiFreezeEvent {
 	 */
 	public UiFreezeEvent(long startTime, long duration, StackSample[] samples,
 			boolean stillRunning, boolean starvedAwake, boolean starvedAsleep) {
+		this(startTime, duration, samples, stillRunning, starvedAwake, starvedAsleep, null);
+	}
+
+	/**
+	 * Creates a UiFreezeEvent.
+	 *
+	 * @param startTime initial dispatch time for the event in milliseconds since January 1,
+	 *     1970 UTC
+	 * @param duration duration of the event in milliseconds
+	 * @param samples array of {@link StackSample}s containing thread information
+	 * @param stillRunning whether or not the event was still running when this UiFreezeEvent
+	 *     was created. If {@code true}, this UiFreezeEvent may indicate a deadlock.
+	 * @param lockAnalysis the analysis of the locks the UI thread was waiting for, or
+	 *     {@code null} if it was not blocked
+	 * @since 1.2
+	 */
+	public UiFreezeEvent(long startTime, long duration, StackSample[] samples,
+			boolean stillRunning, boolean starvedAwake, boolean starvedAsleep,
+			LockAnalysis lockAnalysis) {
 		this.startTimestamp = startTime;
 		this.stackTraceSamples = samples;
 		this.totalDuration = duration;
 		this.isStillRunning = stillRunning;
 		this.isStarvedAwake = starvedAwake;
 		this.isStarvedAsleep = starvedAsleep;
+		this.lockAnalysis = lockAnalysis;
 	}
 
 	/**
@@ -88,6 +109,16 @@ public class UiFreezeEvent {
 		return isStarvedAsleep;
 	}
 
+	/**
+	 * Returns the analysis of the locks and scheduling rules the UI thread was waiting for, or
+	 * {@code null} if the UI thread was not blocked in any of the stack samples.
+	 *
+	 * @since 1.2
+	 */
+	public final LockAnalysis getLockAnalysis() {
+		return lockAnalysis;
+	}
+
 	/** For debugging only. */
 	@Override
 	public String toString() {
@@ -107,6 +138,10 @@ public class UiFreezeEvent {
 					isStarvedAwake ? "awake" : "asleep"; //$NON-NLS-1$ //$NON-NLS-2$
 			buf.append(", monitoring thread starved for CPU while " + when); //$NON-NLS-1$
 		}
+		if (lockAnalysis != null) {
+			buf.append('\n');
+			buf.append(lockAnalysis);
+		}
 		if (stackTraceSamples.length != 0) {
 			buf.append("\nStack trace samples:"); //$NON-NLS-1$
 			for (StackSample stackTraceSample : stackTraceSamples) {
@@ -0,0 +1,410 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.monitoring;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.ui.internal.monitoring.FileUiFreezeEventLogger;
+
+/**
+ * UI freezes read from the files written when the
+ * {@link PreferenceConstants#LOG_TO_FILE} preference is enabled. The files are located in the
+ * state location of the {@code org.eclipse.ui.monitoring} plug-in.
+ * <p>
+ * The files can also be summarized from the command line by running this class with the files
+ * or the directory containing them as arguments.
+ *
+ * @noinstantiate This class is not intended to be instantiated by clients.
+ * @since 1.2
+ */
+public final class UiFreezeLog {
+	private static final Thread.State[] THREAD_STATES = Thread.State.values();
+
+	/**
+	 * The state of a thread in a stack sample.
+	 */
+	public static final class ThreadSample {
+		private final long id;
+		private final String name;
+		private final Thread.State state;
+		private final StackTraceElement[] stackTrace;
+		private final String lock;
+		private final long lockOwnerId;
+
+		ThreadSample(long id, String name, Thread.State state, StackTraceElement[] stackTrace,
+				String lock, long lockOwnerId) {
+			this.id = id;
+			this.name = name;
+			this.state = state;
+			this.stackTrace = stackTrace;
+			this.lock = lock;
+			this.lockOwnerId = lockOwnerId;
+		}
+
+		/** Returns the ID of the thread. */
+		public long getId() {
+			return id;
+		}
+
+		/** Returns the name of the thread. */
+		public String getName() {
+			return name;
+		}
+
+		/** Returns the state of the thread. */
+		public Thread.State getState() {
+			return state;
+		}
+
+		/** Returns the stack trace of the thread, the innermost frame first. */
+		public StackTraceElement[] getStackTrace() {
+			return stackTrace.clone();
+		}
+
+		/** Returns a description of the lock the thread was waiting for, or {@code null}. */
+		public String getLock() {
+			return lock;
+		}
+
+		/** Returns the ID of the thread owning the lock, or -1. */
+		public long getLockOwnerId() {
+			return lockOwnerId;
+		}
+	}
+
+	/**
+	 * A stack sample of a UI freeze.
+	 */
+	public static final class Sample {
+		private final long timestamp;
+		private final List<ThreadSample> threads;
+
+		Sample(long timestamp, List<ThreadSample> threads) {
+			this.timestamp = timestamp;
+			this.threads = Collections.unmodifiableList(threads);
+		}
+
+		/** Returns the time when the sample was taken in milliseconds since the epoch. */
+		public long getTimestamp() {
+			return timestamp;
+		}
+
+		/** Returns the sampled threads. The first one is the UI thread. */
+		public List<ThreadSample> getThreads() {
+			return threads;
+		}
+	}
+
+	/**
+	 * A logged UI freeze.
+	 */
+	public static final class Freeze {
+		private final long startTimestamp;
+		private final long totalDuration;
+		private final int flags;
+		private final List<Sample> samples;
+
+		Freeze(long startTimestamp, long totalDuration, int flags, List<Sample> samples) {
+			this.startTimestamp = startTimestamp;
+			this.totalDuration = totalDuration;
+			this.flags = flags;
+			this.samples = Collections.unmodifiableList(samples);
+		}
+
+		/** @see UiFreezeEvent#getStartTimestamp() */
+		public long getStartTimestamp() {
+			return startTimestamp;
+		}
+
+		/** @see UiFreezeEvent#getTotalDuration() */
+		public long getTotalDuration() {
+			return totalDuration;
+		}
+
+		/** @see UiFreezeEvent#isStillRunning() */
+		public boolean isStillRunning() {
+			return (flags & FileUiFreezeEventLogger.FLAG_STILL_RUNNING) != 0;
+		}
+
+		/** @see UiFreezeEvent#isStarvedAwake() */
+		public boolean isStarvedAwake() {
+			return (flags & FileUiFreezeEventLogger.FLAG_STARVED_AWAKE) != 0;
+		}
+
+		/** @see UiFreezeEvent#isStarvedAsleep() */
+		public boolean isStarvedAsleep() {
+			return (flags & FileUiFreezeEventLogger.FLAG_STARVED_ASLEEP) != 0;
+		}
+
+		/** Returns the stack samples taken during the freeze. */
+		public List<Sample> getSamples() {
+			return samples;
+		}
+	}
+
+	/**
+	 * A stack trace of the UI thread aggregated across UI freezes.
+	 */
+	public static final class StackStatistics {
+		private final StackTraceElement[] stackTrace;
+		private int sampleCount;
+		private int freezeCount;
+		private long totalDuration;
+
+		StackStatistics(StackTraceElement[] stackTrace) {
+			this.stackTrace = stackTrace;
+		}
+
+		/** Returns the stack trace, the innermost frame first. */
+		public StackTraceElement[] getStackTrace() {
+			return stackTrace.clone();
+		}
+
+		/** Returns the number of samples of the UI thread with this stack trace. */
+		public int getSampleCount() {
+			return sampleCount;
+		}
+
+		/** Returns the number of UI freezes with at least one sample with this stack trace. */
+		public int getFreezeCount() {
+			return freezeCount;
+		}
+
+		/** Returns the total duration of those UI freezes in milliseconds. */
+		public long getTotalDuration() {
+			return totalDuration;
+		}
+	}
+
+	private final List<Freeze> freezes;
+	private final int droppedEventCount;
+
+	private UiFreezeLog(List<Freeze> freezes, int droppedEventCount) {
+		this.freezes = Collections.unmodifiableList(freezes);
+		this.droppedEventCount = droppedEventCount;
+	}
+
+	/**
+	 * Returns the UI freeze log files in the given directory, the oldest first.
+	 *
+	 * @param directory the directory containing the files
+	 */
+	public static File[] getLogFiles(File directory) {
+		List<File> files = new ArrayList<>();
+		for (int i = 0;; i++) {
+			File file = FileUiFreezeEventLogger.getFile(directory, i);
+			if (!file.isFile()) {
+				break;
+			}
+			files.add(file);
+		}
+		Collections.reverse(files);
+		return files.toArray(new File[files.size()]);
+	}
+
+	/**
+	 * Reads UI freeze log files. A truncated last record, e.g. of a file that is still being
+	 * written, is ignored.
+	 *
+	 * @param files the files to read
+	 * @return the UI freezes contained in the files, in the order of the files
+	 * @throws IOException if a file cannot be read or has an invalid format
+	 */
+	public static UiFreezeLog read(File... files) throws IOException {
+		List<Freeze> freezes = new ArrayList<>();
+		int dropped = 0;
+		for (File file : files) {
+			try (DataInputStream in =
+					new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+				dropped += read(in, freezes, file);
+			}
+		}
+		return new UiFreezeLog(freezes, dropped);
+	}
+
+	private static int read(DataInputStream in, List<Freeze> freezes, File file)
+			throws IOException {
+		if (in.readInt() != FileUiFreezeEventLogger.MAGIC
+				|| in.readShort() != FileUiFreezeEventLogger.VERSION) {
+			throw new IOException("Not a UI freeze log file: " + file); //$NON-NLS-1$
+		}
+		List<String> strings = new ArrayList<>();
+		List<StackTraceElement> frames = new ArrayList<>();
+		List<StackTraceElement[]> stacks = new ArrayList<>();
+		int dropped = 0;
+		try {
+			while (true) {
+				int type = in.read();
+				switch (type) {
+				case -1:
+					return dropped;
+				case FileUiFreezeEventLogger.STRING:
+					strings.add(in.readUTF());
+					break;
+				case FileUiFreezeEventLogger.FRAME:
+					String className = strings.get(in.readInt());
+					String methodName = strings.get(in.readInt());
+					int fileName = in.readInt();
+					frames.add(new StackTraceElement(className, methodName,
+							fileName < 0 ? null : strings.get(fileName), in.readInt()));
+					break;
+				case FileUiFreezeEventLogger.STACK:
+					StackTraceElement[] stack = new StackTraceElement[in.readInt()];
+					for (int i = 0; i < stack.length; i++) {
+						stack[i] = frames.get(in.readInt());
+					}
+					stacks.add(stack);
+					break;
+				case FileUiFreezeEventLogger.FREEZE:
+					freezes.add(readFreeze(in, strings, stacks));
+					break;
+				case FileUiFreezeEventLogger.DROPPED:
+					dropped += in.readInt();
+					break;
+				default:
+					throw new IOException("Invalid record type " + type + " in " + file); //$NON-NLS-1$ //$NON-NLS-2$
+				}
+			}
+		} catch (EOFException e) {
+			return dropped;
+		} catch (IndexOutOfBoundsException e) {
+			throw new IOException("Invalid reference in " + file, e); //$NON-NLS-1$
+		}
+	}
+
+	private static Freeze readFreeze(DataInputStream in, List<String> strings,
+			List<StackTraceElement[]> stacks) throws IOException {
+		long start = in.readLong();
+		long duration = in.readLong();
+		int flags = in.readByte();
+		Sample[] samples = new Sample[in.readInt()];
+		for (int i = 0; i < samples.length; i++) {
+			long timestamp = in.readLong();
+			ThreadSample[] threads = new ThreadSample[in.readInt()];
+			for (int j = 0; j < threads.length; j++) {
+				long id = in.readLong();
+				String name = strings.get(in.readInt());
+				Thread.State state = THREAD_STATES[in.readByte()];
+				StackTraceElement[] stack = stacks.get(in.readInt());
+				int lock = in.readInt();
+				threads[j] = new ThreadSample(id, name, state, stack,
+						lock < 0 ? null : strings.get(lock), in.readLong());
+			}
+			samples[i] = new Sample(timestamp, Arrays.asList(threads));
+		}
+		return new Freeze(start, duration, flags, Arrays.asList(samples));
+	}
+
+	/**
+	 * Returns the UI freezes, in the order they were logged.
+	 */
+	public List<Freeze> getFreezes() {
+		return freezes;
+	}
+
+	/**
+	 * Returns the number of UI freezes that were not written because too many were logged at
+	 * the same time.
+	 */
+	public int getDroppedEventCount() {
+		return droppedEventCount;
+	}
+
+	/**
+	 * Aggregates the stack traces of the UI thread across all UI freezes.
+	 *
+	 * @return the distinct stack traces of the UI thread, the ones involved in the longest
+	 *     UI freezes in total first
+	 */
+	public List<StackStatistics> getStackStatistics() {
+		Map<List<StackTraceElement>, StackStatistics> statistics = new HashMap<>();
+		for (Freeze freeze : freezes) {
+			Set<StackStatistics> freezeStacks = new HashSet<>();
+			for (Sample sample : freeze.getSamples()) {
+				if (sample.getThreads().isEmpty()) {
+					continue;
+				}
+				StackTraceElement[] stack = sample.getThreads().get(0).stackTrace;
+				StackStatistics stackStatistics = statistics
+						.computeIfAbsent(Arrays.asList(stack), k -> new StackStatistics(stack));
+				stackStatistics.sampleCount++;
+				if (freezeStacks.add(stackStatistics)) {
+					stackStatistics.freezeCount++;
+					stackStatistics.totalDuration += freeze.getTotalDuration();
+				}
+			}
+		}
+		List<StackStatistics> result = new ArrayList<>(statistics.values());
+		result.sort((a, b) -> a.totalDuration != b.totalDuration
+				? Long.compare(b.totalDuration, a.totalDuration)
+				: Integer.compare(b.sampleCount, a.sampleCount));
+		return result;
+	}
+
+	/**
+	 * Writes a plain text summary of the UI freezes and the most significant stack traces of the
+	 * UI thread.
+	 *
+	 * @param writer the writer to write to
+	 * @param maxStacks the maximum number of stack traces to write
+	 */
+	public void writeSummary(Writer writer, int maxStacks) {
+		PrintWriter out = new PrintWriter(writer);
+		long totalDuration = 0;
+		for (Freeze freeze : freezes) {
+			totalDuration += freeze.getTotalDuration();
+		}
+		out.printf("%d UI freezes, %.3fs in total, %d dropped%n", //$NON-NLS-1$
+				freezes.size(), totalDuration / 1000.0, droppedEventCount);
+		List<StackStatistics> statistics = getStackStatistics();
+		for (int i = 0; i < statistics.size() && i < maxStacks; i++) {
+			StackStatistics stack = statistics.get(i);
+			out.printf("%n%d freezes, %.3fs, %d samples:%n", stack.freezeCount, //$NON-NLS-1$
+					stack.totalDuration / 1000.0, stack.sampleCount);
+			for (StackTraceElement frame : stack.stackTrace) {
+				out.printf("\tat %s%n", frame); //$NON-NLS-1$
+			}
+		}
+		out.flush();
+	}
+
+	/**
+	 * Prints a summary of UI freeze log files.
+	 *
+	 * @param args the files or directories containing the files
+	 * @throws IOException if a file cannot be read
+	 */
+	public static void main(String[] args) throws IOException {
+		List<File> files = new ArrayList<>();
+		for (String arg : args) {
+			File file = new File(arg);
+			files.addAll(file.isDirectory() ? Arrays.asList(getLogFiles(file))
+					: Collections.singletonList(file));
+		}
+		read(files.toArray(new File[files.size()])).writeSummary(new OutputStreamWriter(System.out), 20);
+	}
+}
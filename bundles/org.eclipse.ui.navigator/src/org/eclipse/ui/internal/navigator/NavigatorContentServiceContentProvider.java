@@ -16,18 +16,31 @@ package org.eclipse.ui.internal.navigator;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import org.eclipse.core.runtime.SafeRunner;
+import org.eclipse.jface.viewers.AbstractTreeViewer;
 import org.eclipse.jface.viewers.ITreeContentProvider;
 import org.eclipse.jface.viewers.ITreePathContentProvider;
 import org.eclipse.jface.viewers.TreePath;
 import org.eclipse.jface.viewers.Viewer;
 import org.eclipse.osgi.util.NLS;
+import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Display;
 import org.eclipse.ui.internal.navigator.extensions.NavigatorContentDescriptor;
 import org.eclipse.ui.internal.navigator.extensions.NavigatorContentExtension;
 import org.eclipse.ui.internal.navigator.extensions.NavigatorViewerDescriptor;
@@ -64,12 +77,30 @@ public class NavigatorContentServiceContentProvider implements ITreeContentProvi
 
 	private static final Object[] NO_CHILDREN = new Object[0];
 
+	private static final long DEFAULT_PARALLEL_CONTENT_DEADLINE = 200;
+
+	/**
+	 * Queries the content extensions in parallel. The threads are created on
+	 * demand and end when they have been idle for a while.
+	 */
+	private static final ThreadPoolExecutor CONTENT_EXECUTOR = createContentExecutor();
+
 	private final NavigatorContentService contentService;
 
 	private boolean disposeContentService;
 
 	private final boolean enforceHasChildren;
 
+	private final boolean parallelContent;
+
+	private final long parallelContentDeadline;
+
+	/**
+	 * The latest parallel request per parent element or path that still waits
+	 * for content extensions which missed the deadline.
+	 */
+	private final Map<Object, ParallelChildrenRequest> parallelRequests = new HashMap<>();
+
 	private Viewer viewer;
 
 	/**
@@ -102,6 +133,33 @@ public class NavigatorContentServiceContentProvider implements ITreeContentProvi
 		contentService = aContentService;
 		INavigatorViewerDescriptor vDesc = contentService.getViewerDescriptor();
 		enforceHasChildren = vDesc.getBooleanConfigProperty(NavigatorViewerDescriptor.PROP_ENFORCE_HAS_CHILDREN);
+		parallelContent = vDesc.getBooleanConfigProperty(NavigatorViewerDescriptor.PROP_PARALLEL_CONTENT);
+		parallelContentDeadline = getDeadline(vDesc);
+	}
+
+	private static long getDeadline(INavigatorViewerDescriptor vDesc) {
+		String deadline = vDesc.getStringConfigProperty(NavigatorViewerDescriptor.PROP_PARALLEL_CONTENT_DEADLINE);
+		if (deadline != null) {
+			try {
+				return Math.max(0, Long.parseLong(deadline.trim()));
+			} catch (NumberFormatException e) {
+				NavigatorPlugin.logError(0, "Invalid value of " //$NON-NLS-1$
+						+ NavigatorViewerDescriptor.PROP_PARALLEL_CONTENT_DEADLINE + ": " + deadline, e); //$NON-NLS-1$
+			}
+		}
+		return DEFAULT_PARALLEL_CONTENT_DEADLINE;
+	}
+
+	private static ThreadPoolExecutor createContentExecutor() {
+		int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<Runnable>(), runnable -> {
+					Thread thread = new Thread(runnable, "Navigator Content Extension Query"); //$NON-NLS-1$
+					thread.setDaemon(true);
+					return thread;
+				});
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
 	}
 
 	@Override
@@ -136,52 +194,285 @@ public class NavigatorContentServiceContentProvider implements ITreeContentProvi
 		if (enabledExtensions.size() == 0) {
 			return NO_CHILDREN;
 		}
+		if (parallelContent) {
+			return internalGetChildrenInParallel(aParentElement, aParentElementOrPath, enabledExtensions,
+					elements);
+		}
 		final Set finalSet = new LinkedHashSet();
 		final ContributorTrackingSet localSet = new ContributorTrackingSet(contentService);
 
 		for (final Iterator itr = enabledExtensions.iterator(); itr.hasNext();) {
 			SafeRunner.run(new NavigatorSafeRunnable() {
 				NavigatorContentExtension foundExtension = (NavigatorContentExtension) itr.next();
-				Object[] contributedChildren = null;
-				NavigatorContentExtension[] overridingExtensions;
 
 				@Override
 				public void run() throws Exception {
-					if (!isOverridingExtensionInSet(foundExtension.getDescriptor(),
-							enabledExtensions)) {
-						if (elements)
-							contributedChildren = foundExtension.internalGetContentProvider()
-									.getElements(aParentElementOrPath);
-						else
-							contributedChildren = foundExtension.internalGetContentProvider()
-									.getChildren(aParentElementOrPath);
-						overridingExtensions = foundExtension
-								.getOverridingExtensionsForTriggerPoint(aParentElement);
-						INavigatorContentDescriptor foundDescriptor = foundExtension
-								.getDescriptor();
-						localSet.setContributor(foundDescriptor, foundDescriptor);
-						localSet.setContents(contributedChildren);
+					collectChildren(foundExtension, aParentElement, aParentElementOrPath, enabledExtensions,
+							elements, localSet, finalSet);
+				}
 
-						if (overridingExtensions.length > 0) {
-							pipelineChildren(aParentElement, overridingExtensions, foundDescriptor,
-									localSet, elements);
+				@Override
+				public void handleException(Throwable e) {
+					logExtensionError(foundExtension, aParentElement, e);
+				}
+			});
+		}
+
+		return finalSet.toArray();
+	}
+
+	/**
+	 * Queries one extension for children, pipes them through the overriding
+	 * extensions and adds them to <code>finalSet</code>.
+	 */
+	private void collectChildren(NavigatorContentExtension foundExtension, Object aParentElement,
+			Object aParentElementOrPath, Set enabledExtensions, boolean elements,
+			ContributorTrackingSet localSet, Set finalSet) {
+		if (!isOverridingExtensionInSet(foundExtension.getDescriptor(), enabledExtensions)) {
+			Object[] contributedChildren;
+			if (elements)
+				contributedChildren = foundExtension.internalGetContentProvider()
+						.getElements(aParentElementOrPath);
+			else
+				contributedChildren = foundExtension.internalGetContentProvider()
+						.getChildren(aParentElementOrPath);
+			NavigatorContentExtension[] overridingExtensions = foundExtension
+					.getOverridingExtensionsForTriggerPoint(aParentElement);
+			INavigatorContentDescriptor foundDescriptor = foundExtension.getDescriptor();
+			localSet.setContributor(foundDescriptor, foundDescriptor);
+			localSet.setContents(contributedChildren);
+
+			if (overridingExtensions.length > 0) {
+				pipelineChildren(aParentElement, overridingExtensions, foundDescriptor, localSet, elements);
+			}
+			finalSet.addAll(localSet);
+		}
+	}
+
+	private static void logExtensionError(NavigatorContentExtension anExtension, Object anElement,
+			Throwable e) {
+		NavigatorPlugin.logError(0, NLS.bind(CommonNavigatorMessages.Exception_Invoking_Extension,
+				new Object[] { anExtension.getDescriptor().getId(), anElement }), e);
+	}
+
+	/**
+	 * Like {@link #internalGetChildren(Object, Object, Set, boolean)}, but the
+	 * extensions that no other extension is pipelined through are queried in
+	 * background threads while the remaining extensions are queried in the
+	 * calling thread. The results are merged in priority order. Extensions that
+	 * miss the deadline are left out, their children are added to the viewer
+	 * when they arrive.
+	 */
+	private Object[] internalGetChildrenInParallel(final Object aParentElement,
+			final Object aParentElementOrPath, final Set enabledExtensions, final boolean elements) {
+		Display display = null;
+		if (viewer instanceof AbstractTreeViewer) {
+			Control control = viewer.getControl();
+			if (control != null && !control.isDisposed()) {
+				display = control.getDisplay();
+			}
+		}
+		final ParallelChildrenRequest request = new ParallelChildrenRequest(aParentElement,
+				aParentElementOrPath, display);
+		final ParallelChildrenRequest previous;
+		synchronized (parallelRequests) {
+			previous = parallelRequests.put(aParentElementOrPath, request);
+		}
+
+		final Map<NavigatorContentExtension, CompletableFuture<Object[]>> queries = new HashMap<>();
+		for (final Iterator itr = enabledExtensions.iterator(); itr.hasNext();) {
+			final NavigatorContentExtension foundExtension = (NavigatorContentExtension) itr.next();
+			SafeRunner.run(new NavigatorSafeRunnable() {
+				@Override
+				public void run() throws Exception {
+					if (isOverridingExtensionInSet(foundExtension.getDescriptor(), enabledExtensions)
+							|| foundExtension.getOverridingExtensionsForTriggerPoint(aParentElement).length > 0) {
+						return;
+					}
+					// Do not ask a slow extension again while it is still busy with the previous request.
+					CompletableFuture<Object[]> query = previous == null ? null
+							: previous.getRunningQuery(foundExtension);
+					if (query == null) {
+						final SafeDelegateTreeContentProvider contentProvider = foundExtension
+								.internalGetContentProvider();
+						query = CompletableFuture.supplyAsync(
+								() -> elements ? contentProvider.getElements(aParentElementOrPath)
+										: contentProvider.getChildren(aParentElementOrPath),
+								CONTENT_EXECUTOR);
+					}
+					queries.put(foundExtension, query);
+				}
+
+				@Override
+				public void handleException(Throwable e) {
+					logExtensionError(foundExtension, aParentElement, e);
+				}
+			});
+		}
+
+		final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(parallelContentDeadline);
+		final Set finalSet = new LinkedHashSet();
+		final ContributorTrackingSet localSet = new ContributorTrackingSet(contentService);
+		for (final Iterator itr = enabledExtensions.iterator(); itr.hasNext();) {
+			final NavigatorContentExtension foundExtension = (NavigatorContentExtension) itr.next();
+			final CompletableFuture<Object[]> query = queries.get(foundExtension);
+			SafeRunner.run(new NavigatorSafeRunnable() {
+				@Override
+				public void run() throws Exception {
+					if (query == null) {
+						collectChildren(foundExtension, aParentElement, aParentElementOrPath, enabledExtensions,
+								elements, localSet, finalSet);
+						return;
+					}
+					Object[] contributedChildren;
+					try {
+						if (request.canDeliverLate()) {
+							contributedChildren = query.get(Math.max(0, deadline - System.nanoTime()),
+									TimeUnit.NANOSECONDS);
+						} else {
+							contributedChildren = query.get();
 						}
-						finalSet.addAll(localSet);
+					} catch (TimeoutException e) {
+						request.addLateQuery(foundExtension, query);
+						return;
+					} catch (ExecutionException e) {
+						handleException(e.getCause());
+						return;
 					}
+					INavigatorContentDescriptor foundDescriptor = foundExtension.getDescriptor();
+					localSet.setContributor(foundDescriptor, foundDescriptor);
+					localSet.setContents(contributedChildren);
+					finalSet.addAll(localSet);
 				}
 
 				@Override
 				public void handleException(Throwable e) {
-					NavigatorPlugin.logError(0, NLS.bind(
-							CommonNavigatorMessages.Exception_Invoking_Extension, new Object[] {
-									foundExtension.getDescriptor().getId(), aParentElement }), e);
+					logExtensionError(foundExtension, aParentElement, e);
 				}
 			});
 		}
 
+		request.start(finalSet);
 		return finalSet.toArray();
 	}
 
+	/**
+	 * Tracks the extensions that missed the deadline of a parallel request and
+	 * adds their children to the viewer when they arrive. The children of a
+	 * request that was replaced by a newer request for the same parent are
+	 * dropped, the newer request reuses the queries that are still running.
+	 */
+	private final class ParallelChildrenRequest {
+
+		private final Object parentElement;
+
+		private final Object parentElementOrPath;
+
+		private final Display display;
+
+		private final Map<NavigatorContentExtension, CompletableFuture<Object[]>> lateQueries = new HashMap<>();
+
+		/** The children in the viewer, accessed in the UI thread after {@link #start(Set)}. */
+		private final Set delivered = new HashSet();
+
+		ParallelChildrenRequest(Object parentElement, Object parentElementOrPath, Display display) {
+			this.parentElement = parentElement;
+			this.parentElementOrPath = parentElementOrPath;
+			this.display = display;
+		}
+
+		boolean canDeliverLate() {
+			return display != null;
+		}
+
+		synchronized CompletableFuture<Object[]> getRunningQuery(NavigatorContentExtension extension) {
+			CompletableFuture<Object[]> query = lateQueries.get(extension);
+			return query != null && !query.isDone() ? query : null;
+		}
+
+		synchronized void addLateQuery(NavigatorContentExtension extension, CompletableFuture<Object[]> query) {
+			lateQueries.put(extension, query);
+		}
+
+		/**
+		 * Starts waiting for the late queries once the children returned to
+		 * the viewer are known.
+		 */
+		void start(Set children) {
+			Map<NavigatorContentExtension, CompletableFuture<Object[]>> queries;
+			synchronized (this) {
+				delivered.addAll(children);
+				queries = new HashMap<>(lateQueries);
+			}
+			if (queries.isEmpty()) {
+				finish();
+				return;
+			}
+			for (Map.Entry<NavigatorContentExtension, CompletableFuture<Object[]>> entry : queries.entrySet()) {
+				final NavigatorContentExtension extension = entry.getKey();
+				entry.getValue().whenComplete((lateChildren, exception) -> {
+					if (!display.isDisposed()) {
+						display.asyncExec(() -> deliver(extension, lateChildren, exception));
+					}
+				});
+			}
+		}
+
+		private void deliver(NavigatorContentExtension extension, Object[] children, Throwable exception) {
+			boolean last;
+			synchronized (this) {
+				lateQueries.remove(extension);
+				last = lateQueries.isEmpty();
+			}
+			try {
+				if (isCurrent()) {
+					addChildren(extension, children, exception);
+				}
+			} finally {
+				if (last) {
+					finish();
+				}
+			}
+		}
+
+		private void addChildren(NavigatorContentExtension extension, Object[] children, Throwable exception) {
+			if (exception != null) {
+				logExtensionError(extension, parentElement,
+						exception instanceof CompletionException ? exception.getCause() : exception);
+				return;
+			}
+			Control control = viewer == null ? null : viewer.getControl();
+			if (children == null || control == null || control.isDisposed()) {
+				return;
+			}
+			INavigatorContentDescriptor descriptor = extension.getDescriptor();
+			ContributorTrackingSet added = new ContributorTrackingSet(contentService);
+			added.setContributor(descriptor, descriptor);
+			for (Object child : children) {
+				if (delivered.add(child)) {
+					added.add(child);
+				}
+			}
+			if (!added.isEmpty()) {
+				((AbstractTreeViewer) viewer).add(parentElementOrPath, added.toArray());
+			}
+		}
+
+		private boolean isCurrent() {
+			synchronized (parallelRequests) {
+				return parallelRequests.get(parentElementOrPath) == this;
+			}
+		}
+
+		private void finish() {
+			synchronized (parallelRequests) {
+				if (parallelRequests.get(parentElementOrPath) == this) {
+					parallelRequests.remove(parentElementOrPath);
+				}
+			}
+		}
+	}
+
 	/**
 	 * Query each of <code>theOverridingExtensions</code> for children, and then
 	 * pipe them through the Pipeline content provider.
@@ -479,6 +770,9 @@ public class NavigatorContentServiceContentProvider implements ITreeContentProvi
 	 */
 	@Override
 	public void dispose() {
+		synchronized (parallelRequests) {
+			parallelRequests.clear();
+		}
 		if (disposeContentService) {
 			contentService.dispose();
 		}
@@ -0,0 +1,106 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.navigator.extensions;
+
+import java.util.BitSet;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Remembers the results of <b>triggerPoints</b> or <b>possibleChildren</b>
+ * expressions that only depend on the class of the element, see
+ * {@link NavigatorContentDescriptor#isTriggerPointClassOnly()}. The results
+ * for an element class are kept in bit sets indexed by the sequence numbers of
+ * the descriptors.
+ * <p>
+ * This class is thread safe.
+ * </p>
+ */
+public class ClassDecisionCache {
+
+	private static final class Decisions {
+		final BitSet evaluated = new BitSet();
+		final BitSet enabled = new BitSet();
+	}
+
+	private final boolean possibleChild;
+
+	private final Map<Class<?>, Decisions> decisions = new WeakHashMap<>();
+
+	private long hitCount;
+
+	private long missCount;
+
+	/**
+	 * @param possibleChild
+	 *            true to cache <b>possibleChildren</b> expressions, false to
+	 *            cache <b>triggerPoints</b> expressions
+	 */
+	public ClassDecisionCache(boolean possibleChild) {
+		this.possibleChild = possibleChild;
+	}
+
+	/**
+	 * Returns whether the expression of the descriptor is enabled for the
+	 * element, evaluating it only once per element class.
+	 *
+	 * @param aDescriptor
+	 *            a descriptor whose expression only depends on the class of
+	 *            the element
+	 * @param anElement
+	 *            the element, must be non-null
+	 * @return the result of the expression for the element
+	 */
+	public boolean isEnabled(NavigatorContentDescriptor aDescriptor, Object anElement) {
+		Class<?> elementClass = anElement.getClass();
+		int index = aDescriptor.getSequenceNumber();
+		synchronized (this) {
+			Decisions classDecisions = decisions.get(elementClass);
+			if (classDecisions != null && classDecisions.evaluated.get(index)) {
+				hitCount++;
+				return classDecisions.enabled.get(index);
+			}
+			missCount++;
+		}
+		boolean enabled = possibleChild ? aDescriptor.isPossibleChild(anElement)
+				: aDescriptor.isTriggerPoint(anElement);
+		synchronized (this) {
+			Decisions classDecisions = decisions.get(elementClass);
+			if (classDecisions == null) {
+				decisions.put(elementClass, classDecisions = new Decisions());
+			}
+			classDecisions.evaluated.set(index);
+			classDecisions.enabled.set(index, enabled);
+		}
+		return enabled;
+	}
+
+	/**
+	 * Forgets all results.
+	 */
+	public synchronized void clear() {
+		decisions.clear();
+	}
+
+	/**
+	 * @return the number of evaluations answered from the cache
+	 */
+	public synchronized long getHitCount() {
+		return hitCount;
+	}
+
+	/**
+	 * @return the number of evaluations that were not in the cache
+	 */
+	public synchronized long getMissCount() {
+		return missCount;
+	}
+}
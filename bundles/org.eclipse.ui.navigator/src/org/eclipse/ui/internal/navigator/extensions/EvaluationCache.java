@@ -14,14 +14,21 @@ package org.eclipse.ui.internal.navigator.extensions;
 
 import java.lang.ref.Reference;
 import java.lang.ref.ReferenceQueue;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.WeakHashMap;
 
 import org.eclipse.ui.internal.navigator.VisibilityAssistant;
 import org.eclipse.ui.internal.navigator.VisibilityAssistant.VisibilityListener;
 
 /**
  * A cache for evaluated {@link NavigatorContentDescriptor}.
+ * <p>
+ * Descriptors are cached by element, or by element class when the expressions
+ * of all descriptors only depend on the class of the element. Descriptors
+ * cached by class are represented as bit sets of their sequence numbers.
+ * </p>
  */
 public class EvaluationCache implements VisibilityListener {
 	// TODO Have an LRU cache with max size as well as SoftReferences, to help
@@ -30,8 +37,6 @@ public class EvaluationCache implements VisibilityListener {
 	// dependence on the GC from keeping this cache's size in line in the first
 	// place.
 
-	// TODO Counters for cache hits, misses, replacements, etc.
-
 	// TODO Either the overrides and not overrides case should "share" parts of
 	// their data structures (for example, this can be a map of key -> pair
 	// instead of two maps) OR not bother tracking "overrides or not" state here
@@ -43,6 +48,12 @@ public class EvaluationCache implements VisibilityListener {
 	private final ReferenceQueue<Object> evaluationsQueue = new ReferenceQueue<>();
 	private final ReferenceQueue<Object> evaluationsWithOverridesQueue = new ReferenceQueue<>();
 
+	private final Map<Class<?>, BitSet> classEvaluations = new WeakHashMap<>();
+	private final Map<Class<?>, BitSet> classEvaluationsWithOverrides = new WeakHashMap<>();
+
+	private long hitCount;
+	private long missCount;
+
 	/**
 	 * @param anAssistant the VisisbilityAssistant to register with, must be non-null
 	 */
@@ -120,10 +131,67 @@ public class EvaluationCache implements VisibilityListener {
 		if (anElement == null)
 			return null;
 
-		if (toComputeOverrides) {
-			return getDescriptorsFromMap(anElement, evaluations);
+		NavigatorContentDescriptor[] descriptors = getDescriptorsFromMap(anElement,
+				toComputeOverrides ? evaluations : evaluationsWithOverrides);
+		countLookup(descriptors != null);
+		return descriptors;
+	}
+
+	/**
+	 * Finds the cached descriptors for elements of the given class.
+	 *
+	 * @param anElementClass
+	 *            the class of the elements
+	 * @param toComputeOverrides
+	 *            whether overrides are to be considered
+	 * @return the sequence numbers of the cached descriptors for the given
+	 *         class, or {@code null} if not currently in the cache
+	 */
+	public final BitSet getDescriptorsForClass(Class<?> anElementClass, boolean toComputeOverrides) {
+		BitSet descriptors = (toComputeOverrides ? classEvaluationsWithOverrides : classEvaluations)
+				.get(anElementClass);
+		countLookup(descriptors != null);
+		return descriptors;
+	}
+
+	/**
+	 * Caches the given descriptors for elements of the given class.
+	 *
+	 * @param anElementClass
+	 *            the class of the elements
+	 * @param theDescriptors
+	 *            the sequence numbers of the descriptors to cache; must not be
+	 *            modified afterwards
+	 * @param toComputeOverrides
+	 *            whether overrides were considered in the computation of the
+	 *            given descriptors
+	 */
+	public final void setDescriptorsForClass(Class<?> anElementClass, BitSet theDescriptors,
+			boolean toComputeOverrides) {
+		(toComputeOverrides ? classEvaluationsWithOverrides : classEvaluations).put(anElementClass,
+				theDescriptors);
+	}
+
+	private void countLookup(boolean hit) {
+		if (hit) {
+			hitCount++;
+		} else {
+			missCount++;
 		}
-		return getDescriptorsFromMap(anElement, evaluationsWithOverrides);
+	}
+
+	/**
+	 * @return the number of lookups that found cached descriptors
+	 */
+	public long getHitCount() {
+		return hitCount;
+	}
+
+	/**
+	 * @return the number of lookups that did not find cached descriptors
+	 */
+	public long getMissCount() {
+		return missCount;
 	}
 
 	private static void setDescriptorsInMap(Object anElement, NavigatorContentDescriptor[] theDescriptors,
@@ -200,5 +268,7 @@ public class EvaluationCache implements VisibilityListener {
 		}
 		evaluations.clear();
 		evaluationsWithOverrides.clear();
+		classEvaluations.clear();
+		classEvaluationsWithOverrides.clear();
 	}
 }
\ No newline at end of file
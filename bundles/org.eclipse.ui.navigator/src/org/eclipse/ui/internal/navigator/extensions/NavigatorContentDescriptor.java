@@ -99,6 +99,10 @@ public final class NavigatorContentDescriptor implements
 
 	private boolean providesSaveables;
 
+	private boolean triggerPointsClassOnly;
+
+	private boolean possibleChildrenClassOnly;
+
 	/**
 	 * Creates a new content descriptor from a configuration element.
 	 *
@@ -257,6 +261,7 @@ public final class NavigatorContentDescriptor implements
 			children = configElement.getChildren(TAG_TRIGGER_POINTS);
 			if (children.length == 1) {
 				enablement = new CustomAndExpression(children[0]);
+				triggerPointsClassOnly = isClassOnly(children[0]);
 			} else {
 				throw new WorkbenchException(NLS.bind(
 						CommonNavigatorMessages.Attribute_Missing_Warning,
@@ -268,8 +273,10 @@ public final class NavigatorContentDescriptor implements
 			}
 
 			children = configElement.getChildren(TAG_POSSIBLE_CHILDREN);
+			possibleChildrenClassOnly = triggerPointsClassOnly;
 			if (children.length == 1) {
 				possibleChildren = new CustomAndExpression(children[0]);
+				possibleChildrenClassOnly = isClassOnly(children[0]);
 			} else if(children.length > 1){
 				throw new WorkbenchException(NLS.bind(
 						CommonNavigatorMessages.Attribute_Missing_Warning,
@@ -283,6 +290,8 @@ public final class NavigatorContentDescriptor implements
 			try {
 				enablement = ElementHandler.getDefault().create(
 						ExpressionConverter.getDefault(), children[0]);
+				triggerPointsClassOnly = isClassOnly(children[0]);
+				possibleChildrenClassOnly = triggerPointsClassOnly;
 			} catch (CoreException e) {
 				NavigatorPlugin.log(IStatus.ERROR, 0, e.getMessage(), e);
 			}
@@ -451,6 +460,52 @@ public final class NavigatorContentDescriptor implements
 		return false;
 	}
 
+	/**
+	 * Returns whether {@link #isTriggerPoint(Object)} only depends on the class
+	 * of the element, so that its result can be cached by class.
+	 *
+	 * @return True if the <b>triggerPoints</b> or <b>enablement</b>
+	 *         expression only consists of <b>instanceof</b>, <b>and</b>,
+	 *         <b>or</b> and <b>not</b> elements.
+	 */
+	public boolean isTriggerPointClassOnly() {
+		return enablement == null || triggerPointsClassOnly;
+	}
+
+	/**
+	 * Returns whether {@link #isPossibleChild(Object)} only depends on the
+	 * class of the element, unless the element is an
+	 * {@link IStructuredSelection}.
+	 *
+	 * @return True if the expression used for possible children only consists
+	 *         of <b>instanceof</b>, <b>and</b>, <b>or</b> and <b>not</b>
+	 *         elements.
+	 */
+	public boolean isPossibleChildClassOnly() {
+		return (enablement == null && possibleChildren == null) || possibleChildrenClassOnly;
+	}
+
+	/**
+	 * Expressions testing properties, adapters or variables may give different
+	 * results for elements of the same class and are never considered class
+	 * only.
+	 */
+	private static boolean isClassOnly(IConfigurationElement anExpressionElement) {
+		for (IConfigurationElement child : anExpressionElement.getChildren()) {
+			String name = child.getName();
+			if ("instanceof".equals(name)) { //$NON-NLS-1$
+				continue;
+			}
+			if (!"and".equals(name) && !"or".equals(name) && !"not".equals(name)) { //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				return false;
+			}
+			if (!isClassOnly(child)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	/**
 	 * A convenience method to check all elements in a selection.
 	 *
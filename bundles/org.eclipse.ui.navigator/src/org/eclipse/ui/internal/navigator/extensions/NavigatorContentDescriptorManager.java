@@ -13,6 +13,7 @@
 package org.eclipse.ui.internal.navigator.extensions;
 
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -28,6 +29,7 @@ import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.SafeRunner;
 import org.eclipse.jface.resource.ImageDescriptor;
 import org.eclipse.jface.resource.ImageRegistry;
+import org.eclipse.jface.viewers.IStructuredSelection;
 import org.eclipse.swt.graphics.Image;
 import org.eclipse.ui.internal.navigator.NavigatorPlugin;
 import org.eclipse.ui.internal.navigator.NavigatorSafeRunnable;
@@ -62,6 +64,22 @@ public class NavigatorContentDescriptorManager {
 
 	private final Set<NavigatorContentDescriptor> firstClassDescriptorsSet = new HashSet<>();
 
+	private final ClassDecisionCache triggerPointDecisions = new ClassDecisionCache(!POSSIBLE_CHILD);
+
+	private final ClassDecisionCache possibleChildDecisions = new ClassDecisionCache(POSSIBLE_CHILD);
+
+	/* The descriptors indexed by their sequence numbers */
+	private NavigatorContentDescriptor[] descriptorsBySequenceNumber;
+
+	/*
+	 * True if the triggerPoints (possibleChildren) expressions of all
+	 * descriptors only depend on the class of the element, so that the found
+	 * descriptors can be cached by class.
+	 */
+	private boolean allTriggerPointsClassOnly;
+
+	private boolean allPossibleChildrenClassOnly;
+
 	/**
 	 * @return the singleton instance of the manager
 	 */
@@ -155,8 +173,25 @@ public class NavigatorContentDescriptorManager {
 		EvaluationCache cache = getEvaluationCache(cachedEvaluations, aVisibilityAssistant);
 		Set<NavigatorContentDescriptor> descriptors = new TreeSet<NavigatorContentDescriptor>(ExtensionSequenceNumberComparator.INSTANCE);
 
+		Class<?> elementClass = null;
+		if (anElement != null && (possibleChild ? allPossibleChildrenClassOnly : allTriggerPointsClassOnly)
+				&& !(possibleChild && anElement instanceof IStructuredSelection)) {
+			elementClass = anElement.getClass();
+			BitSet cachedSequenceNumbers = cache.getDescriptorsForClass(elementClass, considerOverrides);
+			if (cachedSequenceNumbers != null) {
+				for (int i = cachedSequenceNumbers.nextSetBit(0); i >= 0; i = cachedSequenceNumbers.nextSetBit(i + 1)) {
+					descriptors.add(descriptorsBySequenceNumber[i]);
+				}
+				if (Policy.DEBUG_RESOLUTION) {
+					System.out.println("Find descriptors for : " + Policy.getObjectString(anElement) + //$NON-NLS-1$
+							(considerOverrides ? " (with overrides)" : "") + " (cached by class): " + descriptors); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				}
+				return descriptors;
+			}
+		}
+
 		NavigatorContentDescriptor[] cachedDescriptors = null;
-		if ((cachedDescriptors = cache.getDescriptors(anElement, considerOverrides)) != null) {
+		if (elementClass == null && (cachedDescriptors = cache.getDescriptors(anElement, considerOverrides)) != null) {
 			descriptors.addAll(Arrays.asList(cachedDescriptors));
 			if (Policy.DEBUG_RESOLUTION) {
 				System.out.println("Find descriptors for : " + Policy.getObjectString(anElement) + //$NON-NLS-1$
@@ -171,7 +206,7 @@ public class NavigatorContentDescriptorManager {
 			/* Find other ContentProviders which enable for this object */
 			for (NavigatorContentDescriptor descriptor : firstClassDescriptorsSet) {
 				if (aVisibilityAssistant.isActive(descriptor) && aVisibilityAssistant.isVisible(descriptor)
-						&& (possibleChild ? descriptor.isPossibleChild(anElement) : descriptor.isTriggerPoint(anElement))) {
+						&& isEnabled(descriptor, anElement, possibleChild)) {
 					descriptors.add(descriptor);
 				}
 			}
@@ -181,11 +216,54 @@ public class NavigatorContentDescriptorManager {
 			System.out.println("Find descriptors for: " + Policy.getObjectString(anElement) + //$NON-NLS-1$
 					(considerOverrides ? " (with overrides)" : "") + ": " + descriptors); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
 		}
-		cache.setDescriptors(anElement, descriptors.toArray(new NavigatorContentDescriptor[descriptors.size()]), considerOverrides);
+		if (elementClass != null) {
+			BitSet sequenceNumbers = new BitSet(descriptorsBySequenceNumber.length);
+			for (NavigatorContentDescriptor descriptor : descriptors) {
+				sequenceNumbers.set(descriptor.getSequenceNumber());
+			}
+			cache.setDescriptorsForClass(elementClass, sequenceNumbers, considerOverrides);
+		} else {
+			cache.setDescriptors(anElement, descriptors.toArray(new NavigatorContentDescriptor[descriptors.size()]), considerOverrides);
+		}
 
 		return descriptors;
 	}
 
+	/*
+	 * Evaluates the triggerPoints or possibleChildren expression of the
+	 * descriptor, only once per element class if the expression only depends
+	 * on the class.
+	 */
+	private boolean isEnabled(NavigatorContentDescriptor descriptor, Object anElement, boolean possibleChild) {
+		if (anElement == null) {
+			return false;
+		}
+		if (possibleChild) {
+			if (descriptor.isPossibleChildClassOnly() && !(anElement instanceof IStructuredSelection)) {
+				return possibleChildDecisions.isEnabled(descriptor, anElement);
+			}
+			return descriptor.isPossibleChild(anElement);
+		}
+		if (descriptor.isTriggerPointClassOnly()) {
+			return triggerPointDecisions.isEnabled(descriptor, anElement);
+		}
+		return descriptor.isTriggerPoint(anElement);
+	}
+
+	/**
+	 * Returns the cache of the <b>triggerPoints</b> or <b>possibleChildren</b>
+	 * expressions that only depend on the class of the element, e.g. to get
+	 * its hit rate.
+	 *
+	 * @param possibleChild
+	 *            true for <b>possibleChildren</b> expressions, false for
+	 *            <b>triggerPoints</b> expressions
+	 * @return the cache of the results of the expressions by class
+	 */
+	public ClassDecisionCache getClassDecisionCache(boolean possibleChild) {
+		return possibleChild ? possibleChildDecisions : triggerPointDecisions;
+	}
+
 	private EvaluationCache getEvaluationCache(Map<VisibilityAssistant, EvaluationCache> anEvaluationMap,
 			VisibilityAssistant aVisibilityAssistant) {
 		EvaluationCache c = anEvaluationMap.get(aVisibilityAssistant);
@@ -209,7 +287,7 @@ public class NavigatorContentDescriptorManager {
 
 			boolean isApplicable = aVisibilityAssistant.isActive(descriptor)
 					&& aVisibilityAssistant.isVisible(descriptor)
-					&& (possibleChild ? descriptor.isPossibleChild(anElement) : descriptor.isTriggerPoint(anElement));
+					&& isEnabled(descriptor, anElement, possibleChild);
 
 			if (descriptor.hasOverridingExtensions()) {
 
@@ -306,6 +384,8 @@ public class NavigatorContentDescriptorManager {
 		for (EvaluationCache cache : cachedTriggerPointEvaluations.values()) {
 			cache.clear();
 		}
+		triggerPointDecisions.clear();
+		possibleChildDecisions.clear();
 	}
 
 	/**
@@ -442,9 +522,15 @@ public class NavigatorContentDescriptorManager {
 			}
 		}
 
+		descriptorsBySequenceNumber = new NavigatorContentDescriptor[list.size()];
+		allTriggerPointsClassOnly = true;
+		allPossibleChildrenClassOnly = true;
 		for (int i = 0, len = list.size(); i < len; i++) {
 			NavigatorContentDescriptor desc = list.get(i);
 			desc.setSequenceNumber(i);
+			descriptorsBySequenceNumber[i] = desc;
+			allTriggerPointsClassOnly &= desc.isTriggerPointClassOnly();
+			allPossibleChildrenClassOnly &= desc.isPossibleChildClassOnly();
 			if (Policy.DEBUG_EXTENSION_SETUP) {
 				System.out.println("Descriptors by sequence: " + desc); //$NON-NLS-1$
 			}
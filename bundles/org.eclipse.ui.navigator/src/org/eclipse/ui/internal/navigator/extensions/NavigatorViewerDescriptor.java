@@ -40,6 +40,21 @@ public final class NavigatorViewerDescriptor implements
 	 */
 	public static final String PROP_ENFORCE_HAS_CHILDREN = "org.eclipse.ui.navigator.enforceHasChildren"; //$NON-NLS-1$
 
+	/**
+	 * {@value} (boolean): True indicates that the content extensions which no
+	 * other extension is pipelined through are asked for their children
+	 * concurrently in background threads (<b>false</b>). Children that are not
+	 * computed within the deadline are added to the viewer when they arrive.
+	 */
+	public static final String PROP_PARALLEL_CONTENT = "org.eclipse.ui.navigator.parallelContent"; //$NON-NLS-1$
+
+	/**
+	 * {@value} (integer): The number of milliseconds to wait for the content
+	 * extensions queried in parallel before the children computed so far are
+	 * returned (<b>200</b>).
+	 */
+	public static final String PROP_PARALLEL_CONTENT_DEADLINE = "org.eclipse.ui.navigator.parallelContentDeadline"; //$NON-NLS-1$
+
 	static final String TAG_INCLUDES = "includes"; //$NON-NLS-1$
 
 	static final String TAG_EXCLUDES = "excludes"; //$NON-NLS-1$
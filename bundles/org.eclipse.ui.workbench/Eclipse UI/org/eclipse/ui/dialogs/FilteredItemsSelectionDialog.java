@@ -41,6 +41,7 @@ import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.ListenerList;
 import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.ProgressMonitorWrapper;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.SubMonitor;
@@ -116,6 +117,7 @@ import org.eclipse.ui.internal.IWorkbenchGraphicConstants;
 import org.eclipse.ui.internal.WorkbenchImages;
 import org.eclipse.ui.internal.WorkbenchMessages;
 import org.eclipse.ui.internal.WorkbenchPlugin;
+import org.eclipse.ui.internal.dialogs.ItemNameIndex;
 import org.eclipse.ui.progress.UIJob;
 import org.eclipse.ui.statushandlers.StatusManager;
 
@@ -208,6 +210,12 @@ public abstract class FilteredItemsSelectionDialog extends SelectionStatusDialog
 
 	private ItemsFilter lastCompletedFilter;
 
+	/**
+	 * Indexes the names of the last completed result, <code>null</code> if
+	 * the result is not indexed.
+	 */
+	private IndexJob indexJob;
+
 	private String initialPatternText;
 
 	private int selectionMode;
@@ -216,6 +224,17 @@ public abstract class FilteredItemsSelectionDialog extends SelectionStatusDialog
 
 	private static final String EMPTY_STRING = ""; //$NON-NLS-1$
 
+	/**
+	 * Results smaller than this are filtered faster than they are indexed.
+	 */
+	private static final int MIN_INDEXED_RESULT_SIZE = 1000;
+
+	/**
+	 * Number of the best matches shown before the rest of the index
+	 * candidates are filtered.
+	 */
+	private static final int FIRST_MATCHES_COUNT = 100;
+
 	private boolean refreshWithLastSelection = false;
 
 	private IHandlerActivation showViewHandler;
@@ -389,6 +408,8 @@ public abstract class FilteredItemsSelectionDialog extends SelectionStatusDialog
 	@Override
 	public boolean close() {
 		this.filterJob.cancel();
+		if (this.indexJob != null)
+			this.indexJob.cancel();
 		this.refreshCacheJob.cancel();
 		this.refreshProgressMessageJob.cancel();
 		if (showViewHandler != null) {
@@ -2020,6 +2041,14 @@ public abstract class FilteredItemsSelectionDialog extends SelectionStatusDialog
 			if (lastCompletedFilter != null
 					&& lastCompletedFilter.isSubFilter(this.itemsFilter)) {
 
+				ItemNameIndex index = indexJob != null ? indexJob.getIndex(lastCompletedResult) : null;
+				// The index knows the rules of SearchPattern, not of its subclasses.
+				if (index != null && itemsFilter.isElementNameMatchRequired()
+						&& itemsFilter.patternMatcher.getClass() == SearchPattern.class) {
+					filterIndex(index, monitor);
+					return;
+				}
+
 				int length = lastCompletedResult.size() / 500;
 				monitor
 						.beginTask(
@@ -2042,6 +2071,10 @@ public abstract class FilteredItemsSelectionDialog extends SelectionStatusDialog
 
 				lastCompletedFilter = null;
 				lastCompletedResult = null;
+				if (indexJob != null) {
+					indexJob.cancel();
+					indexJob = null;
+				}
 
 				SubMonitor subMonitor = SubMonitor.convert(monitor,
 									WorkbenchMessages.FilteredItemsSelectionDialog_searchJob_taskName,
@@ -2053,9 +2086,101 @@ public abstract class FilteredItemsSelectionDialog extends SelectionStatusDialog
 					subMonitor.worked(2);
 					contentProvider.rememberResult(itemsFilter);
 					subMonitor.worked(3);
+					if (lastCompletedFilter == itemsFilter && itemsFilter.isElementNameMatchRequired()
+							&& lastCompletedResult.size() >= MIN_INDEXED_RESULT_SIZE) {
+						indexJob = new IndexJob(lastCompletedResult);
+						indexJob.schedule();
+					}
+				}
+			}
+
+		}
+
+		/**
+		 * Filters the candidates of the index of the last completed result,
+		 * the best candidates first. The dialog is refreshed as soon as the
+		 * first matches are found.
+		 *
+		 * @param index
+		 *            the index of the last completed result
+		 * @param monitor
+		 *            for monitoring progress
+		 */
+		private void filterIndex(ItemNameIndex index, GranualProgressMonitor monitor) {
+			int[] candidates = index.findCandidates(itemsFilter.patternMatcher);
+			monitor.beginTask(WorkbenchMessages.FilteredItemsSelectionDialog_cacheSearchJob_taskName,
+					candidates.length / 500);
+
+			int matches = 0;
+			for (int pos = 0; pos < candidates.length; pos++) {
+				if (monitor.isCanceled())
+					break;
+				if (contentProvider.addIfMatching(index.getItem(candidates[pos]), itemsFilter)
+						&& ++matches == FIRST_MATCHES_COUNT && pos + 1 < candidates.length) {
+					contentProvider.refresh();
+				}
+
+				if ((pos % 500) == 0) {
+					monitor.worked(1);
 				}
 			}
+		}
+
+	}
+
+	/**
+	 * Builds an {@link ItemNameIndex} of the names of a completed result in
+	 * the background. <code>FilterJob</code> uses the index to filter the
+	 * result for sub-filters which only match items by their names.
+	 *
+	 * @see ItemsFilter#isElementNameMatchRequired()
+	 */
+	private class IndexJob extends Job {
+
+		private final List result;
 
+		private volatile ItemNameIndex index;
+
+		/**
+		 * Creates a new instance of the class.
+		 *
+		 * @param result
+		 *            the completed result to index
+		 */
+		public IndexJob(List result) {
+			super(WorkbenchMessages.FilteredItemsSelectionDialog_indexJob);
+			this.result = result;
+			setSystem(true);
+			setPriority(DECORATE);
+		}
+
+		/**
+		 * Returns the index of the result.
+		 *
+		 * @param completedResult
+		 *            the result the index is requested for
+		 * @return the index, or <code>null</code> if the result is another
+		 *         one or is not indexed yet
+		 */
+		public ItemNameIndex getIndex(List completedResult) {
+			return completedResult == result ? index : null;
+		}
+
+		@Override
+		protected IStatus run(IProgressMonitor monitor) {
+			Object[] items = result.toArray();
+			String[] names = new String[items.length];
+			for (int i = 0; i < items.length; i++) {
+				if (monitor.isCanceled())
+					return Status.CANCEL_STATUS;
+				names[i] = getElementName(items[i]);
+			}
+			try {
+				index = new ItemNameIndex(items, names, monitor);
+			} catch (OperationCanceledException e) {
+				return Status.CANCEL_STATUS;
+			}
+			return Status.OK_STATUS;
 		}
 
 	}
@@ -2391,6 +2516,27 @@ public abstract class FilteredItemsSelectionDialog extends SelectionStatusDialog
 		 */
 		public abstract boolean matchItem(Object item);
 
+		/**
+		 * Returns whether this filter only matches items whose names match
+		 * the pattern, i.e. whether {@link #matchItem(Object)} returns
+		 * <code>false</code> for every item whose
+		 * {@link FilteredItemsSelectionDialog#getElementName(Object) name} is
+		 * not matched by {@link #patternMatcher}. The dialog then uses an
+		 * index of the names to filter large results, matching only the items
+		 * whose names may match.
+		 * <p>
+		 * The default implementation returns <code>false</code>. Subclasses
+		 * may override.
+		 * </p>
+		 *
+		 * @return <code>true</code> if items are only matched by their names,
+		 *         <code>false</code> otherwise
+		 * @since 3.111
+		 */
+		public boolean isElementNameMatchRequired() {
+			return false;
+		}
+
 		/**
 		 * Checks consistency of an item. Item is inconsistent if was changed or
 		 * removed.
@@ -2541,15 +2687,27 @@ public abstract class FilteredItemsSelectionDialog extends SelectionStatusDialog
 		 */
 		@Override
 		public void add(Object item, ItemsFilter itemsFilter) {
+			addIfMatching(item, itemsFilter);
+		}
+
+		/**
+		 * Adds filtered item.
+		 *
+		 * @param item
+		 * @param itemsFilter
+		 * @return <code>true</code> if the item was added
+		 */
+		public boolean addIfMatching(Object item, ItemsFilter itemsFilter) {
 			if (itemsFilter == filter) {
 				if (itemsFilter != null) {
 					if (itemsFilter.matchItem(item)) {
-						this.items.add(item);
+						return this.items.add(item);
 					}
 				} else {
-					this.items.add(item);
+					return this.items.add(item);
 				}
 			}
+			return false;
 		}
 
 		/**
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2015 IBM Corporation and others.
+ * Copyright (c) 2004, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -17,6 +17,7 @@ import static org.eclipse.swt.events.SelectionListener.widgetDefaultSelectedAdap
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.jface.action.Action;
@@ -26,6 +27,7 @@ import org.eclipse.jface.resource.ImageDescriptor;
 import org.eclipse.jface.resource.JFaceResources;
 import org.eclipse.jface.viewers.IContentProvider;
 import org.eclipse.jface.viewers.ISelection;
+import org.eclipse.jface.viewers.ITreeContentProvider;
 import org.eclipse.jface.viewers.TreeViewer;
 import org.eclipse.osgi.util.NLS;
 import org.eclipse.swt.SWT;
@@ -128,6 +130,12 @@ public class FilteredTree extends Composite {
 	 */
 	private Job refreshJob;
 
+	/**
+	 * The job used to filter the tree in the background, or <code>null</code>
+	 * if parallel filtering is not enabled.
+	 */
+	private FilterJob filterJob;
+
 	/**
 	 * The parent composite of the filtered tree.
 	 *
@@ -409,7 +417,12 @@ public class FilteredTree extends Composite {
 		treeViewer = doCreateTreeViewer(parent, style);
 		GridData data = new GridData(SWT.FILL, SWT.FILL, true, true);
 		treeViewer.getControl().setLayoutData(data);
-		treeViewer.getControl().addDisposeListener(e -> refreshJob.cancel());
+		treeViewer.getControl().addDisposeListener(e -> {
+			refreshJob.cancel();
+			if (filterJob != null) {
+				filterJob.cancel();
+			}
+		});
 		if (treeViewer instanceof NotifyingTreeViewer) {
 			patternFilter.setUseCache(true);
 		}
@@ -484,9 +497,11 @@ public class FilteredTree extends Composite {
 
 				boolean initial = initialText != null
 						&& initialText.equals(text);
+				// the filter job may have already computed the pattern
+				boolean computed = !initial && patternFilter.isComputed(text);
 				if (initial) {
 					patternFilter.setPattern(null);
-				} else if (text != null) {
+				} else if (!computed) {
 					patternFilter.setPattern(text);
 				}
 
@@ -508,7 +523,13 @@ public class FilteredTree extends Composite {
 							}
 						}
 					}
-					treeViewer.refresh(true);
+					if (computed) {
+						// refresh the tree in one pass from the cached filter
+						// results
+						((NotifyingTreeViewer) treeViewer).refreshFiltered();
+					} else {
+						treeViewer.refresh(true);
+					}
 
 					if (text.length() > 0 && !initial) {
 						/*
@@ -823,9 +844,70 @@ public class FilteredTree extends Composite {
 		previousFilterText = getFilterString();
 		// cancel currently running job first, to prevent unnecessary redraw
 		refreshJob.cancel();
+		if (filterJob != null) {
+			filterJob.cancel();
+			String text = getFilterString();
+			if (text != null && text.length() > 0 && !text.equals(initialText)
+					&& treeViewer instanceof NotifyingTreeViewer
+					&& treeViewer.getContentProvider() instanceof ITreeContentProvider) {
+				filterJob.setFilter(text, treeViewer.getInput(),
+						(ITreeContentProvider) treeViewer.getContentProvider());
+				filterJob.schedule(getRefreshJobDelay());
+				return;
+			}
+		}
 		refreshJob.schedule(getRefreshJobDelay());
 	}
 
+	/**
+	 * Job that sets the pattern of the filter and computes the visible
+	 * elements of the whole tree outside of the UI thread, then schedules the
+	 * refresh job to apply them to the tree.
+	 */
+	private class FilterJob extends Job {
+
+		private String text;
+
+		private Object input;
+
+		private ITreeContentProvider contentProvider;
+
+		FilterJob() {
+			super("Filter Tree"); //$NON-NLS-1$
+			setSystem(true);
+		}
+
+		synchronized void setFilter(String text, Object input, ITreeContentProvider contentProvider) {
+			this.text = text;
+			this.input = input;
+			this.contentProvider = contentProvider;
+		}
+
+		@Override
+		protected IStatus run(IProgressMonitor monitor) {
+			String currentText;
+			Object currentInput;
+			ITreeContentProvider currentContentProvider;
+			synchronized (this) {
+				currentText = text;
+				currentInput = input;
+				currentContentProvider = contentProvider;
+			}
+			try {
+				patternFilter.setPattern(currentText);
+				patternFilter.computeVisibility(treeViewer, currentContentProvider, currentInput,
+						monitor);
+			} catch (OperationCanceledException e) {
+				return Status.CANCEL_STATUS;
+			}
+			if (monitor.isCanceled()) {
+				return Status.CANCEL_STATUS;
+			}
+			refreshJob.schedule();
+			return Status.OK_STATUS;
+		}
+	}
+
 	/**
 	 * Return the time delay that should be used when scheduling the
 	 * filter refresh job.  Subclasses may override.
@@ -1086,6 +1168,37 @@ public class FilteredTree extends Composite {
 		this.quickSelectionMode = enabled;
 	}
 
+	/**
+	 * Sets whether the visible elements of the whole tree are computed in a
+	 * background job after the filter text has changed. The children of every
+	 * element are then filtered in parallel and the results are cached, so that
+	 * the tree is updated in a single refresh that doesn't evaluate the filter
+	 * again.
+	 * <p>
+	 * This mode requires the content provider, the label provider and the
+	 * {@link PatternFilter#isElementVisible(org.eclipse.jface.viewers.Viewer, Object)} implementation to
+	 * be thread safe. It only applies if the tree viewer was created by the
+	 * default implementation of {@link #doCreateTreeViewer(Composite, int)} and
+	 * has an {@link ITreeContentProvider}.
+	 * </p>
+	 * <p>
+	 * By default, this is set to <code>false</code>.
+	 * </p>
+	 *
+	 * @param enabled
+	 *            <code>true</code> to filter the tree in parallel in the
+	 *            background, <code>false</code> to filter it in the UI thread
+	 * @since 3.111
+	 */
+	public void setParallelFiltering(boolean enabled) {
+		if (enabled && filterJob == null) {
+			filterJob = new FilterJob();
+		} else if (!enabled && filterJob != null) {
+			filterJob.cancel();
+			filterJob = null;
+		}
+	}
+
 	/**
 	 * Select all text in the filter text field.
 	 *
@@ -1202,6 +1315,15 @@ public class FilteredTree extends Composite {
 			super.refresh(updateLabels);
 		}
 
+		/**
+		 * Refreshes the tree and its labels without clearing the caches of
+		 * the pattern filter, which hold the filter results computed for the
+		 * current content.
+		 */
+		void refreshFiltered() {
+			super.refresh(true);
+		}
+
 		@Override
 		public void refresh(Object element) {
 			getPatternFilter().clearCaches();
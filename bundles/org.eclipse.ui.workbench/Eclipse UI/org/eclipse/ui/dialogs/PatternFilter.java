@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2015 IBM Corporation and others.
+ * Copyright (c) 2004, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -13,9 +13,15 @@ package org.eclipse.ui.dialogs;
 
 import com.ibm.icu.text.BreakIterator;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.jface.viewers.AbstractTreeViewer;
 import org.eclipse.jface.viewers.ILabelProvider;
 import org.eclipse.jface.viewers.ITreeContentProvider;
@@ -35,15 +41,78 @@ import org.eclipse.ui.internal.misc.StringMatcher;
  * @since 3.2
  */
 public class PatternFilter extends ViewerFilter {
-	/*
-	 * Cache of filtered elements in the tree
+	/**
+	 * The maximum number of texts remembered by the word and the unmatched text
+	 * caches.
 	 */
-    private Map cache = new HashMap();
+	private static final int MAX_CACHED_TEXTS = 10000;
 
-    /*
-     * Maps parent elements to TRUE or FALSE
-     */
-    private Map foundAnyCache = new HashMap();
+	/**
+	 * The matcher for a pattern together with the caches that depend on it. A
+	 * new state replaces the current one whenever the pattern or the tree
+	 * content changes, so that a computation still running for an outdated
+	 * state never stores its results in the current caches.
+	 */
+	private static final class FilterState {
+		/*
+		 * The pattern string, or null if there is no pattern
+		 */
+		final String pattern;
+
+		final boolean leadingWildcard;
+
+		/*
+		 * The string pattern matcher, or null if there is no pattern
+		 */
+		final StringMatcher matcher;
+
+		/*
+		 * Texts known not to match the pattern. The set is shared with the
+		 * previous state if the pattern narrows the previous pattern.
+		 */
+		final Set<String> unmatchedTexts;
+
+		/*
+		 * Cache of filtered elements in the tree
+		 */
+		final Map<Object, Object[]> cache = Collections.synchronizedMap(new HashMap<>());
+
+		/*
+		 * Maps parent elements to TRUE or FALSE
+		 */
+		final Map<Object, Boolean> foundAnyCache = Collections.synchronizedMap(new HashMap<>());
+
+		/*
+		 * Whether the cache holds the filtered children of the whole tree
+		 */
+		volatile boolean computed;
+
+		FilterState(String pattern, boolean leadingWildcard, StringMatcher matcher,
+				Set<String> unmatchedTexts) {
+			this.pattern = pattern;
+			this.leadingWildcard = leadingWildcard;
+			this.matcher = matcher;
+			this.unmatchedTexts = unmatchedTexts;
+		}
+
+		/**
+		 * Returns whether every text that does not match this pattern does not
+		 * match the given pattern either, because the given pattern only
+		 * appends characters to this one.
+		 */
+		boolean isNarrowedBy(String patternString, boolean includeLeadingWildcard) {
+			return pattern != null && leadingWildcard == includeLeadingWildcard
+					&& patternString.startsWith(pattern) && !pattern.endsWith("\\"); //$NON-NLS-1$
+		}
+	}
+
+	private volatile FilterState state = new FilterState(null, false, null,
+			ConcurrentHashMap.newKeySet());
+
+	/*
+	 * Maps texts to their words, independently of the pattern
+	 */
+	private final Map<String, String[]> wordsCache = new ConcurrentHashMap<>();
 
     private boolean useCache = false;
 
@@ -53,11 +122,6 @@ public class PatternFilter extends ViewerFilter {
 	 */
 	private boolean includeLeadingWildcard = false;
 
-	/**
-	 * The string pattern matcher used for this pattern filter.
-	 */
-    private StringMatcher matcher;
-
     private boolean useEarlyReturnIfMatcherIsNull = true;
 
     private static Object[] EMPTY = new Object[0];
@@ -67,7 +131,8 @@ public class PatternFilter extends ViewerFilter {
     	// we don't want to optimize if we've extended the filter ... this
     	// needs to be addressed in 3.4
     	// https://bugs.eclipse.org/bugs/show_bug.cgi?id=186404
-        if (matcher == null && useEarlyReturnIfMatcherIsNull) {
+        FilterState current = state;
+        if (current.matcher == null && useEarlyReturnIfMatcherIsNull) {
 			return elements;
 		}
 
@@ -75,15 +140,15 @@ public class PatternFilter extends ViewerFilter {
         	return super.filter(viewer, parent, elements);
         }
 
-        Object[] filtered = (Object[]) cache.get(parent);
+        Object[] filtered = current.cache.get(parent);
         if (filtered == null) {
-        	Boolean foundAny = (Boolean) foundAnyCache.get(parent);
+        	Boolean foundAny = current.foundAnyCache.get(parent);
         	if (foundAny != null && !foundAny.booleanValue()) {
         		filtered = EMPTY;
         	} else {
         		filtered = super.filter(viewer, parent, elements);
         	}
-            cache.put(parent, filtered);
+            current.cache.put(parent, filtered);
         }
         return filtered;
     }
@@ -99,7 +164,8 @@ public class PatternFilter extends ViewerFilter {
      * @return true if any of the elements makes it through the filter.
      */
     private boolean isAnyVisible(Viewer viewer, Object parent, Object[] elements) {
-    	if (matcher == null) {
+    	FilterState current = state;
+    	if (current.matcher == null) {
     		return true;
     	}
 
@@ -107,14 +173,14 @@ public class PatternFilter extends ViewerFilter {
     		return computeAnyVisible(viewer, elements);
     	}
 
-    	Object[] filtered = (Object[]) cache.get(parent);
+    	Object[] filtered = current.cache.get(parent);
     	if (filtered != null) {
     		return filtered.length > 0;
     	}
-    	Boolean foundAny = (Boolean) foundAnyCache.get(parent);
+    	Boolean foundAny = current.foundAnyCache.get(parent);
     	if (foundAny == null) {
     		foundAny = computeAnyVisible(viewer, elements) ? Boolean.TRUE : Boolean.FALSE;
-    		foundAnyCache.put(parent, foundAny);
+    		current.foundAnyCache.put(parent, foundAny);
     	}
     	return foundAny.booleanValue();
     }
@@ -169,15 +235,21 @@ public class PatternFilter extends ViewerFilter {
     		useEarlyReturnIfMatcherIsNull = false;
     		return;
     	}
-        clearCaches();
         if (patternString == null || patternString.equals("")) { //$NON-NLS-1$
-			matcher = null;
+			state = new FilterState(null, includeLeadingWildcard, null,
+					ConcurrentHashMap.newKeySet());
 		} else {
 			String pattern = patternString + "*"; //$NON-NLS-1$
 			if (includeLeadingWildcard) {
 				pattern = "*" + pattern; //$NON-NLS-1$
 			}
-			matcher = new StringMatcher(pattern, true, false);
+			FilterState previous = state;
+			// texts that did not match the previous pattern can't match a
+			// narrower one
+			Set<String> unmatchedTexts = previous.isNarrowedBy(patternString, includeLeadingWildcard)
+					? previous.unmatchedTexts : ConcurrentHashMap.newKeySet();
+			state = new FilterState(patternString, includeLeadingWildcard,
+					new StringMatcher(pattern, true, false), unmatchedTexts);
 		}
     }
 
@@ -186,23 +258,80 @@ public class PatternFilter extends ViewerFilter {
 	 * the tree content changes.
 	 */
 	/* package */ void clearCaches() {
-		cache.clear();
-        foundAnyCache.clear();
+		FilterState current = state;
+		state = new FilterState(current.pattern, current.leadingWildcard, current.matcher,
+				current.unmatchedTexts);
 	}
 
-    /**
-     * Answers whether the given String matches the pattern.
-     *
-     * @param string the String to test
-     *
-     * @return whether the string matches the pattern
-     */
-    private boolean match(String string) {
-    	if (matcher == null) {
-			return true;
+	/**
+	 * Computes the filtered children of the input and of all its descendants
+	 * for the current pattern and caches them, so that a following refresh of
+	 * the viewer doesn't need to evaluate the filter any more. The children of
+	 * every element are filtered in parallel, and so are the subtrees of the
+	 * children. This requires the content provider, the label provider and
+	 * {@link #isElementVisible(Viewer, Object)} to be thread safe.
+	 *
+	 * @param viewer
+	 *            the viewer that contains the elements
+	 * @param contentProvider
+	 *            the content provider of the viewer
+	 * @param input
+	 *            the input of the viewer
+	 * @param monitor
+	 *            the progress monitor used to cancel the computation
+	 * @throws OperationCanceledException
+	 *             if the monitor is canceled
+	 */
+	/* package */ void computeVisibility(Viewer viewer, ITreeContentProvider contentProvider,
+			Object input, IProgressMonitor monitor) {
+		FilterState current = state;
+		if (current.matcher == null || !useCache) {
+			return;
 		}
-        return matcher.match(string);
-    }
+		Object[] elements = contentProvider.getElements(input);
+		computeFilteredChildren(viewer, contentProvider, current, input,
+				elements == null ? EMPTY : elements, monitor);
+		current.computed = true;
+	}
+
+	/**
+	 * Returns whether {@link #computeVisibility(Viewer, ITreeContentProvider, Object, IProgressMonitor)}
+	 * has completed for the given pattern and the tree content has not changed
+	 * since.
+	 *
+	 * @param patternString
+	 *            the pattern
+	 * @return <code>true</code> if the filtered children of the whole tree are
+	 *         cached for the pattern
+	 */
+	/* package */ boolean isComputed(String patternString) {
+		FilterState current = state;
+		return current.computed && patternString != null
+				&& patternString.equals(current.pattern);
+	}
+
+	private Object[] computeFilteredChildren(Viewer viewer, ITreeContentProvider contentProvider,
+			FilterState current, Object parent, Object[] children, IProgressMonitor monitor) {
+		Object[] filtered = current.cache.get(parent);
+		if (filtered != null) {
+			return filtered;
+		}
+		filtered = Arrays.stream(children).parallel().filter(child -> {
+			if (monitor.isCanceled()) {
+				throw new OperationCanceledException();
+			}
+			// filter the subtree first, so that isParentMatch finds the
+			// children in the cache
+			Object[] grandChildren = contentProvider.getChildren(child);
+			if (grandChildren != null && grandChildren.length > 0) {
+				computeFilteredChildren(viewer, contentProvider, current, child, grandChildren,
+						monitor);
+			}
+			return isElementVisible(viewer, child);
+		}).toArray();
+		current.cache.put(parent, filtered);
+		return filtered;
+	}
 
     /**
      * Answers whether the given element is a valid selection in
@@ -284,7 +413,11 @@ public class PatternFilter extends ViewerFilter {
      * @return an array of words
      */
     private String[] getWords(String text){
-    	List words = new ArrayList();
+		String[] cached = wordsCache.get(text);
+		if (cached != null) {
+			return cached;
+		}
+		List<String> words = new ArrayList<>();
 		// Break the text up into words, separating based on whitespace and
 		// common punctuation.
 		// Previously used String.split(..., "\\W"), where "\W" is a regular
@@ -308,7 +441,12 @@ public class PatternFilter extends ViewerFilter {
 			}
 			i = j;
 		}
-		return (String[]) words.toArray(new String[words.size()]);
+		String[] result = words.toArray(new String[words.size()]);
+		if (wordsCache.size() >= MAX_CACHED_TEXTS) {
+			wordsCache.clear();
+		}
+		wordsCache.put(text, result);
+		return result;
     }
 
 	/**
@@ -324,19 +462,31 @@ public class PatternFilter extends ViewerFilter {
 			return false;
 		}
 
+		FilterState current = state;
+		StringMatcher matcher = current.matcher;
+		if (matcher == null) {
+			return true;
+		}
+		if (current.unmatchedTexts.contains(text)) {
+			return false;
+		}
+
 		//If the whole text matches we are all set
-		if(match(text)) {
+		if(matcher.match(text)) {
 			return true;
 		}
 
 		// Otherwise check if any of the words of the text matches
 		String[] words = getWords(text);
 		for (String word : words) {
-			if (match(word)) {
+			if (matcher.match(word)) {
 				return true;
 			}
 		}
 
+		if (current.unmatchedTexts.size() < MAX_CACHED_TEXTS) {
+			current.unmatchedTexts.add(text);
+		}
 		return false;
 	}
 
@@ -10,6 +10,7 @@
  *******************************************************************************/
 package org.eclipse.ui.dialogs;
 
+import java.util.stream.IntStream;
 import org.eclipse.jface.util.Util;
 import org.eclipse.ui.internal.misc.StringMatcher;
 
@@ -93,7 +94,7 @@ public class SearchPattern {
 
 	private String initialPattern;
 
-	private StringMatcher stringMatcher;
+	private CompiledPattern compiledPattern;
 
 	private static final char END_SYMBOL = '<';
 
@@ -101,6 +102,11 @@ public class SearchPattern {
 
 	private static final char BLANK = ' ';
 
+	/**
+	 * Arrays with at least this many texts are matched in parallel.
+	 */
+	private static final int PARALLEL_MATCH_THRESHOLD = 10000;
+
 	private int allowedRules;
 
 	/**
@@ -155,8 +161,21 @@ public class SearchPattern {
 		this.stringPattern = stringPattern;
 		initializePatternAndMatchRule(stringPattern);
 		matchRule = matchRule & this.allowedRules;
-		if (matchRule == RULE_PATTERN_MATCH) {
-			stringMatcher = new StringMatcher(this.stringPattern, true, false);
+		compiledPattern = compile();
+	}
+
+	private CompiledPattern compile() {
+		switch (matchRule) {
+		case RULE_BLANK_MATCH:
+			return new BlankPattern();
+		case RULE_PATTERN_MATCH:
+			return new WildcardPattern(new StringMatcher(this.stringPattern, true, false));
+		case RULE_EXACT_MATCH:
+			return new ExactPattern(stringPattern);
+		case RULE_CAMELCASE_MATCH:
+			return new CamelCasePattern(stringPattern);
+		default:
+			return new PrefixPattern(stringPattern);
 		}
 	}
 
@@ -167,21 +186,31 @@ public class SearchPattern {
 	 * @return true if search pattern was matched with text false in other way
 	 */
 	public boolean matches(String text) {
-		switch (matchRule) {
-		case RULE_BLANK_MATCH:
-			return true;
-		case RULE_PATTERN_MATCH:
-			return stringMatcher.match(text);
-		case RULE_EXACT_MATCH:
-			return stringPattern.equalsIgnoreCase(text);
-		case RULE_CAMELCASE_MATCH:
-			if (camelCaseMatch(stringPattern, text)) {
-				return true;
-			}
-			//$FALL-THROUGH$
-			default:
-			return startsWithIgnoreCase(text, stringPattern);
+		if (text == null) {
+			return matchRule == RULE_BLANK_MATCH;
 		}
+		return compiledPattern.matches(text);
+	}
+
+	/**
+	 * Matches texts with pattern, see {@link #matches(String)}. Large arrays
+	 * are matched in parallel, so subclasses overriding the matching methods
+	 * have to be thread safe. The pattern must not be changed while the texts
+	 * are matched.
+	 *
+	 * @param texts
+	 *            the texts to match
+	 * @return for every text whether it was matched
+	 * @since 3.111
+	 */
+	public boolean[] matches(String[] texts) {
+		boolean[] result = new boolean[texts.length];
+		IntStream indexes = IntStream.range(0, texts.length);
+		if (texts.length >= PARALLEL_MATCH_THRESHOLD) {
+			indexes = indexes.parallel();
+		}
+		indexes.forEach(i -> result[i] = matches(texts[i]));
+		return result;
 	}
 
 	private void initializePatternAndMatchRule(String pattern) {
@@ -227,98 +256,83 @@ public class SearchPattern {
 	}
 
 	/**
-	 * @param text
-	 * @param prefix
-	 * @return true if text starts with given prefix, ignoring case false in
-	 *         other way
+	 * A pattern compiled for its match rule. Compiled patterns are immutable,
+	 * so that several threads can match texts with them.
 	 */
-	private boolean startsWithIgnoreCase(String text, String prefix) {
-		int textLength = text.length();
-		int prefixLength = prefix.length();
-		if (textLength < prefixLength)
-			return false;
-		for (int i = prefixLength - 1; i >= 0; i--) {
-			if (Character.toLowerCase(prefix.charAt(i)) != Character
-					.toLowerCase(text.charAt(i)))
-				return false;
+	private abstract static class CompiledPattern {
+		/**
+		 * @param text
+		 *            the text to match, not <code>null</code>
+		 * @return whether the text matches the pattern
+		 */
+		abstract boolean matches(String text);
+	}
+
+	private static final class BlankPattern extends CompiledPattern {
+		@Override
+		boolean matches(String text) {
+			return true;
+		}
+	}
+
+	private static final class ExactPattern extends CompiledPattern {
+		private final String pattern;
+
+		ExactPattern(String pattern) {
+			this.pattern = pattern;
+		}
+
+		@Override
+		boolean matches(String text) {
+			return pattern.equalsIgnoreCase(text);
 		}
-		return true;
 	}
 
 	/**
-	 * Answers true if the pattern matches the given name using CamelCase rules,
-	 * or false otherwise. CamelCase matching does NOT accept explicit
-	 * wild-cards '*' and '?' and is inherently case sensitive. <br>
-	 * CamelCase denotes the convention of writing compound names without
-	 * spaces, and capitalizing every term. This function recognizes both upper
-	 * and lower CamelCase, depending whether the leading character is
-	 * capitalized or not. The leading part of an upper CamelCase pattern is
-	 * assumed to contain a sequence of capitals which are appearing in the
-	 * matching name; e.g. 'NPE' will match 'NullPointerException', but not
-	 * 'NewPerfData'. A lower CamelCase pattern uses a lowercase first
-	 * character. In Java, type names follow the upper CamelCase convention,
-	 * whereas method or field names follow the lower CamelCase convention. <br>
-	 * The pattern may contain lowercase characters, which will be match in a
-	 * case sensitive way. These characters must appear in sequence in the name.
-	 * For instance, 'NPExcep' will match 'NullPointerException', but not
-	 * 'NullPointerExCEPTION' or 'NuPoEx' will match 'NullPointerException', but
-	 * not 'NoPointerException'. <br>
-	 * <br>
-	 * Examples:
-	 * <ol>
-	 * <li>
-	 *
-	 * <pre>
-	 *                 pattern = &quot;NPE&quot;
-	 *                 name = NullPointerException / NoPermissionException
-	 *                 result =&gt; true
-	 * </pre>
-	 *
-	 * </li>
-	 * <li>
-	 *
-	 * <pre>
-	 *                 pattern = &quot;NuPoEx&quot;
-	 *                 name = NullPointerException
-	 *                 result =&gt; true
-	 * </pre>
-	 *
-	 * </li>
-	 * <li>
-	 *
-	 * <pre>
-	 *                 pattern = &quot;npe&quot;
-	 *                 name = NullPointerException
-	 *                 result =&gt; false
-	 * </pre>
-	 *
-	 * </li>
-	 * </ol>
-	 *
-	 * @param pattern
-	 *            the given pattern
-	 * @param name
-	 *            the given name
-	 * @return true if the pattern matches the given name, false otherwise
-	 *
+	 * Matches texts starting with the pattern, ignoring case.
 	 */
-	private boolean camelCaseMatch(String pattern, String name) {
-		if (pattern == null)
-			return true; // null pattern is equivalent to '*'
-		if (name == null)
-			return false; // null name cannot match
-
-		return camelCaseMatch(pattern, 0, pattern.length(), name, 0, name
-				.length());
+	private static final class PrefixPattern extends CompiledPattern {
+		private final char[] pattern;
+
+		private final char[] lowerPattern;
+
+		PrefixPattern(String pattern) {
+			this.pattern = pattern.toCharArray();
+			lowerPattern = new char[this.pattern.length];
+			for (int i = 0; i < lowerPattern.length; i++) {
+				lowerPattern[i] = Character.toLowerCase(this.pattern[i]);
+			}
+		}
+
+		@Override
+		boolean matches(String text) {
+			if (text.length() < pattern.length)
+				return false;
+			for (int i = 0; i < pattern.length; i++) {
+				char c = text.charAt(i);
+				if (c != pattern[i] && Character.toLowerCase(c) != lowerPattern[i])
+					return false;
+			}
+			return true;
+		}
+	}
+
+	private static final class WildcardPattern extends CompiledPattern {
+		private final StringMatcher matcher;
+
+		WildcardPattern(StringMatcher matcher) {
+			this.matcher = matcher;
+		}
+
+		@Override
+		boolean matches(String text) {
+			return matcher.match(text);
+		}
 	}
 
 	/**
-	 * Answers true if a sub-pattern matches the subpart of the given name using
-	 * CamelCase rules, or false otherwise. CamelCase matching does NOT accept
-	 * explicit wild-cards '*' and '?' and is inherently case sensitive. Can
-	 * match only subset of name/pattern, considering end positions as
-	 * non-inclusive. The subpattern is defined by the patternStart and
-	 * patternEnd positions. <br>
+	 * Matches names using CamelCase rules. CamelCase matching does NOT accept explicit
+	 * wild-cards '*' and '?' and is inherently case sensitive. <br>
 	 * CamelCase denotes the convention of writing compound names without
 	 * spaces, and capitalizing every term. This function recognizes both upper
 	 * and lower CamelCase, depending whether the leading character is
@@ -340,24 +354,7 @@ public class SearchPattern {
 	 *
 	 * <pre>
 	 *                 pattern = &quot;NPE&quot;
-	 *                 patternStart = 0
-	 *                 patternEnd = 3
-	 *                 name = NullPointerException
-	 *                 nameStart = 0
-	 *                 nameEnd = 20
-	 *                 result =&gt; true
-	 * </pre>
-	 *
-	 * </li>
-	 * <li>
-	 *
-	 * <pre>
-	 *                 pattern = &quot;NPE&quot;
-	 *                 patternStart = 0
-	 *                 patternEnd = 3
-	 *                 name = NoPermissionException
-	 *                 nameStart = 0
-	 *                 nameEnd = 21
+	 *                 name = NullPointerException / NoPermissionException
 	 *                 result =&gt; true
 	 * </pre>
 	 *
@@ -366,11 +363,7 @@ public class SearchPattern {
 	 *
 	 * <pre>
 	 *                 pattern = &quot;NuPoEx&quot;
-	 *                 patternStart = 0
-	 *                 patternEnd = 6
 	 *                 name = NullPointerException
-	 *                 nameStart = 0
-	 *                 nameEnd = 20
 	 *                 result =&gt; true
 	 * </pre>
 	 *
@@ -378,144 +371,131 @@ public class SearchPattern {
 	 * <li>
 	 *
 	 * <pre>
-	 *                 pattern = &quot;NuPoEx&quot;
-	 *                 patternStart = 0
-	 *                 patternEnd = 6
-	 *                 name = NoPermissionException
-	 *                 nameStart = 0
-	 *                 nameEnd = 21
-	 *                 result =&gt; false
-	 * </pre>
-	 *
-	 * </li>
-	 * <li>
-	 *
-	 * <pre>
 	 *                 pattern = &quot;npe&quot;
-	 *                 patternStart = 0
-	 *                 patternEnd = 3
 	 *                 name = NullPointerException
-	 *                 nameStart = 0
-	 *                 nameEnd = 20
 	 *                 result =&gt; false
 	 * </pre>
 	 *
 	 * </li>
 	 * </ol>
-	 *
-	 * @param pattern
-	 *            the given pattern
-	 * @param patternStart
-	 *            the start index of the pattern, inclusive
-	 * @param patternEnd
-	 *            the end index of the pattern, exclusive
-	 * @param name
-	 *            the given name
-	 * @param nameStart
-	 *            the start index of the name, inclusive
-	 * @param nameEnd
-	 *            the end index of the name, exclusive
-	 * @return true if a sub-pattern matches the subpart of the given name,
-	 *         false otherwise
+	 * <p>
+	 * Names not matching the CamelCase rules still match if they start with
+	 * the pattern, ignoring case.
+	 * </p>
 	 */
-	private boolean camelCaseMatch(String pattern, int patternStart,
-			int patternEnd, String name, int nameStart, int nameEnd) {
-		if (name == null)
-			return false; // null name cannot match
-		if (pattern == null)
-			return true; // null pattern is equivalent to '*'
-		if (patternEnd < 0)
-			patternEnd = pattern.length();
-		if (nameEnd < 0)
-			nameEnd = name.length();
-
-		if (patternEnd <= patternStart)
-			return nameEnd <= nameStart;
-		if (nameEnd <= nameStart)
-			return false;
-		// check first pattern char
-		if (name.charAt(nameStart) != pattern.charAt(patternStart)) {
-			// first char must strictly match (upper/lower)
-			return false;
-		}
-
-		int patternLength = patternEnd;
-
-		if (pattern.charAt(patternEnd - 1) == END_SYMBOL || pattern.charAt(patternEnd - 1) == BLANK )
-			patternLength = patternEnd - 1;
+	private final class CamelCasePattern extends CompiledPattern {
+		private final char[] pattern;
 
+		/** The length of the pattern without a trailing end symbol or blank. */
+		private final int patternLength;
 
-		char patternChar, nameChar;
-		int iPattern = patternStart;
-		int iName = nameStart;
+		/** Whether the pattern characters are allowed in CamelCase segments. */
+		private final boolean[] patternCharAllowed;
 
-		// Main loop is on pattern characters
-		while (true) {
+		private final PrefixPattern prefixPattern;
 
-			iPattern++;
-			iName++;
-
-				if (iPattern == patternEnd) {
-				// We have exhausted pattern, so it's a match
-				return true;
+		CamelCasePattern(String pattern) {
+			this.pattern = pattern.toCharArray();
+			int length = this.pattern.length;
+			char last = this.pattern[length - 1];
+			patternLength = last == END_SYMBOL || last == BLANK ? length - 1 : length;
+			patternCharAllowed = new boolean[length];
+			for (int i = 0; i < length; i++) {
+				patternCharAllowed[i] = isPatternCharAllowed(this.pattern[i]);
 			}
+			prefixPattern = new PrefixPattern(pattern);
+		}
 
-			if (iName == nameEnd) {
-				if (iPattern == patternLength)
-					return true;
-				// We have exhausted name (and not pattern), so it's not a match
-				return false;
-			}
+		@Override
+		boolean matches(String text) {
+			return camelCaseMatch(text) || prefixPattern.matches(text);
+		}
 
-			// For as long as we're exactly matching, bring it on (even if it's
-			// a lower case character)
-			if ((patternChar = pattern.charAt(iPattern)) == name.charAt(iName)) {
-				continue;
+		private boolean camelCaseMatch(String name) {
+			int patternEnd = pattern.length;
+			int nameEnd = name.length();
+			if (nameEnd == 0)
+				return false;
+			// check first pattern char
+			if (name.charAt(0) != pattern[0]) {
+				// first char must strictly match (upper/lower)
+				return false;
 			}
 
-			// If characters are not equals, then it's not a match if
-			// patternChar is lowercase
-			if (!isPatternCharAllowed(patternChar))
-				return false;
+			char patternChar, nameChar;
+			int iPattern = 0;
+			int iName = 0;
 
-			// patternChar is uppercase, so let's find the next uppercase in
-			// name
+			// Main loop is on pattern characters
 			while (true) {
-				if (iName == nameEnd) {
-					if ((iPattern == patternLength) && (patternChar == END_SYMBOL || patternChar == BLANK))
-						return true;
-					return false;
+
+				iPattern++;
+				iName++;
+
+				if (iPattern == patternEnd) {
+					// We have exhausted pattern, so it's a match
+					return true;
 				}
 
-				nameChar = name.charAt(iName);
+				if (iName == nameEnd) {
+					// We have exhausted name (and not pattern), so it's only
+					// a match if the pattern rest is the end symbol
+					return iPattern == patternLength;
+				}
 
-				if ((iPattern == patternLength) && (patternChar == END_SYMBOL || patternChar == BLANK)) {
-					if (isNameCharAllowed(nameChar)) {
-						return false;
-					}
-					iName++;
+				// For as long as we're exactly matching, bring it on (even if
+				// it's a lower case character)
+				if ((patternChar = pattern[iPattern]) == name.charAt(iName)) {
 					continue;
 				}
 
-				if (Character.isDigit(nameChar)) {
-					// nameChar is digit => break if the digit is current pattern character otherwise consume it
-					if (patternChar == nameChar) break;
-					iName++;
-				} else if (!isNameCharAllowed(nameChar)) {
-					// nameChar is lowercase
-					iName++;
-				// nameChar is uppercase...
-				} else if (patternChar != nameChar) {
-					// .. and it does not match patternChar, so it's not a match
+				// If characters are not equals, then it's not a match if
+				// patternChar is lowercase
+				if (!patternCharAllowed[iPattern])
 					return false;
-				} else {
-					// .. and it matched patternChar. Back to the big loop
-					break;
+
+				// patternChar is uppercase, so let's find the next uppercase in
+				// name
+				boolean endSymbol = iPattern == patternLength
+						&& (patternChar == END_SYMBOL || patternChar == BLANK);
+				while (true) {
+					if (iName == nameEnd) {
+						return endSymbol;
+					}
+
+					nameChar = name.charAt(iName);
+
+					if (endSymbol) {
+						if (isNameCharAllowed(nameChar)) {
+							return false;
+						}
+						iName++;
+						continue;
+					}
+
+					if (Character.isDigit(nameChar)) {
+						// nameChar is digit => break if the digit is current
+						// pattern character otherwise consume it
+						if (patternChar == nameChar)
+							break;
+						iName++;
+					} else if (!isNameCharAllowed(nameChar)) {
+						// nameChar is lowercase
+						iName++;
+						// nameChar is uppercase...
+					} else if (patternChar != nameChar) {
+						// .. and it does not match patternChar, so it's not a
+						// match
+						return false;
+					} else {
+						// .. and it matched patternChar. Back to the big loop
+						break;
+					}
 				}
+				// At this point, either name has been exhausted, or it is at an
+				// uppercase letter.
+				// Since pattern is also at an uppercase letter
 			}
-			// At this point, either name has been exhausted, or it is at an
-			// uppercase letter.
-			// Since pattern is also at an uppercase letter
 		}
 	}
 
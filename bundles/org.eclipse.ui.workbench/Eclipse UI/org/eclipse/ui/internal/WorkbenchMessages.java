@@ -950,6 +950,7 @@ public class WorkbenchMessages extends NLS {
 
     // FilteredItemsSelectionDialog
     public static String FilteredItemsSelectionDialog_cacheSearchJob_taskName;
+	public static String FilteredItemsSelectionDialog_indexJob;
     public static String FilteredItemsSelectionDialog_menu;
 	public static String FilteredItemsSelectionDialog_refreshJob;
 	public static String FilteredItemsSelectionDialog_progressRefreshJob;
@@ -0,0 +1,234 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.ui.internal.activities;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The pattern bindings of all the defined activities, compiled so that the
+ * activities matching an identifier are found in one pass over the
+ * identifier.
+ * <p>
+ * Equality patterns are looked up in a hash map. Regular expressions are
+ * stored in a trie under their literal prefix, where an unquantified
+ * <code>.</code> is a wildcard edge, and only the expressions whose prefix
+ * matches the identifier are evaluated. Expressions without a usable prefix
+ * are evaluated for every identifier.
+ * </p>
+ * <p>
+ * Instances are immutable and thread safe.
+ * </p>
+ */
+final class ActivityPatternIndex {
+
+	/**
+	 * The empty index.
+	 */
+	static final ActivityPatternIndex EMPTY = new ActivityPatternIndex(Collections.emptyMap());
+
+	private static final char WILDCARD = '\uFFFF';
+
+	private static final class Node {
+		final Map<Character, Node> children = new HashMap<>(4);
+		Node anyChild;
+		List<ActivityPatternBinding> bindings;
+	}
+
+	private final Map<String, Set<String>> activityIdsByString = new HashMap<>();
+
+	private final Node root = new Node();
+
+	private final List<ActivityPatternBinding> bindings = new ArrayList<>();
+
+	private final Set<String> activityIds = new HashSet<>();
+
+	/**
+	 * @param activityPatternBindingsByActivityId
+	 *            the sets of {@link ActivityPatternBinding} of the defined
+	 *            activities, by activity id
+	 */
+	ActivityPatternIndex(Map<?, ?> activityPatternBindingsByActivityId) {
+		for (Object value : activityPatternBindingsByActivityId.values()) {
+			for (Object object : (Collection<?>) value) {
+				ActivityPatternBinding binding = (ActivityPatternBinding) object;
+				bindings.add(binding);
+				activityIds.add(binding.getActivityId());
+				if (binding.isEqualityPattern()) {
+					Set<String> ids = activityIdsByString.get(binding.getString());
+					if (ids == null) {
+						ids = new HashSet<>(2);
+						activityIdsByString.put(binding.getString(), ids);
+					}
+					ids.add(binding.getActivityId());
+				} else {
+					String prefix = binding.getPattern().flags() == 0
+							? getPrefix(binding.getPattern().pattern()) : ""; //$NON-NLS-1$
+					Node node = root;
+					for (int i = 0; i < prefix.length(); i++) {
+						node = getChild(node, prefix.charAt(i));
+					}
+					if (node.bindings == null) {
+						node.bindings = new ArrayList<>(2);
+					}
+					node.bindings.add(binding);
+				}
+			}
+		}
+	}
+
+	private static Node getChild(Node node, char c) {
+		if (c == WILDCARD) {
+			if (node.anyChild == null) {
+				node.anyChild = new Node();
+			}
+			return node.anyChild;
+		}
+		Node child = node.children.get(c);
+		if (child == null) {
+			child = new Node();
+			node.children.put(c, child);
+		}
+		return child;
+	}
+
+	/**
+	 * Returns the characters every string matching the regular expression
+	 * starts with, where {@link #WILDCARD} stands for any character. The
+	 * prefix is empty if it cannot be determined.
+	 *
+	 * @param regex
+	 *            the regular expression
+	 * @return the prefix, may be empty
+	 */
+	static String getPrefix(String regex) {
+		if (regex.indexOf('|') >= 0) {
+			// alternatives do not share a prefix
+			return ""; //$NON-NLS-1$
+		}
+		StringBuilder prefix = new StringBuilder();
+		int i = 0;
+		boolean quoted = false;
+		while (i < regex.length()) {
+			char c = regex.charAt(i);
+			int next = i + 1;
+			char element;
+			if (quoted) {
+				if (regex.startsWith("\\E", i)) { //$NON-NLS-1$
+					quoted = false;
+					i += 2;
+					continue;
+				}
+				element = c;
+			} else if (c == '\\') {
+				if (next == regex.length()) {
+					break;
+				}
+				char escaped = regex.charAt(next);
+				if (escaped == 'Q') {
+					quoted = true;
+					i += 2;
+					continue;
+				}
+				if (Character.isLetterOrDigit(escaped)) {
+					// a character class, boundary or back reference
+					break;
+				}
+				element = escaped;
+				next++;
+			} else if (c == '.') {
+				element = WILDCARD;
+			} else if ("[](){}*+?^$".indexOf(c) >= 0) { //$NON-NLS-1$
+				break;
+			} else {
+				element = c;
+			}
+			int following = quoted && regex.startsWith("\\E", next) ? next + 2 : next; //$NON-NLS-1$
+			if (following < regex.length() && "*+?{".indexOf(regex.charAt(following)) >= 0) { //$NON-NLS-1$
+				// the element is optional or repeated
+				break;
+			}
+			if (element == WILDCARD && c != '.') {
+				// a literal character that cannot be told apart from a wildcard
+				break;
+			}
+			prefix.append(element);
+			i = next;
+		}
+		return prefix.toString();
+	}
+
+	/**
+	 * Returns the ids of the activities with a pattern binding matching the
+	 * identifier.
+	 *
+	 * @param identifierId
+	 *            the identifier id
+	 * @return the ids of the matching activities, a new modifiable set
+	 */
+	Set<String> getMatchingActivityIds(String identifierId) {
+		Set<String> result = new HashSet<>();
+		Set<String> ids = activityIdsByString.get(identifierId);
+		if (ids != null) {
+			result.addAll(ids);
+		}
+		if (result.size() == activityIds.size()) {
+			return result;
+		}
+		if (hasSurrogates(identifierId)) {
+			// a wildcard matches a code point, not a character
+			for (ActivityPatternBinding binding : bindings) {
+				if (!result.contains(binding.getActivityId()) && binding.isMatch(identifierId)) {
+					result.add(binding.getActivityId());
+				}
+			}
+			return result;
+		}
+		collectMatches(root, identifierId, 0, result);
+		return result;
+	}
+
+	private static void collectMatches(Node node, String identifierId, int index, Set<String> result) {
+		if (node.bindings != null) {
+			for (ActivityPatternBinding binding : node.bindings) {
+				if (!result.contains(binding.getActivityId()) && binding.isMatch(identifierId)) {
+					result.add(binding.getActivityId());
+				}
+			}
+		}
+		if (index == identifierId.length()) {
+			return;
+		}
+		if (node.anyChild != null) {
+			collectMatches(node.anyChild, identifierId, index + 1, result);
+		}
+		Node child = node.children.get(identifierId.charAt(index));
+		if (child != null) {
+			collectMatches(child, identifierId, index + 1, result);
+		}
+	}
+
+	private static boolean hasSurrogates(String string) {
+		for (int i = 0; i < string.length(); i++) {
+			if (Character.isSurrogate(string.charAt(i))) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
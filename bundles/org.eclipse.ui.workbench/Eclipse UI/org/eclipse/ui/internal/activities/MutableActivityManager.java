@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -18,11 +18,12 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import org.eclipse.core.expressions.Expression;
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -80,7 +81,13 @@ public final class MutableActivityManager extends AbstractActivityManager
 
     private Set enabledActivityIds = new HashSet();
 
-    private Map identifiersById = new HashMap();
+    private Map identifiersById = new ConcurrentHashMap();
+
+    /**
+     * The pattern bindings of the defined activities, compiled when the
+     * registry is read.
+     */
+    private volatile ActivityPatternIndex activityPatternIndex = ActivityPatternIndex.EMPTY;
 
     /**
      * Avoid endless circular referencing of re-adding activity to evaluation
@@ -89,9 +96,16 @@ public final class MutableActivityManager extends AbstractActivityManager
     private boolean addingEvaluationListener = false;
 
     /**
-     * A list of identifiers that need to have their activity sets reconciled in the background job.
+     * The ids of the identifiers that need to have their activity sets reconciled in the background job.
      */
-    private List deferredIdentifiers = Collections.synchronizedList(new LinkedList());
+    private final Set<String> deferredIdentifiers = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The ids of the identifiers bound to each activity, so that a change of
+     * the enabled activities only updates the identifiers it affects. Guarded
+     * by this manager.
+     */
+    private final Map<String, Set<String>> identifierIdsByActivityId = new HashMap<>();
 
     /**
      * The identifier update job.  Lazily initialized.
@@ -102,7 +116,9 @@ public final class MutableActivityManager extends AbstractActivityManager
                 @Override
 				public void activityRegistryChanged(
                         ActivityRegistryEvent activityRegistryEvent) {
-                    readRegistry(false);
+                    synchronized (MutableActivityManager.this) {
+                        readRegistry(false);
+                    }
                 }
             };
 
@@ -185,17 +201,26 @@ public final class MutableActivityManager extends AbstractActivityManager
     }
 
 	@Override
-	synchronized public IIdentifier getIdentifier(String identifierId) {
+	public IIdentifier getIdentifier(String identifierId) {
         if (identifierId == null) {
 			throw new NullPointerException();
 		}
 
+        // the identifiers are only added once they are up to date, so known
+        // identifiers are returned without locking the manager
         Identifier identifier = (Identifier) identifiersById.get(identifierId);
+        if (identifier != null) {
+			return identifier;
+		}
+
+        synchronized (this) {
+            identifier = (Identifier) identifiersById.get(identifierId);
 
-        if (identifier == null) {
-            identifier = new Identifier(identifierId);
-            updateIdentifier(identifier);
-            identifiersById.put(identifierId, identifier);
+            if (identifier == null) {
+                identifier = new Identifier(identifierId);
+                updateIdentifier(identifier);
+                identifiersById.put(identifierId, identifier);
+            }
         }
 
         return identifier;
@@ -434,6 +459,7 @@ public final class MutableActivityManager extends AbstractActivityManager
         this.activityRequirementBindingsByActivityId = activityRequirementBindingsByActivityId;
         this.activityDefinitionsById = activityDefinitionsById;
         this.activityPatternBindingsByActivityId = activityPatternBindingsByActivityId;
+        this.activityPatternIndex = new ActivityPatternIndex(activityPatternBindingsByActivityId);
         this.categoryActivityBindingsByCategoryId = categoryActivityBindingsByCategoryId;
         this.categoryDefinitionsById = categoryDefinitionsById;
         boolean definedActivityIdsChanged = false;
@@ -596,8 +622,8 @@ public final class MutableActivityManager extends AbstractActivityManager
 			Set previouslyEnabledActivityIds) {
 		// don't update identifiers if the enabled activity set has not changed
         if (activityManagerChanged) {
-            Map identifierEventsByIdentifierId = updateIdentifiers(identifiersById
-                    .keySet(), deltaActivityIds);
+            Map identifierEventsByIdentifierId = updateIdentifiers(
+                    getAffectedIdentifierIds(deltaActivityIds), deltaActivityIds);
             if (identifierEventsByIdentifierId != null) {
 				notifyIdentifiers(identifierEventsByIdentifierId);
 			}
@@ -612,6 +638,26 @@ public final class MutableActivityManager extends AbstractActivityManager
 		}
 	}
 
+	/**
+	 * Returns the ids of the identifiers whose enablement may depend on the
+	 * given activities: the identifiers bound to them and the identifiers
+	 * whose activities are not known yet.
+	 *
+	 * @param activityIds
+	 *            the ids of the activities whose enablement has changed
+	 * @return the ids of the identifiers to update
+	 */
+	private Set<String> getAffectedIdentifierIds(Set activityIds) {
+		Set<String> identifierIds = new HashSet<>(deferredIdentifiers);
+		for (Iterator iterator = activityIds.iterator(); iterator.hasNext();) {
+			Set<String> boundIdentifierIds = identifierIdsByActivityId.get(iterator.next());
+			if (boundIdentifierIds != null) {
+				identifierIds.addAll(boundIdentifierIds);
+			}
+		}
+		return identifierIds;
+	}
+
 	private void addExpressionEnabledActivity(String id) {
 		Set previouslyEnabledActivityIds = new HashSet(this.enabledActivityIds);
 		this.enabledActivityIds.add(id);
@@ -823,12 +869,26 @@ public final class MutableActivityManager extends AbstractActivityManager
     }
 
     private IdentifierEvent updateIdentifier(Identifier identifier) {
-        return updateIdentifier(identifier, definedActivityIds);
+        return updateIdentifier(identifier, null, null);
     }
 
-    private IdentifierEvent updateIdentifier(Identifier identifier, Set changedActivityIds) {
+    /**
+     * Updates the activities and the enablement of an identifier.
+     *
+     * @param identifier
+     *            the identifier
+     * @param matchingActivityIds
+     *            the ids of the activities matching the identifier, or
+     *            <code>null</code> if they have not been computed
+     * @param changedActivityIds
+     *            the ids of the activities whose enablement has changed, or
+     *            <code>null</code> if the activities may have changed in any
+     *            way
+     * @return the event to fire, or <code>null</code>
+     */
+    private IdentifierEvent updateIdentifier(Identifier identifier, Set matchingActivityIds,
+            Set changedActivityIds) {
         String id = identifier.getId();
-        Set activityIds = new HashSet();
 
         boolean enabled = false;
 
@@ -842,30 +902,31 @@ public final class MutableActivityManager extends AbstractActivityManager
         if (enabledActivityIds.size() == definedActivityIds.size()) {
             enabled = true;
             enabledChanged = identifier.setEnabled(enabled);
-            identifier.setActivityIds(Collections.EMPTY_SET);
-            deferredIdentifiers.add(identifier);
+            setActivityIds(identifier, Collections.EMPTY_SET);
+            deferredIdentifiers.add(id);
             getUpdateJob().schedule();
             if (enabledChanged) {
 				return new IdentifierEvent(identifier, activityIdsChanged,
                         enabledChanged);
 			}
         } else {
-            Set activityIdsToUpdate = new HashSet(changedActivityIds);
-            if (identifier.getActivityIds() != null) {
-                activityIdsToUpdate.addAll(identifier.getActivityIds());
+            Set activityIds = matchingActivityIds;
+            if (activityIds == null) {
+                // the pattern bindings do not change with the enabled
+                // activities, so only deferred identifiers need to be matched
+                activityIds = changedActivityIds != null && !deferredIdentifiers.contains(id)
+                        ? identifier.getActivityIds()
+                        : activityPatternIndex.getMatchingActivityIds(id);
             }
-            for (Iterator iterator = activityIdsToUpdate.iterator(); iterator
-                    .hasNext();) {
-                String activityId = (String) iterator.next();
-                Activity activity = (Activity) getActivity(activityId);
+            deferredIdentifiers.remove(id);
+            activityIdsChanged = setActivityIds(identifier, activityIds);
 
-                if (activity.isMatch(id)) {
-                    activityIds.add(activityId);
-               }
+            // the enablement of an identifier only depends on its activities
+            if (!activityIdsChanged && changedActivityIds != null
+                    && Collections.disjoint(activityIds, changedActivityIds)) {
+                return null;
             }
 
-            activityIdsChanged = identifier.setActivityIds(activityIds);
-
             if (advisor != null) {
             	enabled = advisor.computeEnablement(this, identifier);
             }
@@ -880,11 +941,13 @@ public final class MutableActivityManager extends AbstractActivityManager
     }
 
     private Map updateIdentifiers(Collection identifierIds) {
-        return updateIdentifiers(identifierIds, definedActivityIds);
+        return updateIdentifiers(identifierIds, null);
     }
 
     private Map updateIdentifiers(Collection identifierIds, Set changedActivityIds) {
         Map identifierEventsByIdentifierId = new TreeMap();
+        Map<String, Set<String>> activityIdsByIdentifierId = changedActivityIds == null
+                ? matchIdentifiers(identifierIds) : Collections.emptyMap();
 
         for (Iterator iterator = identifierIds.iterator(); iterator.hasNext();) {
             String identifierId = (String) iterator.next();
@@ -892,7 +955,8 @@ public final class MutableActivityManager extends AbstractActivityManager
                     .get(identifierId);
 
             if (identifier != null) {
-                IdentifierEvent identifierEvent = updateIdentifier(identifier, changedActivityIds);
+                IdentifierEvent identifierEvent = updateIdentifier(identifier,
+                        activityIdsByIdentifierId.get(identifierId), changedActivityIds);
 
                 if (identifierEvent != null) {
 					identifierEventsByIdentifierId.put(identifierId,
@@ -904,6 +968,56 @@ public final class MutableActivityManager extends AbstractActivityManager
         return identifierEventsByIdentifierId;
     }
 
+    /**
+     * Matches identifiers against the pattern bindings in parallel.
+     *
+     * @param identifierIds
+     *            the ids of the identifiers
+     * @return the ids of the matching activities, by identifier id
+     */
+    private Map<String, Set<String>> matchIdentifiers(Collection identifierIds) {
+        ActivityPatternIndex index = activityPatternIndex;
+        return ((Collection<String>) identifierIds).parallelStream()
+                .collect(Collectors.toMap(Function.identity(), index::getMatchingActivityIds));
+    }
+
+    /**
+     * Sets the activities of an identifier and updates the identifiers bound
+     * to the activities accordingly.
+     *
+     * @param identifier
+     *            the identifier
+     * @param activityIds
+     *            the ids of the activities matching the identifier
+     * @return <code>true</code> if the activities of the identifier changed
+     */
+    private boolean setActivityIds(Identifier identifier, Set activityIds) {
+        Set<String> previousActivityIds = identifier.getActivityIds();
+        if (!identifier.setActivityIds(activityIds)) {
+            return false;
+        }
+
+        String identifierId = identifier.getId();
+        for (String activityId : previousActivityIds) {
+            Set<String> identifierIds = identifierIdsByActivityId.get(activityId);
+            if (identifierIds != null) {
+                identifierIds.remove(identifierId);
+                if (identifierIds.isEmpty()) {
+                    identifierIdsByActivityId.remove(activityId);
+                }
+            }
+        }
+        for (String activityId : identifier.getActivityIds()) {
+            Set<String> identifierIds = identifierIdsByActivityId.get(activityId);
+            if (identifierIds == null) {
+                identifierIds = new HashSet<>();
+                identifierIdsByActivityId.put(activityId, identifierIds);
+            }
+            identifierIds.add(identifierId);
+        }
+        return true;
+    }
+
     /**
      * Unhook this manager from its registry.
      *
@@ -931,39 +1045,33 @@ public final class MutableActivityManager extends AbstractActivityManager
 			deferredIdentifierJob = Job.create("Activity Identifier Update", new IJobFunction() { //$NON-NLS-1$
                 @Override
 				public IStatus run(IProgressMonitor monitor) {
-					final Map identifierEventsByIdentifierId = new HashMap();
-
                     while (!deferredIdentifiers.isEmpty()) {
-                        Identifier identifier = (Identifier) deferredIdentifiers.remove(0);
-                        Set activityIds = new HashSet();
-                        for (Iterator iterator = definedActivityIds.iterator(); iterator
-                                .hasNext();) {
-                            String activityId = (String) iterator.next();
-                            Activity activity = (Activity) getActivity(activityId);
-
-                            if (activity.isMatch(identifier.getId())) {
-                                activityIds.add(activityId);
+                        // match the batch without locking the manager
+                        ActivityPatternIndex index = activityPatternIndex;
+                        Map<String, Set<String>> activityIdsByIdentifierId = matchIdentifiers(
+                                new ArrayList<>(deferredIdentifiers));
+                        final Map identifierEventsByIdentifierId = new TreeMap();
+
+                        synchronized (MutableActivityManager.this) {
+                            for (Map.Entry<String, Set<String>> entry : activityIdsByIdentifierId.entrySet()) {
+                                String identifierId = entry.getKey();
+                                // skip the identifiers updated in the meantime
+                                if (!deferredIdentifiers.remove(identifierId)) {
+                                    continue;
+                                }
+                                Identifier identifier = (Identifier) identifiersById.get(identifierId);
+                                if (identifier == null) {
+                                    continue;
+                                }
+                                Set<String> activityIds = index == activityPatternIndex ? entry.getValue()
+                                        : activityPatternIndex.getMatchingActivityIds(identifierId);
+                                if (setActivityIds(identifier, activityIds)) {
+                                    identifierEventsByIdentifierId.put(identifierId,
+                                            new IdentifierEvent(identifier, true, false));
+                                }
                             }
                         }
-
-                        boolean activityIdsChanged = identifier.setActivityIds(activityIds);
-                        if (activityIdsChanged) {
-                            IdentifierEvent identifierEvent = new IdentifierEvent(identifier, activityIdsChanged,
-                                    false);
-                            identifierEventsByIdentifierId.put(identifier.getId(),
-                                    identifierEvent);
-						}
-					}
-					if (!identifierEventsByIdentifierId.isEmpty()) {
-						UIJob notifyJob = new UIJob("Activity Identifier Update UI") { //$NON-NLS-1$
-							@Override
-							public IStatus runInUIThread(IProgressMonitor monitor) {
-								notifyIdentifiers(identifierEventsByIdentifierId);
-								return Status.OK_STATUS;
-							}
-						};
-						notifyJob.setSystem(true);
-						notifyJob.schedule();
+                        notifyIdentifiersInUI(identifierEventsByIdentifierId);
                     }
                     return Status.OK_STATUS;
                 }
@@ -973,4 +1081,24 @@ public final class MutableActivityManager extends AbstractActivityManager
         return deferredIdentifierJob;
     }
 
+    /**
+     * Delivers a batch of identifier events in the UI thread.
+     *
+     * @param identifierEventsByIdentifierId
+     *            the events, by identifier id
+     */
+    private void notifyIdentifiersInUI(final Map identifierEventsByIdentifierId) {
+        if (!identifierEventsByIdentifierId.isEmpty()) {
+            UIJob notifyJob = new UIJob("Activity Identifier Update UI") { //$NON-NLS-1$
+                @Override
+                public IStatus runInUIThread(IProgressMonitor monitor) {
+                    notifyIdentifiers(identifierEventsByIdentifierId);
+                    return Status.OK_STATUS;
+                }
+            };
+            notifyJob.setSystem(true);
+            notifyJob.schedule();
+        }
+    }
+
 }
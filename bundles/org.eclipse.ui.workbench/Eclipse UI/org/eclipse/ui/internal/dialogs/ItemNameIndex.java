@@ -0,0 +1,457 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.dialogs;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.ui.dialogs.SearchPattern;
+
+/**
+ * An index over the names of the items shown in a
+ * {@link org.eclipse.ui.dialogs.FilteredItemsSelectionDialog}. It finds the
+ * items whose names may match a {@link SearchPattern} without matching every
+ * name:
+ * <ul>
+ * <li>exact, prefix and camel case patterns by a binary search in the names
+ * sorted ignoring case,</li>
+ * <li>wildcard patterns by the trigrams of ASCII characters in their literal
+ * parts and the prefix before the first wildcard.</li>
+ * </ul>
+ * The candidates contain every item whose name matches the pattern, but may
+ * contain others as well, so they still have to be matched. Names with
+ * characters whose case cannot be ignored one character at a time are always
+ * candidates.
+ * <p>
+ * The index is immutable and can be used by several threads.
+ * </p>
+ */
+public final class ItemNameIndex {
+
+	/**
+	 * Trigrams that occur in more than this fraction of the names are not
+	 * indexed, they would not narrow the candidates down.
+	 */
+	private static final int STOP_TRIGRAM_DIVISOR = 8;
+
+	private static final int CANCEL_CHECK_INTERVAL = 4096;
+
+	private static final int[] NO_CANDIDATES = new int[0];
+
+	private final Object[] items;
+
+	/** The names in lower case, <code>null</code> for irregular names. */
+	private final String[] keys;
+
+	/** The indexes of the regular names sorted by their keys. */
+	private final int[] sorted;
+
+	/** The indexes of the names that are always candidates. */
+	private final int[] irregular;
+
+	/** The indexed trigrams in ascending order. */
+	private int[] trigrams;
+
+	/**
+	 * Sorted item indexes per indexed trigram, <code>null</code> for stop
+	 * trigrams.
+	 */
+	private int[][] postings;
+
+	/**
+	 * Builds the index.
+	 *
+	 * @param items
+	 *            the items
+	 * @param names
+	 *            the names of the items, in the same order
+	 * @param monitor
+	 *            the monitor to check for cancellation, or <code>null</code>
+	 * @throws OperationCanceledException
+	 *             if the monitor was canceled
+	 */
+	public ItemNameIndex(Object[] items, String[] names, IProgressMonitor monitor) {
+		this.items = items;
+		keys = new String[items.length];
+		List<Integer> regular = new ArrayList<>(items.length);
+		List<Integer> irregularList = new ArrayList<>();
+		for (int i = 0; i < items.length; i++) {
+			checkCanceled(monitor, i);
+			String key = toKey(names[i]);
+			keys[i] = key;
+			if (key != null) {
+				regular.add(Integer.valueOf(i));
+			} else {
+				irregularList.add(Integer.valueOf(i));
+			}
+		}
+		Integer[] order = regular.toArray(new Integer[regular.size()]);
+		Arrays.sort(order, (a, b) -> keys[a.intValue()].compareTo(keys[b.intValue()]));
+		sorted = toArray(Arrays.asList(order));
+		irregular = toArray(irregularList);
+		buildTrigrams(monitor);
+	}
+
+	private static void checkCanceled(IProgressMonitor monitor, int count) {
+		if (monitor != null && count % CANCEL_CHECK_INTERVAL == 0 && monitor.isCanceled()) {
+			throw new OperationCanceledException();
+		}
+	}
+
+	private static int[] toArray(List<Integer> list) {
+		int[] array = new int[list.size()];
+		for (int i = 0; i < array.length; i++) {
+			array[i] = list.get(i).intValue();
+		}
+		return array;
+	}
+
+	/**
+	 * Returns the name in lower case, or <code>null</code> if a character of
+	 * the name may equal another character when the case is ignored, but not
+	 * after both are converted to lower case.
+	 */
+	private static String toKey(String name) {
+		if (name == null) {
+			return null;
+		}
+		char[] chars = new char[name.length()];
+		for (int i = 0; i < chars.length; i++) {
+			char c = name.charAt(i);
+			char lower = Character.toLowerCase(c);
+			if (Character.toLowerCase(Character.toUpperCase(c)) != lower
+					|| Character.toUpperCase(lower) != Character.toUpperCase(c)
+					|| Character.isSurrogate(c)) {
+				return null;
+			}
+			chars[i] = lower;
+		}
+		return new String(chars);
+	}
+
+	/**
+	 * Returns the trigram starting at the index, or -1 if it contains a
+	 * character that is not ASCII.
+	 */
+	private static int trigram(String key, int start) {
+		char c1 = key.charAt(start);
+		char c2 = key.charAt(start + 1);
+		char c3 = key.charAt(start + 2);
+		if ((c1 | c2 | c3) >= 0x80) {
+			return -1;
+		}
+		return c1 << 14 | c2 << 7 | c3;
+	}
+
+	/**
+	 * Collects the distinct trigrams of the key in ascending order.
+	 *
+	 * @return the number of trigrams in the buffer
+	 */
+	private static int collectTrigrams(String key, int[] buffer) {
+		int count = 0;
+		for (int i = 0; i + 3 <= key.length(); i++) {
+			int trigram = trigram(key, i);
+			if (trigram != -1) {
+				buffer[count++] = trigram;
+			}
+		}
+		Arrays.sort(buffer, 0, count);
+		int distinct = 0;
+		for (int i = 0; i < count; i++) {
+			if (distinct == 0 || buffer[distinct - 1] != buffer[i]) {
+				buffer[distinct++] = buffer[i];
+			}
+		}
+		return distinct;
+	}
+
+	private void buildTrigrams(IProgressMonitor monitor) {
+		// Collect the trigrams of all names and sort them to count the names
+		// containing each trigram, then fill the postings. The buffers grow
+		// with the names, not with the number of possible trigrams.
+		int[] occurrences = new int[Math.max(16, keys.length)];
+		int total = 0;
+		int[] buffer = new int[16];
+		for (int i = 0; i < keys.length; i++) {
+			checkCanceled(monitor, i);
+			String key = keys[i];
+			if (key == null) {
+				continue;
+			}
+			if (buffer.length < key.length()) {
+				buffer = new int[key.length()];
+			}
+			int count = collectTrigrams(key, buffer);
+			if (occurrences.length < total + count) {
+				occurrences = Arrays.copyOf(occurrences, Math.max(2 * occurrences.length, total + count));
+			}
+			System.arraycopy(buffer, 0, occurrences, total, count);
+			total += count;
+		}
+		Arrays.sort(occurrences, 0, total);
+		int distinct = 0;
+		for (int i = 0; i < total; i++) {
+			if (i == 0 || occurrences[i] != occurrences[i - 1]) {
+				distinct++;
+			}
+		}
+		int maxPostings = Math.max(16, keys.length / STOP_TRIGRAM_DIVISOR);
+		trigrams = new int[distinct];
+		postings = new int[distinct][];
+		for (int i = 0, position = 0; i < total; position++) {
+			int end = i + 1;
+			while (end < total && occurrences[end] == occurrences[i]) {
+				end++;
+			}
+			int count = end - i;
+			trigrams[position] = occurrences[i];
+			postings[position] = count > maxPostings ? null : new int[count];
+			i = end;
+		}
+		int[] filled = new int[distinct];
+		for (int i = 0; i < keys.length; i++) {
+			checkCanceled(monitor, i);
+			String key = keys[i];
+			if (key == null) {
+				continue;
+			}
+			int count = collectTrigrams(key, buffer);
+			for (int j = 0; j < count; j++) {
+				int position = Arrays.binarySearch(trigrams, buffer[j]);
+				// Names are visited in order, so the postings stay sorted.
+				if (postings[position] != null) {
+					postings[position][filled[position]++] = i;
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return the number of items
+	 */
+	public int size() {
+		return items.length;
+	}
+
+	/**
+	 * @param index
+	 *            the index of an item
+	 * @return the item
+	 */
+	public Object getItem(int index) {
+		return items[index];
+	}
+
+	/**
+	 * Returns the indexes of the items whose names may match the pattern, the
+	 * best matches first: names equal to the pattern, then names starting with
+	 * it, then the rest, each in the order of the items.
+	 *
+	 * @param pattern
+	 *            the pattern
+	 * @return the indexes of the candidates
+	 */
+	public int[] findCandidates(SearchPattern pattern) {
+		String text = pattern.getPattern();
+		int[] candidates;
+		switch (pattern.getMatchRule()) {
+		case SearchPattern.RULE_BLANK_MATCH:
+			candidates = all();
+			break;
+		case SearchPattern.RULE_EXACT_MATCH:
+		case SearchPattern.RULE_PREFIX_MATCH:
+			candidates = withPrefix(text);
+			break;
+		case SearchPattern.RULE_CAMELCASE_MATCH:
+			// Both camel case and prefix matches start with the first character.
+			candidates = withPrefix(text.substring(0, 1));
+			break;
+		case SearchPattern.RULE_PATTERN_MATCH:
+			candidates = matchingWildcards(text);
+			break;
+		default:
+			candidates = all();
+		}
+		return rank(candidates, toKey(text));
+	}
+
+	private int[] all() {
+		int[] all = new int[items.length];
+		for (int i = 0; i < all.length; i++) {
+			all[i] = i;
+		}
+		return all;
+	}
+
+	/**
+	 * Returns the sorted indexes of the regular names starting with the prefix
+	 * and of the irregular names.
+	 */
+	private int[] withPrefix(String prefix) {
+		String key = toKey(prefix);
+		if (key == null) {
+			return all();
+		}
+		int from = lowerBound(key);
+		int to = from;
+		while (to < sorted.length && keys[sorted[to]].startsWith(key)) {
+			to++;
+		}
+		int[] result = new int[to - from + irregular.length];
+		System.arraycopy(sorted, from, result, 0, to - from);
+		System.arraycopy(irregular, 0, result, to - from, irregular.length);
+		Arrays.sort(result);
+		return result;
+	}
+
+	private int lowerBound(String key) {
+		int low = 0;
+		int high = sorted.length;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (keys[sorted[mid]].compareTo(key) < 0) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	private int[] matchingWildcards(String text) {
+		// Split into the literal parts between the wildcards. Escaped
+		// wildcards are rare, the index is not used for them.
+		if (text.indexOf('\\') != -1) {
+			return all();
+		}
+		int[] result = null;
+		int first = indexOfWildcard(text, 0);
+		if (first > 0) {
+			result = withPrefix(text.substring(0, first));
+		}
+		int start = 0;
+		while (start < text.length()) {
+			int end = indexOfWildcard(text, start);
+			if (end == -1) {
+				end = text.length();
+			}
+			String key = toKey(text.substring(start, end));
+			if (key != null && key.length() >= 3) {
+				int[] postings = withTrigrams(key);
+				if (postings != null) {
+					result = result == null ? postings : intersect(result, postings);
+				}
+			}
+			start = end + 1;
+		}
+		return result == null ? all() : result;
+	}
+
+	private static int indexOfWildcard(String text, int start) {
+		for (int i = start; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if (c == '*' || c == '?') {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the sorted indexes of the names containing all trigrams of the
+	 * key and of the irregular names, or <code>null</code> if none of its
+	 * trigrams narrows the names down.
+	 */
+	private int[] withTrigrams(String key) {
+		int[] result = null;
+		for (int i = 0; i + 3 <= key.length(); i++) {
+			int trigram = trigram(key, i);
+			if (trigram == -1) {
+				continue;
+			}
+			int position = Arrays.binarySearch(trigrams, trigram);
+			if (position < 0) {
+				// No regular name contains the trigram.
+				result = NO_CANDIDATES;
+				break;
+			}
+			if (postings[position] != null) {
+				result = result == null ? postings[position] : intersect(result, postings[position]);
+			}
+		}
+		if (result == null) {
+			return null;
+		}
+		int[] withIrregular = Arrays.copyOf(result, result.length + irregular.length);
+		System.arraycopy(irregular, 0, withIrregular, result.length, irregular.length);
+		Arrays.sort(withIrregular);
+		return withIrregular;
+	}
+
+	private static int[] intersect(int[] a, int[] b) {
+		int[] result = new int[Math.min(a.length, b.length)];
+		int count = 0;
+		for (int i = 0, j = 0; i < a.length && j < b.length;) {
+			if (a[i] < b[j]) {
+				i++;
+			} else if (a[i] > b[j]) {
+				j++;
+			} else {
+				result[count++] = a[i];
+				i++;
+				j++;
+			}
+		}
+		return Arrays.copyOf(result, count);
+	}
+
+	/**
+	 * Moves the names equal to the pattern to the front, followed by the names
+	 * starting with it. The candidates keep their order otherwise.
+	 */
+	private int[] rank(int[] candidates, String patternKey) {
+		if (patternKey == null) {
+			return candidates;
+		}
+		int[] result = new int[candidates.length];
+		int exact = 0;
+		int prefix = 0;
+		for (int index : candidates) {
+			String key = keys[index];
+			if (key != null && key.startsWith(patternKey)) {
+				if (key.length() == patternKey.length()) {
+					exact++;
+				} else {
+					prefix++;
+				}
+			}
+		}
+		int nextExact = 0;
+		int nextPrefix = exact;
+		int nextOther = exact + prefix;
+		for (int index : candidates) {
+			String key = keys[index];
+			if (key != null && key.startsWith(patternKey)) {
+				if (key.length() == patternKey.length()) {
+					result[nextExact++] = index;
+				} else {
+					result[nextPrefix++] = index;
+				}
+			} else {
+				result[nextOther++] = index;
+			}
+		}
+		return result;
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -78,12 +78,7 @@ public class ViewContentProvider implements ITreeContentProvider {
 
 	@Override
 	public Object[] getChildren(Object element) {
-		Object[] children = childMap.get(element);
-		if (children == null) {
-			children = createChildren(element);
-			childMap.put(element, children);
-		}
-		return children;
+		return childMap.computeIfAbsent(element, this::createChildren);
 	}
 
 	/**
@@ -35,6 +35,18 @@ public class StringMatcher {
 
     protected static final char fSingleWildCard = '\u0000';
 
+    /*
+     * The segments converted to upper case, to lower case and to upper then
+     * lower case, so that the case of the pattern is not converted on every
+     * match. Only used if the case is ignored and the matching methods are not
+     * overridden, null otherwise.
+     */
+    private char[][] fUpperSegments;
+
+    private char[][] fLowerSegments;
+
+    private char[][] fUpperLowerSegments;
+
     public static class Position {
         int start; //inclusive
 
@@ -88,6 +100,9 @@ public class StringMatcher {
             parseNoWildCards();
         } else {
             parseWildCards();
+            if (fIgnoreCase && getClass() == StringMatcher.class) {
+                foldSegments();
+            }
         }
     }
 
@@ -213,6 +228,9 @@ public class StringMatcher {
         if (bound < 0) {
 			return false;
 		}
+        if (fUpperSegments != null) {
+            return matchFolded(text, start, end);
+        }
         int i = 0;
         String current = fSegments[i];
         int segLength = current.length();
@@ -259,6 +277,135 @@ public class StringMatcher {
         return i == segCount;
     }
 
+    /**
+     * Same as the segment matching of {@link #match(String, int, int)}, using
+     * the folded segments.
+     */
+    private boolean matchFolded(String text, int start, int end) {
+        int segCount = fSegments.length;
+        int tCurPos = start;
+        int i = 0;
+        int current = 0;
+
+        /* process first segment */
+        if (!fHasLeadingStar) {
+            if (!foldedRegionMatches(text, start, 0, fLowerSegments[0])) {
+                return false;
+            }
+            ++i;
+            tCurPos = tCurPos + fSegments[0].length();
+        }
+        if ((segCount == 1) && (!fHasLeadingStar) && (!fHasTrailingStar)) {
+            // only one segment to match, no wildcards specified
+            return tCurPos == end;
+        }
+        /* process middle segments */
+        while (i < segCount) {
+            current = i;
+            // Like textPosIn and regExpPosIn, which compare the lower case of the upper case
+            // of characters without and the lower case of characters with wild cards.
+            char[] lower = fSegments[i].indexOf(fSingleWildCard) < 0 ? fUpperLowerSegments[i]
+                    : fLowerSegments[i];
+            int currentMatch = foldedPosIn(text, tCurPos, end, i, lower);
+            if (currentMatch < 0) {
+                return false;
+            }
+            tCurPos = currentMatch + fSegments[i].length();
+            i++;
+        }
+
+        /* process final segment */
+        if (!fHasTrailingStar && tCurPos != end) {
+            int clen = fSegments[current].length();
+            return foldedRegionMatches(text, end - clen, current, fLowerSegments[current]);
+        }
+        return i == segCount;
+    }
+
+    private void foldSegments() {
+        int segCount = fSegments.length;
+        fUpperSegments = new char[segCount][];
+        fLowerSegments = new char[segCount][];
+        fUpperLowerSegments = new char[segCount][];
+        for (int i = 0; i < segCount; i++) {
+            String segment = fSegments[i];
+            int length = segment.length();
+            fUpperSegments[i] = new char[length];
+            fLowerSegments[i] = new char[length];
+            fUpperLowerSegments[i] = new char[length];
+            for (int j = 0; j < length; j++) {
+                char c = segment.charAt(j);
+                fUpperSegments[i][j] = Character.toUpperCase(c);
+                fLowerSegments[i][j] = Character.toLowerCase(c);
+                fUpperLowerSegments[i][j] = Character.toLowerCase(Character.toUpperCase(c));
+            }
+        }
+    }
+
+    /**
+     * Returns the first position of the segment in the range of the text. Looks
+     * for the first character of the segment before comparing the rest.
+     */
+    private int foldedPosIn(String text, int start, int end, int segment, char[] lower) {
+        String p = fSegments[segment];
+        int plen = p.length();
+        int max = end - plen;
+        char first = p.charAt(0);
+        if (first == fSingleWildCard) {
+            for (int i = start; i <= max; ++i) {
+                if (foldedRegionMatches(text, i, segment, lower)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        char firstUpper = fUpperSegments[segment][0];
+        boolean upperLower = lower == fUpperLowerSegments[segment];
+        for (int i = start; i <= max; ++i) {
+            char t = text.charAt(i);
+            if (t != first && !charMatches(t, first, firstUpper, lower[0], upperLower)) {
+                continue;
+            }
+            if (foldedRegionMatches(text, i, segment, lower)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns whether the segment matches the text at the position.
+     */
+    private boolean foldedRegionMatches(String text, int tStart, int segment, char[] lower) {
+        String p = fSegments[segment];
+        char[] upper = fUpperSegments[segment];
+        boolean upperLower = lower == fUpperLowerSegments[segment];
+        for (int j = 0, plen = p.length(); j < plen; j++) {
+            char pchar = p.charAt(j);
+            char tchar = text.charAt(tStart + j);
+            if (pchar == tchar || pchar == fSingleWildCard) {
+                continue;
+            }
+            if (!charMatches(tchar, pchar, upper[j], lower[j], upperLower)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean charMatches(char tchar, char pchar, char upper, char lower,
+            boolean upperLower) {
+        if ((tchar | pchar) < 0x80) {
+            // ASCII characters only match the upper and lower case of each other
+            return tchar == upper || tchar == lower;
+        }
+        char tUpper = Character.toUpperCase(tchar);
+        if (tUpper == upper) {
+            return true;
+        }
+        return (upperLower ? Character.toLowerCase(tUpper) : Character.toLowerCase(tchar)) == lower;
+    }
+
     /**
      * This method parses the given pattern into segments seperated by wildcard '*' characters.
      * Since wildcards are not being used in this case, the pattern consists of a single segment.
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2003, 2015 IBM Corporation and others.
+ * Copyright (c) 2003, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -309,7 +309,7 @@ public class JobInfo extends JobTreeElement {
 	 *
 	 * @return int
 	 */
-    int getPercentDone() {
+	/* Visible for testing */ public int getPercentDone() {
     	TaskInfo info = getTaskInfo();
         if (info != null){
         	if(info.totalWork == IProgressMonitor.UNKNOWN) {
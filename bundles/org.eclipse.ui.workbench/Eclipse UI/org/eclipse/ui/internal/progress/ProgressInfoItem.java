@@ -297,6 +297,38 @@ public class ProgressInfoItem extends Composite {
 		refresh();
 	}
 
+	/**
+	 * Shows another element in the receiver, reusing its widgets.
+	 *
+	 * @param progressInfo
+	 *            the element to show
+	 */
+	void setInfo(JobTreeElement progressInfo) {
+		if (info == progressInfo) {
+			return;
+		}
+		info = progressInfo;
+		setData(info);
+		selected = false;
+		if (tracker != null) {
+			tracker.stop();
+			tracker = null;
+		}
+		if (progressBar != null) {
+			progressBar.dispose();
+			progressBar = null;
+		}
+		Iterator taskEntryIterator = taskEntries.iterator();
+		while (taskEntryIterator.hasNext()) {
+			((Link) taskEntryIterator.next()).dispose();
+		}
+		taskEntries.clear();
+		link = null;
+		setLayoutsForNoProgress();
+		refresh();
+		layout(true);
+	}
+
 	/**
 	 * Set the main text of the receiver. Truncate to fit the available space.
 	 */
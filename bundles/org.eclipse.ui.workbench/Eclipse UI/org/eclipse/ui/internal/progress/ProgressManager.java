@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2003, 2016 IBM Corporation and others.
+ * Copyright (c) 2003, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -20,6 +20,7 @@ import java.lang.reflect.InvocationTargetException;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Enumeration;
@@ -27,12 +28,18 @@ import java.util.Hashtable;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
-import java.util.Objects;
+import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
-import java.util.stream.StreamSupport;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IProgressMonitorWithBlocking;
@@ -98,8 +105,14 @@ public class ProgressManager extends ProgressProvider implements IProgressServic
 
 	final private Set<Job> managedJobs = ConcurrentHashMap.newKeySet();
 
-	final private Map<Object, Collection<IJobBusyListener>> familyListeners = Collections
-			.synchronizedMap(new LinkedHashMap<>());
+	/**
+	 * Immutable snapshot of the busy listeners per family, replaced on every
+	 * modification so that job change events can read it without locking.
+	 * Modification guarded by {@link #familyListenersMutex}.
+	 */
+	private volatile Map<Object, Collection<IJobBusyListener>> familyListeners = Collections.emptyMap();
+
+	private final Object familyListenersMutex = new Object();
 
 	//	list of IJobProgressManagerListener
 	private ListenerList<IJobProgressManagerListener> listeners = new ListenerList<>();
@@ -133,6 +146,14 @@ public class ProgressManager extends ProgressProvider implements IProgressServic
 
 	final ConcurrentMap<Job, JobMonitor> runnableMonitors = new ConcurrentHashMap<>();
 
+	/**
+	 * The minimum time between two publications of the progress reported to a
+	 * {@link JobMonitor}.
+	 */
+	/* Visible for testing */ public static final long PUBLISH_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+	private static final long NO_WORK = Double.doubleToRawLongBits(0d);
+
 	// A table that maps families to keys in the Jface image table
 	private Hashtable<Object, String> imageKeyTable = new Hashtable<>();
 
@@ -143,36 +164,29 @@ public class ProgressManager extends ProgressProvider implements IProgressServic
 	private final INotificationListener notificationListener;
 
 	/**
-	 * Lock object for synchronizing updates of {@code pendingJobUpdates},
-	 * {@code pendingGroupUpdates}, {@code pendingJobRemoval},
-	 * {@code pendingGroupRemoval} and {@code pendingJobAddition}.
+	 * The maximum number of pending job changes delivered to the listeners in
+	 * one UI refresh. Remaining changes are delivered by the next refresh.
 	 */
-	private final Object pendingUpdatesMutex = new Object();
+	static final int MAX_NOTIFICATION_BATCH = 1000;
 
 	/**
-	 * Modification guarded by {@link #pendingUpdatesMutex}.
+	 * The coalesced pending change of each job, see {@link PendingJobUpdate}.
 	 */
-	private Map<JobInfo, Set<IJobProgressManagerListener>> pendingJobUpdates = new LinkedHashMap<>();
+	private final ConcurrentMap<JobInfo, PendingJobUpdate> pendingJobUpdates = new ConcurrentHashMap<>();
 
 	/**
-	 * Modification guarded by {@link #pendingUpdatesMutex}.
+	 * The jobs with pending changes, in the order of their first change. Filled
+	 * by any thread, drained by the UI thread in {@link #notifyListeners()}.
 	 */
-	private Set<GroupInfo> pendingGroupUpdates = new LinkedHashSet<>();
+	private final Queue<PendingJobUpdate> pendingJobQueue = new ConcurrentLinkedQueue<>();
 
-	/**
-	 * Modification guarded by {@link #pendingUpdatesMutex}.
-	 */
-	private Map<JobInfo, Set<IJobProgressManagerListener>> pendingJobRemoval = new LinkedHashMap<>();
+	private final Set<GroupInfo> pendingGroupUpdates = ConcurrentHashMap.newKeySet();
 
-	/**
-	 * Modification guarded by {@link #pendingUpdatesMutex}.
-	 */
-	private Set<GroupInfo> pendingGroupRemoval = new LinkedHashSet<>();
+	private final Set<GroupInfo> pendingGroupRemoval = ConcurrentHashMap.newKeySet();
 
-	/**
-	 * Modification guarded by {@link #pendingUpdatesMutex}.
-	 */
-	private Map<JobInfo, Set<IJobProgressManagerListener>> pendingJobAddition = new LinkedHashMap<>();
+	private final LongAdder receivedEvents = new LongAdder();
+
+	private final LongAdder deliveredEvents = new LongAdder();
 
 	private static final String IMAGE_KEY = "org.eclipse.ui.progress.images"; //$NON-NLS-1$
 
@@ -204,6 +218,15 @@ public class ProgressManager extends ProgressProvider implements IProgressServic
 	/**
 	 * The JobMonitor is the inner class that handles the IProgressMonitor
 	 * integration with the ProgressMonitor.
+	 * <p>
+	 * Work and subtasks are accumulated in the monitor and published to the
+	 * {@link JobInfo} at most every {@link #PUBLISH_INTERVAL_NANOS}, so that
+	 * jobs reporting progress at a high rate do not pay for a refresh of the
+	 * progress views on every call. Pending progress is published by the next
+	 * UI refresh. Monitors added with
+	 * {@link #addProgressListener(IProgressMonitorWithBlocking)} still receive
+	 * every call.
+	 * </p>
 	 */
 	public class JobMonitor implements IProgressMonitorWithBlocking {
 		Job job;
@@ -211,6 +234,22 @@ public class ProgressManager extends ProgressProvider implements IProgressServic
 		String currentTaskName;
 		Set<IProgressMonitorWithBlocking> monitors = Collections.emptySet();
 
+		/**
+		 * The bits of the double amount of work not yet published to the
+		 * {@link #info}.
+		 */
+		private final AtomicLong unpublishedWork = new AtomicLong(NO_WORK);
+
+		/**
+		 * The latest subtask not yet published to the {@link #info}, or
+		 * <code>null</code>.
+		 */
+		private final AtomicReference<String> unpublishedSubTask = new AtomicReference<>();
+
+		private volatile long lastPublishTime = System.nanoTime() - PUBLISH_INTERVAL_NANOS;
+
+		private volatile long publishCount;
+
 		/**
 		 * Creates a monitor on the supplied job.
 		 *
@@ -235,9 +274,15 @@ public class ProgressManager extends ProgressProvider implements IProgressServic
 			Set<IProgressMonitorWithBlocking> newSet = new LinkedHashSet<>(monitors);
 			newSet.add(monitor);
 			this.monitors = Collections.unmodifiableSet(newSet);
-			TaskInfo currentTask = info.getTaskInfo();
+			String taskName;
+			TaskInfo currentTask;
+			synchronized (this) {
+				publish();
+				taskName = currentTaskName;
+				currentTask = info.getTaskInfo();
+			}
 			if (currentTask != null) {
-				monitor.beginTask(currentTaskName, currentTask.totalWork);
+				monitor.beginTask(taskName, currentTask.totalWork);
 				monitor.internalWorked(currentTask.preWork);
 			}
 		}
@@ -250,26 +295,44 @@ public class ProgressManager extends ProgressProvider implements IProgressServic
 
 		@Override
 		public void beginTask(String taskName, int totalWork) {
-			info.beginTask(taskName, totalWork);
+			// Work taken by a concurrent publish() must not be added to the
+			// new task.
+			synchronized (this) {
+				discardUnpublished();
+				info.beginTask(taskName, totalWork);
+				currentTaskName = taskName;
+			}
 			refreshJobInfo(info);
-			currentTaskName = taskName;
-			monitors.stream().forEach(listener -> listener.beginTask(taskName, totalWork));
+			for (IProgressMonitorWithBlocking listener : monitors) {
+				listener.beginTask(taskName, totalWork);
+			}
 		}
 
 		@Override
 		public void done() {
-			info.clearTaskInfo();
-			info.clearChildren();
-			monitors.stream().forEach(IProgressMonitorWithBlocking::done);
+			synchronized (this) {
+				discardUnpublished();
+				info.clearTaskInfo();
+				info.clearChildren();
+			}
+			for (IProgressMonitorWithBlocking listener : monitors) {
+				listener.done();
+			}
 		}
 
 		@Override
 		public void internalWorked(double work) {
 			if (info.hasTaskInfo()) {
-				info.addWork(work);
-				refreshJobInfo(info);
+				long current;
+				do {
+					current = unpublishedWork.get();
+				} while (!unpublishedWork.compareAndSet(current,
+						Double.doubleToRawLongBits(Double.longBitsToDouble(current) + work)));
+				publishIfDue();
+			}
+			for (IProgressMonitorWithBlocking listener : monitors) {
+				listener.internalWorked(work);
 			}
-			monitors.stream().forEach(listener -> listener.internalWorked(work));
 		}
 
 		@Override
@@ -283,22 +346,33 @@ public class ProgressManager extends ProgressProvider implements IProgressServic
 			if (value && !info.isCanceled()) {
 				info.cancel();
 				// Only inform the first time
-				monitors.stream().forEach(listener -> listener.setCanceled(value));
+				for (IProgressMonitorWithBlocking listener : monitors) {
+					listener.setCanceled(value);
+				}
 			}
 		}
 
 		@Override
 		public void setTaskName(String taskName) {
-			if (info.hasTaskInfo()) {
-				info.setTaskName(taskName);
-			} else {
+			boolean hasTaskInfo;
+			synchronized (this) {
+				hasTaskInfo = info.hasTaskInfo();
+				if (hasTaskInfo) {
+					publish();
+					info.setTaskName(taskName);
+					unpublishedSubTask.set(null);
+					info.clearChildren();
+					currentTaskName = taskName;
+				}
+			}
+			if (!hasTaskInfo) {
 				beginTask(taskName, 100);
 				return;
 			}
-			info.clearChildren();
 			refreshJobInfo(info);
-			currentTaskName = taskName;
-			monitors.stream().forEach(listener -> listener.setTaskName(taskName));
+			for (IProgressMonitorWithBlocking listener : monitors) {
+				listener.setTaskName(taskName);
+			}
 		}
 
 		@Override
@@ -306,10 +380,11 @@ public class ProgressManager extends ProgressProvider implements IProgressServic
 			if (name == null) {
 				return;
 			}
-			info.clearChildren();
-			info.addSubTask(name);
-			refreshJobInfo(info);
-			monitors.stream().forEach(listener -> listener.subTask(name));
+			unpublishedSubTask.set(name);
+			publishIfDue();
+			for (IProgressMonitorWithBlocking listener : monitors) {
+				listener.subTask(name);
+			}
 		}
 
 		@Override
@@ -321,14 +396,148 @@ public class ProgressManager extends ProgressProvider implements IProgressServic
 		public void clearBlocked() {
 			info.setBlockedStatus(null);
 			refreshJobInfo(info);
-			monitors.stream().forEach(IProgressMonitorWithBlocking::clearBlocked);
+			for (IProgressMonitorWithBlocking listener : monitors) {
+				listener.clearBlocked();
+			}
 		}
 
 		@Override
 		public void setBlocked(IStatus reason) {
 			info.setBlockedStatus(reason);
 			refreshJobInfo(info);
-			monitors.stream().forEach(listener -> listener.setBlocked(reason));
+			for (IProgressMonitorWithBlocking listener : monitors) {
+				listener.setBlocked(reason);
+			}
+		}
+
+		private void publishIfDue() {
+			if (System.nanoTime() - lastPublishTime >= PUBLISH_INTERVAL_NANOS) {
+				publish();
+			}
+		}
+
+		/**
+		 * Publishes the accumulated work and the latest subtask to the
+		 * {@link JobInfo} and schedules a refresh of the listeners if anything
+		 * changed. The next publication from {@link #publishIfDue()} happens
+		 * at least {@link #PUBLISH_INTERVAL_NANOS} later.
+		 */
+		synchronized void publish() {
+			lastPublishTime = System.nanoTime();
+			boolean changed = false;
+			double work = Double.longBitsToDouble(unpublishedWork.getAndSet(NO_WORK));
+			if (work != 0 && info.hasTaskInfo()) {
+				info.addWork(work);
+				changed = true;
+			}
+			String subTask = unpublishedSubTask.getAndSet(null);
+			if (subTask != null) {
+				info.clearChildren();
+				info.addSubTask(subTask);
+				changed = true;
+			}
+			if (changed) {
+				publishCount++;
+				refreshJobInfo(info);
+			}
+		}
+
+		/**
+		 * Returns the number of times progress reported to this monitor was
+		 * published to its {@link JobInfo}.
+		 *
+		 * @return the number of publications
+		 */
+		/* Visible for testing */ public long getPublishCount() {
+			return publishCount;
+		}
+
+		/**
+		 * Drops the progress not published yet. Called while holding the
+		 * monitor, together with the update of the {@link #info}.
+		 */
+		private void discardUnpublished() {
+			unpublishedWork.set(NO_WORK);
+			unpublishedSubTask.set(null);
+		}
+	}
+
+	/**
+	 * The changes of a job that are waiting to be delivered to the listeners.
+	 * Any number of changes of the same kind are coalesced into one
+	 * notification, since the listeners always read the latest state of the
+	 * {@link JobInfo}. Producers merge into the instance until the UI thread
+	 * closes it for delivery; a producer that finds it closed registers a new
+	 * one.
+	 */
+	private static final class PendingJobUpdate {
+		static final int ADDITION = 1;
+
+		static final int UPDATE = 2;
+
+		static final int REMOVAL = 4;
+
+		private static final int CLOSED = 8;
+
+		final JobInfo info;
+
+		private final AtomicInteger kinds = new AtomicInteger();
+
+		/**
+		 * The kinds of changes to deliver, set by {@link #close()}.
+		 */
+		private int closedKinds;
+
+		final Set<IJobProgressManagerListener> additionListeners = ConcurrentHashMap.newKeySet();
+
+		final Set<IJobProgressManagerListener> updateListeners = ConcurrentHashMap.newKeySet();
+
+		final Set<IJobProgressManagerListener> removalListeners = ConcurrentHashMap.newKeySet();
+
+		PendingJobUpdate(JobInfo info) {
+			this.info = info;
+		}
+
+		Set<IJobProgressManagerListener> listenersFor(int kind) {
+			switch (kind) {
+			case ADDITION:
+				return additionListeners;
+			case REMOVAL:
+				return removalListeners;
+			default:
+				return updateListeners;
+			}
+		}
+
+		/**
+		 * Records a change of the given kind.
+		 *
+		 * @return <code>false</code> if the receiver was already closed
+		 */
+		boolean merge(int kind) {
+			while (true) {
+				int current = kinds.get();
+				if ((current & CLOSED) != 0) {
+					return false;
+				}
+				if ((current & kind) != 0 || kinds.compareAndSet(current, current | kind)) {
+					return true;
+				}
+			}
+		}
+
+		/**
+		 * Closes the receiver for further changes.
+		 *
+		 * @return <code>true</code> if any change was recorded
+		 */
+		boolean close() {
+			closedKinds = kinds.getAndSet(CLOSED) & ~CLOSED;
+			return closedKinds != 0;
+		}
+
+		boolean has(int kind) {
+			return (closedKinds & kind) != 0;
 		}
 	}
 
@@ -351,42 +560,102 @@ public class ProgressManager extends ProgressProvider implements IProgressServic
 		uiRefreshThrottler = new Throttler(Display.getDefault(), Duration.ofMillis(100), this::notifyListeners);
 	}
 
+	/**
+	 * Publishes the progress accumulated in the job monitors and delivers the
+	 * pending changes to the listeners. At most
+	 * {@link #MAX_NOTIFICATION_BATCH} jobs are handled per call, the remaining
+	 * ones are delivered by a subsequent refresh.
+	 */
 	/* Visible for testing */ public void notifyListeners() {
-		Set<GroupInfo> localPendingGroupUpdates, localPendingGroupRemoval;
-		Map<JobInfo, Set<IJobProgressManagerListener>> localPendingJobUpdates, localPendingJobAddition,
-				localPendingJobRemoval;
-		synchronized (pendingUpdatesMutex) {
-			localPendingJobUpdates = pendingJobUpdates;
-			pendingJobUpdates = new LinkedHashMap<>();
-			localPendingGroupUpdates = pendingGroupUpdates;
-			pendingGroupUpdates = new LinkedHashSet<>();
-			localPendingJobRemoval = pendingJobRemoval;
-			pendingJobRemoval = new LinkedHashMap<>();
-			localPendingGroupRemoval = pendingGroupRemoval;
-			pendingGroupRemoval = new LinkedHashSet<>();
-			localPendingJobAddition = pendingJobAddition;
-			pendingJobAddition = new LinkedHashMap<>();
+		runnableMonitors.values().forEach(JobMonitor::publish);
+
+		List<PendingJobUpdate> batch = new ArrayList<>();
+		PendingJobUpdate pending;
+		while (batch.size() < MAX_NOTIFICATION_BATCH && (pending = pendingJobQueue.poll()) != null) {
+			boolean changed = pending.close();
+			pendingJobUpdates.remove(pending.info, pending);
+			if (changed) {
+				batch.add(pending);
+			}
 		}
+		Set<GroupInfo> localPendingGroupUpdates = drain(pendingGroupUpdates);
+		Set<GroupInfo> localPendingGroupRemoval = drain(pendingGroupRemoval);
 
-		localPendingJobAddition.entrySet().forEach(e -> e.getValue().forEach(listener -> listener.addJob(e.getKey())));
+		for (PendingJobUpdate update : batch) {
+			if (update.has(PendingJobUpdate.ADDITION)) {
+				update.additionListeners.forEach(listener -> listener.addJob(update.info));
+				deliveredEvents.increment();
+			}
+		}
 
 		// Adds all non null JobInfo#getGroupInfo to the list of groups to
 		// be refreshed
-		localPendingJobUpdates.entrySet().stream().map(e -> e.getKey().getGroupInfo()).filter(Objects::nonNull)
-				.forEach(localPendingGroupUpdates::add);
+		for (PendingJobUpdate update : batch) {
+			if (update.has(PendingJobUpdate.UPDATE)) {
+				GroupInfo group = update.info.getGroupInfo();
+				if (group != null) {
+					localPendingGroupUpdates.add(group);
+				}
+			}
+		}
 
-		localPendingJobUpdates.entrySet()
-				.forEach(e -> e.getValue().forEach(listener -> listener.refreshJobInfo(e.getKey())));
+		for (PendingJobUpdate update : batch) {
+			if (update.has(PendingJobUpdate.UPDATE)) {
+				update.updateListeners.forEach(listener -> listener.refreshJobInfo(update.info));
+				deliveredEvents.increment();
+			}
+		}
 
 		// refresh groups
 		localPendingGroupUpdates.forEach(groupInfo -> listeners.forEach(listener -> listener.refreshGroup(groupInfo)));
 
-		localPendingJobRemoval.entrySet()
-				.forEach(e -> e.getValue().forEach(listener -> listener.removeJob(e.getKey())));
+		for (PendingJobUpdate update : batch) {
+			if (update.has(PendingJobUpdate.REMOVAL)) {
+				update.removalListeners.forEach(listener -> listener.removeJob(update.info));
+				deliveredEvents.increment();
+			}
+		}
 
 		localPendingGroupRemoval.forEach(group -> {
 			listeners.forEach(listener -> listener.removeGroup(group));
 		});
+		deliveredEvents.add(localPendingGroupUpdates.size() + localPendingGroupRemoval.size());
+
+		if (!pendingJobQueue.isEmpty()) {
+			uiRefreshThrottler.throttledExec();
+		}
+	}
+
+	/**
+	 * Removes and returns the current elements of the given concurrent set.
+	 */
+	private static Set<GroupInfo> drain(Set<GroupInfo> pendingGroups) {
+		Set<GroupInfo> result = new LinkedHashSet<>();
+		for (Iterator<GroupInfo> iterator = pendingGroups.iterator(); iterator.hasNext();) {
+			result.add(iterator.next());
+			iterator.remove();
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the number of job and group changes reported to the receiver
+	 * since its creation.
+	 *
+	 * @return the number of received changes
+	 */
+	/* Visible for testing */ public long getReceivedEventCount() {
+		return receivedEvents.sum();
+	}
+
+	/**
+	 * Returns the number of coalesced job and group changes delivered to the
+	 * listeners since the creation of the receiver.
+	 *
+	 * @return the number of delivered changes
+	 */
+	/* Visible for testing */ public long getDeliveredEventCount() {
+		return deliveredEvents.sum();
 	}
 
 	private void setUpImages() {
@@ -635,10 +904,7 @@ public class ProgressManager extends ProgressProvider implements IProgressServic
 	 * @param info
 	 */
 	public void refreshJobInfo(JobInfo info) {
-		synchronized (pendingUpdatesMutex) {
-			rememberListenersForJob(info, pendingJobUpdates);
-		}
-		uiRefreshThrottler.throttledExec();
+		enqueueJobChange(info, PendingJobUpdate.UPDATE);
 	}
 
 	/**
@@ -648,9 +914,8 @@ public class ProgressManager extends ProgressProvider implements IProgressServic
 	 * @param info
 	 */
 	public void refreshGroup(GroupInfo info) {
-		synchronized (pendingUpdatesMutex) {
-			pendingGroupUpdates.add(info);
-		}
+		receivedEvents.increment();
+		pendingGroupUpdates.add(info);
 		uiRefreshThrottler.throttledExec();
 	}
 
@@ -663,11 +928,8 @@ public class ProgressManager extends ProgressProvider implements IProgressServic
 	public void removeJobInfo(JobInfo info) {
 		Job job = info.getJob();
 		managedJobs.remove(job);
-		synchronized (pendingUpdatesMutex) {
-			rememberListenersForJob(info, pendingJobRemoval);
-		}
+		enqueueJobChange(info, PendingJobUpdate.REMOVAL);
 		runnableMonitors.remove(job);
-		uiRefreshThrottler.throttledExec();
 	}
 
 	/**
@@ -677,9 +939,8 @@ public class ProgressManager extends ProgressProvider implements IProgressServic
 	 *            GroupInfo
 	 */
 	public void removeGroup(GroupInfo group) {
-		synchronized (pendingUpdatesMutex) {
-			pendingGroupRemoval.add(group);
-		}
+		receivedEvents.increment();
+		pendingGroupRemoval.add(group);
 		uiRefreshThrottler.throttledExec();
 	}
 
@@ -695,18 +956,46 @@ public class ProgressManager extends ProgressProvider implements IProgressServic
 		}
 
 		managedJobs.add(info.getJob());
-		synchronized (pendingUpdatesMutex) {
-			rememberListenersForJob(info, pendingJobAddition);
+		enqueueJobChange(info, PendingJobUpdate.ADDITION);
+	}
+
+	/**
+	 * Records a change of the job for the next UI refresh. Changes of the same
+	 * kind are coalesced until they are delivered. This is called from the job
+	 * threads for every progress report, so it must not block.
+	 *
+	 * @param info
+	 * @param kind
+	 *            one of the change kinds of {@link PendingJobUpdate}
+	 */
+	private void enqueueJobChange(JobInfo info, int kind) {
+		receivedEvents.increment();
+		while (true) {
+			PendingJobUpdate pending = pendingJobUpdates.get(info);
+			if (pending == null) {
+				PendingJobUpdate created = new PendingJobUpdate(info);
+				pending = pendingJobUpdates.putIfAbsent(info, created);
+				if (pending == null) {
+					pending = created;
+					pendingJobQueue.offer(created);
+				}
+			}
+			rememberListenersForJob(info, pending.listenersFor(kind));
+			if (pending.merge(kind)) {
+				break;
+			}
+			// Closed by the UI thread in the meantime
+			pendingJobUpdates.remove(info, pending);
 		}
 		uiRefreshThrottler.throttledExec();
 	}
 
-	private void rememberListenersForJob(JobInfo info, Map<JobInfo, Set<IJobProgressManagerListener>> listenersMap) {
-		Set<IJobProgressManagerListener> localListeners = listenersMap.computeIfAbsent(info,
-				k -> new LinkedHashSet<>());
-		StreamSupport.stream(listeners.spliterator(), false)
-				.filter(listener -> !isCurrentDisplaying(info.getJob(), listener.showsDebug()))
-				.forEach(localListeners::add);
+	private void rememberListenersForJob(JobInfo info, Set<IJobProgressManagerListener> localListeners) {
+		for (IJobProgressManagerListener listener : listeners) {
+			if (!isCurrentDisplaying(info.getJob(), listener.showsDebug())) {
+				localListeners.add(listener);
+			}
+		}
 	}
 
 	/**
@@ -911,13 +1200,14 @@ public class ProgressManager extends ProgressProvider implements IProgressServic
 	 * @param listener
 	 */
 	void addListenerToFamily(Object family, IJobBusyListener listener) {
-		synchronized (familyListeners) {
-			Collection<IJobBusyListener> currentListeners = familyListeners.get(family);
-			if (currentListeners == null) {
-				currentListeners = new LinkedHashSet<>();
-				familyListeners.put(family, currentListeners);
-			}
-			currentListeners.add(listener);
+		synchronized (familyListenersMutex) {
+			Map<Object, Collection<IJobBusyListener>> newListeners = new LinkedHashMap<>(familyListeners);
+			Collection<IJobBusyListener> currentListeners = newListeners.get(family);
+			Set<IJobBusyListener> newFamilyListeners = currentListeners == null ? new LinkedHashSet<>()
+					: new LinkedHashSet<>(currentListeners);
+			newFamilyListeners.add(listener);
+			newListeners.put(family, Collections.unmodifiableSet(newFamilyListeners));
+			familyListeners = Collections.unmodifiableMap(newListeners);
 		}
 	}
 
@@ -927,18 +1217,23 @@ public class ProgressManager extends ProgressProvider implements IProgressServic
 	 * @param listener
 	 */
 	void removeListener(IJobBusyListener listener) {
-		synchronized (familyListeners) {
-			Iterator<Object> families = familyListeners.keySet().iterator();
-			while (families.hasNext()) {
-				Object next = families.next();
-				Collection<IJobBusyListener> currentListeners = familyListeners.get(next);
-				currentListeners.remove(listener);
+		synchronized (familyListenersMutex) {
+			Map<Object, Collection<IJobBusyListener>> newListeners = new LinkedHashMap<>();
+			for (Map.Entry<Object, Collection<IJobBusyListener>> entry : familyListeners.entrySet()) {
+				Collection<IJobBusyListener> currentListeners = entry.getValue();
+				if (!currentListeners.contains(listener)) {
+					newListeners.put(entry.getKey(), currentListeners);
+					continue;
+				}
+				Set<IJobBusyListener> newFamilyListeners = new LinkedHashSet<>(currentListeners);
+				newFamilyListeners.remove(listener);
 
 				// Remove any empty listeners.
-				if (currentListeners.isEmpty()) {
-					families.remove();
+				if (!newFamilyListeners.isEmpty()) {
+					newListeners.put(entry.getKey(), Collections.unmodifiableSet(newFamilyListeners));
 				}
 			}
+			familyListeners = Collections.unmodifiableMap(newListeners);
 		}
 	}
 
@@ -950,24 +1245,23 @@ public class ProgressManager extends ProgressProvider implements IProgressServic
 	 */
 	private Collection<IJobBusyListener> busyListenersForJob(Job job) {
 		if (job.isSystem()) {
-			return Collections.EMPTY_LIST;
+			return Collections.emptyList();
+		}
+		Map<Object, Collection<IJobBusyListener>> currentFamilyListeners = familyListeners;
+		if (currentFamilyListeners.isEmpty()) {
+			return Collections.emptyList();
 		}
-		synchronized (familyListeners) {
-			if (familyListeners.isEmpty()) {
-				return Collections.EMPTY_LIST;
-			}
 
-			Iterator<Object> families = familyListeners.keySet().iterator();
-			Collection<IJobBusyListener> returnValue = new LinkedHashSet<>();
-			while (families.hasNext()) {
-				Object next = families.next();
-				if (job.belongsTo(next)) {
-					Collection<IJobBusyListener> currentListeners = familyListeners.get(next);
-					returnValue.addAll(currentListeners);
+		Collection<IJobBusyListener> returnValue = null;
+		for (Map.Entry<Object, Collection<IJobBusyListener>> entry : currentFamilyListeners.entrySet()) {
+			if (job.belongsTo(entry.getKey())) {
+				if (returnValue == null) {
+					returnValue = new LinkedHashSet<>();
 				}
+				returnValue.addAll(entry.getValue());
 			}
-			return returnValue;
 		}
+		return returnValue == null ? Collections.emptyList() : returnValue;
 	}
 
 	@Override
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2015 IBM Corporation and others.
+ * Copyright (c) 2006, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -36,13 +36,13 @@ public class PerspectiveProvider extends QuickAccessProvider {
 	}
 
 	@Override
-	public QuickAccessElement getElementForId(String id) {
+	public synchronized QuickAccessElement getElementForId(String id) {
 		getElements();
 		return idToElement.get(id);
 	}
 
 	@Override
-	public QuickAccessElement[] getElements() {
+	public synchronized QuickAccessElement[] getElements() {
 		if (cachedElements == null) {
 			IPerspectiveDescriptor[] perspectives = PlatformUI.getWorkbench()
 					.getPerspectiveRegistry().getPerspectives();
@@ -66,13 +66,18 @@ public class PerspectiveProvider extends QuickAccessProvider {
 				.getImageDescriptor(ISharedImages.IMG_ETOOL_DEF_PERSPECTIVE);
 	}
 
+	@Override
+	public boolean isIndexable() {
+		return true;
+	}
+
 	@Override
 	public String getName() {
 		return QuickAccessMessages.QuickAccess_Perspectives;
 	}
 
 	@Override
-	protected void doReset() {
+	protected synchronized void doReset() {
 		cachedElements = null;
 		idToElement.clear();
 	}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2016 IBM Corporation and others.
+ * Copyright (c) 2005, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -15,6 +15,7 @@
 package org.eclipse.ui.internal.quickaccess;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
@@ -375,7 +376,8 @@ public abstract class QuickAccessContents {
 	 * that should be displayed in the table given a text filter and a perfect
 	 * match entry that should be given priority. The number of items returned
 	 * is affected by {@link #getShowAllMatches()} and the size of the table's
-	 * composite.
+	 * composite. The entries of each provider are the best matches of the
+	 * provider, see {@link #computeRankedEntries(QuickAccessProvider, String, Set, boolean)}.
 	 *
 	 * @param filter
 	 *            the string text filter to apply, possibly empty
@@ -393,6 +395,9 @@ public abstract class QuickAccessContents {
 		// collect matches in an array of lists
 		@SuppressWarnings("unchecked")
 		List<QuickAccessEntry>[] entries = new List[providers.length];
+		// all the matches of every provider, best first
+		@SuppressWarnings("unchecked")
+		List<QuickAccessEntry>[] rankedEntries = new List[providers.length];
 		// extra entries are limiting the number of items for search results
 		int maxCount = computeNumberOfItems() - extraEntries.size();
 		int[] indexPerProvider = new int[providers.length];
@@ -432,58 +437,39 @@ public abstract class QuickAccessContents {
 				if (category != null && !category.equalsIgnoreCase(provider.getName()) && !isPreviousPickProvider) {
 					continue;
 				}
+				if (!isProviderReady(provider)) {
+					continue;
+				}
 				if (filter.length() > 0 || provider.isAlwaysPresent() || showAllMatches) {
-					QuickAccessElement[] sortedElements = provider.getElementsSorted();
-
-					// count previous picks and store ids
-					if (isPreviousPickProvider) {
-						prevPick = sortedElements.length;
-						Stream.of(sortedElements).forEach(e -> prevPickIds.add(e.getId()));
+					if (rankedEntries[i] == null) {
+						// count previous picks and store ids
+						if (isPreviousPickProvider) {
+							QuickAccessElement[] sortedElements = provider.getElementsSorted();
+							prevPick = sortedElements.length;
+							Stream.of(sortedElements).forEach(e -> prevPickIds.add(e.getId()));
+						}
+						rankedEntries[i] = computeRankedEntries(provider, filter, prevPickIds,
+								i == 0 || showAllMatches);
 					}
 
 					int j = indexPerProvider[i];
-					// loops on all the elements of a provider
-					while (j < sortedElements.length
+					// loops on the matches of a provider
+					while (j < rankedEntries[i].size()
 							&& (showAllMatches || (count < countPerProvider && countTotal < maxCount))) {
-						QuickAccessElement element = sortedElements[j];
-
-						// Skip element if already in contained amid previous picks
-						if (!isPreviousPickProvider && prevPickIds.contains(element.getId())) {
-							j++;
-							continue;
-						}
-
-						QuickAccessEntry entry = null;
-						if (filter.length() == 0) {
-							if (i == 0 || showAllMatches) {
-								entry = new QuickAccessEntry(element, provider, new int[0][0],
-										new int[0][0], QuickAccessEntry.MATCH_PERFECT);
-							} else {
-								entry = null;
-							}
-						} else {
-							QuickAccessEntry possibleMatch = element.match(filter, provider);
-							if (possibleMatch != null) {
-								entry = possibleMatch;
-							}
-
-						}
-						if (entryEnabled(provider, entry)) {
-							entries[i].add(entry);
-							count++;
-							countTotal++;
-							if (i == 0 && entry.element == perfectMatch) {
-								perfectMatchAdded = true;
-								maxCount = MAX_COUNT_TOTAL;
-							}
+						QuickAccessEntry entry = rankedEntries[i].get(j);
+						entries[i].add(entry);
+						count++;
+						countTotal++;
+						if (i == 0 && entry.element == perfectMatch) {
+							perfectMatchAdded = true;
+							maxCount = MAX_COUNT_TOTAL;
 						}
-
 						j++;
 					}
 
 					indexPerProvider[i] = j;
 
-					if (j < sortedElements.length) {
+					if (j < rankedEntries[i].size()) {
 						done = false;
 					}
 				}
@@ -510,6 +496,52 @@ public abstract class QuickAccessContents {
 		return entries;
 	}
 
+	/**
+	 * Returns the entries of all the elements of the provider that match the
+	 * filter, ordered by their match quality. Entries of the same quality
+	 * keep the order of {@link QuickAccessProvider#getElementsSorted()}. The
+	 * previous picks are kept in the order they were picked.
+	 *
+	 * @param provider
+	 *            the provider
+	 * @param filter
+	 *            the string text filter to apply, possibly empty
+	 * @param prevPickIds
+	 *            the ids of the previous picks, which are skipped
+	 * @param includeAll
+	 *            whether all the elements are returned for an empty filter
+	 * @return the matching entries, best first
+	 */
+	private List<QuickAccessEntry> computeRankedEntries(QuickAccessProvider provider, String filter,
+			Set<String> prevPickIds, boolean includeAll) {
+		List<QuickAccessEntry> result = new ArrayList<>();
+		boolean isPreviousPickProvider = (provider instanceof PreviousPicksProvider);
+		if (filter.length() == 0 && !includeAll) {
+			return result;
+		}
+		for (QuickAccessElement element : provider.getElementsSorted()) {
+			// Skip element if already in contained amid previous picks
+			if (!isPreviousPickProvider && prevPickIds.contains(element.getId())) {
+				continue;
+			}
+			QuickAccessEntry entry;
+			if (filter.length() == 0) {
+				entry = new QuickAccessEntry(element, provider, new int[0][0], new int[0][0],
+						QuickAccessEntry.MATCH_PERFECT);
+			} else {
+				entry = element.match(filter, provider);
+			}
+			if (entryEnabled(provider, entry)) {
+				result.add(entry);
+			}
+		}
+		if (!isPreviousPickProvider) {
+			// the sort is stable, so equal matches stay sorted by label
+			result.sort(Comparator.comparingInt(QuickAccessEntry::getMatchQuality));
+		}
+		return result;
+	}
+
 	Pattern categoryPattern;
 
 	/**
@@ -875,10 +907,34 @@ public abstract class QuickAccessContents {
 		return infoLabel;
 	}
 
+	/**
+	 * Resets the providers whose elements depend on the active window, part or
+	 * handlers. The elements of indexable providers are kept.
+	 *
+	 * @see QuickAccessProvider#isIndexable()
+	 */
 	public void resetProviders() {
 		for (QuickAccessProvider provider : providers) {
-			provider.reset();
+			if (!provider.isIndexable()) {
+				provider.reset();
+			}
 		}
 	}
 
+	/**
+	 * Returns whether the elements of the given provider can be matched
+	 * without waiting. Subclasses that index providers in the background may
+	 * return <code>false</code> while the provider is being indexed, and
+	 * refresh the contents once it is done. The default implementation
+	 * returns <code>true</code>.
+	 *
+	 * @param provider
+	 *            the provider
+	 * @return <code>true</code> if the elements of the provider should be
+	 *         matched now
+	 */
+	protected boolean isProviderReady(QuickAccessProvider provider) {
+		return true;
+	}
+
 }
\ No newline at end of file
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2016 IBM Corporation and others.
+ * Copyright (c) 2006, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -88,59 +88,98 @@ public abstract class QuickAccessElement {
 	private static final String PAR_END = "\\)"; //$NON-NLS-1$
 	private static final String ONE_CHAR = ".?"; //$NON-NLS-1$
 
-	// whitespaces filter and patterns
-	private String wsFilter;
-	private Pattern wsPattern;
+	/**
+	 * The regular expression of the last filter. It is shared by all the
+	 * elements, so that a filter is only compiled once.
+	 */
+	private static volatile FilterPattern filterPattern;
+
+	private static final class FilterPattern {
+		final String filter;
+		final Pattern pattern;
+
+		FilterPattern(String filter, Pattern pattern) {
+			this.filter = filter;
+			this.pattern = pattern;
+		}
+	}
 
 	/**
-	 * Get the existing {@link Pattern} for the given filter, or create a new
-	 * one. The generated pattern will replace whitespaces with * to match all.
+	 * The label in the forms used for matching. Computed once per label.
+	 */
+	private volatile MatchLabel matchLabel;
+
+	private static final class MatchLabel {
+		final String label;
+		final String lowerCase;
+		final String camelCase;
+
+		MatchLabel(String label) {
+			this.label = label;
+			this.lowerCase = label.toLowerCase();
+			this.camelCase = CamelUtil.getCamelCase(label);
+		}
+	}
+
+	/**
+	 * Returns the forms of the label used for matching, computing them only
+	 * if the label has changed.
 	 *
-	 * @param filter
-	 * @return
+	 * @param label
+	 *            the current label
+	 * @return the match label
 	 */
-	private Pattern getWhitespacesPattern(String filter) {
-		if (wsPattern == null || !filter.equals(wsFilter)) {
-			wsFilter = filter;
-			String sFilter = filter.replaceFirst(WS_START, EMPTY_STR).replaceFirst(WS_END, EMPTY_STR)
-					.replaceAll(PAR_START, ONE_CHAR).replaceAll(PAR_END, ONE_CHAR);
-			sFilter = String.format(".*(%s).*", sFilter.replaceAll(ANY_WS, ").*(")); //$NON-NLS-1$//$NON-NLS-2$
-			wsPattern = safeCompile(sFilter);
+	private MatchLabel getMatchLabel(String label) {
+		MatchLabel result = matchLabel;
+		if (result == null || !result.label.equals(label)) {
+			result = new MatchLabel(label);
+			matchLabel = result;
 		}
-		return wsPattern;
+		return result;
 	}
 
-	// wildcard filter and patterns
-	private String wcFilter;
-	private Pattern wcPattern;
+	/**
+	 * Computes the forms of the label used by {@link #match(String, QuickAccessProvider)},
+	 * so that the first match doesn't have to. This method may be called
+	 * outside of the UI thread if the provider is indexable.
+	 */
+	void prepareMatch() {
+		getMatchLabel(getLabel());
+	}
 
 	/**
 	 * Get the existing {@link Pattern} for the given filter, or create a new
-	 * one. The generated pattern will handle '*' and '?' wildcards.
+	 * one. If the filter contains '*' or '?', the generated pattern will
+	 * handle them as wildcards, otherwise the generated pattern will replace
+	 * whitespaces with * to match all.
 	 *
 	 * @param filter
 	 * @return
 	 */
-	private Pattern getWildcardsPattern(String filter) {
-		if (wcPattern == null || !filter.equals(wcFilter)) {
-			wcFilter = filter;
+	private static Pattern getFilterPattern(String filter) {
+		FilterPattern result = filterPattern;
+		if (result == null || !result.filter.equals(filter)) {
 			String sFilter = filter.replaceFirst(WS_START, EMPTY_STR).replaceFirst(WS_END, EMPTY_STR)
 					.replaceAll(PAR_START, ONE_CHAR).replaceAll(PAR_END, ONE_CHAR);
-			// replace '*' and '?' with their matchers ").*(" and ").?("
-			StringBuilder sb = new StringBuilder();
-			for(int i=0; i<sFilter.length(); i++) {
-				char c = sFilter.charAt(i);
-				if(c=='*'||c=='?') {
-					sb.append(").").append(c).append("("); //$NON-NLS-1$ //$NON-NLS-2$
-				} else {
-					sb.append(c);
+			if (filter.contains("*") || filter.contains("?")) { //$NON-NLS-1$ //$NON-NLS-2$
+				// replace '*' and '?' with their matchers ").*(" and ").?("
+				StringBuilder sb = new StringBuilder();
+				for(int i=0; i<sFilter.length(); i++) {
+					char c = sFilter.charAt(i);
+					if(c=='*'||c=='?') {
+						sb.append(").").append(c).append("("); //$NON-NLS-1$ //$NON-NLS-2$
+					} else {
+						sb.append(c);
+					}
 				}
+				sFilter = String.format(".*(%s).*", sb.toString()); //$NON-NLS-1$
+			} else {
+				sFilter = String.format(".*(%s).*", sFilter.replaceAll(ANY_WS, ").*(")); //$NON-NLS-1$//$NON-NLS-2$
 			}
-			sFilter = String.format(".*(%s).*", sb.toString()); //$NON-NLS-1$
-			//
-			wcPattern = safeCompile(sFilter);
+			result = new FilterPattern(filter, safeCompile(sFilter));
+			filterPattern = result;
 		}
-		return wcPattern;
+		return result.pattern;
 	}
 
 	/**
@@ -153,7 +192,7 @@ public abstract class QuickAccessElement {
 	 * @return a {@link Pattern} object compiled from given input or a dummy
 	 *         pattern which do not match anything
 	 */
-	private Pattern safeCompile(String pattern) {
+	private static Pattern safeCompile(String pattern) {
 		try {
 			return Pattern.compile(pattern, Pattern.CASE_INSENSITIVE);
 		} catch (Exception e) {
@@ -177,25 +216,19 @@ public abstract class QuickAccessElement {
 	public QuickAccessEntry match(String filter,
 			QuickAccessProvider providerForMatching) {
 		String sortLabel = getLabel();
+		MatchLabel label = getMatchLabel(sortLabel);
 		// first occurrence of filter
-		int index = sortLabel.toLowerCase().indexOf(filter);
+		int index = label.lowerCase.indexOf(filter);
 		if (index != -1) {
-			int quality = sortLabel.toLowerCase().equals(filter) ? QuickAccessEntry.MATCH_PERFECT
-					: (sortLabel.toLowerCase().startsWith(filter) ? QuickAccessEntry.MATCH_EXCELLENT
+			int quality = label.lowerCase.equals(filter) ? QuickAccessEntry.MATCH_PERFECT
+					: (label.lowerCase.startsWith(filter) ? QuickAccessEntry.MATCH_EXCELLENT
 							: QuickAccessEntry.MATCH_GOOD);
 			return new QuickAccessEntry(this, providerForMatching,
 					new int[][] { { index, index + filter.length() - 1 } },
  EMPTY_INDICES, quality);
 		}
-		Pattern p;
-		if (filter.contains("*") || filter.contains("?")) { //$NON-NLS-1$ //$NON-NLS-2$
-			// check for wildcards
-			p = getWildcardsPattern(filter);
-		} else {
-			// check for whitespaces
-			p = getWhitespacesPattern(filter);
-		}
-		Matcher m = p.matcher(sortLabel);
+		// check for wildcards or whitespaces
+		Matcher m = getFilterPattern(filter).matcher(sortLabel);
 		// if matches, return an entry and highlight the match
 		if (m.matches()) {
 			int groupCount = m.groupCount();
@@ -227,8 +260,7 @@ public abstract class QuickAccessElement {
 					EMPTY_INDICES, new int[][] { { index,
  index + filter.length() - 1 } }, QuickAccessEntry.MATCH_GOOD);
 		}
-		String camelCase = CamelUtil.getCamelCase(sortLabel);
-		index = camelCase.indexOf(filter);
+		index = label.camelCase.indexOf(filter);
 		if (index != -1) {
 			int[][] indices = CamelUtil.getCamelCaseIndices(sortLabel, index, filter
 					.length());
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2015 IBM Corporation and others.
+ * Copyright (c) 2006, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -20,7 +20,7 @@ import org.eclipse.jface.resource.ImageDescriptor;
  */
 public abstract class QuickAccessProvider {
 
-	private QuickAccessElement[] sortedElements;
+	private volatile QuickAccessElement[] sortedElements;
 
 	/**
 	 * Returns the unique ID of this provider.
@@ -50,14 +50,51 @@ public abstract class QuickAccessProvider {
 	 */
 	public abstract QuickAccessElement[] getElements();
 
-	public QuickAccessElement[] getElementsSorted() {
+	public synchronized QuickAccessElement[] getElementsSorted() {
 		if (sortedElements == null) {
-			sortedElements = getElements();
-			Arrays.sort(sortedElements, (e1, e2) -> e1.getSortLabel().compareTo(e2.getSortLabel()));
+			QuickAccessElement[] elements = getElements();
+			Arrays.sort(elements, (e1, e2) -> e1.getSortLabel().compareTo(e2.getSortLabel()));
+			if (isIndexable()) {
+				for (QuickAccessElement element : elements) {
+					element.prepareMatch();
+				}
+			}
+			sortedElements = elements;
 		}
 		return sortedElements;
 	}
 
+	/**
+	 * Returns whether the sorted elements have already been computed, without
+	 * computing them.
+	 *
+	 * @return <code>true</code> if {@link #getElementsSorted()} returns
+	 *         without computing the elements
+	 */
+	public boolean hasElementsSorted() {
+		return sortedElements != null;
+	}
+
+	/**
+	 * Returns whether the elements of this provider only depend on the
+	 * registries of the workbench, and not on the active window, part or
+	 * handlers. The elements of such a provider are computed and prepared for
+	 * matching outside of the UI thread, and they are kept when quick access
+	 * is closed. They are reset when the registries or the enabled activities
+	 * change.
+	 * <p>
+	 * Indexable providers must implement {@link #getElements()},
+	 * {@link #getElementForId(String)} and {@link #doReset()} in a thread safe
+	 * way.
+	 * </p>
+	 *
+	 * @return <code>true</code> if the elements can be indexed in the
+	 *         background, <code>false</code> otherwise
+	 */
+	public boolean isIndexable() {
+		return false;
+	}
+
 	/**
 	 * Returns the element for the given ID if available, or null if no matching
 	 * element is available.
@@ -72,7 +109,7 @@ public abstract class QuickAccessProvider {
 		return false;
 	}
 
-	public void reset() {
+	public synchronized void reset() {
 		sortedElements = null;
 		doReset();
 	}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2016 IBM Corporation and others.
+ * Copyright (c) 2010, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -19,6 +19,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
@@ -31,6 +32,12 @@ import org.eclipse.core.expressions.Expression;
 import org.eclipse.core.expressions.ExpressionInfo;
 import org.eclipse.core.expressions.IEvaluationContext;
 import org.eclipse.core.runtime.Assert;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IRegistryChangeListener;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.e4.core.commands.ECommandService;
 import org.eclipse.e4.core.contexts.IEclipseContext;
 import org.eclipse.e4.core.di.annotations.Optional;
@@ -79,6 +86,9 @@ import org.eclipse.swt.widgets.TableItem;
 import org.eclipse.swt.widgets.Text;
 import org.eclipse.ui.ISources;
 import org.eclipse.ui.IWorkbenchCommandConstants;
+import org.eclipse.ui.PlatformUI;
+import org.eclipse.ui.activities.IActivityManager;
+import org.eclipse.ui.activities.IActivityManagerListener;
 import org.eclipse.ui.contexts.IContextService;
 import org.eclipse.ui.handlers.IHandlerService;
 import org.eclipse.ui.internal.WorkbenchPlugin;
@@ -130,6 +140,16 @@ public class SearchField {
 
 	private TriggerSequence triggerSequence = null;
 
+	/**
+	 * The job computing the elements of the indexable providers in the
+	 * background.
+	 */
+	private Job indexJob;
+
+	private IRegistryChangeListener registryChangeListener;
+
+	private IActivityManagerListener activityManagerListener;
+
 	@PostConstruct
 	void createControls(final Composite parent, MApplication application, MWindow window) {
 		this.window = window;
@@ -168,12 +188,21 @@ public class SearchField {
 			providerMap.put(provider.getId(), provider);
 		}
 		restoreDialog();
+		createIndexJob(parent.getDisplay(), providers);
 
 		quickAccessContents = new QuickAccessContents(providers) {
 			@Override
 			protected void updateFeedback(boolean filterTextEmpty, boolean showAllMatches) {
 			}
 
+			@Override
+			protected boolean isProviderReady(QuickAccessProvider provider) {
+				// don't wait for a provider that is being indexed, the contents
+				// are refreshed once it is done
+				return !provider.isIndexable() || provider.hasElementsSorted()
+						|| indexJob.getState() == Job.NONE;
+			}
+
 			@Override
 			protected void doClose() {
 				txtQuickAccess.setText(""); //$NON-NLS-1$
@@ -631,8 +660,83 @@ public class SearchField {
 		}
 	}
 
+	/**
+	 * Creates and schedules the job that computes the elements of the
+	 * indexable providers, so that the first use of quick access doesn't have
+	 * to. The elements are computed again when the registries or the enabled
+	 * activities change. While quick access is open, its contents are
+	 * refreshed as the providers are done.
+	 *
+	 * @param display
+	 *            the display
+	 * @param providers
+	 *            all the providers
+	 */
+	private void createIndexJob(final Display display, QuickAccessProvider[] providers) {
+		final List<QuickAccessProvider> indexableProviders = new ArrayList<>();
+		for (QuickAccessProvider provider : providers) {
+			if (provider.isIndexable()) {
+				indexableProviders.add(provider);
+			}
+		}
+		indexJob = new Job("Quick Access Indexing") { //$NON-NLS-1$
+			@Override
+			protected IStatus run(IProgressMonitor monitor) {
+				for (QuickAccessProvider provider : indexableProviders) {
+					if (monitor.isCanceled()) {
+						return Status.CANCEL_STATUS;
+					}
+					if (!provider.hasElementsSorted()) {
+						provider.getElementsSorted();
+						refreshContents(display);
+					}
+				}
+				return Status.OK_STATUS;
+			}
+		};
+		indexJob.setSystem(true);
+		indexJob.setPriority(Job.DECORATE);
+		indexJob.schedule();
+
+		registryChangeListener = event -> resetIndex(indexableProviders);
+		Platform.getExtensionRegistry().addRegistryChangeListener(registryChangeListener);
+		activityManagerListener = event -> {
+			if (event.haveEnabledActivityIdsChanged()) {
+				resetIndex(indexableProviders);
+			}
+		};
+		getActivityManager().addActivityManagerListener(activityManagerListener);
+	}
+
+	private void resetIndex(List<QuickAccessProvider> indexableProviders) {
+		for (QuickAccessProvider provider : indexableProviders) {
+			provider.reset();
+		}
+		indexJob.schedule();
+	}
+
+	private void refreshContents(Display display) {
+		if (display.isDisposed()) {
+			return;
+		}
+		display.asyncExec(() -> {
+			if (shell != null && !shell.isDisposed() && shell.isVisible() && !txtQuickAccess.isDisposed()) {
+				quickAccessContents.refresh(txtQuickAccess.getText().toLowerCase());
+			}
+		});
+	}
+
+	private static IActivityManager getActivityManager() {
+		return PlatformUI.getWorkbench().getActivitySupport().getActivityManager();
+	}
+
 	@PreDestroy
 	void dispose() {
+		if (indexJob != null) {
+			indexJob.cancel();
+			Platform.getExtensionRegistry().removeRegistryChangeListener(registryChangeListener);
+			getActivityManager().removeActivityManagerListener(activityManagerListener);
+		}
 		storeDialog();
 	}
 
@@ -763,4 +867,14 @@ public class SearchField {
 	public Table getQuickAccessTable(){
 		return table;
 	}
+
+	/**
+	 * Returns the job indexing the providers in the background for testing.
+	 * Should not be referenced outside of the tests.
+	 *
+	 * @return the index job or <code>null</code>
+	 */
+	public Job getQuickAccessIndexJob() {
+		return indexJob;
+	}
 }
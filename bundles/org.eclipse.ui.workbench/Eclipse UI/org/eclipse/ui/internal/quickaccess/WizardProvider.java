@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2015 IBM Corporation and others.
+ * Copyright (c) 2006, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -35,13 +35,13 @@ public class WizardProvider extends QuickAccessProvider {
 	private Map<String, WizardElement> idToElement = new HashMap<>();
 
 	@Override
-	public QuickAccessElement getElementForId(String id) {
+	public synchronized QuickAccessElement getElementForId(String id) {
 		getElements();
 		return idToElement.get(id);
 	}
 
 	@Override
-	public QuickAccessElement[] getElements() {
+	public synchronized QuickAccessElement[] getElements() {
 		if (cachedElements == null) {
 			IWizardCategory rootCategory = WorkbenchPlugin.getDefault()
 					.getNewWizardRegistry().getRootCategory();
@@ -79,13 +79,18 @@ public class WizardProvider extends QuickAccessProvider {
 				.getImageDescriptor(IWorkbenchGraphicConstants.IMG_OBJ_NODE);
 	}
 
+	@Override
+	public boolean isIndexable() {
+		return true;
+	}
+
 	@Override
 	public String getName() {
 		return QuickAccessMessages.QuickAccess_New;
 	}
 
 	@Override
-	protected void doReset() {
+	protected synchronized void doReset() {
 		cachedElements = null;
 		idToElement.clear();
 	}
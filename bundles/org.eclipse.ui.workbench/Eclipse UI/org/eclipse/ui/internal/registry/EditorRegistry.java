@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2017 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -36,6 +36,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.StringTokenizer;
+import java.util.concurrent.ConcurrentHashMap;
 import org.eclipse.core.commands.common.EventManager;
 import org.eclipse.core.runtime.IConfigurationElement;
 import org.eclipse.core.runtime.IExtension;
@@ -64,6 +65,7 @@ import org.eclipse.ui.ISharedImages;
 import org.eclipse.ui.PlatformUI;
 import org.eclipse.ui.WorkbenchException;
 import org.eclipse.ui.XMLMemento;
+import org.eclipse.ui.activities.IActivityManager;
 import org.eclipse.ui.activities.WorkbenchActivityHelper;
 import org.eclipse.ui.internal.IPreferenceConstants;
 import org.eclipse.ui.internal.IWorkbenchConstants;
@@ -84,6 +86,41 @@ public class EditorRegistry extends EventManager implements IEditorRegistry, IEx
 
 	private final static IEditorDescriptor [] EMPTY = new IEditorDescriptor[0];
 
+	/**
+	 * The maximum number of cached editor lookups.
+	 */
+	private static final int MAX_CACHED_LOOKUPS = 10000;
+
+	/**
+	 * The key of the editors found for a file whose whole name has no mapping.
+	 * These editors only depend on the extension and on the content type of
+	 * the file.
+	 */
+	private static final class LookupKey {
+		private final String extension;
+
+		private final String contentTypeId;
+
+		LookupKey(String extension, String contentTypeId) {
+			this.extension = extension;
+			this.contentTypeId = contentTypeId;
+		}
+
+		@Override
+		public int hashCode() {
+			return Util.hashCode(extension) * 31 + Util.hashCode(contentTypeId);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof LookupKey)) {
+				return false;
+			}
+			LookupKey other = (LookupKey) obj;
+			return Util.equals(extension, other.extension) && Util.equals(contentTypeId, other.contentTypeId);
+		}
+	}
+
 	class RelatedRegistry {
 
 		/**
@@ -165,6 +202,15 @@ public class EditorRegistry extends EventManager implements IEditorRegistry, IEx
 
 	private RelatedRegistry relatedRegistry;
 
+	/**
+	 * The editors found by
+	 * {@link #findRelatedObjects(IContentType, String, RelatedRegistry)} for
+	 * an extension and a content type. The map is replaced when the mappings,
+	 * the content types or the enabled activities change, so that lookups
+	 * running at the same time do not fill the new map with stale results.
+	 */
+	private volatile Map<LookupKey, IEditorDescriptor[]> lookupCache = new ConcurrentHashMap<>();
+
 	private final IContentTypeManager contentTypeManager;
 
 	public static final String EMPTY_EDITOR_ID = "org.eclipse.ui.internal.emptyEditorTab"; //$NON-NLS-1$
@@ -182,13 +228,30 @@ public class EditorRegistry extends EventManager implements IEditorRegistry, IEx
         tracker.registerHandler(this, ExtensionTracker.createExtensionPointFilter(getExtensionPointFilter()));
 		relatedRegistry = new RelatedRegistry();
 		contentTypeManager.addContentTypeChangeListener(event -> {
+			// the file specifications or the hierarchy may have changed
+			clearLookupCache();
 			if (contentTypeManager.getContentType(event.getContentType().getId()) == null) {
 				contentTypeToEditorMappingsFromUser.remove(event.getContentType());
 				saveAssociations();
 			}
 		});
+		IActivityManager activityManager = PlatformUI.getWorkbench().getActivitySupport().getActivityManager();
+		activityManager.addActivityManagerListener(event -> {
+			// the filtered editors depend on the enabled activities
+			if (event.haveEnabledActivityIdsChanged()) {
+				clearLookupCache();
+			}
+		});
     }
 
+	/**
+	 * Forgets the editors found for extensions and content types, when the
+	 * mappings they were computed from change.
+	 */
+	private void clearLookupCache() {
+		lookupCache = new ConcurrentHashMap<>();
+	}
+
     /**
      * Add an editor for the given extensions with the specified (possibly null)
      * extended type. The editor is being registered from a plugin
@@ -270,6 +333,7 @@ public class EditorRegistry extends EventManager implements IEditorRegistry, IEx
 
         // Update editor map.
         mapIDtoEditor.put(editor.getId(), editor);
+        clearLookupCache();
     }
 
 	public void addContentTypeBindingFromPlugin(IContentType contentType, IEditorDescriptor editor, boolean bDefault) {
@@ -290,6 +354,7 @@ public class EditorRegistry extends EventManager implements IEditorRegistry, IEx
 			}
 			contentTypeToEditorMappingsFromPlugins.put(contentType, newArray);
 		}
+		clearLookupCache();
 	}
 
     /**
@@ -1074,6 +1139,7 @@ public class EditorRegistry extends EventManager implements IEditorRegistry, IEx
             typeEditorMappings.put(mappingKeyFor(mapping), mapping);
         }
         extensionImages = new HashMap<>();
+        clearLookupCache();
         rebuildEditorMap();
         firePropertyChange(PROP_CONTENTS);
     }
@@ -1092,6 +1158,7 @@ public class EditorRegistry extends EventManager implements IEditorRegistry, IEx
 		if (mapping[1] != null) {
 			mapping[1].setDefaultEditor(desc);
 		}
+		clearLookupCache();
     }
 
     /**
@@ -1271,6 +1338,7 @@ public class EditorRegistry extends EventManager implements IEditorRegistry, IEx
             }
 
         }
+        clearLookupCache();
     }
 
     /**
@@ -1436,6 +1504,42 @@ public class EditorRegistry extends EventManager implements IEditorRegistry, IEx
 	 */
 	private IEditorDescriptor [] findRelatedObjects(IContentType type, String fileName,
 			RelatedRegistry registry) {
+		String extension = null;
+		if (fileName != null) {
+			if (getMappingFor(fileName) != null) {
+				// mappings for whole file names are rare and not cached
+				return computeRelatedObjects(type, fileName, registry);
+			}
+			int index = fileName.lastIndexOf('.');
+			if (index > -1) {
+				extension = mappingKeyFor(fileName.substring(index));
+			}
+		}
+
+		Map<LookupKey, IEditorDescriptor[]> cache = lookupCache;
+		LookupKey key = new LookupKey(extension, type == null ? null : type.getId());
+		IEditorDescriptor[] related = cache.get(key);
+		if (related == null) {
+			related = computeRelatedObjects(type, fileName, registry);
+			if (cache.size() < MAX_CACHED_LOOKUPS) {
+				cache.put(key, related);
+			}
+		}
+		// callers may modify the returned array
+		return related.length == 0 ? related : related.clone();
+	}
+
+	/**
+	 * Computes the objects related to the content type and the file name, see
+	 * {@link #findRelatedObjects(IContentType, String, RelatedRegistry)}.
+	 *
+	 * @param type
+	 * @param fileName
+	 * @param registry
+	 * @return the related objects
+	 */
+	private IEditorDescriptor[] computeRelatedObjects(IContentType type, String fileName,
+			RelatedRegistry registry) {
 		List<IEditorDescriptor> allRelated = new ArrayList<>();
 		List<IEditorDescriptor> nonDefaultFileEditors = new ArrayList<>();
 
@@ -1634,6 +1738,7 @@ public class EditorRegistry extends EventManager implements IEditorRegistry, IEx
 		if (this.contentTypeToEditorMappingsFromUser.containsKey(contentType)) {
 			this.contentTypeToEditorMappingsFromUser.get(contentType).remove(editor);
 		}
+		clearLookupCache();
 		saveAssociations();
 	}
 
@@ -1649,6 +1754,7 @@ public class EditorRegistry extends EventManager implements IEditorRegistry, IEx
 			mapIDtoEditor.put(selectedEditor.getId(), selectedEditor);
 		}
 		this.contentTypeToEditorMappingsFromUser.get(contentType).add(selectedEditor);
+		clearLookupCache();
 		saveAssociations();
 	}
 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -110,33 +110,40 @@ public class ViewRegistry implements IViewRegistry {
 					miscCategory.getLabel()));
 		}
 
+		// index the descriptors of the model once instead of searching them
+		// for every view
+		Map<String, MPartDescriptor> currentDescriptors = new HashMap<>();
+		for (MPartDescriptor desc : application.getDescriptors()) {
+			currentDescriptors.putIfAbsent(desc.getElementId(), desc);
+		}
+		String defaultIconURI = null;
 		for (IExtension extension : point.getExtensions()) {
 			for (IConfigurationElement element : extension.getConfigurationElements()) {
-				if (element.getName().equals(IWorkbenchRegistryConstants.TAG_VIEW)) {
-					createDescriptor(element, false);
-				}
-				if (element.getName().equals(IWorkbenchRegistryConstants.TAG_E4VIEW)) {
-					createDescriptor(element, true);
+				boolean e4View = element.getName().equals(IWorkbenchRegistryConstants.TAG_E4VIEW);
+				if (e4View || element.getName().equals(IWorkbenchRegistryConstants.TAG_VIEW)) {
+					String iconURI = MenuHelper.getIconURI(element, IWorkbenchRegistryConstants.ATT_ICON);
+					if (iconURI == null) {
+						if (defaultIconURI == null) {
+							defaultIconURI = MenuHelper.getImageUrl(
+									workbench.getSharedImages().getImageDescriptor(ISharedImages.IMG_DEF_VIEW));
+						}
+						iconURI = defaultIconURI;
+					}
+					createDescriptor(element, e4View, iconURI, currentDescriptors);
 				}
 			}
 		}
 	}
 
-	private void createDescriptor(IConfigurationElement element, boolean e4View) {
+	private void createDescriptor(IConfigurationElement element, boolean e4View, String iconURI,
+			Map<String, MPartDescriptor> currentDescriptors) {
 		String id = element.getAttribute(IWorkbenchRegistryConstants.ATT_ID);
-		MPartDescriptor descriptor = null;
-		List<MPartDescriptor> currentDescriptors = application.getDescriptors();
-		for (MPartDescriptor desc : currentDescriptors) {
-			// do we have a matching descriptor?
-			if (desc.getElementId().equals(id)) {
-				descriptor = desc;
-				break;
-			}
-		}
+		MPartDescriptor descriptor = currentDescriptors.get(id);
 		if (descriptor == null) { // create a new descriptor
 			descriptor = modelService.createModelElement(MPartDescriptor.class);
 			descriptor.setElementId(id);
 			application.getDescriptors().add(descriptor);
+			currentDescriptors.put(id, descriptor);
 		}
 		// ==> Update descriptor
 		descriptor.setLabel(element.getAttribute(IWorkbenchRegistryConstants.ATT_NAME));
@@ -177,13 +184,7 @@ public class ViewRegistry implements IViewRegistry {
 		}
 		descriptor.setContributionURI(implementationURI);
 
-		String iconURI = MenuHelper.getIconURI(element, IWorkbenchRegistryConstants.ATT_ICON);
-		if (iconURI == null) {
-			descriptor.setIconURI(MenuHelper.getImageUrl(workbench.getSharedImages()
-					.getImageDescriptor(ISharedImages.IMG_DEF_VIEW)));
-		} else {
-			descriptor.setIconURI(iconURI);
-		}
+		descriptor.setIconURI(iconURI);
 
 		String categoryId = element.getAttribute(IWorkbenchRegistryConstants.ATT_CATEGORY);
 		ViewCategory category = findCategory(categoryId);
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2009 IBM Corporation and others.
+ * Copyright (c) 2007, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -15,9 +15,11 @@ package org.eclipse.core.tests.databinding;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.Date;
+import java.util.Locale;
 
 import org.eclipse.core.databinding.BindingException;
 import org.eclipse.core.databinding.UpdateValueStrategy;
+import org.eclipse.core.databinding.conversion.IConverter;
 import org.eclipse.core.databinding.observable.value.IObservableValue;
 import org.eclipse.core.databinding.observable.value.WritableValue;
 import org.eclipse.core.databinding.validation.IValidator;
@@ -167,6 +169,43 @@ public class UpdateValueStrategyTest extends AbstractDefaultRealmTestCase {
 		assertSame(validator, strategy.validator);
 	}
 
+	public void testCachesDefaultedConverters() throws Exception {
+		WritableValue source = WritableValue.withValueType(String.class);
+		WritableValue destination = WritableValue.withValueType(Integer.TYPE);
+
+		UpdateValueStrategyStub strategy = new UpdateValueStrategyStub();
+		strategy.fillDefaults(source, destination);
+		IConverter converter = strategy.getConverter();
+		assertNotNull(converter);
+
+		strategy = new UpdateValueStrategyStub();
+		strategy.fillDefaults(source, destination);
+		assertSame(converter, strategy.getConverter());
+	}
+
+	public void testDefaultedConvertersArePerLocale() throws Exception {
+		WritableValue source = WritableValue.withValueType(Double.class);
+		WritableValue destination = WritableValue.withValueType(String.class);
+
+		Locale defaultLocale = Locale.getDefault(Locale.Category.FORMAT);
+		try {
+			Locale.setDefault(Locale.Category.FORMAT, Locale.US);
+			UpdateValueStrategyStub strategy = new UpdateValueStrategyStub();
+			strategy.fillDefaults(source, destination);
+			IConverter usConverter = strategy.getConverter();
+			assertEquals("1.5", usConverter.convert(Double.valueOf(1.5)));
+
+			Locale.setDefault(Locale.Category.FORMAT, Locale.GERMANY);
+			strategy = new UpdateValueStrategyStub();
+			strategy.fillDefaults(source, destination);
+			IConverter germanConverter = strategy.getConverter();
+			assertNotSame(usConverter, germanConverter);
+			assertEquals("1,5", germanConverter.convert(Double.valueOf(1.5)));
+		} finally {
+			Locale.setDefault(Locale.Category.FORMAT, defaultLocale);
+		}
+	}
+
 	public void testFillDefaults_AssertSourceTypeExtendsConverterFromType() {
 		// Valid use: source type String extends converter from-type Object
 		UpdateValueStrategyStub strategy = new UpdateValueStrategyStub();
@@ -237,5 +276,9 @@ public class UpdateValueStrategyTest extends AbstractDefaultRealmTestCase {
 			validator = super.createValidator(fromType, toType);
 			return validator;
 		}
+
+		IConverter getConverter() {
+			return converter;
+		}
 	}
 }
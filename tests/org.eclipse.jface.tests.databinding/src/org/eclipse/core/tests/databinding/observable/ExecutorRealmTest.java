@@ -0,0 +1,165 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.core.tests.databinding.observable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.databinding.Binding;
+import org.eclipse.core.databinding.DataBindingContext;
+import org.eclipse.core.databinding.UpdateValueStrategy;
+import org.eclipse.core.databinding.observable.ExecutorRealm;
+import org.eclipse.core.databinding.observable.value.IObservableValue;
+import org.eclipse.core.databinding.observable.value.WritableValue;
+import org.eclipse.core.databinding.validation.IValidator;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+
+/**
+ * Tests for {@link ExecutorRealm}.
+ */
+public class ExecutorRealmTest extends TestCase {
+	private ExecutorRealm realm;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		realm = new ExecutorRealm("ExecutorRealmTest");
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		realm.dispose();
+		super.tearDown();
+	}
+
+	public void testIsCurrent() throws Exception {
+		assertFalse(realm.isCurrent());
+
+		final boolean[] current = new boolean[1];
+		realm.syncExec(() -> current[0] = realm.isCurrent());
+		assertTrue("runnable should execute within the realm", current[0]);
+	}
+
+	public void testAsyncExecPreservesOrder() throws Exception {
+		final List<Integer> executed = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			final int index = i;
+			realm.asyncExec(() -> executed.add(Integer.valueOf(index)));
+		}
+		assertTrue(realm.awaitIdle(5, TimeUnit.SECONDS));
+
+		assertEquals(100, executed.size());
+		for (int i = 0; i < 100; i++) {
+			assertEquals(i, executed.get(i).intValue());
+		}
+	}
+
+	public void testTimerExec() throws Exception {
+		final CountDownLatch latch = new CountDownLatch(1);
+		final boolean[] current = new boolean[1];
+		realm.timerExec(10, () -> {
+			current[0] = realm.isCurrent();
+			latch.countDown();
+		});
+
+		assertTrue("timer runnable was not executed", latch.await(5, TimeUnit.SECONDS));
+		assertTrue(current[0]);
+	}
+
+	public void testTimerExecNegativeDelayIsIgnored() throws Exception {
+		final boolean[] run = new boolean[1];
+		realm.timerExec(-1, () -> run[0] = true);
+		assertTrue(realm.awaitIdle(5, TimeUnit.SECONDS));
+		assertFalse(run[0]);
+	}
+
+	public void testSyncExecWithinRealmDoesNotDeadlock() throws Exception {
+		final boolean[] run = new boolean[1];
+		realm.syncExec(() -> realm.syncExec(() -> run[0] = true));
+		assertTrue(run[0]);
+	}
+
+	public void testExceptionDoesNotStopRealm() throws Exception {
+		realm.asyncExec(() -> {
+			throw new RuntimeException("expected");
+		});
+		final boolean[] run = new boolean[1];
+		realm.syncExec(() -> run[0] = true);
+		assertTrue(run[0]);
+	}
+
+	public void testDisposeDiscardsRunnables() throws Exception {
+		realm.dispose();
+		assertTrue(realm.isDisposed());
+
+		final boolean[] run = new boolean[1];
+		realm.asyncExec(() -> run[0] = true);
+		realm.syncExec(() -> run[0] = true);
+		assertFalse(run[0]);
+	}
+
+	public void testValidateInValidationRealm() throws Exception {
+		ExecutorRealm validationRealm = new ExecutorRealm("ExecutorRealmTest validation");
+		try {
+			final DataBindingContext[] dbc = new DataBindingContext[1];
+			final IObservableValue[] observables = new IObservableValue[2];
+			final Thread[] validationThread = new Thread[1];
+			final Thread[] modelThread = new Thread[1];
+
+			realm.syncExec(() -> {
+				observables[0] = new WritableValue(realm, null, String.class);
+				observables[1] = new WritableValue(realm, null, String.class) {
+					@Override
+					public void doSetValue(Object value) {
+						modelThread[0] = Thread.currentThread();
+						super.doSetValue(value);
+					}
+				};
+			});
+			validationRealm.syncExec(() -> {
+				dbc[0] = new DataBindingContext(validationRealm);
+				dbc[0].setValidateInValidationRealm(true);
+				IValidator validator = value -> {
+					validationThread[0] = Thread.currentThread();
+					return Status.OK_STATUS;
+				};
+				dbc[0].bindValue(observables[0], observables[1],
+						new UpdateValueStrategy().setAfterGetValidator(validator), null);
+			});
+			assertTrue(realm.awaitIdle(5, TimeUnit.SECONDS));
+			realm.syncExec(() -> observables[0].setValue("value"));
+			assertTrue(validationRealm.awaitIdle(5, TimeUnit.SECONDS));
+			assertTrue(realm.awaitIdle(5, TimeUnit.SECONDS));
+
+			final Object[] modelValue = new Object[1];
+			realm.syncExec(() -> modelValue[0] = observables[1].getValue());
+			assertEquals("value", modelValue[0]);
+			assertNotNull(validationThread[0]);
+			assertEquals("ExecutorRealmTest validation", validationThread[0].getName());
+			assertEquals("ExecutorRealmTest", modelThread[0].getName());
+
+			final IStatus[] status = new IStatus[1];
+			validationRealm.syncExec(() -> {
+				Binding binding = (Binding) dbc[0].getBindings().get(0);
+				status[0] = (IStatus) binding.getValidationStatus().getValue();
+			});
+			assertTrue(status[0].isOK());
+		} finally {
+			validationRealm.dispose();
+		}
+	}
+}
@@ -0,0 +1,137 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.core.tests.databinding.observable.list;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.core.databinding.observable.list.DoubleListDiff;
+import org.eclipse.core.databinding.observable.list.ListChangeEvent;
+import org.eclipse.core.databinding.observable.list.ListDiff;
+import org.eclipse.core.databinding.observable.list.WritableDoubleList;
+import org.eclipse.jface.databinding.conformance.util.CurrentRealm;
+import org.eclipse.jface.databinding.conformance.util.RealmTester;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests for {@link WritableDoubleList}.
+ */
+public class WritableDoubleListTest extends TestCase {
+
+	private static final double DELTA = 0.0;
+
+	private WritableDoubleList list;
+
+	private List<DoubleListDiff> diffs;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		RealmTester.setDefault(new CurrentRealm(true));
+		list = new WritableDoubleList();
+		diffs = new ArrayList<>();
+		list.addDoubleListChangeListener(event -> diffs.add(event.diff));
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		RealmTester.setDefault(null);
+		super.tearDown();
+	}
+
+	public void testAddAndGet() throws Exception {
+		for (int i = 0; i < 100; i++) {
+			list.addDouble(i / 2.0);
+		}
+		assertEquals(100, list.size());
+		assertEquals(21.0, list.getDouble(42), DELTA);
+		assertEquals(Double.valueOf(21.0), list.get(42));
+		assertEquals(100, diffs.size());
+		assertTrue(diffs.get(99).isAddition(0));
+		assertEquals(99, diffs.get(99).getPosition(0));
+	}
+
+	public void testAddAllDoublesFiresSingleEvent() throws Exception {
+		list.addAllDoubles(new double[] { 0.5, 1.5, 2.5 });
+		assertEquals(1, diffs.size());
+		DoubleListDiff diff = diffs.get(0);
+		assertEquals(3, diff.getDifferenceCount());
+		for (int i = 0; i < 3; i++) {
+			assertTrue(diff.isAddition(i));
+			assertEquals(i, diff.getPosition(i));
+			assertEquals(0.5 + i, diff.getElement(i), DELTA);
+		}
+	}
+
+	public void testSetDouble() throws Exception {
+		list.addAllDoubles(new double[] { 1.0, 2.0 });
+		diffs.clear();
+		assertEquals(2.0, list.setDouble(1, 7.5), DELTA);
+		assertEquals(7.5, list.getDouble(1), DELTA);
+		assertEquals(1, diffs.size());
+		DoubleListDiff diff = diffs.get(0);
+		assertFalse(diff.isAddition(0));
+		assertEquals(2.0, diff.getElement(0), DELTA);
+		assertTrue(diff.isAddition(1));
+		assertEquals(7.5, diff.getElement(1), DELTA);
+	}
+
+	public void testRemoveAllDiffAppliesToOldList() throws Exception {
+		list.addAllDoubles(new double[] { 1.0, 2.0, 3.0, 2.0, 5.0 });
+		List<Double> copy = new ArrayList<>(list);
+		diffs.clear();
+		assertTrue(list.removeAll(Arrays.asList(Double.valueOf(2.0), Double.valueOf(5.0))));
+		assertTrue(Arrays.equals(new double[] { 1.0, 3.0 }, list.toDoubleArray()));
+
+		diffs.get(0).toListDiff().applyTo(copy);
+		assertEquals(list, copy);
+	}
+
+	public void testMove() throws Exception {
+		list.addAllDoubles(new double[] { 1.0, 2.0, 3.0, 4.0 });
+		List<Double> copy = new ArrayList<>(list);
+		diffs.clear();
+		assertEquals(Double.valueOf(1.0), list.move(0, 3));
+		assertTrue(Arrays.equals(new double[] { 2.0, 3.0, 4.0, 1.0 }, list.toDoubleArray()));
+
+		diffs.get(0).toListDiff().applyTo(copy);
+		assertEquals(list, copy);
+	}
+
+	public void testIndexOfComparesLikeDoubleEquals() throws Exception {
+		list.addAllDoubles(new double[] { Double.NaN, 0.0 });
+		assertEquals(0, list.indexOfDouble(Double.NaN));
+		assertTrue(list.contains(Double.valueOf(Double.NaN)));
+		assertEquals(-1, list.indexOfDouble(-0.0));
+		assertEquals(1, list.indexOf(Double.valueOf(0.0)));
+		assertEquals(-1, list.indexOf(Integer.valueOf(0)));
+	}
+
+	public void testBoxedListChangeEvent() throws Exception {
+		final List<ListDiff<? extends Double>> boxed = new ArrayList<>();
+		list.addListChangeListener((ListChangeEvent<? extends Double> event) -> boxed.add(event.diff));
+		list.add(Double.valueOf(9.5));
+		assertEquals(1, boxed.size());
+		assertEquals(Double.valueOf(9.5), boxed.get(0).getDifferences()[0].getElement());
+	}
+
+	public void testNullElementIsRejected() throws Exception {
+		try {
+			list.add(null);
+			fail("null must not be accepted");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+}
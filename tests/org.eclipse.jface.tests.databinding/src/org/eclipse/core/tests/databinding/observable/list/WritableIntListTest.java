@@ -0,0 +1,168 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.core.tests.databinding.observable.list;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.core.databinding.observable.list.IntListDiff;
+import org.eclipse.core.databinding.observable.list.ListChangeEvent;
+import org.eclipse.core.databinding.observable.list.ListDiff;
+import org.eclipse.core.databinding.observable.list.WritableIntList;
+import org.eclipse.jface.databinding.conformance.util.CurrentRealm;
+import org.eclipse.jface.databinding.conformance.util.RealmTester;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests for {@link WritableIntList}.
+ */
+public class WritableIntListTest extends TestCase {
+
+	private WritableIntList list;
+
+	private List<IntListDiff> diffs;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		RealmTester.setDefault(new CurrentRealm(true));
+		list = new WritableIntList();
+		diffs = new ArrayList<>();
+		list.addIntListChangeListener(event -> diffs.add(event.diff));
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		RealmTester.setDefault(null);
+		super.tearDown();
+	}
+
+	public void testAddAndGet() throws Exception {
+		for (int i = 0; i < 100; i++) {
+			list.addInt(i);
+		}
+		assertEquals(100, list.size());
+		assertEquals(42, list.getInt(42));
+		assertEquals(Integer.valueOf(42), list.get(42));
+		assertEquals(100, diffs.size());
+		assertTrue(diffs.get(99).isAddition(0));
+		assertEquals(99, diffs.get(99).getPosition(0));
+	}
+
+	public void testInsertShiftsElements() throws Exception {
+		list.addAllInts(new int[] { 1, 3 });
+		list.addInt(1, 2);
+		assertTrue(Arrays.equals(new int[] { 1, 2, 3 }, list.toIntArray()));
+	}
+
+	public void testAddAllIntsFiresSingleEvent() throws Exception {
+		list.addAllInts(new int[] { 4, 5, 6 });
+		assertEquals(1, diffs.size());
+		IntListDiff diff = diffs.get(0);
+		assertEquals(3, diff.getDifferenceCount());
+		for (int i = 0; i < 3; i++) {
+			assertTrue(diff.isAddition(i));
+			assertEquals(i, diff.getPosition(i));
+			assertEquals(4 + i, diff.getElement(i));
+		}
+	}
+
+	public void testSetInt() throws Exception {
+		list.addAllInts(new int[] { 1, 2 });
+		diffs.clear();
+		assertEquals(2, list.setInt(1, 7));
+		assertEquals(7, list.getInt(1));
+		assertEquals(1, diffs.size());
+		IntListDiff diff = diffs.get(0);
+		assertFalse(diff.isAddition(0));
+		assertEquals(2, diff.getElement(0));
+		assertTrue(diff.isAddition(1));
+		assertEquals(7, diff.getElement(1));
+	}
+
+	public void testRemoveIntAt() throws Exception {
+		list.addAllInts(new int[] { 1, 2, 3 });
+		diffs.clear();
+		assertEquals(2, list.removeIntAt(1));
+		assertTrue(Arrays.equals(new int[] { 1, 3 }, list.toIntArray()));
+		assertEquals(1, diffs.get(0).getPosition(0));
+		assertFalse(diffs.get(0).isAddition(0));
+	}
+
+	public void testRemoveAllDiffAppliesToOldList() throws Exception {
+		list.addAllInts(new int[] { 1, 2, 3, 2, 5 });
+		List<Integer> copy = new ArrayList<>(list);
+		diffs.clear();
+		assertTrue(list.removeAll(Arrays.asList(Integer.valueOf(2), Integer.valueOf(5))));
+		assertTrue(Arrays.equals(new int[] { 1, 3 }, list.toIntArray()));
+
+		diffs.get(0).toListDiff().applyTo(copy);
+		assertEquals(list, copy);
+	}
+
+	public void testMove() throws Exception {
+		list.addAllInts(new int[] { 1, 2, 3, 4 });
+		List<Integer> copy = new ArrayList<>(list);
+		diffs.clear();
+		assertEquals(Integer.valueOf(1), list.move(0, 3));
+		assertTrue(Arrays.equals(new int[] { 2, 3, 4, 1 }, list.toIntArray()));
+
+		diffs.get(0).toListDiff().applyTo(copy);
+		assertEquals(list, copy);
+	}
+
+	public void testClear() throws Exception {
+		list.addAllInts(new int[] { 1, 2, 3 });
+		List<Integer> copy = new ArrayList<>(list);
+		diffs.clear();
+		list.clear();
+		assertTrue(list.isEmpty());
+		assertEquals(3, diffs.get(0).getDifferenceCount());
+
+		diffs.get(0).toListDiff().applyTo(copy);
+		assertTrue(copy.isEmpty());
+	}
+
+	public void testBoxedListChangeEvent() throws Exception {
+		final List<ListDiff<? extends Integer>> boxed = new ArrayList<>();
+		list.addListChangeListener((ListChangeEvent<? extends Integer> event) -> boxed.add(event.diff));
+		list.add(Integer.valueOf(9));
+		assertEquals(1, boxed.size());
+		assertEquals(Integer.valueOf(9), boxed.get(0).getDifferences()[0].getElement());
+	}
+
+	public void testIndexOutOfBounds() throws Exception {
+		try {
+			list.getInt(0);
+			fail();
+		} catch (IndexOutOfBoundsException e) {
+			// expected
+		}
+		try {
+			list.addInt(1, 0);
+			fail();
+		} catch (IndexOutOfBoundsException e) {
+			// expected
+		}
+	}
+
+	public void testNullElementIsRejected() throws Exception {
+		try {
+			list.add(null);
+			fail("null must not be accepted");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+}
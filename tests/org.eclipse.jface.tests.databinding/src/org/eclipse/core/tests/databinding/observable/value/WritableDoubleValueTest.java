@@ -0,0 +1,102 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.core.tests.databinding.observable.value;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.core.databinding.observable.value.DoubleValueChangeEvent;
+import org.eclipse.core.databinding.observable.value.ValueChangeEvent;
+import org.eclipse.core.databinding.observable.value.WritableDoubleValue;
+import org.eclipse.jface.databinding.conformance.util.CurrentRealm;
+import org.eclipse.jface.databinding.conformance.util.RealmTester;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests for {@link WritableDoubleValue}.
+ */
+public class WritableDoubleValueTest extends TestCase {
+
+	private static final double DELTA = 0.0;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		RealmTester.setDefault(new CurrentRealm(true));
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		RealmTester.setDefault(null);
+		super.tearDown();
+	}
+
+	public void testGetAndSetDoubleValue() throws Exception {
+		WritableDoubleValue value = new WritableDoubleValue(0.5);
+		assertEquals(0.5, value.getDoubleValue(), DELTA);
+		assertEquals(Double.valueOf(0.5), value.getValue());
+		assertEquals(Double.TYPE, value.getValueType());
+
+		value.setDoubleValue(1.5);
+		assertEquals(1.5, value.getDoubleValue(), DELTA);
+		value.setValue(Double.valueOf(2.5));
+		assertEquals(2.5, value.getDoubleValue(), DELTA);
+	}
+
+	public void testSetNullValueIsRejected() throws Exception {
+		WritableDoubleValue value = new WritableDoubleValue();
+		try {
+			value.setValue(null);
+			fail("null must not be accepted");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+	public void testDoubleValueChangeEvent() throws Exception {
+		WritableDoubleValue value = new WritableDoubleValue(1.0);
+		final List<DoubleValueChangeEvent> events = new ArrayList<>();
+		value.addDoubleValueChangeListener(event -> events.add(event));
+
+		value.setDoubleValue(2.0);
+		assertEquals(1, events.size());
+		assertEquals(1.0, events.get(0).oldValue, DELTA);
+		assertEquals(2.0, events.get(0).newValue, DELTA);
+		assertSame(value, events.get(0).getObservableValue());
+		assertEquals(Double.valueOf(1.0), events.get(0).toValueDiff().getOldValue());
+	}
+
+	public void testBoxedListenersAreNotified() throws Exception {
+		WritableDoubleValue value = new WritableDoubleValue(1.0);
+		final List<ValueChangeEvent<? extends Double>> events = new ArrayList<>();
+		final int[] changeCount = new int[1];
+		value.addValueChangeListener(event -> events.add(event));
+		value.addChangeListener(event -> changeCount[0]++);
+
+		value.setDoubleValue(4.0);
+		assertEquals(1, changeCount[0]);
+		assertEquals(1, events.size());
+		assertEquals(Double.valueOf(1.0), events.get(0).diff.getOldValue());
+		assertEquals(Double.valueOf(4.0), events.get(0).diff.getNewValue());
+	}
+
+	public void testDoubleValueNaNIsNotAChange() throws Exception {
+		WritableDoubleValue value = new WritableDoubleValue(Double.NaN);
+		final int[] count = new int[1];
+		value.addDoubleValueChangeListener(event -> count[0]++);
+		value.setDoubleValue(Double.NaN);
+		assertEquals(0, count[0]);
+		value.setDoubleValue(0.5);
+		assertEquals(1, count[0]);
+	}
+}
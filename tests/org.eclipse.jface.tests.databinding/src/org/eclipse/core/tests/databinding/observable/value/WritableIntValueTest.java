@@ -0,0 +1,111 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.core.tests.databinding.observable.value;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.core.databinding.observable.value.IntValueChangeEvent;
+import org.eclipse.core.databinding.observable.value.ValueChangeEvent;
+import org.eclipse.core.databinding.observable.value.WritableIntValue;
+import org.eclipse.core.runtime.AssertionFailedException;
+import org.eclipse.jface.databinding.conformance.util.CurrentRealm;
+import org.eclipse.jface.databinding.conformance.util.RealmTester;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests for {@link WritableIntValue}.
+ */
+public class WritableIntValueTest extends TestCase {
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		RealmTester.setDefault(new CurrentRealm(true));
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		RealmTester.setDefault(null);
+		super.tearDown();
+	}
+
+	public void testGetAndSetIntValue() throws Exception {
+		WritableIntValue value = new WritableIntValue(3);
+		assertEquals(3, value.getIntValue());
+		assertEquals(Integer.valueOf(3), value.getValue());
+		assertEquals(Integer.TYPE, value.getValueType());
+
+		value.setIntValue(5);
+		assertEquals(5, value.getIntValue());
+		value.setValue(Integer.valueOf(7));
+		assertEquals(7, value.getIntValue());
+	}
+
+	public void testSetNullValueIsRejected() throws Exception {
+		WritableIntValue value = new WritableIntValue();
+		try {
+			value.setValue(null);
+			fail("null must not be accepted");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+	public void testIntValueChangeEvent() throws Exception {
+		WritableIntValue value = new WritableIntValue(1);
+		final List<IntValueChangeEvent> events = new ArrayList<>();
+		value.addIntValueChangeListener(event -> events.add(event));
+
+		value.setIntValue(2);
+		assertEquals(1, events.size());
+		assertEquals(1, events.get(0).oldValue);
+		assertEquals(2, events.get(0).newValue);
+		assertSame(value, events.get(0).getObservableValue());
+		assertEquals(Integer.valueOf(1), events.get(0).toValueDiff().getOldValue());
+	}
+
+	public void testNoEventIfUnchanged() throws Exception {
+		WritableIntValue value = new WritableIntValue(1);
+		final int[] count = new int[1];
+		value.addIntValueChangeListener(event -> count[0]++);
+		value.addChangeListener(event -> count[0]++);
+		value.setIntValue(1);
+		assertEquals(0, count[0]);
+	}
+
+	public void testBoxedListenersAreNotified() throws Exception {
+		WritableIntValue value = new WritableIntValue(1);
+		final List<ValueChangeEvent<? extends Integer>> events = new ArrayList<>();
+		final int[] changeCount = new int[1];
+		value.addValueChangeListener(event -> events.add(event));
+		value.addChangeListener(event -> changeCount[0]++);
+
+		value.setIntValue(4);
+		assertEquals(1, changeCount[0]);
+		assertEquals(1, events.size());
+		assertEquals(Integer.valueOf(1), events.get(0).diff.getOldValue());
+		assertEquals(Integer.valueOf(4), events.get(0).diff.getNewValue());
+	}
+
+	public void testRealmChecks() throws Exception {
+		RealmTester.setDefault(new CurrentRealm(false));
+		WritableIntValue value = new WritableIntValue();
+		try {
+			value.setIntValue(1);
+			fail("setter must check the realm");
+		} catch (AssertionFailedException e) {
+			// expected
+		}
+	}
+}
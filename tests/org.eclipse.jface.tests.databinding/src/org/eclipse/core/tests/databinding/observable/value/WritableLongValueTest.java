@@ -0,0 +1,111 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.core.tests.databinding.observable.value;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.core.databinding.observable.value.LongValueChangeEvent;
+import org.eclipse.core.databinding.observable.value.ValueChangeEvent;
+import org.eclipse.core.databinding.observable.value.WritableLongValue;
+import org.eclipse.core.runtime.AssertionFailedException;
+import org.eclipse.jface.databinding.conformance.util.CurrentRealm;
+import org.eclipse.jface.databinding.conformance.util.RealmTester;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests for {@link WritableLongValue}.
+ */
+public class WritableLongValueTest extends TestCase {
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		RealmTester.setDefault(new CurrentRealm(true));
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		RealmTester.setDefault(null);
+		super.tearDown();
+	}
+
+	public void testGetAndSetLongValue() throws Exception {
+		WritableLongValue value = new WritableLongValue(3);
+		assertEquals(3, value.getLongValue());
+		assertEquals(Long.valueOf(3), value.getValue());
+		assertEquals(Long.TYPE, value.getValueType());
+
+		value.setLongValue(5);
+		assertEquals(5, value.getLongValue());
+		value.setValue(Long.valueOf(7));
+		assertEquals(7, value.getLongValue());
+	}
+
+	public void testSetNullValueIsRejected() throws Exception {
+		WritableLongValue value = new WritableLongValue();
+		try {
+			value.setValue(null);
+			fail("null must not be accepted");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+	public void testLongValueChangeEvent() throws Exception {
+		WritableLongValue value = new WritableLongValue(1);
+		final List<LongValueChangeEvent> events = new ArrayList<>();
+		value.addLongValueChangeListener(event -> events.add(event));
+
+		value.setLongValue(2);
+		assertEquals(1, events.size());
+		assertEquals(1, events.get(0).oldValue);
+		assertEquals(2, events.get(0).newValue);
+		assertSame(value, events.get(0).getObservableValue());
+		assertEquals(Long.valueOf(1), events.get(0).toValueDiff().getOldValue());
+	}
+
+	public void testNoEventIfUnchanged() throws Exception {
+		WritableLongValue value = new WritableLongValue(1);
+		final int[] count = new int[1];
+		value.addLongValueChangeListener(event -> count[0]++);
+		value.addChangeListener(event -> count[0]++);
+		value.setLongValue(1);
+		assertEquals(0, count[0]);
+	}
+
+	public void testBoxedListenersAreNotified() throws Exception {
+		WritableLongValue value = new WritableLongValue(1);
+		final List<ValueChangeEvent<? extends Long>> events = new ArrayList<>();
+		final int[] changeCount = new int[1];
+		value.addValueChangeListener(event -> events.add(event));
+		value.addChangeListener(event -> changeCount[0]++);
+
+		value.setLongValue(4);
+		assertEquals(1, changeCount[0]);
+		assertEquals(1, events.size());
+		assertEquals(Long.valueOf(1), events.get(0).diff.getOldValue());
+		assertEquals(Long.valueOf(4), events.get(0).diff.getNewValue());
+	}
+
+	public void testRealmChecks() throws Exception {
+		RealmTester.setDefault(new CurrentRealm(false));
+		WritableLongValue value = new WritableLongValue();
+		try {
+			value.setLongValue(1);
+			fail("setter must check the realm");
+		} catch (AssertionFailedException e) {
+			// expected
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2009 IBM Corporation and others.
+ * Copyright (c) 2007, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -14,6 +14,7 @@ package org.eclipse.core.tests.internal.databinding.beans;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
+import java.lang.ref.WeakReference;
 
 import org.eclipse.core.databinding.util.ILogger;
 import org.eclipse.core.databinding.util.Policy;
@@ -142,6 +143,124 @@ public class BeanPropertyListenerSupportTest extends
 		assertEquals(IStatus.WARNING, log.status.getSeverity());
 	}
 
+	public void testOneNativeListenerPerBean() throws Exception {
+		GenericListenerBean bean = new GenericListenerBean();
+		PropertyChangeListenerStub otherListener = new PropertyChangeListenerStub();
+		int nativeListeners = BeanPropertyListenerSupport.getNativeListenerCount();
+
+		BeanPropertyListenerSupport.hookListener(bean, "value", listener);
+		BeanPropertyListenerSupport.hookListener(bean, "other", otherListener);
+		assertEquals(1, bean.changeSupport.getPropertyChangeListeners().length);
+		assertEquals(nativeListeners + 1, BeanPropertyListenerSupport.getNativeListenerCount());
+
+		// Events are only dispatched to the listeners of the property.
+		bean.setValue("1");
+		assertEquals(1, listener.count);
+		assertEquals(0, otherListener.count);
+		bean.setOther("2");
+		assertEquals(1, listener.count);
+		assertEquals(1, otherListener.count);
+
+		BeanPropertyListenerSupport.unhookListener(bean, "value", listener);
+		assertEquals(1, bean.changeSupport.getPropertyChangeListeners().length);
+		BeanPropertyListenerSupport.unhookListener(bean, "other", otherListener);
+		assertEquals(0, bean.changeSupport.getPropertyChangeListeners().length);
+		assertEquals(nativeListeners, BeanPropertyListenerSupport.getNativeListenerCount());
+	}
+
+	public void testUnnamedEventIsDispatchedToAllListeners() throws Exception {
+		GenericListenerBean bean = new GenericListenerBean();
+		PropertyChangeListenerStub otherListener = new PropertyChangeListenerStub();
+		BeanPropertyListenerSupport.hookListener(bean, "value", listener);
+		BeanPropertyListenerSupport.hookListener(bean, "other", otherListener);
+
+		bean.changeSupport.firePropertyChange(null, null, null);
+		assertEquals(1, listener.count);
+		assertEquals(1, otherListener.count);
+
+		BeanPropertyListenerSupport.unhookListener(bean, "value", listener);
+		BeanPropertyListenerSupport.unhookListener(bean, "other", otherListener);
+	}
+
+	public void testNamedRegistrationPerProperty() throws Exception {
+		SpecificListenerBean bean = new SpecificListenerBean();
+		PropertyChangeListenerStub otherListener = new PropertyChangeListenerStub();
+
+		BeanPropertyListenerSupport.hookListener(bean, "value", listener);
+		BeanPropertyListenerSupport.hookListener(bean, "value", otherListener);
+		assertEquals(1, bean.changeSupport.getPropertyChangeListeners("value").length);
+
+		BeanPropertyListenerSupport.unhookListener(bean, "value", listener);
+		assertTrue(bean.changeSupport.hasListeners("value"));
+		BeanPropertyListenerSupport.unhookListener(bean, "value", otherListener);
+		assertFalse(bean.changeSupport.hasListeners("value"));
+	}
+
+	public void testUnnamedRegistrationIsPreferred() throws Exception {
+		BothListenerBean bean = new BothListenerBean();
+		PropertyChangeListenerStub otherListener = new PropertyChangeListenerStub();
+
+		BeanPropertyListenerSupport.hookListener(bean, "value", listener);
+		BeanPropertyListenerSupport.hookListener(bean, "other", otherListener);
+		assertEquals(0, bean.changeSupport.getPropertyChangeListeners("value").length);
+		assertEquals(0, bean.changeSupport.getPropertyChangeListeners("other").length);
+		assertEquals(1, bean.changeSupport.getPropertyChangeListeners().length);
+
+		// Unnamed events reach the listeners of all properties.
+		bean.changeSupport.firePropertyChange(null, null, null);
+		assertEquals(1, listener.count);
+		assertEquals(1, otherListener.count);
+		bean.changeSupport.firePropertyChange("value", null, "1");
+		assertEquals(2, listener.count);
+		assertEquals(1, otherListener.count);
+
+		BeanPropertyListenerSupport.unhookListener(bean, "value", listener);
+		BeanPropertyListenerSupport.unhookListener(bean, "other", otherListener);
+		assertEquals(0, bean.changeSupport.getPropertyChangeListeners().length);
+	}
+
+	public void testListenerCount() throws Exception {
+		GenericListenerBean bean1 = new GenericListenerBean();
+		GenericListenerBean bean2 = new GenericListenerBean();
+		int listeners = BeanPropertyListenerSupport.getListenerCount();
+		int beans = BeanPropertyListenerSupport.getObservedBeanCount();
+
+		BeanPropertyListenerSupport.hookListener(bean1, "value", listener);
+		BeanPropertyListenerSupport.hookListener(bean1, "other", listener);
+		BeanPropertyListenerSupport.hookListener(bean2, "value", listener);
+		assertEquals(listeners + 3, BeanPropertyListenerSupport.getListenerCount());
+		assertEquals(beans + 2, BeanPropertyListenerSupport.getObservedBeanCount());
+
+		BeanPropertyListenerSupport.unhookListener(bean1, "value", listener);
+		BeanPropertyListenerSupport.unhookListener(bean1, "other", listener);
+		BeanPropertyListenerSupport.unhookListener(bean2, "value", listener);
+		assertEquals(listeners, BeanPropertyListenerSupport.getListenerCount());
+		assertEquals(beans, BeanPropertyListenerSupport.getObservedBeanCount());
+	}
+
+	public void testCollectedListenerIsDropped() throws Exception {
+		GenericListenerBean bean = new GenericListenerBean();
+		PropertyChangeListenerStub collectable = new PropertyChangeListenerStub();
+		WeakReference<PropertyChangeListenerStub> reference = new WeakReference<>(collectable);
+		BeanPropertyListenerSupport.hookListener(bean, "value", collectable);
+		assertEquals(1, bean.changeSupport.getPropertyChangeListeners().length);
+
+		collectable = null;
+		for (int i = 0; i < 20 && reference.get() != null; i++) {
+			System.gc();
+			Thread.sleep(10);
+		}
+		if (reference.get() != null) {
+			// the VM did not collect the listener, nothing to verify
+			return;
+		}
+
+		// The next event notices the collected listener and removes the
+		// native listener.
+		bean.setValue("1");
+		assertEquals(0, bean.changeSupport.getPropertyChangeListeners().length);
+	}
+
 	static class GenericListenerBean {
 		private String other;
 		PropertyChangeSupport changeSupport = new PropertyChangeSupport(this);
@@ -199,6 +318,18 @@ public class BeanPropertyListenerSupportTest extends
 		}
 	}
 
+	static class BothListenerBean extends GenericListenerBean {
+		public void addPropertyChangeListener(String name,
+				PropertyChangeListener listener) {
+			changeSupport.addPropertyChangeListener(name, listener);
+		}
+
+		public void removePropertyChangeListener(String name,
+				PropertyChangeListener listener) {
+			changeSupport.removePropertyChangeListener(name, listener);
+		}
+	}
+
 	static class PropertyChangeListenerStub implements PropertyChangeListener {
 		PropertyChangeEvent event;
 		int count;
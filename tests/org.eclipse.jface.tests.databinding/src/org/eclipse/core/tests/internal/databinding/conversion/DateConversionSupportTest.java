@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2009 IBM Corporation and others.
+ * Copyright (c) 2007, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -46,6 +46,17 @@ public class DateConversionSupportTest extends TestCase {
 		assertEquals(format, dateFormat.toPattern());
 	}
 
+	public void testDateFormatIsNotShared() throws Exception {
+		StubConverter stub = new StubConverter();
+		Date date = new Date(0);
+		String formatted = stub.format(date);
+
+		SimpleDateFormat dateFormat = (SimpleDateFormat) stub.getDateFormat(0);
+		dateFormat.applyPattern("'changed'");
+		assertEquals(formatted, stub.format(date));
+		assertEquals(formatted, new StubConverter().format(date));
+	}
+
 	public void testFormat_NullDate() {
 		StubConverter stub = new StubConverter();
 		assertNull(stub.format(null));
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010 Ovidio Mallo and others.
+ * Copyright (c) 2010, 2018 Ovidio Mallo and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -322,6 +322,10 @@ public class ListDetailValueObservableListTest extends
 		masterList.add(new Object());
 		masterList.add(new Object());
 
+		// Attach a listener in order to ensure that all detail observables are
+		// actually created.
+		ListChangeEventTracker.observe(ldol);
+
 		assertEquals(ldol.size(), detailObservables.size());
 
 		// No detail observables should be disposed yet.
@@ -340,6 +344,105 @@ public class ListDetailValueObservableListTest extends
 		assertTrue(((WritableValue) detailObservables.get(1)).isDisposed());
 	}
 
+	public void testDetailObservablesAreCreatedLazily() {
+		final List detailObservables = new ArrayList();
+		IObservableFactory detailValueFactory = new IObservableFactory() {
+			@Override
+			public IObservable createObservable(Object target) {
+				WritableValue detailObservable = new WritableValue(target, null);
+				detailObservables.add(detailObservable);
+				return detailObservable;
+			}
+		};
+
+		WritableList masterList = new WritableList();
+		for (int i = 0; i < 10; i++) {
+			masterList.add("master" + i);
+		}
+		ListDetailValueObservableList ldol = new ListDetailValueObservableList(
+				masterList, detailValueFactory, null);
+
+		// Without listeners, only the elements which are read need a detail
+		// observable.
+		assertEquals(10, ldol.size());
+		assertEquals(0, detailObservables.size());
+		assertEquals("master3", ldol.get(3));
+		assertEquals(1, detailObservables.size());
+
+		// Removing a master whose detail was never read does not create one.
+		masterList.remove(5);
+		assertEquals(1, detailObservables.size());
+
+		// Listeners need all detail observables.
+		ListChangeEventTracker.observe(ldol);
+		assertEquals(9, detailObservables.size());
+
+		ldol.dispose();
+		for (Object detailObservable : detailObservables) {
+			assertTrue(((WritableValue) detailObservable).isDisposed());
+		}
+	}
+
+	public void testDetailChangePositionAfterMasterChange() {
+		WritableList masterList = new WritableList();
+		ListDetailValueObservableList ldol = new ListDetailValueObservableList(
+				masterList, BeansObservables.valueFactory("name"), String.class);
+		ListChangeEventTracker changeTracker = ListChangeEventTracker
+				.observe(ldol);
+
+		SimplePerson[] persons = new SimplePerson[3];
+		for (int i = 0; i < persons.length; i++) {
+			persons[i] = new SimplePerson();
+			persons[i].setName("name" + i);
+			masterList.add(persons[i]);
+		}
+
+		// Detail changes are reported at the current position of the master.
+		persons[2].setName("changed");
+		assertIsSingleReplaceDiff(changeTracker.event.diff, 2, "name2", "changed");
+
+		masterList.remove(0);
+		persons[2].setName("changed again");
+		assertIsSingleReplaceDiff(changeTracker.event.diff, 1, "changed", "changed again");
+
+		masterList.add(0, new SimplePerson());
+		persons[1].setName("other");
+		assertIsSingleReplaceDiff(changeTracker.event.diff, 1, "name1", "other");
+	}
+
+	public void testStaleDetailWithoutListeners() {
+		final int[] created = new int[1];
+		IObservableFactory detailValueFactory = new IObservableFactory() {
+			@Override
+			public IObservable createObservable(final Object target) {
+				created[0]++;
+				return new WritableValue(target, null) {
+					@Override
+					public boolean isStale() {
+						return "stale".equals(target);
+					}
+				};
+			}
+		};
+
+		WritableList masterList = new WritableList();
+		masterList.add("fresh");
+		ListDetailValueObservableList ldol = new ListDetailValueObservableList(
+				masterList, detailValueFactory, null);
+
+		// Without listeners, the existing detail observables are asked
+		// directly, and no detail observable is created for that.
+		assertFalse(ldol.isStale());
+		masterList.add("stale");
+		assertFalse(ldol.isStale());
+		assertEquals(0, created[0]);
+		ldol.get(1);
+		assertTrue(ldol.isStale());
+		masterList.remove("stale");
+		assertFalse(ldol.isStale());
+		assertEquals(1, created[0]);
+	}
+
 	public void testDisposeOnMasterDisposed() {
 		WritableList masterList = new WritableList();
 		ListDetailValueObservableList ldol = new ListDetailValueObservableList(
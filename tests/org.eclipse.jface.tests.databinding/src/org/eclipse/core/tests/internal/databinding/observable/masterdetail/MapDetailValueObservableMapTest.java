@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010 Ovidio Mallo and others.
+ * Copyright (c) 2010, 2018 Ovidio Mallo and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -292,6 +292,39 @@ public class MapDetailValueObservableMapTest extends
 				.isDisposed());
 	}
 
+	public void testStaleDetailWithoutListeners() {
+		final int[] created = new int[1];
+		IObservableFactory detailValueFactory = new IObservableFactory() {
+			@Override
+			public IObservable createObservable(final Object target) {
+				created[0]++;
+				return new WritableValue(target, null) {
+					@Override
+					public boolean isStale() {
+						return "stale".equals(target);
+					}
+				};
+			}
+		};
+
+		WritableMap masterMap = new WritableMap();
+		masterMap.put("key1", "fresh");
+		MapDetailValueObservableMap mdom = new MapDetailValueObservableMap(
+				masterMap, detailValueFactory, null);
+
+		// Without listeners, the existing detail observables are asked
+		// directly, and no detail observable is created for that.
+		assertFalse(mdom.isStale());
+		masterMap.put("key2", "stale");
+		assertFalse(mdom.isStale());
+		assertEquals(0, created[0]);
+		mdom.get("key2");
+		assertTrue(mdom.isStale());
+		masterMap.remove("key2");
+		assertFalse(mdom.isStale());
+		assertEquals(1, created[0]);
+	}
+
 	public void testDisposeOnMasterDisposed() {
 		WritableMap masterMap = new WritableMap();
 		MapDetailValueObservableMap mdom = new MapDetailValueObservableMap(
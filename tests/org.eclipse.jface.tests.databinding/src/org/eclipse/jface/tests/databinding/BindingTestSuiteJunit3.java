@@ -47,6 +47,7 @@ import org.eclipse.core.tests.databinding.observable.ChangeSupportTest;
 import org.eclipse.core.tests.databinding.observable.DecoratingObservableTest;
 import org.eclipse.core.tests.databinding.observable.DiffsTest;
 import org.eclipse.core.tests.databinding.observable.Diffs_ListDiffTests;
+import org.eclipse.core.tests.databinding.observable.ExecutorRealmTest;
 import org.eclipse.core.tests.databinding.observable.ObservableTrackerTest;
 import org.eclipse.core.tests.databinding.observable.ObservablesTest;
 import org.eclipse.core.tests.databinding.observable.RealmTest;
@@ -57,7 +58,10 @@ import org.eclipse.core.tests.databinding.observable.list.ListDiffTest;
 import org.eclipse.core.tests.databinding.observable.list.ListDiffVisitorTest;
 import org.eclipse.core.tests.databinding.observable.list.MultiListTest;
 import org.eclipse.core.tests.databinding.observable.list.ObservableListTest;
+import org.eclipse.core.tests.databinding.observable.list.WritableDoubleListTest;
+import org.eclipse.core.tests.databinding.observable.list.WritableIntListTest;
 import org.eclipse.core.tests.databinding.observable.list.WritableListTest;
+import org.eclipse.core.tests.databinding.observable.list.WritableLongListTest;
 import org.eclipse.core.tests.databinding.observable.map.AbstractObservableMapTest;
 import org.eclipse.core.tests.databinding.observable.map.BidiObservableMapTest;
 import org.eclipse.core.tests.databinding.observable.map.CompositeMapTest;
@@ -77,6 +81,9 @@ import org.eclipse.core.tests.databinding.observable.value.DateAndTimeObservable
 import org.eclipse.core.tests.databinding.observable.value.DecoratingObservableValueTest;
 import org.eclipse.core.tests.databinding.observable.value.DuplexingObservableValueTest;
 import org.eclipse.core.tests.databinding.observable.value.SelectObservableValueTest;
+import org.eclipse.core.tests.databinding.observable.value.WritableDoubleValueTest;
+import org.eclipse.core.tests.databinding.observable.value.WritableIntValueTest;
+import org.eclipse.core.tests.databinding.observable.value.WritableLongValueTest;
 import org.eclipse.core.tests.databinding.observable.value.WritableValueTest;
 import org.eclipse.core.tests.databinding.util.PolicyTest;
 import org.eclipse.core.tests.databinding.validation.MultiValidatorTest;
@@ -280,6 +287,7 @@ public class BindingTestSuiteJunit3 extends TestSuite {
 		addTestSuite(ObservablesTest.class);
 		addTestSuite(ObservableTrackerTest.class);
 		addTestSuite(RealmTest.class);
+		addTestSuite(ExecutorRealmTest.class);
 
 		// org.eclipse.core.tests.databinding.observable.list
 		addTest(AbstractObservableListTest.suite());
@@ -289,6 +297,9 @@ public class BindingTestSuiteJunit3 extends TestSuite {
 		addTestSuite(ListDiffVisitorTest.class);
 		addTest(MultiListTest.suite());
 		addTest(ObservableListTest.suite());
+		addTestSuite(WritableIntListTest.class);
+		addTestSuite(WritableLongListTest.class);
+		addTestSuite(WritableDoubleListTest.class);
 		addTest(WritableListTest.suite());
 
 		// org.eclipse.core.tests.databinding.observable.map
@@ -315,6 +326,9 @@ public class BindingTestSuiteJunit3 extends TestSuite {
 		addTest(DecoratingObservableValueTest.suite());
 		addTestSuite(DuplexingObservableValueTest.class);
 		addTest(SelectObservableValueTest.suite());
+		addTestSuite(WritableIntValueTest.class);
+		addTestSuite(WritableLongValueTest.class);
+		addTestSuite(WritableDoubleValueTest.class);
 		addTest(WritableValueTest.suite());
 
 		// org.eclipse.core.tests.databinding.validation
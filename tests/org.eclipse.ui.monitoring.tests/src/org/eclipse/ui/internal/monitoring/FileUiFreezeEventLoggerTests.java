@@ -0,0 +1,178 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.monitoring;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.eclipse.ui.monitoring.StackSample;
+import org.eclipse.ui.monitoring.UiFreezeEvent;
+import org.eclipse.ui.monitoring.UiFreezeLog;
+import org.eclipse.ui.monitoring.UiFreezeLog.Freeze;
+import org.eclipse.ui.monitoring.UiFreezeLog.StackStatistics;
+import org.eclipse.ui.monitoring.UiFreezeLog.ThreadSample;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link FileUiFreezeEventLogger} and {@link UiFreezeLog} classes.
+ */
+public class FileUiFreezeEventLoggerTests {
+	private File directory;
+	private ThreadInfo thread;
+
+	@Before
+	public void setUp() throws Exception {
+		directory = Files.createTempDirectory("ui-freezes").toFile();
+		thread = ManagementFactory.getThreadMXBean()
+				.getThreadInfo(Thread.currentThread().getId(), Integer.MAX_VALUE);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		for (File file : directory.listFiles()) {
+			file.delete();
+		}
+		directory.delete();
+	}
+
+	private UiFreezeEvent createEvent(long start, long duration, int numSamples) {
+		StackSample[] samples = new StackSample[numSamples];
+		for (int i = 0; i < numSamples; i++) {
+			samples[i] = new StackSample(start + i * 10, new ThreadInfo[] { thread });
+		}
+		return new UiFreezeEvent(start, duration, samples, false, false, false);
+	}
+
+	private static void assertStackEquals(StackTraceElement[] expected, StackTraceElement[] actual) {
+		// Module and class loader names are not written, so the elements are compared by parts.
+		assertEquals(expected.length, actual.length);
+		for (int i = 0; i < expected.length; i++) {
+			assertEquals(expected[i].getClassName(), actual[i].getClassName());
+			assertEquals(expected[i].getMethodName(), actual[i].getMethodName());
+			assertEquals(expected[i].getFileName(), actual[i].getFileName());
+			assertEquals(expected[i].getLineNumber(), actual[i].getLineNumber());
+		}
+	}
+
+	@Test
+	public void testWriteAndRead() throws Exception {
+		FileUiFreezeEventLogger logger = new FileUiFreezeEventLogger(directory);
+		logger.start();
+		logger.log(createEvent(1000, 500, 3));
+		logger.log(createEvent(2000, 300, 1));
+		logger.shutdown();
+
+		File[] files = UiFreezeLog.getLogFiles(directory);
+		assertEquals(1, files.length);
+		UiFreezeLog log = UiFreezeLog.read(files);
+		List<Freeze> freezes = log.getFreezes();
+		assertEquals(2, freezes.size());
+		assertEquals(0, log.getDroppedEventCount());
+		Freeze freeze = freezes.get(0);
+		assertEquals(1000, freeze.getStartTimestamp());
+		assertEquals(500, freeze.getTotalDuration());
+		assertEquals(3, freeze.getSamples().size());
+		assertEquals(1020, freeze.getSamples().get(2).getTimestamp());
+		ThreadSample threadSample = freeze.getSamples().get(0).getThreads().get(0);
+		assertEquals(Thread.currentThread().getId(), threadSample.getId());
+		assertEquals(Thread.currentThread().getName(), threadSample.getName());
+		assertEquals(thread.getThreadState(), threadSample.getState());
+
+		// All samples have the same stack, which is aggregated across the freezes.
+		List<StackStatistics> statistics = log.getStackStatistics();
+		assertEquals(1, statistics.size());
+		assertEquals(4, statistics.get(0).getSampleCount());
+		assertEquals(2, statistics.get(0).getFreezeCount());
+		assertEquals(800, statistics.get(0).getTotalDuration());
+		assertStackEquals(thread.getStackTrace(), statistics.get(0).getStackTrace());
+	}
+
+	@Test
+	public void testStackDeduplication() throws Exception {
+		FileUiFreezeEventLogger logger = new FileUiFreezeEventLogger(directory);
+		logger.start();
+		logger.log(createEvent(1000, 500, 1));
+		logger.shutdown();
+		long singleEventSize = FileUiFreezeEventLogger.getFile(directory, 0).length();
+
+		logger = new FileUiFreezeEventLogger(directory);
+		logger.start();
+		for (int i = 0; i < 10; i++) {
+			logger.log(createEvent(1000, 500, 1));
+		}
+		logger.shutdown();
+		long tenEventsSize = FileUiFreezeEventLogger.getFile(directory, 0).length();
+		// The strings, frames and stack are written only once, the repeated events refer to them.
+		long headerSize = 6;
+		long repeatedEventSize = (tenEventsSize - singleEventSize) / 9;
+		assertTrue(repeatedEventSize < (singleEventSize - headerSize) / 2);
+		assertEquals(10, UiFreezeLog.read(FileUiFreezeEventLogger.getFile(directory, 0))
+				.getFreezes().size());
+	}
+
+	@Test
+	public void testDroppedEvents() throws Exception {
+		FileUiFreezeEventLogger logger = new FileUiFreezeEventLogger(directory, 2, 1 << 20, 2);
+		// The writer is not started yet, so the queue fills up.
+		for (int i = 0; i < 5; i++) {
+			logger.log(createEvent(i * 1000, 500, 1));
+		}
+		logger.start();
+		logger.shutdown();
+
+		UiFreezeLog log = UiFreezeLog.read(UiFreezeLog.getLogFiles(directory));
+		assertEquals(2, log.getFreezes().size());
+		assertEquals(0, log.getFreezes().get(0).getStartTimestamp());
+		assertEquals(3, log.getDroppedEventCount());
+	}
+
+	@Test
+	public void testRotation() throws Exception {
+		// Every logger rotates the file written by the previous one.
+		for (int i = 0; i < 5; i++) {
+			FileUiFreezeEventLogger logger =
+					new FileUiFreezeEventLogger(directory, 10, 1 << 20, 3);
+			logger.start();
+			logger.log(createEvent(i * 1000, 500, 1));
+			logger.shutdown();
+		}
+
+		File[] files = UiFreezeLog.getLogFiles(directory);
+		assertEquals(3, files.length);
+		UiFreezeLog log = UiFreezeLog.read(files);
+		// The oldest files were deleted.
+		assertEquals(3, log.getFreezes().size());
+		assertEquals(2000, log.getFreezes().get(0).getStartTimestamp());
+		assertEquals(4000, log.getFreezes().get(2).getStartTimestamp());
+	}
+
+	@Test
+	public void testRotationBySize() throws Exception {
+		FileUiFreezeEventLogger logger = new FileUiFreezeEventLogger(directory, 10, 1, 3);
+		logger.start();
+		logger.log(createEvent(1000, 500, 1));
+		logger.shutdown();
+
+		File[] files = UiFreezeLog.getLogFiles(directory);
+		assertEquals(2, files.length);
+		assertEquals(1, UiFreezeLog.read(files[0]).getFreezes().size());
+		// The file was rotated after the event had been written.
+		assertEquals(0, UiFreezeLog.read(files[1]).getFreezes().size());
+	}
+}
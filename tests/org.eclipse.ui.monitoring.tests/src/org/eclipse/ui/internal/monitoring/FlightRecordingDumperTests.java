@@ -0,0 +1,159 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.monitoring;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.ui.monitoring.StackSample;
+import org.eclipse.ui.monitoring.UiFreezeEvent;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link FlightRecordingDumper} class.
+ */
+public class FlightRecordingDumperTests {
+	private static final long THRESHOLD = 500;
+
+	/** Records the files it is asked to write, and creates them if {@link #write} is set. */
+	private static class MockRecorder implements FlightRecordingDumper.Recorder {
+		boolean recording = true;
+		boolean write;
+		final List<File> dumped = new ArrayList<>();
+
+		@Override
+		public boolean isRecording() {
+			return recording;
+		}
+
+		@Override
+		public boolean dump(File file) throws IOException {
+			dumped.add(file);
+			// Unless asked to, nothing is written, so nothing is logged.
+			return write && file.createNewFile();
+		}
+	}
+
+	private MockRecorder recorder;
+	private List<Runnable> pendingWrites;
+	private FlightRecordingDumper dumper;
+
+	@Before
+	public void setUp() {
+		recorder = new MockRecorder();
+		pendingWrites = new ArrayList<>();
+		dumper = new FlightRecordingDumper(recorder, THRESHOLD,
+				event -> new File("freeze-" + event.getStartTimestamp() + ".jfr"),
+				FlightRecordingDumper.DEFAULT_MAX_FILES, pendingWrites::add);
+	}
+
+	private static UiFreezeEvent createEvent(long start, long duration, boolean stillRunning) {
+		return new UiFreezeEvent(start, duration, new StackSample[0], stillRunning, false, false);
+	}
+
+	private void runPendingWrites() {
+		for (Runnable write : pendingWrites) {
+			write.run();
+		}
+		pendingWrites.clear();
+	}
+
+	@Test
+	public void testWritesOnExecutor() {
+		assertTrue(dumper.freezeLogged(createEvent(1000, THRESHOLD, false)));
+		// The monitoring thread only schedules the write.
+		assertTrue(recorder.dumped.isEmpty());
+		assertEquals(1, pendingWrites.size());
+
+		runPendingWrites();
+		assertEquals(1, recorder.dumped.size());
+		assertEquals(new File("freeze-1000.jfr"), recorder.dumped.get(0));
+	}
+
+	@Test
+	public void testShortFreezeNotDumped() {
+		assertFalse(dumper.freezeLogged(createEvent(1000, THRESHOLD - 1, false)));
+		assertTrue(pendingWrites.isEmpty());
+	}
+
+	@Test
+	public void testNotDumpedWithoutRecording() {
+		recorder.recording = false;
+		assertFalse(dumper.freezeLogged(createEvent(1000, THRESHOLD, true)));
+		assertTrue(pendingWrites.isEmpty());
+
+		// A freeze skipped without a recording is dumped once a recording is running.
+		recorder.recording = true;
+		assertTrue(dumper.freezeLogged(createEvent(1000, 2 * THRESHOLD, false)));
+		runPendingWrites();
+		assertEquals(1, recorder.dumped.size());
+	}
+
+	@Test
+	public void testOngoingFreezeDumpedOnce() {
+		// A deadlock is logged while it is ongoing and again when it ends.
+		assertTrue(dumper.freezeLogged(createEvent(1000, THRESHOLD, true)));
+		assertFalse(dumper.freezeLogged(createEvent(1000, 3 * THRESHOLD, false)));
+		// The next freeze is dumped again.
+		assertTrue(dumper.freezeLogged(createEvent(5000, THRESHOLD, false)));
+
+		runPendingWrites();
+		assertEquals(2, recorder.dumped.size());
+		assertEquals(new File("freeze-5000.jfr"), recorder.dumped.get(1));
+	}
+
+	@Test
+	public void testNotDumpedWithoutFile() {
+		dumper = new FlightRecordingDumper(recorder, THRESHOLD, event -> null,
+				FlightRecordingDumper.DEFAULT_MAX_FILES, pendingWrites::add);
+		assertFalse(dumper.freezeLogged(createEvent(1000, THRESHOLD, false)));
+		assertTrue(pendingWrites.isEmpty());
+	}
+
+	@Test
+	public void testOldFilesDeleted() throws IOException {
+		File directory = Files.createTempDirectory("flight-recordings").toFile();
+		try {
+			File unrelated = new File(directory, "freeze-log.bin");
+			assertTrue(unrelated.createNewFile());
+			recorder.write = true;
+			dumper = new FlightRecordingDumper(recorder, THRESHOLD,
+					event -> new File(directory, FlightRecordingDumper.FILE_NAME_PREFIX
+							+ event.getStartTimestamp() + FlightRecordingDumper.FILE_NAME_SUFFIX),
+					2, pendingWrites::add);
+			for (long start = 1000; start <= 4000; start += 1000) {
+				assertTrue(dumper.freezeLogged(createEvent(start, THRESHOLD, false)));
+				runPendingWrites();
+			}
+
+			assertEquals(4, recorder.dumped.size());
+			String[] names = directory.list();
+			Arrays.sort(names);
+			// Only the two most recent recordings are kept, other files are left alone.
+			assertEquals(Arrays.asList("freeze-log.bin", "ui-freeze-3000.jfr", "ui-freeze-4000.jfr"),
+					Arrays.asList(names));
+		} finally {
+			for (File file : directory.listFiles()) {
+				file.delete();
+			}
+			directory.delete();
+		}
+	}
+}
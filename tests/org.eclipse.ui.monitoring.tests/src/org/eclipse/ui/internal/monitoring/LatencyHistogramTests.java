@@ -0,0 +1,85 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.monitoring;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.StringWriter;
+
+import org.eclipse.ui.monitoring.EventLatencyHistogram;
+import org.eclipse.ui.monitoring.EventLatencyStatistics;
+import org.junit.Test;
+
+/**
+ * Tests for {@link LatencyHistogram} class.
+ */
+public class LatencyHistogramTests {
+	@Test
+	public void testBucketBounds() {
+		assertEquals(0, LatencyHistogram.bucketIndex(0));
+		for (int i = 0; i < LatencyHistogram.BUCKET_COUNT; i++) {
+			long lower = LatencyHistogram.bucketLowerBound(i);
+			long upper = LatencyHistogram.bucketUpperBound(i);
+			assertEquals(i, LatencyHistogram.bucketIndex(lower));
+			assertEquals(i, LatencyHistogram.bucketIndex(upper));
+			assertEquals(upper + 1, LatencyHistogram.bucketLowerBound(i + 1));
+			// The relative error is bounded by 1/8.
+			assertTrue(upper - lower <= lower / 8);
+		}
+		assertEquals(LatencyHistogram.BUCKET_COUNT - 1,
+				LatencyHistogram.bucketIndex(LatencyHistogram.MAX_VALUE));
+	}
+
+	@Test
+	public void testPercentiles() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (int i = 1; i <= 1000; i++) {
+			histogram.record(i * 100);
+		}
+		EventLatencyHistogram snapshot = histogram.snapshot("Test");
+		assertEquals(1000, snapshot.getCount());
+		assertEquals(100000, snapshot.getMax());
+		assertEquals(50050, snapshot.getMean());
+		assertWithin(50000, snapshot.getPercentile(50));
+		assertWithin(99000, snapshot.getPercentile(99));
+		assertEquals(100000, snapshot.getPercentile(100));
+
+		histogram.reset();
+		assertEquals(0, histogram.snapshot("Test").getCount());
+	}
+
+	@Test
+	public void testExport() throws Exception {
+		LatencyHistogram histogram = new LatencyHistogram();
+		histogram.record(10);
+		histogram.record(2000);
+		EventLatencyHistogram[] histograms = { histogram.snapshot("Selection") };
+
+		StringWriter csv = new StringWriter();
+		EventLatencyStatistics.writeCsv(histograms, csv);
+		String[] lines = csv.toString().split("\n");
+		assertEquals(2, lines.length);
+		assertTrue(lines[1], lines[1].startsWith("Selection,2,2010,1005,"));
+		assertTrue(lines[1], lines[1].endsWith(",2000"));
+
+		StringWriter json = new StringWriter();
+		EventLatencyStatistics.writeJson(histograms, json);
+		assertTrue(json.toString(), json.toString().contains(
+				"\"event\":\"Selection\",\"count\":2,\"total\":2010,\"mean\":1005"));
+		assertTrue(json.toString(), json.toString().contains("\"buckets\":[[10,10,1],[1920,2047,1]]"));
+	}
+
+	private static void assertWithin(long expected, long actual) {
+		assertTrue("Expected " + expected + " but was " + actual,
+				Math.abs(actual - expected) <= expected / 8);
+	}
+}
@@ -0,0 +1,187 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.monitoring;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.eclipse.ui.monitoring.LockAnalysis;
+import org.eclipse.ui.monitoring.LockAnalysis.BlockingLock;
+import org.eclipse.ui.monitoring.LockAnalysis.Dependency;
+import org.eclipse.ui.monitoring.StackSample;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Tests for {@link LockAnalyzer} class.
+ */
+public class LockAnalyzerTests {
+	private static final long TIMEOUT_MS = 10 * 1000;
+
+	private Thread first;
+	private Thread second;
+
+	@After
+	public void tearDown() throws Exception {
+		for (Thread thread : new Thread[] { first, second }) {
+			if (thread != null) {
+				thread.interrupt();
+				thread.join(TIMEOUT_MS);
+			}
+		}
+	}
+
+	/**
+	 * Starts a thread that acquires {@code held}, then waits until {@code ready} is released and
+	 * acquires {@code wanted}.
+	 */
+	private static Thread startThread(String name, ReentrantLock held, ReentrantLock wanted,
+			CountDownLatch ready) {
+		Thread thread = new Thread(() -> {
+			held.lock();
+			try {
+				ready.countDown();
+				ready.await();
+				if (wanted != null) {
+					wanted.lockInterruptibly();
+					wanted.unlock();
+				} else {
+					Thread.sleep(TIMEOUT_MS);
+				}
+			} catch (InterruptedException e) {
+				// Done.
+			} finally {
+				held.unlock();
+			}
+		}, name);
+		thread.setDaemon(true);
+		thread.start();
+		return thread;
+	}
+
+	private static StackSample sampleWhenBlocked(Thread thread) throws Exception {
+		ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+		long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+		while (System.currentTimeMillis() < deadline) {
+			ThreadInfo[] threads = threadMXBean.dumpAllThreads(true, true);
+			for (ThreadInfo info : threads) {
+				if (info.getThreadId() == thread.getId() && info.getLockOwnerId() != -1) {
+					return new StackSample(System.currentTimeMillis(), threads);
+				}
+			}
+			Thread.sleep(10);
+		}
+		throw new AssertionError("Thread " + thread.getName() + " did not block");
+	}
+
+	@Test
+	public void testBlockingChain() throws Exception {
+		ReentrantLock lock = new ReentrantLock();
+		CountDownLatch ready = new CountDownLatch(1);
+		second = startThread("Owner", lock, null, ready);
+		ready.await();
+		first = startThread("Waiter", new ReentrantLock(), lock, new CountDownLatch(0));
+
+		LockAnalyzer analyzer = new LockAnalyzer();
+		LockAnalysis analysis = analyzer.analyze(new StackSample[] { sampleWhenBlocked(first) },
+				first.getId(), 0, 1000, Collections.<Long, String>emptyMap());
+
+		List<Dependency> graph = analysis.getWaitForGraph();
+		assertEquals(1, graph.size());
+		assertEquals("Waiter", graph.get(0).getWaiterName());
+		assertEquals("Owner", graph.get(0).getOwnerName());
+		assertFalse(graph.get(0).isSchedulingRule());
+		assertFalse(analysis.isDeadlock());
+		assertEquals(1, analysis.getTopBlockingLocks().size());
+		assertEquals(1000, analysis.getTopBlockingLocks().get(0).getTotalDuration());
+	}
+
+	@Test
+	public void testDeadlock() throws Exception {
+		ReentrantLock lock1 = new ReentrantLock();
+		ReentrantLock lock2 = new ReentrantLock();
+		CountDownLatch ready = new CountDownLatch(2);
+		first = startThread("First", lock1, lock2, ready);
+		second = startThread("Second", lock2, lock1, ready);
+
+		LockAnalyzer analyzer = new LockAnalyzer();
+		sampleWhenBlocked(second);
+		LockAnalysis analysis = analyzer.analyze(new StackSample[] { sampleWhenBlocked(first) },
+				first.getId(), 0, 2000, Collections.<Long, String>emptyMap());
+
+		assertTrue(analysis.isDeadlock());
+		List<Dependency> cycle = analysis.getDeadlockCycle();
+		assertEquals(2, cycle.size());
+		assertEquals(first.getId(), cycle.get(0).getWaiterId());
+		assertEquals(second.getId(), cycle.get(0).getOwnerId());
+		assertEquals(second.getId(), cycle.get(1).getWaiterId());
+		assertEquals(first.getId(), cycle.get(1).getOwnerId());
+	}
+
+	@Test
+	public void testNotBlocked() throws Exception {
+		ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+		StackSample sample = new StackSample(0, threadMXBean.dumpAllThreads(true, true));
+		assertNull(new LockAnalyzer().analyze(new StackSample[] { sample },
+				Thread.currentThread().getId(), 0, 1000, Collections.<Long, String>emptyMap()));
+	}
+
+	@Test
+	public void testOngoingFreezeRecordedOnce() throws Exception {
+		ReentrantLock lock = new ReentrantLock();
+		CountDownLatch ready = new CountDownLatch(1);
+		second = startThread("Owner", lock, null, ready);
+		ready.await();
+		first = startThread("Waiter", new ReentrantLock(), lock, new CountDownLatch(0));
+		StackSample[] samples = { sampleWhenBlocked(first) };
+		Map<Long, String> noRules = Collections.<Long, String>emptyMap();
+
+		LockAnalyzer analyzer = new LockAnalyzer();
+		// A freeze is analyzed while it is still running, and again when it ends.
+		analyzer.analyze(samples, first.getId(), 5000, 1000, noRules);
+		LockAnalysis analysis = analyzer.analyze(samples, first.getId(), 5000, 3000, noRules);
+		BlockingLock blockingLock = analysis.getTopBlockingLocks().get(0);
+		assertEquals(1, blockingLock.getFreezeCount());
+		assertEquals(3000, blockingLock.getTotalDuration());
+
+		analysis = analyzer.analyze(samples, first.getId(), 9000, 500, noRules);
+		blockingLock = analysis.getTopBlockingLocks().get(0);
+		assertEquals(2, blockingLock.getFreezeCount());
+		assertEquals(3500, blockingLock.getTotalDuration());
+	}
+
+	@Test
+	public void testSchedulingRuleCycleIgnored() {
+		// Any running job with a scheduling rule is assumed to block a thread waiting for a rule.
+		Dependency ruleWait = new Dependency(1, "UI", 2, "Worker", "Rule (Job)", true);
+		Dependency lockWait =
+				new Dependency(2, "Worker", 1, "UI", "java.lang.Object@00000001", false);
+		assertTrue(LockAnalyzer.findCycle(Arrays.asList(ruleWait, lockWait), 1).isEmpty());
+
+		Dependency uiLockWait =
+				new Dependency(1, "UI", 2, "Worker", "java.lang.Object@00000002", false);
+		List<Dependency> cycle =
+				LockAnalyzer.findCycle(Arrays.asList(ruleWait, uiLockWait, lockWait), 1);
+		assertEquals(Arrays.asList(uiLockWait, lockWait), cycle);
+	}
+}
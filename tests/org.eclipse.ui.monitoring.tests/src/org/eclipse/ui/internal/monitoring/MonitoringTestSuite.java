@@ -23,6 +23,11 @@ import org.junit.runners.Suite;
 @Suite.SuiteClasses({
 	EventLoopMonitorThreadTests.class,
 	FilterHandlerTests.class,
-	DefaultLoggerTests.class})
+	DefaultLoggerTests.class,
+	LatencyHistogramTests.class,
+	StackSamplingProfilerTests.class,
+	LockAnalyzerTests.class,
+	FlightRecordingDumperTests.class,
+	FileUiFreezeEventLoggerTests.class})
 public class MonitoringTestSuite {
 }
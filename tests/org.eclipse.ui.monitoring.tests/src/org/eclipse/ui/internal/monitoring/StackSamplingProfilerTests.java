@@ -0,0 +1,142 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.monitoring;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.StringWriter;
+
+import org.junit.Test;
+
+/**
+ * Tests for {@link StackSamplingProfiler} class.
+ */
+public class StackSamplingProfilerTests {
+	private static final String UI_THREAD_FILTER = "org.example.Dialog.run";
+	private static final String NONINTERESTING_THREAD_FILTER = "java.*";
+
+	private static StackSamplingProfiler createProfiler(int capacity) {
+		return new StackSamplingProfiler(Thread.currentThread(), 10, capacity, () -> true,
+				UI_THREAD_FILTER, NONINTERESTING_THREAD_FILTER);
+	}
+
+	/**
+	 * Creates a stack trace from frames given from the leaf to the root.
+	 */
+	private static StackTraceElement[] stack(String... frames) {
+		StackTraceElement[] stackTrace = new StackTraceElement[frames.length];
+		for (int i = 0; i < frames.length; i++) {
+			int dot = frames[i].lastIndexOf('.');
+			stackTrace[i] = new StackTraceElement(frames[i].substring(0, dot),
+					frames[i].substring(dot + 1), null, i);
+		}
+		return stackTrace;
+	}
+
+	private static String folded(StackSamplingProfiler profiler) throws Exception {
+		StringWriter writer = new StringWriter();
+		profiler.writeFoldedStacks(writer);
+		return writer.toString();
+	}
+
+	@Test
+	public void testFoldedStacks() throws Exception {
+		StackSamplingProfiler profiler = createProfiler(100);
+		profiler.takeSample(stack("org.example.A.leaf", "org.example.Main.run"));
+		profiler.takeSample(stack("org.example.A.leaf", "org.example.Main.run"));
+		profiler.takeSample(stack("org.example.B.other", "org.example.Main.run"));
+		assertEquals(3, profiler.getSampleCount());
+		assertEquals("org.example.Main.run;org.example.A.leaf 2\n"
+				+ "org.example.Main.run;org.example.B.other 1\n", folded(profiler));
+	}
+
+	@Test
+	public void testFilters() throws Exception {
+		StackSamplingProfiler profiler = createProfiler(100);
+		// Matches the UI thread filter.
+		profiler.takeSample(stack("org.example.A.leaf", "org.example.Dialog.run"));
+		// All frames match the non-interesting thread filter.
+		profiler.takeSample(stack("java.lang.Object.wait", "java.lang.Thread.run"));
+		assertEquals(0, profiler.getSampleCount());
+		assertEquals("", folded(profiler));
+	}
+
+	@Test
+	public void testRingBuffer() throws Exception {
+		StackSamplingProfiler profiler = createProfiler(2);
+		profiler.takeSample(stack("org.example.A.first"));
+		profiler.takeSample(stack("org.example.A.second"));
+		profiler.takeSample(stack("org.example.A.third"));
+		assertEquals(2, profiler.getSampleCount());
+		assertEquals(1, profiler.getDiscardedSampleCount());
+		assertEquals("org.example.A.second 1\norg.example.A.third 1\n", folded(profiler));
+
+		profiler.clear();
+		assertEquals(0, profiler.getSampleCount());
+		assertEquals("", folded(profiler));
+	}
+
+	@Test
+	public void testStacksOfOldSamplesDropped() throws Exception {
+		StackSamplingProfiler profiler = new StackSamplingProfiler(Thread.currentThread(), 10, 2, 4,
+				() -> true, UI_THREAD_FILTER, NONINTERESTING_THREAD_FILTER);
+		profiler.takeSample(stack("org.example.A.first"));
+		profiler.takeSample(stack("org.example.A.second"));
+		profiler.takeSample(stack("org.example.A.third"));
+		profiler.takeSample(stack("org.example.A.fourth"));
+		// The table of stacks is full, but only two stacks are still sampled.
+		profiler.takeSample(stack("org.example.A.fifth"));
+		assertEquals(2, profiler.getSampleCount());
+		assertEquals(3, profiler.getDiscardedSampleCount());
+		assertEquals("org.example.A.fourth 1\norg.example.A.fifth 1\n", folded(profiler));
+	}
+
+	@Test
+	public void testSamplesKeptWhenStacksFull() throws Exception {
+		StackSamplingProfiler profiler = new StackSamplingProfiler(Thread.currentThread(), 10, 4, 4,
+				() -> true, UI_THREAD_FILTER, NONINTERESTING_THREAD_FILTER);
+		profiler.takeSample(stack("org.example.A.first"));
+		profiler.takeSample(stack("org.example.A.second"));
+		profiler.takeSample(stack("org.example.A.third"));
+		profiler.takeSample(stack("org.example.A.fourth"));
+		// All stacks are still sampled, so the new stack is dropped instead of the samples.
+		profiler.takeSample(stack("org.example.A.fifth"));
+		assertEquals(4, profiler.getSampleCount());
+		assertEquals(1, profiler.getDiscardedSampleCount());
+		// Known stacks are still sampled.
+		profiler.takeSample(stack("org.example.A.first"));
+		assertEquals(4, profiler.getSampleCount());
+		assertEquals(2, profiler.getDiscardedSampleCount());
+		assertEquals("org.example.A.first 1\norg.example.A.second 1\norg.example.A.third 1\n"
+				+ "org.example.A.fourth 1\n", folded(profiler));
+	}
+
+	@Test
+	public void testStacksCompactedAfterOverwrites() throws Exception {
+		StackSamplingProfiler profiler = new StackSamplingProfiler(Thread.currentThread(), 10, 4, 4,
+				() -> true, UI_THREAD_FILTER, NONINTERESTING_THREAD_FILTER);
+		profiler.takeSample(stack("org.example.A.first"));
+		profiler.takeSample(stack("org.example.A.second"));
+		profiler.takeSample(stack("org.example.A.third"));
+		profiler.takeSample(stack("org.example.A.fourth"));
+		profiler.takeSample(stack("org.example.A.fifth"));
+		assertEquals(1, profiler.getDiscardedSampleCount());
+		// Overwrite the samples of the first two stacks.
+		profiler.takeSample(stack("org.example.A.third"));
+		profiler.takeSample(stack("org.example.A.fourth"));
+		// The stacks that are no longer sampled make room for the new stack.
+		profiler.takeSample(stack("org.example.A.fifth"));
+		assertEquals(4, profiler.getSampleCount());
+		assertEquals(4, profiler.getDiscardedSampleCount());
+		assertEquals("org.example.A.third 1\norg.example.A.fourth 2\norg.example.A.fifth 1\n",
+				folded(profiler));
+	}
+}
@@ -11,10 +11,13 @@
 package org.eclipse.ui.tests.navigator;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 
 import org.eclipse.ui.internal.navigator.VisibilityAssistant;
+import org.eclipse.ui.internal.navigator.extensions.ClassDecisionCache;
 import org.eclipse.ui.internal.navigator.extensions.EvaluationCache;
 import org.eclipse.ui.internal.navigator.extensions.NavigatorContentDescriptor;
+import org.eclipse.ui.internal.navigator.extensions.NavigatorContentDescriptorManager;
 import org.eclipse.ui.navigator.INavigatorActivationService;
 import org.eclipse.ui.navigator.INavigatorViewerDescriptor;
 import org.eclipse.ui.tests.navigator.util.TestNavigatorActivationService;
@@ -124,6 +127,47 @@ public class EvaluationCacheTest extends NavigatorTestBase {
 		Assert.assertNull(cache.getDescriptors(key, true));
 	}
 
+	@Test
+	public void testClassAddGet() {
+		BitSet value = new BitSet();
+		value.set(3);
+		Assert.assertNull(cache.getDescriptorsForClass(String.class, false));
+		cache.setDescriptorsForClass(String.class, value, false);
+		Assert.assertSame(value, cache.getDescriptorsForClass(String.class, false));
+		// Neither the other "half" of the cache nor the element cache should have this.
+		Assert.assertNull(cache.getDescriptorsForClass(String.class, true));
+		Assert.assertNull(cache.getDescriptors("", false));
+		Assert.assertEquals(1, cache.getHitCount());
+		Assert.assertEquals(3, cache.getMissCount());
+		cache.onVisibilityOrActivationChange();
+		Assert.assertNull(cache.getDescriptorsForClass(String.class, false));
+	}
+
+	@Test
+	public void testClassOnlyExpressions() {
+		NavigatorContentDescriptorManager manager = NavigatorContentDescriptorManager.getInstance();
+		// <instanceof value="org.eclipse.core.resources.IResource"/>
+		NavigatorContentDescriptor classOnly = manager.getContentDescriptor(TEST_CONTENT_OVERRIDDEN1);
+		Assert.assertTrue(classOnly.isTriggerPointClassOnly());
+		Assert.assertTrue(classOnly.isPossibleChildClassOnly());
+		// <or><adapt type="org.eclipse.core.resources.IProject"/>...</or>
+		NavigatorContentDescriptor adapting = manager.getContentDescriptor(TEST_CONTENT);
+		Assert.assertFalse(adapting.isTriggerPointClassOnly());
+
+		ClassDecisionCache decisions = new ClassDecisionCache(false);
+		Assert.assertTrue(decisions.isEnabled(classOnly, _project));
+		Assert.assertEquals(0, decisions.getHitCount());
+		Assert.assertEquals(1, decisions.getMissCount());
+		// Another element of the same class is answered from the cache.
+		Assert.assertTrue(decisions.isEnabled(classOnly, _p1));
+		Assert.assertFalse(decisions.isEnabled(classOnly, new Object()));
+		Assert.assertEquals(1, decisions.getHitCount());
+		Assert.assertEquals(2, decisions.getMissCount());
+		decisions.clear();
+		Assert.assertTrue(decisions.isEnabled(classOnly, _project));
+		Assert.assertEquals(3, decisions.getMissCount());
+	}
+
 	// TODO Some way to reliably test the clearing of entries. Possibly using
 	// java.lang.ref.Reference#enqueue().
 }
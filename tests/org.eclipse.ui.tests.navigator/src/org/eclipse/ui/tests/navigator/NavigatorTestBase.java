@@ -48,6 +48,7 @@ import org.eclipse.ui.tests.navigator.extension.TestContentProviderResource;
 import org.eclipse.ui.tests.navigator.extension.TestDragAssistant;
 import org.eclipse.ui.tests.navigator.extension.TestEmptyContentProvider;
 import org.eclipse.ui.tests.navigator.extension.TestLabelProvider;
+import org.eclipse.ui.tests.navigator.extension.TestSlowChildrenContentProvider;
 import org.eclipse.ui.tests.navigator.extension.TestSorterData;
 import org.eclipse.ui.tests.navigator.extension.TestSorterResource;
 import org.eclipse.ui.tests.navigator.m12.model.ResourceWrapper;
@@ -70,6 +71,7 @@ public class NavigatorTestBase {
 	public static final String TEST_VIEWER_FILTER = "org.eclipse.ui.tests.navigator.FilterTestView";
 	public static final String TEST_VIEWER_INITIAL_ACTIVATION = "org.eclipse.ui.tests.navigator.InitialActivationView";
 	public static final String TEST_VIEWER_LINK_HELPER = "org.eclipse.ui.tests.navigator.TestLinkHelperView";
+	public static final String TEST_VIEWER_PARALLEL = "org.eclipse.ui.tests.navigator.ParallelContentTestView";
 
 	public static final String TEST_VIEW_NON_COMMONVIEWER = "org.eclipse.ui.tests.navigator.NonCommonViewerTestView";
 
@@ -122,6 +124,9 @@ public class NavigatorTestBase {
 
 	public static final String TEST_CONTENT_TRACKING_LABEL = "org.eclipse.ui.tests.navigator.testTrackingLabel";
 
+	public static final String TEST_CONTENT_SLOW1 = "org.eclipse.ui.tests.navigator.testSlowChildrenContent1";
+	public static final String TEST_CONTENT_SLOW2 = "org.eclipse.ui.tests.navigator.testSlowChildrenContent2";
+
 	public static final String TEST_CONTENT_JST = "org.eclipse.ui.tests.navigator.jst.ContentProvider";
 
 	protected static final String TEST_ACTIVITY = "org.eclipse.ui.tests.navigator.testActivity";
@@ -193,6 +198,7 @@ public class NavigatorTestBase {
 		TestLabelProvider.resetTest();
 		TestDragAssistant.resetTest();
 		TestEmptyContentProvider.resetTest();
+		TestSlowChildrenContentProvider.resetTest();
 
 		if (_initTestData) {
 			clearAll();
@@ -0,0 +1,104 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.tests.navigator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.TreeItem;
+import org.eclipse.ui.tests.harness.util.DisplayHelper;
+import org.eclipse.ui.tests.navigator.extension.TestSimpleChildrenContentProvider;
+import org.eclipse.ui.tests.navigator.extension.TestSlowChildrenContentProvider;
+import org.junit.Test;
+
+/**
+ * Tests the parallel querying of content extensions with two deliberately slow
+ * extensions next to the resource content.
+ */
+public class ParallelContentTest extends NavigatorTestBase {
+
+	private static final int SLOW_CHILDREN = 2 * TestSimpleChildrenContentProvider.NUM_ITEMS;
+
+	private static final long TIMEOUT = 10000;
+
+	public ParallelContentTest() {
+		_navigatorInstanceId = TEST_VIEWER_PARALLEL;
+	}
+
+	private int getResourceChildCount() throws CoreException {
+		return _p1.members().length;
+	}
+
+	private int getItemCount() {
+		return ((TreeItem) _viewer.testFindItem(_p1)).getItemCount();
+	}
+
+	private void expand() {
+		_viewer.expandToLevel(_p1, 1);
+	}
+
+	private boolean waitForItems(final int count) {
+		return new DisplayHelper() {
+			@Override
+			protected boolean condition() {
+				return getItemCount() == count;
+			}
+		}.waitForCondition(Display.getCurrent(), TIMEOUT);
+	}
+
+	@Test
+	public void testConcurrentQueries() throws Exception {
+		// Shorter than the deadline of the viewer in plugin.xml, so the expansion
+		// waits for both extensions
+		TestSlowChildrenContentProvider._delay = 400;
+		int queries = TestSlowChildrenContentProvider._queries.get();
+
+		expand();
+
+		assertEquals(getResourceChildCount() + SLOW_CHILDREN, getItemCount());
+		assertEquals(queries + 2, TestSlowChildrenContentProvider._queries.get());
+		// Queried one after the other the extensions would never overlap.
+		assertEquals(2, TestSlowChildrenContentProvider._maxConcurrentQueries.get());
+	}
+
+	@Test
+	public void testLateChildren() throws Exception {
+		// Much longer than the deadline
+		TestSlowChildrenContentProvider._delay = 3000;
+		int queries = TestSlowChildrenContentProvider._queries.get();
+
+		expand();
+
+		// The expansion did not wait for the slow extensions.
+		assertEquals(getResourceChildCount(), getItemCount());
+		assertTrue(waitForItems(getResourceChildCount() + SLOW_CHILDREN));
+		assertEquals(queries + 2, TestSlowChildrenContentProvider._queries.get());
+		assertEquals(2, TestSlowChildrenContentProvider._maxConcurrentQueries.get());
+	}
+
+	@Test
+	public void testRefreshReusesRunningQueries() throws Exception {
+		TestSlowChildrenContentProvider._delay = 2000;
+		int queries = TestSlowChildrenContentProvider._queries.get();
+
+		expand();
+		_viewer.refresh(_p1);
+		assertEquals(getResourceChildCount(), getItemCount());
+
+		assertTrue(waitForItems(getResourceChildCount() + SLOW_CHILDREN));
+		assertEquals(queries + 2, TestSlowChildrenContentProvider._queries.get());
+		// The children of the replaced request are not added a second time.
+		DisplayHelper.sleep(200);
+		assertEquals(getResourceChildCount() + SLOW_CHILDREN, getItemCount());
+	}
+}
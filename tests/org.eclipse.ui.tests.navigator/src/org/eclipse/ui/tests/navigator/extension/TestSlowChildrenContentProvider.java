@@ -0,0 +1,72 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.tests.navigator.extension;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.ui.IMemento;
+import org.eclipse.ui.navigator.ICommonContentExtensionSite;
+import org.eclipse.ui.navigator.ICommonContentProvider;
+
+/**
+ * Provides some children for a given resource after sleeping for
+ * {@link #_delay} milliseconds, like a content provider of a remote model. The
+ * children are named after the last segment of the extension id.
+ */
+public class TestSlowChildrenContentProvider extends TestSimpleChildrenContentProvider
+		implements ICommonContentProvider {
+
+	public static volatile long _delay;
+
+	public static final AtomicInteger _queries = new AtomicInteger();
+
+	/** The number of queries running at the moment */
+	private static final AtomicInteger _running = new AtomicInteger();
+
+	/** The highest number of queries that were running at the same time */
+	public static final AtomicInteger _maxConcurrentQueries = new AtomicInteger();
+
+	public static void resetTest() {
+		_delay = 0;
+		_queries.set(0);
+		_running.set(0);
+		_maxConcurrentQueries.set(0);
+	}
+
+	@Override
+	public void init(ICommonContentExtensionSite aConfig) {
+		String id = aConfig.getExtension().getId();
+		_name = id.substring(id.lastIndexOf('.') + 1);
+	}
+
+	@Override
+	public Object[] getChildren(Object parentElement) {
+		_queries.incrementAndGet();
+		int running = _running.incrementAndGet();
+		_maxConcurrentQueries.accumulateAndGet(running, Math::max);
+		try {
+			Thread.sleep(_delay);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			_running.decrementAndGet();
+		}
+		return super.getChildren(parentElement);
+	}
+
+	@Override
+	public void restoreState(IMemento aMemento) {
+	}
+
+	@Override
+	public void saveState(IMemento aMemento) {
+	}
+}
@@ -0,0 +1,278 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.jface.tests.performance;
+
+import java.beans.PropertyChangeListener;
+import java.beans.PropertyChangeSupport;
+import java.util.Arrays;
+
+import org.eclipse.core.databinding.beans.BeanProperties;
+import org.eclipse.core.databinding.observable.ExecutorRealm;
+import org.eclipse.core.databinding.observable.map.IObservableMap;
+import org.eclipse.core.databinding.observable.set.WritableSet;
+import org.eclipse.ui.tests.performance.BasicPerformanceTest;
+
+/**
+ * Measures observing 10 properties of 50k beans, as a table with 10 columns
+ * backed by bean properties does.
+ */
+public class BeanListenerPerformanceTest extends BasicPerformanceTest {
+
+	private static final int BEAN_COUNT = 50000;
+
+	private static final int PROPERTY_COUNT = 10;
+
+	private ExecutorRealm realm;
+
+	/**
+	 * @param testName
+	 */
+	public BeanListenerPerformanceTest(String testName) {
+		super(testName);
+	}
+
+	@Override
+	protected void doSetUp() throws Exception {
+		super.doSetUp();
+		realm = new ExecutorRealm("BeanListenerPerformanceTest");
+	}
+
+	@Override
+	protected void doTearDown() throws Exception {
+		realm.dispose();
+		super.doTearDown();
+	}
+
+	/**
+	 * Observes 10 properties of 50k beans, changes every property once and
+	 * stops observing.
+	 */
+	public void testObserveBeanProperties() throws Exception {
+		for (int i = 0; i < 5; i++) {
+			realm.syncExec(() -> {
+				Bean[] beans = new Bean[BEAN_COUNT];
+				for (int j = 0; j < BEAN_COUNT; j++) {
+					beans[j] = new Bean();
+				}
+				WritableSet<Bean> knownElements = new WritableSet<>(realm, Arrays.asList(beans), Bean.class);
+				final int[] changes = new int[1];
+
+				startMeasuring();
+				IObservableMap[] columns = new IObservableMap[PROPERTY_COUNT];
+				for (int p = 0; p < PROPERTY_COUNT; p++) {
+					columns[p] = BeanProperties.value(Bean.class, "p" + p).observeDetail(knownElements);
+					columns[p].addMapChangeListener(event -> changes[0]++);
+				}
+				for (int j = 0; j < BEAN_COUNT; j++) {
+					for (int p = 0; p < PROPERTY_COUNT; p++) {
+						beans[j].set(p, "changed");
+					}
+				}
+				for (IObservableMap column : columns) {
+					column.dispose();
+				}
+				stopMeasuring();
+				assertEquals(BEAN_COUNT * PROPERTY_COUNT, changes[0]);
+			});
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	/**
+	 * Bean with 10 bound string properties named <code>p0</code> to
+	 * <code>p9</code>, offering both the unnamed and the named listener
+	 * registration methods, as most beans using {@link PropertyChangeSupport}
+	 * do.
+	 */
+	public static class Bean {
+		private final PropertyChangeSupport changeSupport = new PropertyChangeSupport(this);
+
+		private final String[] values = new String[PROPERTY_COUNT];
+
+		/**
+		 * @param listener
+		 */
+		public void addPropertyChangeListener(PropertyChangeListener listener) {
+			changeSupport.addPropertyChangeListener(listener);
+		}
+
+		/**
+		 * @param listener
+		 */
+		public void removePropertyChangeListener(PropertyChangeListener listener) {
+			changeSupport.removePropertyChangeListener(listener);
+		}
+
+		/**
+		 * @param propertyName
+		 * @param listener
+		 */
+		public void addPropertyChangeListener(String propertyName, PropertyChangeListener listener) {
+			changeSupport.addPropertyChangeListener(propertyName, listener);
+		}
+
+		/**
+		 * @param propertyName
+		 * @param listener
+		 */
+		public void removePropertyChangeListener(String propertyName, PropertyChangeListener listener) {
+			changeSupport.removePropertyChangeListener(propertyName, listener);
+		}
+
+		void set(int index, String value) {
+			String oldValue = values[index];
+			values[index] = value;
+			changeSupport.firePropertyChange("p" + index, oldValue, value);
+		}
+
+		/**
+		 * @return the value of p0
+		 */
+		public String getP0() {
+			return values[0];
+		}
+
+		/**
+		 * @param value
+		 */
+		public void setP0(String value) {
+			set(0, value);
+		}
+
+		/**
+		 * @return the value of p1
+		 */
+		public String getP1() {
+			return values[1];
+		}
+
+		/**
+		 * @param value
+		 */
+		public void setP1(String value) {
+			set(1, value);
+		}
+
+		/**
+		 * @return the value of p2
+		 */
+		public String getP2() {
+			return values[2];
+		}
+
+		/**
+		 * @param value
+		 */
+		public void setP2(String value) {
+			set(2, value);
+		}
+
+		/**
+		 * @return the value of p3
+		 */
+		public String getP3() {
+			return values[3];
+		}
+
+		/**
+		 * @param value
+		 */
+		public void setP3(String value) {
+			set(3, value);
+		}
+
+		/**
+		 * @return the value of p4
+		 */
+		public String getP4() {
+			return values[4];
+		}
+
+		/**
+		 * @param value
+		 */
+		public void setP4(String value) {
+			set(4, value);
+		}
+
+		/**
+		 * @return the value of p5
+		 */
+		public String getP5() {
+			return values[5];
+		}
+
+		/**
+		 * @param value
+		 */
+		public void setP5(String value) {
+			set(5, value);
+		}
+
+		/**
+		 * @return the value of p6
+		 */
+		public String getP6() {
+			return values[6];
+		}
+
+		/**
+		 * @param value
+		 */
+		public void setP6(String value) {
+			set(6, value);
+		}
+
+		/**
+		 * @return the value of p7
+		 */
+		public String getP7() {
+			return values[7];
+		}
+
+		/**
+		 * @param value
+		 */
+		public void setP7(String value) {
+			set(7, value);
+		}
+
+		/**
+		 * @return the value of p8
+		 */
+		public String getP8() {
+			return values[8];
+		}
+
+		/**
+		 * @param value
+		 */
+		public void setP8(String value) {
+			set(8, value);
+		}
+
+		/**
+		 * @return the value of p9
+		 */
+		public String getP9() {
+			return values[9];
+		}
+
+		/**
+		 * @param value
+		 */
+		public void setP9(String value) {
+			set(9, value);
+		}
+	}
+}
@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.jface.tests.performance;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+import org.eclipse.core.databinding.DataBindingContext;
+import org.eclipse.core.databinding.observable.ExecutorRealm;
+import org.eclipse.core.databinding.observable.value.IObservableValue;
+import org.eclipse.core.databinding.observable.value.WritableValue;
+import org.eclipse.ui.tests.performance.BasicPerformanceTest;
+
+/**
+ * Measures the cost of resolving default converters and validators when
+ * creating bindings, and the cost of converting values on every update.
+ */
+public class ConverterPerformanceTest extends BasicPerformanceTest {
+
+	private static final int FORM_BINDINGS = 2000;
+
+	private static final int UPDATES = 100000;
+
+	private static final Class<?>[] MODEL_TYPES = { Integer.class, Float.class, Long.class, Double.class,
+			BigDecimal.class, Date.class, Boolean.class, Short.class };
+
+	private ExecutorRealm realm;
+
+	/**
+	 * @param testName
+	 */
+	public ConverterPerformanceTest(String testName) {
+		super(testName);
+	}
+
+	@Override
+	protected void doSetUp() throws Exception {
+		super.doSetUp();
+		realm = new ExecutorRealm("ConverterPerformanceTest");
+	}
+
+	@Override
+	protected void doTearDown() throws Exception {
+		realm.dispose();
+		super.doTearDown();
+	}
+
+	/**
+	 * Creates a form of 2k bindings between string targets and models of
+	 * various types, which all need default converters and validators.
+	 */
+	public void testCreateFormBindings() throws Exception {
+		for (int i = 0; i < 20; i++) {
+			realm.syncExec(() -> {
+				IObservableValue[] targets = new IObservableValue[FORM_BINDINGS];
+				IObservableValue[] models = new IObservableValue[FORM_BINDINGS];
+				for (int j = 0; j < FORM_BINDINGS; j++) {
+					targets[j] = new WritableValue(realm, null, String.class);
+					models[j] = new WritableValue(realm, null, MODEL_TYPES[j % MODEL_TYPES.length]);
+				}
+
+				DataBindingContext dbc = new DataBindingContext(realm);
+				startMeasuring();
+				for (int j = 0; j < FORM_BINDINGS; j++) {
+					dbc.bindValue(targets[j], models[j]);
+				}
+				stopMeasuring();
+				dbc.dispose();
+			});
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	/**
+	 * Pushes string updates through a string to int binding, exercising the
+	 * default converter and validator on every update.
+	 */
+	public void testConversionPerUpdate() throws Exception {
+		final String[] values = new String[1000];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = Integer.toString(i * 997);
+		}
+
+		for (int i = 0; i < 10; i++) {
+			realm.syncExec(() -> {
+				IObservableValue target = new WritableValue(realm, null, String.class);
+				IObservableValue model = new WritableValue(realm, Integer.valueOf(0), Integer.TYPE);
+				DataBindingContext dbc = new DataBindingContext(realm);
+				dbc.bindValue(target, model);
+
+				startMeasuring();
+				for (int j = 0; j < UPDATES; j++) {
+					target.setValue(values[j % values.length]);
+				}
+				stopMeasuring();
+				dbc.dispose();
+			});
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+}
@@ -0,0 +1,129 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.jface.tests.performance;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.databinding.DataBindingContext;
+import org.eclipse.core.databinding.observable.ExecutorRealm;
+import org.eclipse.core.databinding.observable.value.IObservableValue;
+import org.eclipse.core.databinding.observable.value.WritableValue;
+import org.eclipse.ui.tests.performance.BasicPerformanceTest;
+
+/**
+ * Measures the throughput of value bindings running in an
+ * {@link ExecutorRealm}, without any display.
+ */
+public class HeadlessBindingPerformanceTest extends BasicPerformanceTest {
+
+	private static final int BINDING_COUNT = 100000;
+
+	private ExecutorRealm realm;
+
+	private ExecutorRealm validationRealm;
+
+	/**
+	 * @param testName
+	 */
+	public HeadlessBindingPerformanceTest(String testName) {
+		super(testName);
+	}
+
+	@Override
+	protected void doSetUp() throws Exception {
+		super.doSetUp();
+		realm = new ExecutorRealm("HeadlessBindingPerformanceTest");
+		validationRealm = new ExecutorRealm("HeadlessBindingPerformanceTest validation");
+	}
+
+	@Override
+	protected void doTearDown() throws Exception {
+		realm.dispose();
+		validationRealm.dispose();
+		super.doTearDown();
+	}
+
+	/**
+	 * Binds 100k pairs of values in a single realm and pushes one update
+	 * through every binding.
+	 */
+	public void testBindAndUpdateInSingleRealm() throws Exception {
+		for (int i = 0; i < 5; i++) {
+			final IObservableValue[] targets = new IObservableValue[BINDING_COUNT];
+			final IObservableValue[] models = new IObservableValue[BINDING_COUNT];
+			final DataBindingContext[] dbc = new DataBindingContext[1];
+
+			startMeasuring();
+			realm.syncExec(() -> {
+				dbc[0] = new DataBindingContext(realm);
+				for (int j = 0; j < BINDING_COUNT; j++) {
+					targets[j] = new WritableValue(realm, null, Integer.class);
+					models[j] = new WritableValue(realm, null, Integer.class);
+					dbc[0].bindValue(targets[j], models[j]);
+				}
+				for (int j = 0; j < BINDING_COUNT; j++) {
+					targets[j].setValue(Integer.valueOf(j));
+				}
+			});
+			stopMeasuring();
+
+			realm.syncExec(() -> {
+				assertEquals(Integer.valueOf(BINDING_COUNT - 1), models[BINDING_COUNT - 1].getValue());
+				dbc[0].dispose();
+			});
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	/**
+	 * Binds 100k pairs of values and lets validation and conversion run in a
+	 * separate validation realm.
+	 */
+	public void testBindAndUpdateWithValidationRealm() throws Exception {
+		for (int i = 0; i < 5; i++) {
+			final IObservableValue[] targets = new IObservableValue[BINDING_COUNT];
+			final IObservableValue[] models = new IObservableValue[BINDING_COUNT];
+			final DataBindingContext[] dbc = new DataBindingContext[1];
+
+			realm.syncExec(() -> {
+				for (int j = 0; j < BINDING_COUNT; j++) {
+					targets[j] = new WritableValue(realm, null, Integer.class);
+					models[j] = new WritableValue(realm, null, Integer.class);
+				}
+			});
+
+			startMeasuring();
+			validationRealm.syncExec(() -> {
+				dbc[0] = new DataBindingContext(validationRealm);
+				dbc[0].setValidateInValidationRealm(true);
+				for (int j = 0; j < BINDING_COUNT; j++) {
+					dbc[0].bindValue(targets[j], models[j]);
+				}
+			});
+			realm.syncExec(() -> {
+				for (int j = 0; j < BINDING_COUNT; j++) {
+					targets[j].setValue(Integer.valueOf(j));
+				}
+			});
+			assertTrue(validationRealm.awaitIdle(1, TimeUnit.MINUTES));
+			assertTrue(realm.awaitIdle(1, TimeUnit.MINUTES));
+			stopMeasuring();
+
+			realm.syncExec(
+					() -> assertEquals(Integer.valueOf(BINDING_COUNT - 1), models[BINDING_COUNT - 1].getValue()));
+			validationRealm.syncExec(() -> dbc[0].dispose());
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+}
@@ -48,6 +48,17 @@ public class JFacePerformanceSuite extends FilteredTestSuite {
 		addTest(new ProgressMonitorDialogPerformanceTest("testLongNames"));
 		addTest(new ShrinkingTreeTest("testTreeViewerRefresh"));
 		addTest(new CollatorPerformanceTest("testCollator"));
+		addTest(new HeadlessBindingPerformanceTest("testBindAndUpdateInSingleRealm"));
+		addTest(new HeadlessBindingPerformanceTest("testBindAndUpdateWithValidationRealm"));
+		addTest(new ConverterPerformanceTest("testCreateFormBindings"));
+		addTest(new ConverterPerformanceTest("testConversionPerUpdate"));
+		addTest(new PrimitiveObservablePerformanceTest("testBoxedValueUpdates"));
+		addTest(new PrimitiveObservablePerformanceTest("testPrimitiveValueUpdates"));
+		addTest(new PrimitiveObservablePerformanceTest("testBoxedListUpdates"));
+		addTest(new PrimitiveObservablePerformanceTest("testPrimitiveListUpdates"));
+		addTest(new MasterDetailPerformanceTest("testCreateAndReadVisible"));
+		addTest(new MasterDetailPerformanceTest("testObservedDetailChanges"));
+		addTest(new BeanListenerPerformanceTest("testObserveBeanProperties"));
 
 	}
 }
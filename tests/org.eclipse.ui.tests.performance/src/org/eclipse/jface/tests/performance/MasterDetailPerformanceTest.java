@@ -0,0 +1,165 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.jface.tests.performance;
+
+import java.beans.PropertyChangeListener;
+import java.beans.PropertyChangeSupport;
+import java.util.Arrays;
+
+import org.eclipse.core.databinding.beans.BeanProperties;
+import org.eclipse.core.databinding.observable.ExecutorRealm;
+import org.eclipse.core.databinding.observable.list.IObservableList;
+import org.eclipse.core.databinding.observable.list.WritableList;
+import org.eclipse.core.databinding.observable.masterdetail.IObservableFactory;
+import org.eclipse.core.databinding.observable.masterdetail.MasterDetailObservables;
+import org.eclipse.core.databinding.observable.value.IObservableValue;
+import org.eclipse.ui.tests.performance.BasicPerformanceTest;
+
+/**
+ * Measures detail value lists over a master list of 100k beans.
+ */
+public class MasterDetailPerformanceTest extends BasicPerformanceTest {
+
+	private static final int BEAN_COUNT = 100000;
+
+	private static final int CHANGES = 10000;
+
+	private ExecutorRealm realm;
+
+	/**
+	 * @param testName
+	 */
+	public MasterDetailPerformanceTest(String testName) {
+		super(testName);
+	}
+
+	@Override
+	protected void doSetUp() throws Exception {
+		super.doSetUp();
+		realm = new ExecutorRealm("MasterDetailPerformanceTest");
+	}
+
+	@Override
+	protected void doTearDown() throws Exception {
+		realm.dispose();
+		super.doTearDown();
+	}
+
+	/**
+	 * Creates a detail list over 100k beans and reads only the first hundred
+	 * elements, as a virtual table would.
+	 */
+	public void testCreateAndReadVisible() throws Exception {
+		for (int i = 0; i < 10; i++) {
+			realm.syncExec(() -> {
+				IObservableList<Bean> masterList = createMasterList();
+				IObservableFactory<Bean, IObservableValue<String>> factory = BeanProperties
+						.value(Bean.class, "name").valueFactory(realm);
+
+				startMeasuring();
+				IObservableList<String> detailList = MasterDetailObservables.detailValues(masterList, factory,
+						String.class);
+				for (int j = 0; j < 100; j++) {
+					assertNotNull(detailList.get(j));
+				}
+				stopMeasuring();
+				detailList.dispose();
+			});
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	/**
+	 * Changes the detail property of 10k beans spread over a master list of
+	 * 100k beans while the detail list is observed.
+	 */
+	public void testObservedDetailChanges() throws Exception {
+		for (int i = 0; i < 5; i++) {
+			realm.syncExec(() -> {
+				IObservableList<Bean> masterList = createMasterList();
+				IObservableFactory<Bean, IObservableValue<String>> factory = BeanProperties
+						.value(Bean.class, "name").valueFactory(realm);
+				IObservableList<String> detailList = MasterDetailObservables.detailValues(masterList, factory,
+						String.class);
+				final int[] events = new int[1];
+				detailList.addListChangeListener(event -> events[0]++);
+
+				startMeasuring();
+				for (int j = 0; j < CHANGES; j++) {
+					masterList.get((int) ((long) j * BEAN_COUNT / CHANGES)).setName("changed" + j);
+				}
+				stopMeasuring();
+				assertEquals(CHANGES, events[0]);
+				detailList.dispose();
+			});
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	private IObservableList<Bean> createMasterList() {
+		IObservableList<Bean> masterList = new WritableList<>(realm);
+		Bean[] beans = new Bean[BEAN_COUNT];
+		for (int i = 0; i < BEAN_COUNT; i++) {
+			beans[i] = new Bean("bean" + i);
+		}
+		masterList.addAll(Arrays.asList(beans));
+		return masterList;
+	}
+
+	/**
+	 * Minimal bean with a bound name property.
+	 */
+	public static class Bean {
+		private final PropertyChangeSupport changeSupport = new PropertyChangeSupport(this);
+
+		private String name;
+
+		/**
+		 * @param name
+		 */
+		public Bean(String name) {
+			this.name = name;
+		}
+
+		/**
+		 * @param listener
+		 */
+		public void addPropertyChangeListener(PropertyChangeListener listener) {
+			changeSupport.addPropertyChangeListener(listener);
+		}
+
+		/**
+		 * @param listener
+		 */
+		public void removePropertyChangeListener(PropertyChangeListener listener) {
+			changeSupport.removePropertyChangeListener(listener);
+		}
+
+		/**
+		 * @return the name
+		 */
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * @param name
+		 */
+		public void setName(String name) {
+			String oldName = this.name;
+			this.name = name;
+			changeSupport.firePropertyChange("name", oldName, name);
+		}
+	}
+}
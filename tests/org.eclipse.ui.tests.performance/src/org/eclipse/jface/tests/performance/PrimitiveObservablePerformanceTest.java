@@ -0,0 +1,150 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.jface.tests.performance;
+
+import org.eclipse.core.databinding.observable.ExecutorRealm;
+import org.eclipse.core.databinding.observable.list.WritableIntList;
+import org.eclipse.core.databinding.observable.list.WritableList;
+import org.eclipse.core.databinding.observable.value.WritableIntValue;
+import org.eclipse.core.databinding.observable.value.WritableValue;
+import org.eclipse.ui.tests.performance.BasicPerformanceTest;
+
+/**
+ * Compares high frequency updates of boxed observables with their primitive
+ * specialisations. The values used are outside of the <code>Integer</code>
+ * cache, so every boxed update allocates.
+ */
+public class PrimitiveObservablePerformanceTest extends BasicPerformanceTest {
+
+	private static final int UPDATES = 1000000;
+
+	private static final int LIST_SIZE = 100000;
+
+	private static final int OFFSET = 1 << 20;
+
+	private ExecutorRealm realm;
+
+	/**
+	 * @param testName
+	 */
+	public PrimitiveObservablePerformanceTest(String testName) {
+		super(testName);
+	}
+
+	@Override
+	protected void doSetUp() throws Exception {
+		super.doSetUp();
+		realm = new ExecutorRealm("PrimitiveObservablePerformanceTest");
+	}
+
+	@Override
+	protected void doTearDown() throws Exception {
+		realm.dispose();
+		super.doTearDown();
+	}
+
+	/**
+	 * Sets a boxed value 1M times while a value change listener is attached.
+	 */
+	public void testBoxedValueUpdates() throws Exception {
+		for (int i = 0; i < 10; i++) {
+			realm.syncExec(() -> {
+				WritableValue<Integer> value = new WritableValue<>(realm, Integer.valueOf(0), Integer.class);
+				final long[] sum = new long[1];
+				value.addValueChangeListener(event -> sum[0] += event.diff.getNewValue().intValue());
+
+				startMeasuring();
+				for (int j = 0; j < UPDATES; j++) {
+					value.setValue(Integer.valueOf(OFFSET + j));
+				}
+				stopMeasuring();
+				assertTrue(sum[0] > 0);
+			});
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	/**
+	 * Sets a primitive value 1M times while an int value change listener is
+	 * attached.
+	 */
+	public void testPrimitiveValueUpdates() throws Exception {
+		for (int i = 0; i < 10; i++) {
+			realm.syncExec(() -> {
+				WritableIntValue value = new WritableIntValue(realm, 0);
+				final long[] sum = new long[1];
+				value.addIntValueChangeListener(event -> sum[0] += event.newValue);
+
+				startMeasuring();
+				for (int j = 0; j < UPDATES; j++) {
+					value.setIntValue(OFFSET + j);
+				}
+				stopMeasuring();
+				assertTrue(sum[0] > 0);
+			});
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	/**
+	 * Fills a boxed list with 100k elements and replaces every element once.
+	 */
+	public void testBoxedListUpdates() throws Exception {
+		for (int i = 0; i < 10; i++) {
+			realm.syncExec(() -> {
+				WritableList<Integer> list = new WritableList<>(realm);
+				final int[] changes = new int[1];
+				list.addListChangeListener(event -> changes[0] += event.diff.getDifferences().length);
+
+				startMeasuring();
+				for (int j = 0; j < LIST_SIZE; j++) {
+					list.add(Integer.valueOf(OFFSET + j));
+				}
+				for (int j = 0; j < LIST_SIZE; j++) {
+					list.set(j, Integer.valueOf(OFFSET - j));
+				}
+				stopMeasuring();
+				assertEquals(LIST_SIZE * 3, changes[0]);
+			});
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	/**
+	 * Fills a primitive list with 100k elements and replaces every element
+	 * once.
+	 */
+	public void testPrimitiveListUpdates() throws Exception {
+		for (int i = 0; i < 10; i++) {
+			realm.syncExec(() -> {
+				WritableIntList list = new WritableIntList(realm);
+				final int[] changes = new int[1];
+				list.addIntListChangeListener(event -> changes[0] += event.diff.getDifferenceCount());
+
+				startMeasuring();
+				for (int j = 0; j < LIST_SIZE; j++) {
+					list.addInt(OFFSET + j);
+				}
+				for (int j = 0; j < LIST_SIZE; j++) {
+					list.setInt(j, OFFSET - j);
+				}
+				stopMeasuring();
+				assertEquals(LIST_SIZE * 3, changes[0]);
+			});
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+}
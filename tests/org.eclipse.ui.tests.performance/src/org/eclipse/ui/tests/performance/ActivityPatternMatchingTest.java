@@ -0,0 +1,212 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.tests.performance;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.test.performance.Dimension;
+import org.eclipse.ui.activities.IIdentifier;
+import org.eclipse.ui.activities.IIdentifierListener;
+import org.eclipse.ui.activities.WorkbenchTriggerPointAdvisor;
+import org.eclipse.ui.internal.activities.AbstractActivityRegistry;
+import org.eclipse.ui.internal.activities.ActivityDefinition;
+import org.eclipse.ui.internal.activities.ActivityPatternBindingDefinition;
+import org.eclipse.ui.internal.activities.MutableActivityManager;
+
+/**
+ * Measures matching identifiers against the pattern bindings of many
+ * activities, and updating the identifiers when activities are enabled.
+ */
+public class ActivityPatternMatchingTest extends BasicPerformanceTest {
+
+	private static final int ACTIVITY_COUNT = 500;
+
+	private static final int IDENTIFIER_COUNT = 20000;
+
+	private static final String SOURCE_ID = "org.eclipse.ui.tests.performance";
+
+	/**
+	 * A registry with activities bound to plug-in prefixes, to exact ids and
+	 * to a few patterns without a literal prefix.
+	 */
+	private static class ActivityRegistry extends AbstractActivityRegistry {
+		ActivityRegistry() {
+			activityDefinitions = new ArrayList<>();
+			activityPatternBindingDefinitions = new ArrayList<>();
+			for (int i = 0; i < ACTIVITY_COUNT; i++) {
+				String activityId = getActivityId(i);
+				activityDefinitions.add(new ActivityDefinition(activityId, activityId, SOURCE_ID, null));
+				activityPatternBindingDefinitions.add(new ActivityPatternBindingDefinition(activityId,
+						"org\\.eclipse\\.plugin" + i + "/.*", SOURCE_ID));
+				activityPatternBindingDefinitions.add(new ActivityPatternBindingDefinition(activityId,
+						"org.eclipse.other" + i + ".*/view.*", SOURCE_ID));
+				activityPatternBindingDefinitions.add(new ActivityPatternBindingDefinition(activityId,
+						"org.eclipse.exact/" + i, SOURCE_ID, true));
+				if (i % 100 == 0) {
+					activityPatternBindingDefinitions.add(new ActivityPatternBindingDefinition(activityId,
+							".*/contribution" + i, SOURCE_ID));
+				}
+			}
+		}
+	}
+
+	/**
+	 * @param testName
+	 */
+	public ActivityPatternMatchingTest(String testName) {
+		super(testName);
+	}
+
+	private static String getActivityId(int i) {
+		return "org.eclipse.ui.tests.performance.activity" + i;
+	}
+
+	private static String getIdentifierId(int i) {
+		int plugin = i % ACTIVITY_COUNT;
+		switch (i % 4) {
+		case 0:
+			return "org.eclipse.plugin" + plugin + "/contribution" + i;
+		case 1:
+			return "org.eclipse.other" + plugin + ".ui/view" + i;
+		case 2:
+			return "org.eclipse.exact/" + plugin;
+		default:
+			return "org.eclipse.unbound" + plugin + "/contribution" + i;
+		}
+	}
+
+	private static String[] createIdentifierIds() {
+		String[] ids = new String[IDENTIFIER_COUNT];
+		for (int i = 0; i < ids.length; i++) {
+			ids[i] = getIdentifierId(i);
+		}
+		return ids;
+	}
+
+	private static MutableActivityManager createActivityManager() {
+		return new MutableActivityManager(new WorkbenchTriggerPointAdvisor(), new ActivityRegistry());
+	}
+
+	/**
+	 * Creates the identifiers of a new activity manager and checks the
+	 * activities they are bound to.
+	 */
+	public void testGetIdentifiers() {
+		String[] ids = createIdentifierIds();
+		MutableActivityManager activityManager = createActivityManager();
+		try {
+			IIdentifier identifier = activityManager.getIdentifier(getIdentifierId(ACTIVITY_COUNT + 1));
+			assertEquals(Collections.singleton(getActivityId(1)), identifier.getActivityIds());
+			identifier = activityManager.getIdentifier("org.eclipse.plugin300/contribution100");
+			Set<String> expected = new HashSet<>();
+			expected.add(getActivityId(300));
+			expected.add(getActivityId(100));
+			assertEquals(expected, identifier.getActivityIds());
+			assertTrue(activityManager.getIdentifier(getIdentifierId(3)).getActivityIds().isEmpty());
+		} finally {
+			activityManager.unhookRegistryListeners();
+		}
+
+		tagIfNecessary("UI - Activity pattern matching of " + IDENTIFIER_COUNT + " identifiers",
+				Dimension.ELAPSED_PROCESS);
+		for (int i = 0; i < 10; i++) {
+			activityManager = createActivityManager();
+			startMeasuring();
+			for (String id : ids) {
+				activityManager.getIdentifier(id);
+			}
+			stopMeasuring();
+			activityManager.unhookRegistryListeners();
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	/**
+	 * Enables and disables activities one at a time, which updates the
+	 * identifiers bound to them.
+	 */
+	public void testEnableActivities() {
+		String[] ids = createIdentifierIds();
+		MutableActivityManager activityManager = createActivityManager();
+		try {
+			for (String id : ids) {
+				activityManager.getIdentifier(id);
+			}
+			IIdentifier identifier = activityManager.getIdentifier("org.eclipse.plugin7/contribution");
+			assertFalse(identifier.isEnabled());
+			activityManager.setEnabledActivityIds(Collections.singleton(getActivityId(7)));
+			assertTrue(identifier.isEnabled());
+			activityManager.setEnabledActivityIds(Collections.emptySet());
+			assertFalse(identifier.isEnabled());
+
+			for (int i = 0; i < 10; i++) {
+				startMeasuring();
+				Set<String> enabledActivityIds = new HashSet<>();
+				for (int j = 0; j < 50; j++) {
+					enabledActivityIds.add(getActivityId(j));
+					activityManager.setEnabledActivityIds(enabledActivityIds);
+				}
+				activityManager.setEnabledActivityIds(Collections.emptySet());
+				stopMeasuring();
+			}
+		} finally {
+			activityManager.unhookRegistryListeners();
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	/**
+	 * Toggles a capability, which only updates and notifies the identifiers
+	 * bound to its activity.
+	 */
+	public void testToggleActivity() {
+		String[] ids = createIdentifierIds();
+		MutableActivityManager activityManager = createActivityManager();
+		List<IIdentifier> identifiers = new ArrayList<>();
+		final int[] changeCount = new int[1];
+		IIdentifierListener listener = identifierEvent -> changeCount[0]++;
+		try {
+			for (String id : ids) {
+				IIdentifier identifier = activityManager.getIdentifier(id);
+				identifier.addIdentifierListener(listener);
+				identifiers.add(identifier);
+			}
+			Set<String> enabledActivityIds = Collections.singleton(getActivityId(8));
+			activityManager.setEnabledActivityIds(enabledActivityIds);
+			// only the contributions of plug-in 8 are bound to the activity
+			assertEquals(IDENTIFIER_COUNT / ACTIVITY_COUNT, changeCount[0]);
+			activityManager.setEnabledActivityIds(Collections.emptySet());
+			assertEquals(2 * IDENTIFIER_COUNT / ACTIVITY_COUNT, changeCount[0]);
+
+			tagIfNecessary("UI - Activity toggling with " + IDENTIFIER_COUNT + " identifiers",
+					Dimension.ELAPSED_PROCESS);
+			for (int i = 0; i < 20; i++) {
+				startMeasuring();
+				activityManager.setEnabledActivityIds(enabledActivityIds);
+				activityManager.setEnabledActivityIds(Collections.emptySet());
+				stopMeasuring();
+			}
+		} finally {
+			for (IIdentifier identifier : identifiers) {
+				identifier.removeIdentifierListener(listener);
+			}
+			activityManager.unhookRegistryListeners();
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+}
@@ -0,0 +1,98 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.tests.performance;
+
+import java.util.Arrays;
+
+import org.eclipse.test.performance.Dimension;
+import org.eclipse.ui.IEditorDescriptor;
+import org.eclipse.ui.IEditorRegistry;
+
+/**
+ * Measures looking up the editors of many distinct file names, as done for
+ * the labels, decorators and "Open With" menus of large navigators.
+ */
+public class EditorRegistryPerformanceTest extends BasicPerformanceTest {
+
+	private static final int FILE_COUNT = 100000;
+
+	private static final String[] EXTENSIONS = { ".java", ".xml", ".txt", ".html", ".properties",
+			".perf_basic", ".perf_outline", ".unknown", "" };
+
+	private static String[] fileNames;
+
+	/**
+	 * @param testName
+	 */
+	public EditorRegistryPerformanceTest(String testName) {
+		super(testName);
+	}
+
+	@Override
+	protected void doSetUp() throws Exception {
+		super.doSetUp();
+		if (fileNames == null) {
+			fileNames = new String[FILE_COUNT];
+			for (int i = 0; i < FILE_COUNT; i++) {
+				fileNames[i] = "File" + i + EXTENSIONS[i % EXTENSIONS.length];
+			}
+		}
+	}
+
+	/**
+	 * Looks up the default editor of every file name. The same file name
+	 * always gets the same editor.
+	 */
+	public void testGetDefaultEditor() {
+		IEditorRegistry registry = fWorkbench.getEditorRegistry();
+		for (int i = 0; i < EXTENSIONS.length; i++) {
+			assertEquals(fileNames[i], registry.getDefaultEditor(fileNames[i]),
+					registry.getDefaultEditor(fileNames[i + EXTENSIONS.length]));
+		}
+
+		tagIfNecessary("UI - Editor registry default editor of " + FILE_COUNT + " files",
+				Dimension.ELAPSED_PROCESS);
+		for (int i = 0; i < 10; i++) {
+			startMeasuring();
+			for (String fileName : fileNames) {
+				registry.getDefaultEditor(fileName);
+			}
+			stopMeasuring();
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	/**
+	 * Looks up all the editors of every file name. The returned arrays can
+	 * be modified without affecting the following lookups.
+	 */
+	public void testGetEditors() {
+		IEditorRegistry registry = fWorkbench.getEditorRegistry();
+		// the editors of this plug-in
+		int index = Arrays.asList(EXTENSIONS).indexOf(".perf_basic");
+		IEditorDescriptor[] editors = registry.getEditors(fileNames[index]);
+		assertTrue(editors.length > 0);
+		IEditorDescriptor[] expected = editors.clone();
+		Arrays.fill(editors, null);
+		assertTrue(Arrays.equals(expected, registry.getEditors(fileNames[index + EXTENSIONS.length])));
+
+		for (int i = 0; i < 10; i++) {
+			startMeasuring();
+			for (String fileName : fileNames) {
+				registry.getEditors(fileName);
+			}
+			stopMeasuring();
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+}
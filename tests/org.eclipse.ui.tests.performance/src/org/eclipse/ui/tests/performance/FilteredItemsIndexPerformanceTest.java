@@ -0,0 +1,158 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.tests.performance;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.eclipse.test.performance.Dimension;
+import org.eclipse.ui.dialogs.SearchPattern;
+import org.eclipse.ui.internal.dialogs.ItemNameIndex;
+
+/**
+ * Measures filtering one million item names with the index used by
+ * FilteredItemsSelectionDialog, compared to matching every name.
+ */
+public class FilteredItemsIndexPerformanceTest extends BasicPerformanceTest {
+
+	private static final int ITEM_COUNT = 1000000;
+
+	private static final String[] WORDS = { "Abstract", "Action", "Bar", "Cache", "Content", "Dialog",
+			"Editor", "Factory", "Filter", "Handler", "Index", "Job", "Label", "Manager", "Model",
+			"Provider", "Registry", "Selection", "Service", "Test", "View", "Viewer", "Wizard" };
+
+	private static final String[] EXTENSIONS = { ".java", ".class", ".xml", ".html", ".properties" };
+
+	private static final String[] PATTERNS = { "Abs", "ContentPro", "CPV", "SeSe", "*Cache*Job",
+			"*ler?Test", "Factory.java", "Nothing" };
+
+	private static String[] names;
+
+	/**
+	 * @param testName
+	 */
+	public FilteredItemsIndexPerformanceTest(String testName) {
+		super(testName);
+	}
+
+	@Override
+	protected void doSetUp() throws Exception {
+		super.doSetUp();
+		if (names == null) {
+			names = createNames();
+		}
+	}
+
+	private static String[] createNames() {
+		Random random = new Random(42);
+		String[] result = new String[ITEM_COUNT];
+		StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < ITEM_COUNT; i++) {
+			builder.setLength(0);
+			int words = 1 + random.nextInt(4);
+			for (int j = 0; j < words; j++) {
+				builder.append(WORDS[random.nextInt(WORDS.length)]);
+			}
+			if (random.nextInt(4) == 0) {
+				builder.append(random.nextInt(100));
+			}
+			builder.append(EXTENSIONS[random.nextInt(EXTENSIONS.length)]);
+			result[i] = builder.toString();
+		}
+		return result;
+	}
+
+	private static SearchPattern createPattern(String text) {
+		SearchPattern pattern = new SearchPattern();
+		pattern.setPattern(text);
+		return pattern;
+	}
+
+	private static Set<Object> matchAll(String[] items, SearchPattern pattern) {
+		Set<Object> matches = new HashSet<>();
+		for (String name : items) {
+			if (pattern.matches(name)) {
+				matches.add(name);
+			}
+		}
+		return matches;
+	}
+
+	private static List<Object> matchCandidates(ItemNameIndex index, SearchPattern pattern) {
+		List<Object> matches = new ArrayList<>();
+		for (int candidate : index.findCandidates(pattern)) {
+			Object item = index.getItem(candidate);
+			if (pattern.matches((String) item)) {
+				matches.add(item);
+			}
+		}
+		return matches;
+	}
+
+	/**
+	 * Builds the index of one million names.
+	 */
+	public void testBuildIndex() {
+		tagIfNecessary("UI - Filtered items index build with 1M items", Dimension.ELAPSED_PROCESS);
+		for (int i = 0; i < 5; i++) {
+			startMeasuring();
+			ItemNameIndex index = new ItemNameIndex(names, names, null);
+			stopMeasuring();
+			assertEquals(ITEM_COUNT, index.size());
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	/**
+	 * Filters one million names with the index. The index finds the same
+	 * matches as matching every name.
+	 */
+	public void testFilterWithIndex() {
+		ItemNameIndex index = new ItemNameIndex(names, names, null);
+		for (String text : PATTERNS) {
+			SearchPattern pattern = createPattern(text);
+			List<Object> matches = matchCandidates(index, pattern);
+			assertEquals(text, matchAll(names, pattern), new HashSet<>(matches));
+			assertEquals(text, matches.size(), new HashSet<>(matches).size());
+		}
+
+		tagIfNecessary("UI - Filtered items index search with 1M items", Dimension.ELAPSED_PROCESS);
+		for (int i = 0; i < 10; i++) {
+			startMeasuring();
+			for (String text : PATTERNS) {
+				matchCandidates(index, createPattern(text));
+			}
+			stopMeasuring();
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	/**
+	 * Filters one million names by matching every name, the baseline of
+	 * {@link #testFilterWithIndex()}.
+	 */
+	public void testFilterWithoutIndex() {
+		for (int i = 0; i < 10; i++) {
+			startMeasuring();
+			for (String text : PATTERNS) {
+				matchAll(names, createPattern(text));
+			}
+			stopMeasuring();
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+}
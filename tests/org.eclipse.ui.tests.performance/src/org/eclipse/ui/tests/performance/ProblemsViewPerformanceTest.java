@@ -17,6 +17,7 @@ import java.util.Map;
 import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.resources.IWorkspaceRoot;
+import org.eclipse.core.resources.IWorkspaceRunnable;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.test.performance.Dimension;
@@ -38,6 +39,11 @@ public class ProblemsViewPerformanceTest extends BasicPerformanceTest {
 
 	private String PROBLEMS_VIEW_ID = "org.eclipse.ui.tests.performance.problemsView";
 
+	private static final int LARGE_MARKER_COUNT = 1000000;
+
+	// distinct messages of the large population, shared by many markers
+	private static final int LARGE_MESSAGE_COUNT = 1000;
+
 	/**
 	 * Create a new instance of the receiver.
 	 *
@@ -84,24 +90,91 @@ public class ProblemsViewPerformanceTest extends BasicPerformanceTest {
 	}
 
 	/**
-	 * Remove the created markers
+	 * Test the population of the problems view with a million markers, and
+	 * the update after one of them changes.
 	 */
-	private void removeMarkers() {
+	public void testLargePopulation() throws CoreException {
+		IWorkbenchWindow window = openTestWindow(EMPTY_PERSPECTIVE_ID);
+		final IWorkbenchPage page = window.getActivePage();
+
+		PerformanceProblemsView view;
 
 		try {
-			IWorkspaceRoot root = ResourcesPlugin.getWorkspace().getRoot();
+			view = (PerformanceProblemsView) page.showView(PROBLEMS_VIEW_ID);
+		} catch (PartInitException e) {
+			e.printStackTrace();
+			fail();
+			return;
+		}
+
+		tagIfNecessary("UI - Problems View population with 1M markers",
+				Dimension.ELAPSED_PROCESS);
+
+		try {
+			for (int i = 0; i < 3; i++) {
+				createLargeMarkers();
+				processEvents();
+				startMeasuring();
+				while (view.getTreeWidget().getItemCount() == 0)
+					processEvents();
+				stopMeasuring();
+
+				// all markers are errors, one warning adds a category
+				IMarker marker = findTestMarkers()[0];
+				startMeasuring();
+				marker.setAttribute(IMarker.SEVERITY, IMarker.SEVERITY_WARNING);
+				while (view.getTreeWidget().getItemCount() < 2)
+					processEvents();
+				stopMeasuring();
+
+				removeMarkers();
+				while (view.getTreeWidget().getItemCount() > 0)
+					processEvents();
+			}
+			commitMeasurements();
+			assertPerformance();
+		} finally {
+			removeMarkers();
+		}
+	}
+
+	/**
+	 * Create a million markers in one workspace operation.
+	 */
+	private void createLargeMarkers() throws CoreException {
+		final IWorkspaceRoot root = ResourcesPlugin.getWorkspace().getRoot();
+		ResourcesPlugin.getWorkspace().run((IWorkspaceRunnable) monitor -> {
+			String[] names = new String[] { IMarker.SEVERITY, IMarker.MESSAGE, IMarker.LINE_NUMBER };
+			for (int i = 0; i < LARGE_MARKER_COUNT; i++) {
+				IMarker marker = root.createMarker(IMarker.PROBLEM);
+				marker.setAttributes(names, new Object[] { Integer.valueOf(IMarker.SEVERITY_ERROR),
+						"this is a test " + (i % LARGE_MESSAGE_COUNT), Integer.valueOf(i) });
+			}
+		}, null);
+	}
 
-			IMarker[] markers = root.findMarkers(IMarker.PROBLEM, false,
-					IResource.DEPTH_ZERO);
+	private IMarker[] findTestMarkers() throws CoreException {
+		return ResourcesPlugin.getWorkspace().getRoot().findMarkers(IMarker.PROBLEM, false, IResource.DEPTH_ZERO);
+	}
 
-			for (int i = 0; i < markers.length; i++) {
-				String message = (String) markers[i]
-						.getAttribute(IMarker.MESSAGE);
+	/**
+	 * Remove the created markers in one workspace operation.
+	 */
+	private void removeMarkers() {
 
-				if (message != null && message.startsWith("this is a test")) {
-					markers[i].delete();
+		try {
+			ResourcesPlugin.getWorkspace().run((IWorkspaceRunnable) monitor -> {
+				IMarker[] markers = findTestMarkers();
+
+				for (int i = 0; i < markers.length; i++) {
+					String message = (String) markers[i]
+							.getAttribute(IMarker.MESSAGE);
+
+					if (message != null && message.startsWith("this is a test")) {
+						markers[i].delete();
+					}
 				}
-			}
+			}, null);
 		} catch (CoreException e) {
 			e.printStackTrace();
 		}
@@ -1,6 +1,7 @@
 package org.eclipse.ui.tests.performance;
 
 import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.OperationCanceledException;
@@ -10,6 +11,7 @@ import org.eclipse.jface.dialogs.ProgressMonitorDialog;
 import org.eclipse.jface.operation.IRunnableWithProgress;
 import org.eclipse.swt.widgets.Display;
 import org.eclipse.test.performance.Dimension;
+import org.eclipse.ui.IPageLayout;
 import org.eclipse.ui.IWorkbenchWindow;
 import org.eclipse.ui.PlatformUI;
 import org.eclipse.ui.internal.IPreferenceConstants;
@@ -242,6 +244,60 @@ public class ProgressReportingTest extends BasicPerformanceTest {
 		});
 	}
 
+	/**
+	 * Test the cost of monitor.worked in jobs while the progress view is
+	 * showing them
+	 */
+	public void testJobWorkedWithProgressView() throws Exception {
+		IWorkbenchWindow window = openTestWindow();
+		window.getActivePage().showView(IPageLayout.ID_PROGRESS_VIEW);
+		setRunInBackground(true);
+		runAsyncTest(() -> {
+			Job.create("Test Job", monitor -> {
+				monitor.beginTask("Test Job", ITERATIONS);
+				int i = 0;
+				long result = 0;
+				while (i < ITERATIONS) {
+					monitor.worked(1);
+					result += i;
+					i++;
+				}
+
+				endAsyncTest(result);
+			}).schedule();
+		});
+	}
+
+	/**
+	 * Test the cost of monitor.worked in several jobs reporting progress
+	 * concurrently, while the progress view is showing them
+	 */
+	public void testConcurrentJobsWorked() throws Exception {
+		IWorkbenchWindow window = openTestWindow();
+		window.getActivePage().showView(IPageLayout.ID_PROGRESS_VIEW);
+		setRunInBackground(true);
+		final int jobCount = 8;
+		runAsyncTest(() -> {
+			AtomicInteger running = new AtomicInteger(jobCount);
+			for (int j = 0; j < jobCount; j++) {
+				Job.create("Test Job " + j, monitor -> {
+					monitor.beginTask("Test Job", ITERATIONS / jobCount);
+					int i = 0;
+					long result = 0;
+					while (i < ITERATIONS / jobCount) {
+						monitor.worked(1);
+						result += i;
+						i++;
+					}
+
+					if (running.decrementAndGet() == 0) {
+						endAsyncTest(result);
+					}
+				}).schedule();
+			}
+		});
+	}
+
 	/**
 	 * Test the cost of subMonitor.split(). Note that if
 	 * {@link SubMonitor#split} is performing cancellation checks at the correct
@@ -0,0 +1,145 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.tests.performance;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.ui.IPageLayout;
+import org.eclipse.ui.IWorkbenchWindow;
+import org.eclipse.ui.internal.progress.DetailedProgressViewer;
+import org.eclipse.ui.internal.progress.JobInfo;
+import org.eclipse.ui.internal.progress.ProgressManager;
+import org.eclipse.ui.internal.progress.ProgressView;
+
+/**
+ * Measures the latency of applying progress updates to the Progress view
+ * while 1000 jobs are running.
+ */
+public class ProgressViewPerformanceTest extends BasicPerformanceTest {
+
+	private static final int JOB_COUNT = 1000;
+
+	private CountDownLatch started;
+
+	private CountDownLatch finish;
+
+	private List<Job> jobs;
+
+	/**
+	 * @param testName
+	 */
+	public ProgressViewPerformanceTest(String testName) {
+		super(testName);
+	}
+
+	@Override
+	protected void doSetUp() throws Exception {
+		super.doSetUp();
+		started = new CountDownLatch(JOB_COUNT);
+		finish = new CountDownLatch(1);
+		jobs = new ArrayList<>(JOB_COUNT);
+		for (int i = 0; i < JOB_COUNT; i++) {
+			Job job = Job.create("Progress View Job " + i, monitor -> {
+				monitor.beginTask("Waiting", 100);
+				monitor.worked(1);
+				started.countDown();
+				try {
+					finish.await(5, TimeUnit.MINUTES);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				monitor.done();
+				return Status.OK_STATUS;
+			});
+			jobs.add(job);
+		}
+	}
+
+	@Override
+	protected void doTearDown() throws Exception {
+		finish.countDown();
+		for (Job job : jobs) {
+			job.join();
+		}
+		super.doTearDown();
+	}
+
+	/**
+	 * Refreshes every running job in the Progress view, the way
+	 * ProgressViewUpdater does once per update cycle.
+	 */
+	public void testRefreshRunningJobs() throws Exception {
+		IWorkbenchWindow window = openTestWindow();
+		ProgressView view = (ProgressView) window.getActivePage().showView(IPageLayout.ID_PROGRESS_VIEW);
+		DetailedProgressViewer viewer = view.getViewer();
+
+		for (Job job : jobs) {
+			job.schedule();
+		}
+		while (!started.await(10, TimeUnit.MILLISECONDS)) {
+			processEvents();
+		}
+		ProgressManager.getInstance().notifyListeners();
+		processEvents();
+
+		JobInfo[] infos = ProgressManager.getInstance().getJobInfos(false);
+		assertTrue(infos.length >= JOB_COUNT);
+
+		for (int i = 0; i < 20; i++) {
+			startMeasuring();
+			for (JobInfo info : infos) {
+				viewer.refresh(info, true);
+			}
+			processEvents();
+			stopMeasuring();
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	/**
+	 * Adds all running jobs to the Progress view and removes them again.
+	 */
+	public void testAddAndRemoveRunningJobs() throws Exception {
+		IWorkbenchWindow window = openTestWindow();
+		ProgressView view = (ProgressView) window.getActivePage().showView(IPageLayout.ID_PROGRESS_VIEW);
+		DetailedProgressViewer viewer = view.getViewer();
+
+		for (Job job : jobs) {
+			job.schedule();
+		}
+		while (!started.await(10, TimeUnit.MILLISECONDS)) {
+			processEvents();
+		}
+		ProgressManager.getInstance().notifyListeners();
+		processEvents();
+
+		JobInfo[] infos = ProgressManager.getInstance().getJobInfos(false);
+
+		for (int i = 0; i < 20; i++) {
+			startMeasuring();
+			viewer.remove(infos);
+			processEvents();
+			for (JobInfo info : infos) {
+				viewer.add(new Object[] { info });
+			}
+			processEvents();
+			stopMeasuring();
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+}
@@ -0,0 +1,114 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.tests.performance;
+
+import org.eclipse.test.performance.Dimension;
+import org.eclipse.ui.internal.quickaccess.CommandProvider;
+import org.eclipse.ui.internal.quickaccess.PerspectiveProvider;
+import org.eclipse.ui.internal.quickaccess.PreferenceProvider;
+import org.eclipse.ui.internal.quickaccess.QuickAccessElement;
+import org.eclipse.ui.internal.quickaccess.QuickAccessProvider;
+import org.eclipse.ui.internal.quickaccess.WizardProvider;
+
+/**
+ * Measures the latency of quick access. The first invocation computes the
+ * elements of the providers, unless they have been indexed in the background,
+ * the following invocations only match the elements as the user types.
+ */
+public class QuickAccessPerformanceTest extends BasicPerformanceTest {
+
+	/** The filters of a user typing a word. */
+	private static final String[] FILTERS = { "p", "pr", "pre", "pref", "prefe", "prefer" };
+
+	/**
+	 * @param testName
+	 */
+	public QuickAccessPerformanceTest(String testName) {
+		super(testName);
+	}
+
+	private static QuickAccessProvider[] createProviders() {
+		return new QuickAccessProvider[] { new PerspectiveProvider(), new CommandProvider(),
+				new WizardProvider(), new PreferenceProvider() };
+	}
+
+	private static int match(QuickAccessProvider[] providers, String filter) {
+		int count = 0;
+		for (QuickAccessProvider provider : providers) {
+			for (QuickAccessElement element : provider.getElementsSorted()) {
+				if (element.match(filter, provider) != null) {
+					count++;
+				}
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Measures the first invocation without an index, which computes the
+	 * elements of all the providers in the UI thread.
+	 */
+	public void testFirstInvocation() {
+		tagIfNecessary("UI - Quick Access first invocation", Dimension.ELAPSED_PROCESS);
+		for (int i = 0; i < 20; i++) {
+			QuickAccessProvider[] providers = createProviders();
+			startMeasuring();
+			match(providers, FILTERS[0]);
+			stopMeasuring();
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	/**
+	 * Measures the first invocation once the indexable providers have been
+	 * indexed, as they are in the background after startup.
+	 */
+	public void testFirstInvocationWithIndex() {
+		for (int i = 0; i < 20; i++) {
+			QuickAccessProvider[] providers = createProviders();
+			for (QuickAccessProvider provider : providers) {
+				if (provider.isIndexable()) {
+					provider.getElementsSorted();
+					assertTrue(provider.hasElementsSorted());
+				}
+			}
+			startMeasuring();
+			match(providers, FILTERS[0]);
+			stopMeasuring();
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	/**
+	 * Measures the following invocations, where every keystroke matches the
+	 * elements of all the providers.
+	 */
+	public void testSubsequentInvocations() {
+		QuickAccessProvider[] providers = createProviders();
+		match(providers, FILTERS[0]);
+		tagIfNecessary("UI - Quick Access subsequent invocations", Dimension.ELAPSED_PROCESS);
+		for (int i = 0; i < 20; i++) {
+			startMeasuring();
+			int previousCount = Integer.MAX_VALUE;
+			for (String filter : FILTERS) {
+				int count = match(providers, filter);
+				// every filter narrows the previous one
+				assertTrue(count <= previousCount);
+				previousCount = count;
+			}
+			stopMeasuring();
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+}
@@ -0,0 +1,113 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.tests.performance;
+
+import java.util.Random;
+
+import org.eclipse.test.performance.Dimension;
+import org.eclipse.ui.dialogs.SearchPattern;
+
+/**
+ * Measures matching one million file names with {@link SearchPattern}, one by
+ * one and in bulk.
+ */
+public class SearchPatternPerformanceTest extends BasicPerformanceTest {
+
+	private static final int NAME_COUNT = 1000000;
+
+	private static final String[] WORDS = { "Abstract", "Action", "Bar", "Cache", "Content", "Dialog",
+			"Editor", "Factory", "Filter", "Handler", "Index", "Job", "Label", "Manager", "Model",
+			"Provider", "Registry", "Selection", "Service", "Test", "View", "Viewer", "Wizard" };
+
+	private static final String[] EXTENSIONS = { ".java", ".class", ".xml", ".html", ".properties" };
+
+	/** Prefix, camel case, wildcard and exact patterns. */
+	private static final String[] PATTERNS = { "abs", "ContentPro", "CPV", "SeSe", "*Cache*Job",
+			"*ler?Test", "*view*.java", "Factory.java " };
+
+	private static String[] names;
+
+	/**
+	 * @param testName
+	 */
+	public SearchPatternPerformanceTest(String testName) {
+		super(testName);
+	}
+
+	@Override
+	protected void doSetUp() throws Exception {
+		super.doSetUp();
+		if (names == null) {
+			Random random = new Random(42);
+			names = new String[NAME_COUNT];
+			StringBuilder builder = new StringBuilder();
+			for (int i = 0; i < NAME_COUNT; i++) {
+				builder.setLength(0);
+				int words = 1 + random.nextInt(4);
+				for (int j = 0; j < words; j++) {
+					builder.append(WORDS[random.nextInt(WORDS.length)]);
+				}
+				builder.append(EXTENSIONS[random.nextInt(EXTENSIONS.length)]);
+				names[i] = builder.toString();
+			}
+		}
+	}
+
+	private static SearchPattern[] createPatterns() {
+		SearchPattern[] patterns = new SearchPattern[PATTERNS.length];
+		for (int i = 0; i < PATTERNS.length; i++) {
+			patterns[i] = new SearchPattern();
+			patterns[i].setPattern(PATTERNS[i]);
+		}
+		return patterns;
+	}
+
+	/**
+	 * Matches the names one by one.
+	 */
+	public void testMatches() {
+		SearchPattern[] patterns = createPatterns();
+		tagIfNecessary("UI - SearchPattern matching 1M names", Dimension.ELAPSED_PROCESS);
+		for (int i = 0; i < 10; i++) {
+			startMeasuring();
+			for (SearchPattern pattern : patterns) {
+				for (String name : names) {
+					pattern.matches(name);
+				}
+			}
+			stopMeasuring();
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	/**
+	 * Matches the names in bulk, which matches them in parallel.
+	 */
+	public void testMatchesInBulk() {
+		SearchPattern[] patterns = createPatterns();
+		for (SearchPattern pattern : patterns) {
+			boolean[] matches = pattern.matches(names);
+			for (int i = 0; i < names.length; i += 997) {
+				assertEquals(pattern.matches(names[i]), matches[i]);
+			}
+		}
+		for (int i = 0; i < 10; i++) {
+			startMeasuring();
+			for (SearchPattern pattern : patterns) {
+				pattern.matches(names);
+			}
+			stopMeasuring();
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+}
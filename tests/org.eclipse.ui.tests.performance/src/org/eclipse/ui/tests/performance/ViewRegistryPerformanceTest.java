@@ -0,0 +1,91 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.tests.performance;
+
+import org.eclipse.e4.core.contexts.ContextInjectionFactory;
+import org.eclipse.e4.core.contexts.IEclipseContext;
+import org.eclipse.e4.ui.model.application.MApplication;
+import org.eclipse.e4.ui.model.application.MApplicationFactory;
+import org.eclipse.test.performance.Dimension;
+import org.eclipse.ui.internal.registry.ViewRegistry;
+
+/**
+ * Measures reading the view registry at startup, both into a new model and
+ * into a model restored with the part descriptors of a previous session. The
+ * latter looks up the existing part descriptor of every view, which the view
+ * registry does through an index of the descriptors by id.
+ */
+public class ViewRegistryPerformanceTest extends BasicPerformanceTest {
+
+	/**
+	 * @param testName
+	 */
+	public ViewRegistryPerformanceTest(String testName) {
+		super(testName);
+	}
+
+	private static MApplication createApplication() {
+		return MApplicationFactory.INSTANCE.createApplication();
+	}
+
+	private ViewRegistry createViewRegistry(MApplication application) {
+		IEclipseContext context = fWorkbench.getService(IEclipseContext.class).createChild();
+		try {
+			context.set(MApplication.class, application);
+			return ContextInjectionFactory.make(ViewRegistry.class, context);
+		} finally {
+			context.dispose();
+		}
+	}
+
+	/**
+	 * Reads the views into a new model, as on the first startup.
+	 */
+	public void testReadViewRegistry() {
+		MApplication application = createApplication();
+		ViewRegistry registry = createViewRegistry(application);
+		assertEquals(fWorkbench.getViewRegistry().getViews().length, registry.getViews().length);
+		assertFalse(application.getDescriptors().isEmpty());
+
+		tagIfNecessary("UI - Read view registry", Dimension.ELAPSED_PROCESS);
+		for (int i = 0; i < 20; i++) {
+			application = createApplication();
+			startMeasuring();
+			createViewRegistry(application);
+			stopMeasuring();
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	/**
+	 * Reads the views into a model which already has their part descriptors,
+	 * as on the following startups.
+	 */
+	public void testReadViewRegistryIntoRestoredModel() {
+		MApplication application = createApplication();
+		createViewRegistry(application);
+		int descriptorCount = application.getDescriptors().size();
+		createViewRegistry(application);
+		// the existing part descriptors are updated
+		assertEquals(descriptorCount, application.getDescriptors().size());
+
+		for (int i = 0; i < 20; i++) {
+			application = createApplication();
+			createViewRegistry(application);
+			startMeasuring();
+			createViewRegistry(application);
+			stopMeasuring();
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+}
@@ -147,6 +147,26 @@ public class SearchPatternAuto extends TestCase {
 		assertMatches("", SearchPattern.RULE_BLANK_MATCH, pattern);
 	}
 
+	/**
+	 * Tests that matching an array of texts, in parallel for large arrays,
+	 * gives the same results as matching the texts one by one.
+	 */
+	public void testMatchesArray() {
+		// Large enough to be matched in parallel.
+		List<String> textList = new ArrayList<>(resources);
+		textList.addAll(resources);
+		String[] texts = textList.toArray(new String[textList.size()]);
+		for (String patternText : new String[] { "", "abcd ", "ab", "**c*e*i", "CD", "AbCdE<" }) {
+			SearchPattern patternMatcher = new SearchPattern();
+			patternMatcher.setPattern(patternText);
+			boolean[] matches = patternMatcher.matches(texts);
+			assertEquals(texts.length, matches.length);
+			for (int i = 0; i < texts.length; i++) {
+				assertEquals(patternText + " " + texts[i], patternMatcher.matches(texts[i]), matches[i]);
+			}
+		}
+	}
+
 	private void assertMatches(String patternText, int searchPattern, Pattern... patterns) {
 		SearchPattern patternMatcher = new SearchPattern();
 		patternMatcher.setPattern(patternText);
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2017 IBM Corporation and others.
+ * Copyright (c) 2006, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -122,6 +122,26 @@ public class FilteredTreeTests extends UITestCase {
 		dialog.close();
 	}
 
+	public void testParallelFiltering() {
+		Dialog dialog = createFilteredTreeDialog();
+		fTreeViewer.setParallelFiltering(true);
+
+		fTreeViewer.getFilterControl().setText("0-0-0-0 name-");
+		waitForJobs(500, 5000);
+		assertNumberOfTopLevelItems(1);
+
+		// narrowing the pattern reuses the texts that did not match
+		fTreeViewer.getFilterControl().setText("0-0-0-0 name-1");
+		waitForJobs(500, 5000);
+		assertNumberOfTopLevelItems(0);
+
+		fTreeViewer.getFilterControl().setText("");
+		waitForJobs(500, 5000);
+		assertNumberOfTopLevelItems(NUM_ITEMS);
+
+		dialog.close();
+	}
+
 	private void runFilteredTreeTest(final int treeStyle){
 		Dialog dialog = createFilteredTreeDialog(treeStyle);
 
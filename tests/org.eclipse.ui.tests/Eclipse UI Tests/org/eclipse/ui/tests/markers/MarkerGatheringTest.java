@@ -0,0 +1,119 @@
+/*******************************************************************************
+ * Copyright (c) 2018 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.ui.tests.markers;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.ui.IWorkbenchPage;
+import org.eclipse.ui.internal.views.markers.ExtendedMarkersView;
+import org.eclipse.ui.internal.views.markers.MarkerContentGenerator;
+import org.eclipse.ui.tests.harness.util.FileUtil;
+import org.eclipse.ui.tests.harness.util.UITestCase;
+import org.eclipse.ui.views.markers.MarkerItem;
+
+/**
+ * MarkerGatheringTest checks that gathering the markers in parallel finds the
+ * same markers as gathering them sequentially.
+ */
+public class MarkerGatheringTest extends UITestCase {
+
+	private static final String VIEW_ID = "org.eclipse.ui.tests.markerTests";
+
+	// more than the markers filtered by one task, so that filtering is split
+	private static final int LARGE_FILE_MARKERS = 5000;
+
+	private List<IProject> projects = new ArrayList<>();
+
+	private Set<IMarker> created = new HashSet<>();
+
+	/**
+	 * Create a new instance of the receiver.
+	 *
+	 * @param testName
+	 */
+	public MarkerGatheringTest(String testName) {
+		super(testName);
+	}
+
+	@Override
+	protected void doSetUp() throws Exception {
+		super.doSetUp();
+		ResourcesPlugin.getWorkspace().run(monitor -> {
+			for (int i = 0; i < 3; i++) {
+				IProject project = FileUtil.createProject("MarkerGatheringTest" + i);
+				projects.add(project);
+				IFile file = FileUtil.createFile("file.txt", project);
+				int count = i == 0 ? LARGE_FILE_MARKERS : 10;
+				for (int j = 0; j < count; j++) {
+					IMarker marker = file.createMarker(IMarker.PROBLEM);
+					marker.setAttribute(IMarker.SEVERITY, IMarker.SEVERITY_ERROR);
+					marker.setAttribute(IMarker.MESSAGE, "Problem " + j);
+					created.add(marker);
+				}
+				// a marker on the project itself
+				created.add(project.createMarker(IMarker.PROBLEM));
+			}
+		}, null);
+	}
+
+	@Override
+	protected void doTearDown() throws Exception {
+		for (IProject project : projects) {
+			FileUtil.deleteProject(project);
+		}
+		projects.clear();
+		created.clear();
+		super.doTearDown();
+	}
+
+	public void testParallelAndSequentialGatherSameMarkers() throws Exception {
+		IWorkbenchPage page = openTestWindow().getActivePage();
+		ExtendedMarkersView view = (ExtendedMarkersView) page.showView(VIEW_ID);
+		MarkerContentGenerator generator = getGenerator(view);
+
+		List<MarkerItem> sequential = new ArrayList<>();
+		assertTrue(generator.gatherMarkers(false, sequential, new NullProgressMonitor()));
+		List<MarkerItem> parallel = new ArrayList<>();
+		assertTrue(generator.gatherMarkers(true, parallel, new NullProgressMonitor()));
+
+		Set<IMarker> sequentialMarkers = getMarkers(sequential);
+		Set<IMarker> parallelMarkers = getMarkers(parallel);
+		// no marker is gathered twice
+		assertEquals(sequential.size(), sequentialMarkers.size());
+		assertEquals(parallel.size(), parallelMarkers.size());
+		assertEquals(sequentialMarkers, parallelMarkers);
+		assertTrue(parallelMarkers.containsAll(created));
+	}
+
+	private static MarkerContentGenerator getGenerator(ExtendedMarkersView view) throws Exception {
+		Method method = ExtendedMarkersView.class.getDeclaredMethod("getGenerator");
+		method.setAccessible(true);
+		return (MarkerContentGenerator) method.invoke(view);
+	}
+
+	private static Set<IMarker> getMarkers(List<MarkerItem> items) {
+		Set<IMarker> markers = new HashSet<>();
+		for (MarkerItem item : items) {
+			markers.add(item.getMarker());
+		}
+		return markers;
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2010 IBM Corporation and others.
+ * Copyright (c) 2009, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -11,11 +11,16 @@
 
 package org.eclipse.ui.tests.progress;
 
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.ui.internal.progress.JobInfo;
 import org.eclipse.ui.internal.progress.JobTreeElement;
 import org.eclipse.ui.internal.progress.ProgressInfoItem;
+import org.eclipse.ui.internal.progress.ProgressManager;
+import org.eclipse.ui.internal.progress.ProgressManager.JobMonitor;
 import org.eclipse.ui.internal.progress.TaskInfo;
 import org.eclipse.ui.progress.IProgressConstants;
 
@@ -70,6 +75,59 @@ public class ProgressViewTests extends ProgressTestCase {
 		}
 	}
 
+	public void testWorkedUpdatesAreThrottled() throws Exception {
+		openProgressView();
+		ProgressManager progressManager = ProgressManager.getInstance();
+		final int totalWork = 10000;
+		final CountDownLatch worked = new CountDownLatch(1);
+		final CountDownLatch checked = new CountDownLatch(1);
+		Job job = Job.create("Worked Job", monitor -> {
+			monitor.beginTask("Worked Job", totalWork);
+			for (int i = 0; i < totalWork; i++) {
+				monitor.worked(1);
+				if (i % 100 == 0) {
+					try {
+						Thread.sleep(1);
+					} catch (InterruptedException e) {
+						break;
+					}
+				}
+			}
+			worked.countDown();
+			try {
+				checked.await();
+			} catch (InterruptedException e) {
+				// finish the job
+			}
+			monitor.done();
+		});
+
+		long start = System.nanoTime();
+		job.schedule();
+		try {
+			while (!worked.await(10, TimeUnit.MILLISECONDS)) {
+				processEvents();
+			}
+			long elapsed = System.nanoTime() - start;
+			JobMonitor jobMonitor = progressManager.progressFor(job);
+
+			// Progress is published at most once per interval, plus once
+			// per UI refresh of the listeners, which happens less often.
+			long maxPublishCount = 2 * (elapsed / ProgressManager.PUBLISH_INTERVAL_NANOS) + 2;
+			assertTrue("Expected at most " + maxPublishCount + " publications, got "
+					+ jobMonitor.getPublishCount(), jobMonitor.getPublishCount() <= maxPublishCount);
+			assertTrue("Expected the progress reports to be coalesced", jobMonitor.getPublishCount() < totalWork / 10);
+
+			// The next refresh publishes the remaining work.
+			progressManager.notifyListeners();
+			assertEquals(100, jobMonitor.getJobInfo().getPercentDone());
+		} finally {
+			checked.countDown();
+		}
+		job.join();
+		processEvents();
+	}
+
 	protected boolean checkJob(Job job, boolean found, JobInfo jobInfo) {
 		if(job.equals(jobInfo.getJob())) {
 			if(found) {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008, 2017 IBM Corporation and others.
+ * Copyright (c) 2008, 2018 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -12,14 +12,26 @@
 
 package org.eclipse.ui.tests.quickaccess;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.e4.ui.model.application.ui.basic.MWindow;
 import org.eclipse.e4.ui.model.application.ui.menu.MToolControl;
 import org.eclipse.e4.ui.workbench.modeling.EModelService;
+import org.eclipse.jface.resource.ImageDescriptor;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.layout.GridLayout;
 import org.eclipse.swt.widgets.Shell;
 import org.eclipse.swt.widgets.Table;
 import org.eclipse.swt.widgets.Text;
 import org.eclipse.ui.handlers.IHandlerService;
 import org.eclipse.ui.internal.WorkbenchWindow;
+import org.eclipse.ui.internal.quickaccess.QuickAccessContents;
+import org.eclipse.ui.internal.quickaccess.QuickAccessElement;
+import org.eclipse.ui.internal.quickaccess.QuickAccessProvider;
 import org.eclipse.ui.internal.quickaccess.SearchField;
 import org.eclipse.ui.tests.harness.util.UITestCase;
 
@@ -29,6 +41,83 @@ import org.eclipse.ui.tests.harness.util.UITestCase;
  */
 public class QuickAccessDialogTest extends UITestCase {
 
+	/** A provider of elements with the given labels. */
+	private static class TestProvider extends QuickAccessProvider {
+		private final String id;
+		private final String[] labels;
+
+		TestProvider(String id, String... labels) {
+			this.id = id;
+			this.labels = labels;
+		}
+
+		@Override
+		public String getId() {
+			return id;
+		}
+
+		@Override
+		public String getName() {
+			return id;
+		}
+
+		@Override
+		public ImageDescriptor getImageDescriptor() {
+			return null;
+		}
+
+		@Override
+		public QuickAccessElement[] getElements() {
+			QuickAccessElement[] elements = new QuickAccessElement[labels.length];
+			for (int i = 0; i < labels.length; i++) {
+				elements[i] = new TestElement(this, labels[i]);
+			}
+			return elements;
+		}
+
+		@Override
+		public QuickAccessElement getElementForId(String elementId) {
+			for (QuickAccessElement element : getElements()) {
+				if (element.getId().equals(elementId)) {
+					return element;
+				}
+			}
+			return null;
+		}
+
+		@Override
+		protected void doReset() {
+		}
+	}
+
+	private static class TestElement extends QuickAccessElement {
+		private final String label;
+
+		TestElement(QuickAccessProvider provider, String label) {
+			super(provider);
+			this.label = label;
+		}
+
+		@Override
+		public String getLabel() {
+			return label;
+		}
+
+		@Override
+		public ImageDescriptor getImageDescriptor() {
+			return null;
+		}
+
+		@Override
+		public String getId() {
+			return label;
+		}
+
+		@Override
+		public void execute() {
+		}
+	}
+
 	private SearchField searchField;
 
 	// As defined in QuickAccessDialog and in SearchField
@@ -68,6 +157,29 @@ public class QuickAccessDialogTest extends UITestCase {
 		}
 	}
 
+	/**
+	 * Waits until the providers have been indexed, so that all of them are
+	 * matched.
+	 */
+	private void waitForIndex() throws InterruptedException {
+		Job indexJob = searchField.getQuickAccessIndexJob();
+		assertNotNull("Quick access should index its providers", indexJob);
+		indexJob.join();
+		// the index job refreshes the contents asynchronously
+		processEvents();
+	}
+
+	/**
+	 * Returns the labels of the elements in the table.
+	 */
+	private static List<String> getLabels(Table table) {
+		List<String> labels = new ArrayList<>();
+		for (int i = 0; i < table.getItemCount(); i++) {
+			labels.add(table.getItem(i).getText(1));
+		}
+		return labels;
+	}
+
 	/**
 	 * Tests that the shell opens when the command is activated
 	 * @throws Exception
@@ -96,7 +208,8 @@ public class QuickAccessDialogTest extends UITestCase {
 	/**
 	 * Test that changing the filter text works correctly
 	 */
-	public void testTextFilter(){
+	public void testTextFilter() throws Exception {
+		waitForIndex();
 		final Table table = searchField.getQuickAccessTable();
 		Text text = searchField.getQuickAccessSearchText();
 		assertTrue("Quick access filter should be empty", text.getText().isEmpty());
@@ -133,6 +246,7 @@ public class QuickAccessDialogTest extends UITestCase {
 		handlerService
 		.executeCommand("org.eclipse.ui.window.quickAccess", null); //$NON-NLS-1$
 		assertTrue("Quick access dialog should be visible now", shell.isVisible());
+		waitForIndex();
 		final Table table = searchField.getQuickAccessTable();
 		Text text = searchField.getQuickAccessSearchText();
 		assertTrue("Quick access filter should be empty", text.getText().isEmpty());
@@ -179,4 +293,78 @@ public class QuickAccessDialogTest extends UITestCase {
 		assertTrue("Show all should be turned off when the shell is closed and reopened", table.getItemCount() < newCount);
 	}
 
+	/**
+	 * Creates the contents of a quick access dialog for the given providers,
+	 * which doesn't match the providers in the given list.
+	 */
+	private static QuickAccessContents createContents(QuickAccessProvider[] providers,
+			final List<QuickAccessProvider> notReady) {
+		return new QuickAccessContents(providers) {
+			@Override
+			protected QuickAccessElement getPerfectMatch(String filter) {
+				return null;
+			}
+
+			@Override
+			protected void updateFeedback(boolean filterTextEmpty, boolean showAllMatches) {
+			}
+
+			@Override
+			protected void handleElementSelected(String filter, Object selectedElement) {
+			}
+
+			@Override
+			protected void doClose() {
+			}
+
+			@Override
+			protected boolean isProviderReady(QuickAccessProvider provider) {
+				return !notReady.contains(provider);
+			}
+		};
+	}
+
+	/**
+	 * Shows all the matches of the filter in a new shell and returns their
+	 * labels.
+	 */
+	private List<String> getAllMatches(QuickAccessContents contents, String filter) {
+		Shell shell = new Shell(getWorkbench().getActiveWorkbenchWindow().getShell());
+		try {
+			shell.setLayout(new GridLayout());
+			Text text = new Text(shell, SWT.NONE);
+			contents.hookFilterText(text);
+			Table table = contents.createTable(shell, SWT.LEFT_TO_RIGHT);
+			text.setText(filter);
+			contents.setShowAllMatches(true);
+			return getLabels(table);
+		} finally {
+			shell.dispose();
+		}
+	}
+
+	/**
+	 * Tests that better matches are listed first, and that matches of the same
+	 * quality stay sorted by label
+	 */
+	public void testMatchQualityOrder() {
+		QuickAccessProvider provider = new TestProvider("Test", "Bfoo", "Foo Bar", "Afoo", "Foo");
+		QuickAccessContents contents = createContents(new QuickAccessProvider[] { provider },
+				Collections.emptyList());
+		// perfect, excellent, then good matches in alphabetical order
+		assertEquals(Arrays.asList("Foo", "Foo Bar", "Afoo", "Bfoo"), getAllMatches(contents, "foo"));
+	}
+
+	/**
+	 * Tests that the elements of a provider which is not ready are not matched
+	 */
+	public void testProviderNotReady() {
+		QuickAccessProvider ready = new TestProvider("Ready", "Foo");
+		QuickAccessProvider notReady = new TestProvider("Indexing", "Foo Bar");
+		QuickAccessContents contents = createContents(new QuickAccessProvider[] { ready, notReady },
+				Collections.singletonList(notReady));
+		assertEquals(Arrays.asList("Foo"), getAllMatches(contents, "foo"));
+		assertFalse("The elements should not be computed", notReady.hasElementsSorted());
+	}
+
 }